@@ -7,4 +7,10 @@ import java.lang.annotation.*;
 public @interface RateLimited {
     int limit() default 10;         
     int durationSeconds() default 60; 
+
+    /** Fichas consumidas por chamada (endpoints caros consomem mais da cota) */
+    int cost() default 1;
+
+    /** Nome de uma cota compartilhada entre endpoints; vazio = cota própria da rota */
+    String quota() default "";
 }
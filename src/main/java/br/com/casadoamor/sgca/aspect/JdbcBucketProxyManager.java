@@ -0,0 +1,138 @@
+package br.com.casadoamor.sgca.aspect;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.distributed.proxy.ClientSideConfig;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AbstractCompareAndSwapBasedProxyManager;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.AsyncCompareAndSwapOperation;
+import io.github.bucket4j.distributed.proxy.generic.compare_and_swap.CompareAndSwapOperation;
+import io.github.bucket4j.distributed.remote.RemoteBucketState;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ProxyManager do bucket4j sobre a tabela rate_limit_buckets, com compare-and-swap
+ * pela coluna versao (UPDATE ... WHERE versao = ?).
+ *
+ * O último estado lido/gravado por esta instância fica em cache local: no caso comum
+ * (o mesmo cliente atendido pela mesma instância) a requisição faz só o UPDATE, uma
+ * ida ao banco. Se outra instância alterou o bucket, o UPDATE não afeta linhas,
+ * o cache é descartado e a operação relê o estado e tenta de novo.
+ */
+public class JdbcBucketProxyManager extends AbstractCompareAndSwapBasedProxyManager<String> {
+
+    static final String SQL_SELECT = "SELECT estado, versao FROM rate_limit_buckets WHERE id = ?";
+    static final String SQL_INSERT = "INSERT INTO rate_limit_buckets (id, estado, versao, atualizado_em) VALUES (?, ?, 1, ?)";
+    static final String SQL_UPDATE = "UPDATE rate_limit_buckets SET estado = ?, versao = versao + 1, atualizado_em = ? "
+            + "WHERE id = ? AND versao = ?";
+    static final String SQL_DELETE = "DELETE FROM rate_limit_buckets WHERE id = ?";
+    static final String SQL_DELETE_OCIOSOS = "DELETE FROM rate_limit_buckets WHERE atualizado_em < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, EstadoArmazenado> estados;
+
+    public JdbcBucketProxyManager(JdbcTemplate jdbcTemplate, long maxEstadosEmCache, Duration validadeCache) {
+        super(ClientSideConfig.getDefault());
+        this.jdbcTemplate = jdbcTemplate;
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(maxEstadosEmCache)
+                .expireAfterWrite(validadeCache)
+                .build();
+    }
+
+    /**
+     * Remove buckets sem uso desde o instante informado
+     *
+     * @return quantidade de buckets removidos
+     */
+    public int removerOciosos(LocalDateTime antesDe) {
+        return jdbcTemplate.update(SQL_DELETE_OCIOSOS, antesDe);
+    }
+
+    @Override
+    protected CompareAndSwapOperation beginCompareAndSwapOperation(String id) {
+        return new OperacaoJdbc(id);
+    }
+
+    @Override
+    protected AsyncCompareAndSwapOperation beginAsyncCompareAndSwapOperation(String id) {
+        throw new UnsupportedOperationException("Modo assíncrono não suportado pelo backend JDBC");
+    }
+
+    @Override
+    protected CompletableFuture<Void> removeAsync(String id) {
+        throw new UnsupportedOperationException("Modo assíncrono não suportado pelo backend JDBC");
+    }
+
+    @Override
+    public void removeProxy(String id) {
+        estados.invalidate(id);
+        jdbcTemplate.update(SQL_DELETE, id);
+    }
+
+    @Override
+    public boolean isAsyncModeSupported() {
+        return false;
+    }
+
+    private record EstadoArmazenado(byte[] dados, long versao) {
+    }
+
+    /**
+     * Uma operação por requisição; o bucket4j repete getStateData/compareAndSwap
+     * na mesma operação até o compare-and-swap ter sucesso
+     */
+    private final class OperacaoJdbc implements CompareAndSwapOperation {
+
+        private final String id;
+        private boolean usarCache = true;
+        private EstadoArmazenado lido;
+
+        OperacaoJdbc(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public Optional<byte[]> getStateData() {
+            lido = usarCache ? estados.getIfPresent(id) : null;
+            if (lido == null) {
+                lido = jdbcTemplate.query(SQL_SELECT,
+                        rs -> rs.next() ? new EstadoArmazenado(rs.getBytes(1), rs.getLong(2)) : null, id);
+            }
+            return Optional.ofNullable(lido).map(EstadoArmazenado::dados);
+        }
+
+        @Override
+        public boolean compareAndSwap(byte[] originalData, byte[] newData, RemoteBucketState newState) {
+            LocalDateTime agora = LocalDateTime.now();
+            boolean gravado;
+            long novaVersao;
+            if (lido == null) {
+                try {
+                    gravado = jdbcTemplate.update(SQL_INSERT, id, newData, agora) == 1;
+                } catch (DuplicateKeyException e) {
+                    // Outra instância criou o bucket primeiro
+                    gravado = false;
+                }
+                novaVersao = 1;
+            } else {
+                gravado = jdbcTemplate.update(SQL_UPDATE, newData, agora, id, lido.versao()) == 1;
+                novaVersao = lido.versao() + 1;
+            }
+
+            if (gravado) {
+                estados.put(id, new EstadoArmazenado(newData, novaVersao));
+            } else {
+                // Estado em cache desatualizado: a próxima tentativa relê do banco
+                estados.invalidate(id);
+                usarCache = false;
+            }
+            return gravado;
+        }
+    }
+}
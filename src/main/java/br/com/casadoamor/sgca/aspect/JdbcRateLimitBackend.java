@@ -0,0 +1,87 @@
+package br.com.casadoamor.sgca.aspect;
+
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import br.com.casadoamor.sgca.util.TokenHashUtil;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Buckets compartilhados entre instâncias via banco (tabela rate_limit_buckets).
+ *
+ * Se o banco ficar inacessível, passa a limitar com os buckets locais por um
+ * intervalo antes de tentar o banco de novo: o limite deixa de ser global
+ * temporariamente, mas as requisições não falham por causa do rate limit.
+ */
+@Slf4j
+public class JdbcRateLimitBackend implements RateLimitBackend {
+
+    private final JdbcBucketProxyManager proxyManager;
+    private final LocalRateLimitBackend fallback;
+    private final long intervaloNovaTentativaNanos;
+    private final Duration ociosidadeMaxima;
+    private final Counter usosFallback;
+
+    private volatile boolean indisponivel = false;
+    private volatile long indisponivelAte;
+
+    public JdbcRateLimitBackend(JdbcBucketProxyManager proxyManager,
+                                LocalRateLimitBackend fallback,
+                                MeterRegistry meterRegistry,
+                                Duration intervaloNovaTentativa,
+                                Duration ociosidadeMaxima) {
+        this.proxyManager = proxyManager;
+        this.fallback = fallback;
+        this.intervaloNovaTentativaNanos = intervaloNovaTentativa.toNanos();
+        this.ociosidadeMaxima = ociosidadeMaxima;
+        this.usosFallback = Counter.builder("rate.limit.store.fallback")
+                .description("Requisições limitadas pelos buckets locais por indisponibilidade do banco")
+                .register(meterRegistry);
+        Gauge.builder("rate.limit.store.available", this, b -> b.isBancoDisponivel() ? 1 : 0)
+                .description("Indica se o rate limit está usando o armazenamento compartilhado")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ConsumptionProbe consumir(String chave, LimiteRota limite, long fichas) {
+        if (!isBancoDisponivel()) {
+            usosFallback.increment();
+            return fallback.consumir(chave, limite, fichas);
+        }
+        try {
+            return proxyManager.builder()
+                    .build(TokenHashUtil.sha256Hex(chave), limite.configuracao())
+                    .tryConsumeAndReturnRemaining(fichas);
+        } catch (RuntimeException e) {
+            indisponivelAte = System.nanoTime() + intervaloNovaTentativaNanos;
+            indisponivel = true;
+            log.error("Armazenamento de rate limit indisponível, usando buckets locais: {}", e.getMessage());
+            usosFallback.increment();
+            return fallback.consumir(chave, limite, fichas);
+        }
+    }
+
+    public boolean isBancoDisponivel() {
+        return !indisponivel || System.nanoTime() - indisponivelAte >= 0;
+    }
+
+    /**
+     * Remove do banco os buckets ociosos (já estariam cheios de novo)
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.jdbc.cleanup-interval-ms:600000}",
+               initialDelayString = "${rate-limit.jdbc.cleanup-interval-ms:600000}")
+    public void removerOciosos() {
+        try {
+            int removidos = proxyManager.removerOciosos(LocalDateTime.now().minus(ociosidadeMaxima));
+            log.debug("{} buckets de rate limit ociosos removidos", removidos);
+        } catch (Exception e) {
+            log.error("Erro ao remover buckets de rate limit ociosos: {}", e.getMessage());
+        }
+    }
+}
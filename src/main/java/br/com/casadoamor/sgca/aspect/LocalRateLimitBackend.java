@@ -0,0 +1,71 @@
+package br.com.casadoamor.sgca.aspect;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Buckets em memória da própria instância.
+ *
+ * Os buckets ficam em um cache limitado por tamanho e cada um expira após ficar
+ * ocioso por uma janela completa (quando já estaria cheio de novo, então a remoção
+ * não altera o limite). Também é o fallback do backend JDBC.
+ */
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+    private final Cache<String, EntradaBucket> buckets;
+
+    public LocalRateLimitBackend(MeterRegistry meterRegistry, long maxBuckets) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfter(new ExpiracaoPorJanela())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate.limit.buckets");
+    }
+
+    @Override
+    public ConsumptionProbe consumir(String chave, LimiteRota limite, long fichas) {
+        return buckets.get(chave, k -> novaEntrada(limite)).bucket().tryConsumeAndReturnRemaining(fichas);
+    }
+
+    /**
+     * Quantidade aproximada de buckets vivos no cache
+     */
+    public long quantidadeBuckets() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private static EntradaBucket novaEntrada(LimiteRota limite) {
+        return new EntradaBucket(Bucket.builder().addLimit(limite.bandwidth()).build(), limite.janela().toNanos());
+    }
+
+    private record EntradaBucket(Bucket bucket, long janelaNanos) {
+    }
+
+    /**
+     * Expira cada bucket após uma janela sem acesso
+     */
+    private static final class ExpiracaoPorJanela implements Expiry<String, EntradaBucket> {
+
+        @Override
+        public long expireAfterCreate(String key, EntradaBucket entrada, long currentTime) {
+            return entrada.janelaNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, EntradaBucket entrada, long currentTime, long currentDuration) {
+            return entrada.janelaNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, EntradaBucket entrada, long currentTime, long currentDuration) {
+            return entrada.janelaNanos();
+        }
+    }
+}
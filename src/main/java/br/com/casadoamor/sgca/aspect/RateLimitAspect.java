@@ -1,53 +1,143 @@
 package br.com.casadoamor.sgca.aspect;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.HandlerMapping;
 
 import br.com.casadoamor.sgca.annotation.RateLimited;
+import br.com.casadoamor.sgca.aspect.RateLimitBackend.LimiteRota;
 import br.com.casadoamor.sgca.config.exception.RateLimitExceededException;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
 
-import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Cota de requisições para métodos anotados com {@link RateLimited}.
+ *
+ * A cota é do usuário autenticado (CPF) ou, para requisições anônimas, do IP; a
+ * capacidade é o limite da anotação multiplicado pelo tier do tipo de usuário e cada
+ * chamada consome o custo declarado no endpoint. A chave usa o padrão da rota
+ * (ex.: /admin/users/{id}) ou o nome da cota compartilhada, nunca a URI crua.
+ * As respostas trazem os headers RateLimit-Limit, RateLimit-Remaining e RateLimit-Reset.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class RateLimitAspect {
 
+    public static final String HEADER_LIMIT = "RateLimit-Limit";
+    public static final String HEADER_REMAINING = "RateLimit-Remaining";
+    public static final String HEADER_RESET = "RateLimit-Reset";
+
     private final HttpServletRequest request;
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final HttpServletResponse response;
+    private final RateLimitBackend backend;
+    private final RateLimitTiers tiers;
+    private final Map<ChaveLimite, LimiteRota> limites = new ConcurrentHashMap<>();
 
     @Around("@annotation(rateLimited)")
     public Object rateLimit(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
-        String key = getClientKey();
+        Authentication autenticacao = getAutenticacao();
+        TipoUsuario tipo = autenticacao != null ? getTipo(autenticacao) : null;
+
+        LimiteRota limite = limites.computeIfAbsent(new ChaveLimite(rateLimited, tipo),
+                c -> LimiteRota.de(rateLimited, tiers.multiplicador(tipo)));
+        String key = getClientKey(joinPoint, rateLimited, autenticacao, limite);
+        long custo = Math.min(Math.max(1, rateLimited.cost()), limite.capacidade());
 
-        Bucket bucket = buckets.computeIfAbsent(key, k -> createBucket(rateLimited));
+        ConsumptionProbe probe = backend.consumir(key, limite, custo);
+        escreverHeaders(limite, probe);
 
-        if (bucket.tryConsume(1)) {
+        if (probe.isConsumed()) {
             return joinPoint.proceed();
         }
 
-        throw new RateLimitExceededException("Too many requests - try again later");
+        throw new RateLimitExceededException("Too many requests - try again later",
+                emSegundos(probe.getNanosToWaitForRefill()));
+    }
+
+    private String getClientKey(ProceedingJoinPoint joinPoint, RateLimited rateLimited,
+                                Authentication autenticacao, LimiteRota limite) {
+        String cliente = autenticacao != null
+                ? "cpf:" + autenticacao.getName()
+                : "ip:" + request.getRemoteAddr();
+        String escopo = StringUtils.hasText(rateLimited.quota())
+                ? "quota:" + rateLimited.quota()
+                : getRota(joinPoint);
+        return cliente + ":" + escopo + ":" + limite.id();
+    }
+
+    /**
+     * Padrão da rota resolvido pelo Spring MVC; sem ele, a assinatura do método
+     * (ainda limitada), e só em último caso a URI da requisição
+     */
+    private String getRota(ProceedingJoinPoint joinPoint) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (padrao instanceof String rota) {
+            return rota;
+        }
+        if (joinPoint.getSignature() != null) {
+            return joinPoint.getSignature().toShortString();
+        }
+        return request.getRequestURI();
+    }
+
+    private static Authentication getAutenticacao() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao == null || !autenticacao.isAuthenticated()
+                || autenticacao instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return autenticacao;
+    }
+
+    /**
+     * Tipo do usuário a partir da authority ROLE_&lt;TIPO&gt;
+     */
+    private static TipoUsuario getTipo(Authentication autenticacao) {
+        for (GrantedAuthority authority : autenticacao.getAuthorities()) {
+            String nome = authority.getAuthority();
+            if (nome != null && nome.startsWith("ROLE_")) {
+                try {
+                    return TipoUsuario.valueOf(nome.substring("ROLE_".length()));
+                } catch (IllegalArgumentException e) {
+                    // Role que não corresponde a um tipo de usuário
+                }
+            }
+        }
+        return null;
+    }
+
+    private void escreverHeaders(LimiteRota limite, ConsumptionProbe probe) {
+        if (response == null) {
+            return;
+        }
+        response.setHeader(HEADER_LIMIT, String.valueOf(limite.capacidade()));
+        response.setHeader(HEADER_REMAINING, String.valueOf(probe.getRemainingTokens()));
+        response.setHeader(HEADER_RESET, String.valueOf(emSegundos(probe.getNanosToWaitForReset())));
     }
 
-    private String getClientKey() {
-        return request.getRemoteAddr() + ":" + request.getRequestURI();
+    private static long emSegundos(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
     }
 
-    private Bucket createBucket(RateLimited rateLimited) {
-        Bandwidth limit = Bandwidth.classic(
-                rateLimited.limit(),
-                Refill.greedy(rateLimited.limit(), Duration.ofSeconds(rateLimited.durationSeconds()))
-        );
-        return Bucket.builder().addLimit(limit).build();
+    /**
+     * Limite resolvido por anotação e tipo de usuário (null = anônimo)
+     */
+    private record ChaveLimite(RateLimited rateLimited, TipoUsuario tipo) {
     }
 
     public static class RateLimitException extends RuntimeException {
@@ -0,0 +1,47 @@
+package br.com.casadoamor.sgca.aspect;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+
+import br.com.casadoamor.sgca.annotation.RateLimited;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento dos buckets usados por {@link RateLimitAspect}.
+ *
+ * A implementação local mantém os buckets na própria JVM; a implementação JDBC
+ * compartilha o estado entre instâncias (limite global atrás do load balancer).
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Tenta consumir fichas do bucket da chave, criando-o com o limite informado se necessário
+     *
+     * @return resultado do consumo com fichas restantes e tempos de espera
+     */
+    ConsumptionProbe consumir(String chave, LimiteRota limite, long fichas);
+
+    /**
+     * Capacidade e janela de uma anotação {@link RateLimited} para um tier, resolvidas uma única vez
+     */
+    record LimiteRota(String id, long capacidade, Bandwidth bandwidth, BucketConfiguration configuracao, Duration janela) {
+
+        public static LimiteRota de(RateLimited rateLimited) {
+            return de(rateLimited, 1.0);
+        }
+
+        public static LimiteRota de(RateLimited rateLimited, double multiplicador) {
+            long capacidade = Math.max(1, Math.round(rateLimited.limit() * multiplicador));
+            Duration janela = Duration.ofSeconds(rateLimited.durationSeconds());
+            Bandwidth bandwidth = Bandwidth.classic(
+                    capacidade,
+                    Refill.greedy(capacidade, janela)
+            );
+            BucketConfiguration configuracao = BucketConfiguration.builder().addLimit(bandwidth).build();
+            return new LimiteRota(capacidade + "/" + rateLimited.durationSeconds(), capacidade, bandwidth, configuracao, janela);
+        }
+    }
+}
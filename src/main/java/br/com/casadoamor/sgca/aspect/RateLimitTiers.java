@@ -0,0 +1,37 @@
+package br.com.casadoamor.sgca.aspect;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+
+/**
+ * Multiplicadores do limite de @RateLimited por tipo de usuário
+ * (rate-limit.tier.&lt;TIPO&gt;; padrão 1.0). Requisições anônimas usam
+ * rate-limit.tier.ANONIMO.
+ */
+@Component
+public class RateLimitTiers {
+
+    public static final String ANONIMO = "ANONIMO";
+
+    private final Map<TipoUsuario, Double> multiplicadores = new EnumMap<>(TipoUsuario.class);
+    private final double multiplicadorAnonimo;
+
+    public RateLimitTiers(Environment environment) {
+        for (TipoUsuario tipo : TipoUsuario.values()) {
+            multiplicadores.put(tipo, environment.getProperty("rate-limit.tier." + tipo.name(), Double.class, 1.0));
+        }
+        this.multiplicadorAnonimo = environment.getProperty("rate-limit.tier." + ANONIMO, Double.class, 1.0);
+    }
+
+    /**
+     * Multiplicador do tipo de usuário (null = requisição anônima)
+     */
+    public double multiplicador(TipoUsuario tipo) {
+        return tipo != null ? multiplicadores.get(tipo) : multiplicadorAnonimo;
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.casadoamor.sgca.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.casadoamor.sgca.aspect.JdbcBucketProxyManager;
+import br.com.casadoamor.sgca.aspect.JdbcRateLimitBackend;
+import br.com.casadoamor.sgca.aspect.LocalRateLimitBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Escolha do armazenamento dos buckets de @RateLimited (rate-limit.backend):
+ * local (padrão, por instância) ou jdbc (compartilhado entre instâncias, com
+ * fallback local se o banco estiver inacessível)
+ */
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    public LocalRateLimitBackend localRateLimitBackend(MeterRegistry meterRegistry,
+                                                       @Value("${rate-limit.max-buckets:100000}") long maxBuckets) {
+        return new LocalRateLimitBackend(meterRegistry, maxBuckets);
+    }
+
+    /**
+     * Substitui o backend local no RateLimitAspect quando rate-limit.backend=jdbc
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "rate-limit.backend", havingValue = "jdbc")
+    public JdbcRateLimitBackend jdbcRateLimitBackend(JdbcTemplate jdbcTemplate,
+                                                     LocalRateLimitBackend localRateLimitBackend,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${rate-limit.max-buckets:100000}") long maxBuckets,
+                                                     @Value("${rate-limit.jdbc.state-cache-seconds:60}") long validadeCacheSegundos,
+                                                     @Value("${rate-limit.jdbc.retry-after-ms:30000}") long novaTentativaMs,
+                                                     @Value("${rate-limit.jdbc.idle-minutes:60}") long ociosidadeMinutos) {
+        JdbcBucketProxyManager proxyManager = new JdbcBucketProxyManager(jdbcTemplate, maxBuckets,
+                Duration.ofSeconds(validadeCacheSegundos));
+        return new JdbcRateLimitBackend(proxyManager, localRateLimitBackend, meterRegistry,
+                Duration.ofMillis(novaTentativaMs), Duration.ofMinutes(ociosidadeMinutos));
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.casadoamor.sgca.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tarefas agendadas (@Scheduled), como a reconciliação da denylist de tokens
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,8 +3,10 @@ package br.com.casadoamor.sgca.config;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -21,8 +23,12 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import br.com.casadoamor.sgca.aspect.RateLimitAspect;
+import br.com.casadoamor.sgca.security.BoundedPasswordEncoder;
 import br.com.casadoamor.sgca.security.JwtAuthenticationFilter;
+import br.com.casadoamor.sgca.security.JwtPermissionClaims;
 import br.com.casadoamor.sgca.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSecurity
@@ -33,10 +39,17 @@ public class SecurityConfig {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-cost:12}") int custo,
+                                           @Value("${security.password.hash-threads:0}") int threads,
+                                           @Value("${security.password.hash-queue-capacity:100}") int capacidadeFila,
+                                           @Value("${security.password.hash-timeout-ms:10000}") long timeoutMs) {
         // BCrypt com força 12 (recomendado para dados sensíveis de saúde)
         // Força 10 = padrão, 12 = mais seguro para healthcare
-        return new BCryptPasswordEncoder(12);
+        // Hash executado em executor dedicado (0 threads = número de processadores)
+        int threadsHash = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(custo), meterRegistry,
+                threadsHash, capacidadeFila, timeoutMs);
     }
 
     /**
@@ -44,13 +57,17 @@ public class SecurityConfig {
      * Usa constructor injection (Spring Security 6.x best practice)
      * 
      * @param userDetailsService - serviço customizado para carregar usuários
+     * @param passwordEncoder - encoder BCrypt com executor dedicado
      * @return DaoAuthenticationProvider configurado
      */
     @Bean
-    public AuthenticationProvider authenticationProvider(UserDetailsServiceImpl userDetailsService) {
+    public AuthenticationProvider authenticationProvider(UserDetailsServiceImpl userDetailsService,
+                                                         PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Regrava o hash com o custo configurado quando o login é bem-sucedido
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -120,6 +137,9 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of(JwtPermissionClaims.HEADER_RENOVAR_TOKEN,
+                RateLimitAspect.HEADER_LIMIT, RateLimitAspect.HEADER_REMAINING, RateLimitAspect.HEADER_RESET,
+                HttpHeaders.RETRY_AFTER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
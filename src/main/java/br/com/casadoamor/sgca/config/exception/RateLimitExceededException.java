@@ -3,11 +3,23 @@ package br.com.casadoamor.sgca.config.exception;
 import org.springframework.http.HttpStatus;
 
 public class RateLimitExceededException extends RuntimeException {
+  private final long retryAfterSeconds;
+
   public RateLimitExceededException(String message) {
+    this(message, 0);
+  }
+
+  public RateLimitExceededException(String message, long retryAfterSeconds) {
     super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
   }
 
   public HttpStatus getHttpStatus() {
     return HttpStatus.TOO_MANY_REQUESTS;
   }
+
+  /** Segundos até haver fichas suficientes (0 = desconhecido) */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
 }
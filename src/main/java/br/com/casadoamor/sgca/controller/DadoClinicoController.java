@@ -1,5 +1,6 @@
 package br.com.casadoamor.sgca.controller;
 
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoInputDTO;
 import br.com.casadoamor.sgca.service.DadoClinicoService;
@@ -58,6 +59,19 @@ public class DadoClinicoController {
     return ResponseEntity.ok(dadosClinicos);
   }
 
+  @GetMapping("/cursor")
+  @PreAuthorize("hasAuthority('DADOS_CLINICOS_VER') or hasRole('ADMINISTRADOR') or hasRole('COORDENADOR') or hasRole('PROFISSIONAL_SAUDE') or hasRole('VOLUNTARIO')")
+  @Operation(summary = "Listar histórico de dados clínicos por cursor",
+      description = "Retorna uma página do histórico do paciente, do mais recente ao mais antigo. " +
+          "Use o endCursor em after para a próxima página e o startCursor em before para a anterior.")
+  public ResponseEntity<PaginatedResponseDTO<DadoClinicoDTO>> listarDadosClinicosPorCursor(
+      @PathVariable String pacienteId,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) String before) {
+    return ResponseEntity.ok(dadoClinicoService.buscarDadosClinicosPorCursor(pacienteId, limit, after, before));
+  }
+
   @GetMapping("/atual")
   @PreAuthorize("hasAuthority('DADOS_CLINICOS_VER') or hasRole('ADMINISTRADOR') or hasRole('COORDENADOR') or hasRole('PROFISSIONAL_SAUDE') or hasRole('VOLUNTARIO')")
   @Operation(summary = "Buscar dados clínicos atuais",
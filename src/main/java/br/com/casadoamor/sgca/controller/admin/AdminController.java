@@ -30,6 +30,7 @@ import br.com.casadoamor.sgca.dto.admin.user.CreateUserDTO;
 import br.com.casadoamor.sgca.dto.admin.user.UpdateUserDTO;
 import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
 import br.com.casadoamor.sgca.dto.common.MessageResponseDTO;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.service.admin.PerfilService;
 import br.com.casadoamor.sgca.service.admin.PermissaoService;
 import br.com.casadoamor.sgca.service.admin.UserManagementService;
@@ -108,6 +109,26 @@ public class AdminController {
         return ResponseEntity.ok(usuarios);
     }
 
+    /**
+     * Lista usuários por cursor (keyset)
+     * GET /admin/users/cursor
+     */
+    @GetMapping("/users/cursor")
+    @PreAuthorize("hasAuthority('USUARIOS_VER') or hasRole('ADMINISTRADOR')")
+    @Operation(summary = "Listar usuários por cursor", description = "Lista usuários paginando por cursor: envie o endCursor em after (próxima página) ou o startCursor em before (página anterior)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista retornada"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado - requer permissão USUARIOS_VER")
+    })
+    public ResponseEntity<PaginatedResponseDTO<UserResponseDTO>> listarUsuariosPorCursor(
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String searchText,
+            @org.springframework.web.bind.annotation.RequestParam(defaultValue = "10") int limit,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String after,
+            @org.springframework.web.bind.annotation.RequestParam(required = false) String before) {
+        return ResponseEntity.ok(userManagementService.listarUsuariosPorCursor(searchText, limit, after, before));
+    }
+
     /**
      * Busca usuário por ID
      * GET /admin/users/{id}
@@ -16,11 +16,15 @@ import br.com.casadoamor.sgca.dto.SessaoDTO;
 import br.com.casadoamor.sgca.dto.admin.auditoria.AuditoriaPerfilDTO;
 import br.com.casadoamor.sgca.dto.admin.auditoria.AuditoriaUsuarioDTO;
 import br.com.casadoamor.sgca.dto.admin.auditoria.TentativaLoginDTO;
+import br.com.casadoamor.sgca.dto.admin.sessao.RevogacaoSessoesResponseDTO;
+import br.com.casadoamor.sgca.dto.admin.sessao.RevogarSessoesEmLoteDTO;
 import br.com.casadoamor.sgca.dto.common.MessageResponseDTO;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
 import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
 import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository;
 import br.com.casadoamor.sgca.service.admin.AuditoriaAdminService;
+import br.com.casadoamor.sgca.service.admin.AuditoriaService;
 import br.com.casadoamor.sgca.service.admin.SessaoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -44,6 +48,7 @@ public class AuditController {
 	private final TentativaLoginRepository tentativaLoginRepository;
 	private final SessaoUsuarioRepository sessaoRepository;
 	private final AuditoriaAdminService auditoriaAdminService;
+	private final AuditoriaService auditoriaService;
 	private final SessaoService sessaoService;
 
 	/**
@@ -84,33 +89,7 @@ public class AuditController {
 
 		// Converter para DTO com informações do usuário
 		List<TentativaLoginDTO> tentativasDTO = tentativas.stream()
-				.map(t -> {
-					TentativaLoginDTO.TentativaLoginDTOBuilder builder = TentativaLoginDTO.builder()
-							.id(t.getId())
-							.cpf(t.getCpf())
-							.ipOrigem(t.getIpOrigem())
-							.userAgent(t.getUserAgent())
-							.dataTentativa(t.getDataTentativa())
-							.sucesso(t.getSucesso())
-							.motivoFalha(t.getMotivoFalha())
-							.bloqueado(t.getBloqueado());
-
-					// Incluir dados do usuário se existir
-					if (t.getUsuario() != null) {
-						var usuario = t.getUsuario();
-						builder.usuario(TentativaLoginDTO.UsuarioTentativaDTO.builder()
-								.id(usuario.getId())
-								.nome(usuario.getNome())
-								.email(usuario.getEmail())
-								.tipo(usuario.getTipo().name())
-								.ativo(usuario.getAtivo())
-								.bloqueado(usuario.getLockedUntil() != null
-										&& usuario.getLockedUntil().isAfter(LocalDateTime.now()))
-								.build());
-					}
-
-					return builder.build();
-				})
+				.map(AuditoriaService::toDTO)
 				.toList();
 
 		// Estatísticas
@@ -121,6 +100,27 @@ public class AuditController {
 		return ResponseEntity.ok(new RelatorioLoginsResponse(total, sucessos, falhas, tentativasDTO));
 	}
 
+	/**
+	 * Tentativas de login paginadas por cursor (keyset), mais recentes primeiro
+	 * GET /admin/audit/logins/cursor
+	 */
+	@GetMapping("/logins/cursor")
+	@PreAuthorize("hasAnyRole('ADMINISTRADOR', 'AUDITOR')")
+	@Operation(summary = "Tentativas de login por cursor", description = "Lista tentativas de login da mais recente para a mais antiga, paginando por cursor (after/before)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Página retornada"),
+			@ApiResponse(responseCode = "400", description = "Cursor inválido"),
+			@ApiResponse(responseCode = "403", description = "Acesso negado - requer ADMIN ou AUDITOR")
+	})
+	public ResponseEntity<PaginatedResponseDTO<TentativaLoginDTO>> tentativasPorCursor(
+			@RequestParam(required = false) Boolean sucesso,
+			@RequestParam(required = false) String cpf,
+			@RequestParam(defaultValue = "50") int limit,
+			@RequestParam(required = false) String after,
+			@RequestParam(required = false) String before) {
+		return ResponseEntity.ok(auditoriaService.listarTentativas(sucesso, cpf, limit, after, before));
+	}
+
 	/**
 	 * Relatório de sessões ativas
 	 * GET /admin/audit/sessions
@@ -245,12 +245,7 @@ public class AuditController {
 			@ApiResponse(responseCode = "404", description = "Sessão não encontrada")
 	})
 	public ResponseEntity<?> revogarSessaoAdmin(@org.springframework.web.bind.annotation.PathVariable Long id) {
-		var sessao = sessaoRepository.findById(id)
-				.orElseThrow(() -> new br.com.casadoamor.sgca.exception.ResourceNotFoundException(
-						"Sessão não encontrada"));
-
-		sessao.revogar();
-		sessaoRepository.save(sessao);
+		sessaoService.revogarSessao(id);
 
 		return ResponseEntity.ok(MessageResponseDTO.success(
 				"Sessão revogada com sucesso. Usuário será deslogado na próxima requisição."));
@@ -270,9 +265,29 @@ public class AuditController {
 	})
 	public ResponseEntity<?> revogarTodasSessoesUsuario(
 			@org.springframework.web.bind.annotation.PathVariable Long userId) {
-		sessaoService.revogarTodasSessoes(userId);
+		int revogadas = sessaoService.revogarTodasSessoes(userId);
 
-		return ResponseEntity.ok(MessageResponseDTO.success(
-				"Todas as sessões do usuário foram revogadas. Force logout realizado."));
+		return ResponseEntity.ok(RevogacaoSessoesResponseDTO.success(
+				"Todas as sessões do usuário foram revogadas. Force logout realizado.", revogadas));
+	}
+
+	/**
+	 * Revogar sessões em lote: vários usuários e/ou todos os usuários de um perfil (Admin only)
+	 * POST /admin/audit/sessions/revogar-lote
+	 */
+	@org.springframework.web.bind.annotation.PostMapping("/sessions/revogar-lote")
+	@PreAuthorize("hasRole('ADMINISTRADOR')")
+	@Operation(summary = "Revogar sessões em lote (Admin)", description = "Revoga todas as sessões de vários usuários e/ou de todos os usuários de um perfil, em uma única operação")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Sessões revogadas - retorna a quantidade afetada"),
+			@ApiResponse(responseCode = "400", description = "Nenhum usuário ou perfil informado"),
+			@ApiResponse(responseCode = "403", description = "Acesso negado - requer ADMINISTRADOR")
+	})
+	public ResponseEntity<?> revogarSessoesEmLote(
+			@org.springframework.web.bind.annotation.RequestBody RevogarSessoesEmLoteDTO request) {
+		int revogadas = sessaoService.revogarEmLote(request);
+
+		return ResponseEntity.ok(RevogacaoSessoesResponseDTO.success(
+				"Sessões revogadas em lote. Usuários serão deslogados na próxima requisição.", revogadas));
 	}
 }
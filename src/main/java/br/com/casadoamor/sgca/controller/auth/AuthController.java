@@ -15,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.casadoamor.sgca.annotation.RateLimited;
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.dto.SessaoDTO;
 import br.com.casadoamor.sgca.dto.auth.request.ActivateAccountRequestDTO;
 import br.com.casadoamor.sgca.dto.auth.request.ChangePasswordRequestDTO;
@@ -87,12 +89,16 @@ public class AuthController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login realizado com sucesso"),
             @ApiResponse(responseCode = "401", description = "Credenciais inválidas"),
-            @ApiResponse(responseCode = "403", description = "Conta bloqueada ou inativa")
+            @ApiResponse(responseCode = "403", description = "Conta bloqueada ou inativa"),
+            @ApiResponse(responseCode = "503", description = "Serviço de autenticação sobrecarregado")
     })
     public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO request, HttpServletRequest httpRequest) {
         try {
             AuthResponseDTO response = authService.login(request, httpRequest);
             return ResponseEntity.ok(response);
+        } catch (CustomError e) {
+            return ResponseEntity.status(e.getHttpStatus())
+                    .body(new ErrorResponse(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse(e.getMessage()));
@@ -107,6 +113,7 @@ public class AuthController {
      * GET /auth/me
      */
     @GetMapping("/me")
+    @RateLimited(limit = 300, durationSeconds = 60, quota = "api")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "Obter perfil do usuário", description = "Retorna os dados do usuário autenticado pelo token JWT")
     @ApiResponses(value = {
@@ -125,6 +132,31 @@ public class AuthController {
         }
     }
 
+    /**
+     * Endpoint para renovar o token JWT do usuário autenticado
+     * POST /auth/refresh-token
+     */
+    @PostMapping("/refresh-token")
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Renovar token", description = "Emite novo token com as permissões atuais e revoga o token anterior")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token renovado com sucesso"),
+            @ApiResponse(responseCode = "401", description = "Token inválido ou não fornecido")
+    })
+    public ResponseEntity<?> refreshToken(Authentication authentication,
+                                          @RequestHeader("Authorization") String token,
+                                          HttpServletRequest httpRequest) {
+        try {
+            String cpf = authentication.getName();
+            String tokenJwt = token.replace("Bearer ", "");
+            AuthResponseDTO response = authService.renovarToken(cpf, tokenJwt, httpRequest);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Endpoint para solicitar recuperação de senha
      * POST /auth/forgot-password
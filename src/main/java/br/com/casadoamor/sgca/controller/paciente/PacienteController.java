@@ -1,5 +1,7 @@
 package br.com.casadoamor.sgca.controller.paciente;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import br.com.casadoamor.sgca.annotation.RateLimited;
 import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.dto.paciente.EditarPacienteDTO;
 import br.com.casadoamor.sgca.dto.paciente.PacienteDTO;
@@ -53,11 +56,41 @@ public class PacienteController {
     @GetMapping("/")
     @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
     // ✅ AUTENTICAÇÃO IMPLEMENTADA - PERMITE ADMINISTRADOR E RECEPCIONISTA
-    @Operation(summary = "Listar pacientes com paginação e filtro opcional")
+    @RateLimited(limit = 300, durationSeconds = 60, cost = 5, quota = "api")
+    @Operation(summary = "Listar pacientes com paginação e filtro opcional",
+            description = "Com after/before (startCursor/endCursor de uma página anterior) a página é buscada por cursor, sem offset")
     public PaginatedResponseDTO<PacienteDTO> pacientesPaginados(
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "0") int offset,
-            @RequestParam(required = false) String searchText) {
+            @RequestParam(required = false) String searchText,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before) {
+        if (after != null || before != null) {
+            return pacienteService.pacientesPorCursor(searchText, limit, after, before);
+        }
         return pacienteService.pacientesPaginados(searchText, limit, offset);
     }
+
+    @GetMapping("/busca")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    // ✅ AUTENTICAÇÃO IMPLEMENTADA - PERMITE ADMINISTRADOR E RECEPCIONISTA
+    @RateLimited(limit = 300, durationSeconds = 60, quota = "api")
+    @Operation(summary = "Buscar pacientes por nome, nome da mãe, CPF, RG, telefone ou cidade (ignora acentos e aceita grafias parecidas)")
+    public PaginatedResponseDTO<PacienteDTO> buscarPacientes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        return pacienteService.buscarPacientes(q, limit, offset);
+    }
+
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasAnyRole('ADMINISTRADOR', 'RECEPCIONISTA')")
+    // ✅ AUTENTICAÇÃO IMPLEMENTADA - PERMITE ADMINISTRADOR E RECEPCIONISTA
+    @RateLimited(limit = 600, durationSeconds = 60, quota = "typeahead")
+    @Operation(summary = "Sugestões de pacientes pelo início do nome, sobrenome, CPF ou RG (autocompletar)")
+    public List<PacienteDTO> sugerirPacientes(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return pacienteService.sugerirPacientes(q, limit);
+    }
 }
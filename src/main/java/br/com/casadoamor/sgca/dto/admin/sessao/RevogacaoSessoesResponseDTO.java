@@ -0,0 +1,28 @@
+package br.com.casadoamor.sgca.dto.admin.sessao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de resposta das revogações de sessões, com a quantidade de sessões afetadas
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevogacaoSessoesResponseDTO {
+
+    private String message;
+    private Boolean success;
+    private Integer sessoesRevogadas;
+
+    public static RevogacaoSessoesResponseDTO success(String message, int sessoesRevogadas) {
+        return RevogacaoSessoesResponseDTO.builder()
+                .message(message)
+                .success(true)
+                .sessoesRevogadas(sessoesRevogadas)
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.casadoamor.sgca.dto.admin.sessao;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para revogação de sessões em lote (vários usuários e/ou um perfil inteiro)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Revogação de sessões em lote: informe usuariosIds, perfilId ou ambos")
+public class RevogarSessoesEmLoteDTO {
+
+    @Schema(description = "IDs dos usuários que terão todas as sessões revogadas", example = "[1, 2, 3]")
+    private List<Long> usuariosIds;
+
+    @Schema(description = "ID do perfil cujos usuários terão todas as sessões revogadas", example = "2")
+    private Long perfilId;
+}
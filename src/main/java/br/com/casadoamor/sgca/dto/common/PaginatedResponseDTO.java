@@ -3,10 +3,16 @@ package br.com.casadoamor.sgca.dto.common;
 import java.util.List;
 import lombok.Builder;
 
+/**
+ * Página de uma listagem; startCursor/endCursor são os cursores (after/before)
+ * do primeiro e do último nó, para a paginação por keyset
+ */
 @Builder
 public record PaginatedResponseDTO<T>(
         List<T> nodes,
         boolean hasNextPage,
         boolean hasPreviousPage,
-        int totalCount) {
+        int totalCount,
+        String startCursor,
+        String endCursor) {
 }
@@ -2,6 +2,7 @@ package br.com.casadoamor.sgca.entity.auth;
 
 import java.time.LocalDateTime;
 
+import br.com.casadoamor.sgca.util.TokenHashUtil;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -39,6 +40,10 @@ public class SessaoUsuario {
     @Column(name = "token_jwt", nullable = false, length = 512)
     private String tokenJwt;
 
+    // SHA-256 (hex) do token: chave de busca indexada da sessão
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64, columnDefinition = "CHAR(64)")
+    private String tokenHash;
+
     @Column(name = "ip_origem", length = 45)
     private String ipOrigem;
 
@@ -58,6 +63,17 @@ public class SessaoUsuario {
     @PrePersist
     protected void onCreate() {
         criadoEm = LocalDateTime.now();
+        getTokenHash();
+    }
+
+    /**
+     * Retorna o hash do token, calculando-o a partir do JWT se ainda não definido
+     */
+    public String getTokenHash() {
+        if (tokenHash == null && tokenJwt != null) {
+            tokenHash = TokenHashUtil.sha256Hex(tokenJwt);
+        }
+        return tokenHash;
     }
 
     /**
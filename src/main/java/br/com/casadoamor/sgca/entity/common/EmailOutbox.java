@@ -0,0 +1,119 @@
+package br.com.casadoamor.sgca.entity.common;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Email a enviar (outbox transacional)
+ * Gravado na transação de quem solicitou o envio e entregue pelos workers de email
+ */
+@Entity
+@Table(name = "email_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "destinatario", nullable = false)
+    private String destinatario;
+
+    @Column(name = "assunto", nullable = false)
+    private String assunto;
+
+    /**
+     * Corpo renderizado; apagado (null) ao chegar a ENVIADO ou FALHA, pois pode conter
+     * códigos, links e senhas temporárias
+     */
+    @Column(name = "corpo", columnDefinition = "MEDIUMTEXT")
+    private String corpo;
+
+    @Builder.Default
+    @Column(name = "html", nullable = false)
+    private Boolean html = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoEmail tipo;
+
+    @Column(name = "prioridade", nullable = false)
+    private Integer prioridade;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Builder.Default
+    @Column(name = "tentativas", nullable = false)
+    private Integer tentativas = 0;
+
+    @Column(name = "proxima_tentativa_em", nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(name = "reservado_ate")
+    private LocalDateTime reservadoAte;
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "enviado_em")
+    private LocalDateTime enviadoEm;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @PrePersist
+    protected void onCreate() {
+        criadoEm = LocalDateTime.now();
+        if (proximaTentativaEm == null) {
+            proximaTentativaEm = criadoEm;
+        }
+        if (prioridade == null && tipo != null) {
+            prioridade = tipo.getPrioridade();
+        }
+    }
+
+    /**
+     * Tipos de email; menor prioridade é entregue primeiro
+     */
+    public enum TipoEmail {
+        CODIGO_2FA(0),
+        VERIFICACAO(1),
+        REDEFINICAO_SENHA(1),
+        RECUPERACAO_CONTA(1),
+        ATIVACAO_CONTA(2),
+        GERAL(5);
+
+        private final int prioridade;
+
+        TipoEmail(int prioridade) {
+            this.prioridade = prioridade;
+        }
+
+        public int getPrioridade() {
+            return prioridade;
+        }
+    }
+
+    public enum StatusEmail {
+        PENDENTE, ENVIANDO, ENVIADO, FALHA
+    }
+}
@@ -6,6 +6,8 @@ import lombok.*;
 import java.util.Date;
 
 import br.com.casadoamor.sgca.entity.common.BaseEntity;
+import br.com.casadoamor.sgca.util.CpfUtil;
+import br.com.casadoamor.sgca.util.TextoBuscaUtil;
 
 @Getter
 @Setter
@@ -34,4 +36,27 @@ public class DadoPessoal extends BaseEntity {
     private String profissao;
 
     private String telefone;
+
+    /**
+     * Colunas de busca indexadas, mantidas a cada gravação (ver {@link TextoBuscaUtil})
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nome_busca")
+    private String nomeBusca;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "cpf_busca", length = 11)
+    private String cpfBusca;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "rg_busca", length = 10)
+    private String rgBusca;
+
+    @PrePersist
+    @PreUpdate
+    public void atualizarColunasBusca() {
+        nomeBusca = TextoBuscaUtil.normalizarNome(nome);
+        cpfBusca = CpfUtil.limparCpf(cpf);
+        rgBusca = TextoBuscaUtil.normalizarDocumento(rg);
+    }
 }
@@ -0,0 +1,171 @@
+package br.com.casadoamor.sgca.mapper.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.config.exception.CustomError;
+
+/**
+ * Cursores opacos da paginação por keyset.
+ *
+ * O cursor carrega a chave de ordenação do registro (ex: faixa do ranking + id) e o
+ * escopo da listagem, em Base64 URL-safe, seguido de uma assinatura HMAC-SHA256: o
+ * cliente não consegue montar nem alterar um cursor, nem usar o de uma listagem em outra.
+ */
+@Component
+public class CursorCodec {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final int TAMANHO_ASSINATURA = 16;
+    private static final String SEPARADOR = "\u001F";
+    private static final Pattern SEPARADOR_PADRAO = Pattern.compile(SEPARADOR);
+
+    private final SecretKeySpec chave;
+    private final ThreadLocal<Mac> macs;
+
+    public CursorCodec(@Value("${pagination.cursor.secret:${jwt.secret}}") String segredo) {
+        this.chave = new SecretKeySpec(("sgca-cursor:" + segredo).getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.macs = ThreadLocal.withInitial(this::novoMac);
+    }
+
+    /**
+     * @param escopo  Listagem do cursor (ex: "pacientes")
+     * @param valores Chave de ordenação do registro, na ordem do ORDER BY
+     * @return Cursor opaco
+     */
+    public String codificar(String escopo, List<?> valores) {
+        String conteudo = escopo + SEPARADOR + valores.stream()
+                .map(valor -> Objects.toString(valor, ""))
+                .collect(Collectors.joining(SEPARADOR));
+        byte[] bytes = conteudo.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+        return base64.encodeToString(bytes) + "." + base64.encodeToString(assinar(bytes));
+    }
+
+    /**
+     * Valida a assinatura e o escopo do cursor
+     *
+     * @throws CustomError BAD_REQUEST se o cursor foi alterado ou é de outra listagem
+     */
+    public Cursor decodificar(String escopo, String cursor) {
+        int ponto = cursor.indexOf('.');
+        if (ponto < 0) {
+            throw invalido();
+        }
+        byte[] conteudo;
+        byte[] assinatura;
+        try {
+            Base64.Decoder base64 = Base64.getUrlDecoder();
+            conteudo = base64.decode(cursor.substring(0, ponto));
+            assinatura = base64.decode(cursor.substring(ponto + 1));
+        } catch (IllegalArgumentException e) {
+            throw invalido();
+        }
+        if (!MessageDigest.isEqual(assinar(conteudo), assinatura)) {
+            throw invalido();
+        }
+        String[] partes = SEPARADOR_PADRAO.split(new String(conteudo, StandardCharsets.UTF_8), -1);
+        if (!partes[0].equals(escopo)) {
+            throw invalido();
+        }
+        return new Cursor(List.of(Arrays.copyOfRange(partes, 1, partes.length)));
+    }
+
+    /**
+     * Resolve os parâmetros after/before de uma listagem (no máximo um deles)
+     *
+     * @return posição da página; sem cursor é a primeira página
+     */
+    public Posicao posicao(String escopo, String after, String before) {
+        boolean temAfter = after != null && !after.isBlank();
+        boolean temBefore = before != null && !before.isBlank();
+        if (temAfter && temBefore) {
+            throw new CustomError("Informe apenas um dos cursores: after ou before", HttpStatus.BAD_REQUEST);
+        }
+        if (temBefore) {
+            return new Posicao(decodificar(escopo, before), true);
+        }
+        return new Posicao(temAfter ? decodificar(escopo, after) : null, false);
+    }
+
+    private byte[] assinar(byte[] conteudo) {
+        return Arrays.copyOf(macs.get().doFinal(conteudo), TAMANHO_ASSINATURA);
+    }
+
+    private Mac novoMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+
+    private static CustomError invalido() {
+        return new CustomError("Cursor inválido", HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Valores da chave de ordenação de um cursor já validado
+     */
+    public record Cursor(List<String> valores) {
+
+        public String texto(int posicao) {
+            return valor(posicao);
+        }
+
+        public int inteiro(int posicao) {
+            try {
+                return Integer.parseInt(valor(posicao));
+            } catch (NumberFormatException e) {
+                throw invalido();
+            }
+        }
+
+        public long longo(int posicao) {
+            try {
+                return Long.parseLong(valor(posicao));
+            } catch (NumberFormatException e) {
+                throw invalido();
+            }
+        }
+
+        public LocalDateTime dataHora(int posicao) {
+            try {
+                return LocalDateTime.parse(valor(posicao));
+            } catch (DateTimeParseException e) {
+                throw invalido();
+            }
+        }
+
+        private String valor(int posicao) {
+            if (posicao >= valores.size()) {
+                throw invalido();
+            }
+            return valores.get(posicao);
+        }
+    }
+
+    /**
+     * Cursor de referência (null na primeira página) e sentido da leitura
+     */
+    public record Posicao(Cursor cursor, boolean paraTras) {
+    }
+}
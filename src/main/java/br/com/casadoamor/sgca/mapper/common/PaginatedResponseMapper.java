@@ -1,13 +1,20 @@
 package br.com.casadoamor.sgca.mapper.common;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Component;
 
 import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
+import lombok.RequiredArgsConstructor;
 
 @Component
+@RequiredArgsConstructor
 public class PaginatedResponseMapper {
+  private final CursorCodec cursorCodec;
+
   public <T> PaginatedResponseDTO<T> toDTO(List<T> items, long totalItems, boolean hasPreviousPage, boolean hasNextPage) {
     return PaginatedResponseDTO.<T>builder()
       .nodes(items)       
@@ -16,4 +23,39 @@ public class PaginatedResponseMapper {
       .hasNextPage(hasNextPage)      
       .build();
   }
+
+  /**
+   * Página com os cursores do primeiro e do último nó
+   *
+   * @param chave Chave de ordenação de um nó (ver {@link CursorCodec#codificar})
+   */
+  public <T> PaginatedResponseDTO<T> toDTO(List<T> items, long totalItems, boolean hasPreviousPage, boolean hasNextPage,
+                                           String escopo, Function<T, List<?>> chave) {
+    return PaginatedResponseDTO.<T>builder()
+      .nodes(items)
+      .totalCount((int) totalItems)
+      .hasPreviousPage(hasPreviousPage)
+      .hasNextPage(hasNextPage)
+      .startCursor(items.isEmpty() ? null : cursorCodec.codificar(escopo, chave.apply(items.get(0))))
+      .endCursor(items.isEmpty() ? null : cursorCodec.codificar(escopo, chave.apply(items.get(items.size() - 1))))
+      .build();
+  }
+
+  /**
+   * Página por keyset a partir das linhas lidas com limit + 1 no sentido da leitura:
+   * a linha extra só indica se há mais registros nesse sentido; lidas para trás
+   * (before), as linhas voltam para a ordem normal
+   */
+  public <T> PaginatedResponseDTO<T> toKeysetDTO(List<T> linhas, int limit, CursorCodec.Posicao posicao, long totalItems,
+                                                 String escopo, Function<T, List<?>> chave) {
+    boolean temMais = linhas.size() > limit;
+    List<T> items = new ArrayList<>(temMais ? linhas.subList(0, limit) : linhas);
+    if (posicao.paraTras()) {
+      Collections.reverse(items);
+    }
+    boolean temCursor = posicao.cursor() != null;
+    boolean hasPreviousPage = posicao.paraTras() ? temMais : temCursor;
+    boolean hasNextPage = posicao.paraTras() ? temCursor : temMais;
+    return toDTO(items, totalItems, hasPreviousPage, hasNextPage, escopo, chave);
+  }
 }
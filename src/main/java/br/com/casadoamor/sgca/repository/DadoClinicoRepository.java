@@ -2,13 +2,14 @@ package br.com.casadoamor.sgca.repository;
 
 import br.com.casadoamor.sgca.entity.paciente.DadoClinico;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DadoClinicoRepository extends JpaRepository<DadoClinico, String> {
+public interface DadoClinicoRepository extends JpaRepository<DadoClinico, String>, JpaSpecificationExecutor<DadoClinico> {
   
   /**
    * Busca todos os dados clínicos de um paciente específico
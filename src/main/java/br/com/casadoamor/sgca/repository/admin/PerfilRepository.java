@@ -1,5 +1,6 @@
 package br.com.casadoamor.sgca.repository.admin;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,4 +44,60 @@ public interface PerfilRepository extends JpaRepository<Perfil, Long> {
      */
     @Query("SELECT p FROM Perfil p JOIN p.usuarios u WHERE u.id = :usuarioId AND p.deletadoEm IS NULL")
     List<Perfil> findByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Perfis ativos de um lote de usuários (uma linha por usuário e perfil)
+     */
+    @Query("SELECT u.id AS usuarioId, p.id AS id, p.nome AS nome, p.descricao AS descricao " +
+           "FROM Perfil p JOIN p.usuarios u WHERE u.id IN :usuarioIds AND p.deletadoEm IS NULL")
+    List<PerfilDoUsuario> findPerfisDosUsuarios(@Param("usuarioIds") Collection<Long> usuarioIds);
+
+    /**
+     * Permissões de um lote de perfis (uma linha por perfil e permissão)
+     */
+    @Query("SELECT p.id AS perfilId, pe.id AS id, pe.nome AS nome, pe.descricao AS descricao " +
+           "FROM Perfil p JOIN p.permissoes pe WHERE p.id IN :perfilIds")
+    List<PermissaoDoPerfil> findPermissoesDosPerfis(@Param("perfilIds") Collection<Long> perfilIds);
+
+    /**
+     * Pares (perfil, permissão) ativos, para compilar o modelo de permissões
+     */
+    @Query("SELECT p.id AS perfilId, pe.id AS permissaoId FROM Perfil p JOIN p.permissoes pe " +
+           "WHERE p.deletadoEm IS NULL AND pe.deletadoEm IS NULL")
+    List<PerfilPermissao> findParesPerfilPermissaoAtivos();
+
+    /**
+     * Projeção de um par perfil → permissão
+     */
+    interface PerfilPermissao {
+        Long getPerfilId();
+
+        Long getPermissaoId();
+    }
+
+    /**
+     * Projeção de um perfil atribuído a um usuário
+     */
+    interface PerfilDoUsuario {
+        Long getUsuarioId();
+
+        Long getId();
+
+        String getNome();
+
+        String getDescricao();
+    }
+
+    /**
+     * Projeção de uma permissão de um perfil
+     */
+    interface PermissaoDoPerfil {
+        Long getPerfilId();
+
+        Long getId();
+
+        String getNome();
+
+        String getDescricao();
+    }
 }
@@ -4,6 +4,8 @@ import br.com.casadoamor.sgca.entity.auth.Autenticacao2FARateLimit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,4 +23,9 @@ public interface Autenticacao2FARateLimitRepository extends JpaRepository<Autent
      * Verifica se existe controle para o usuário
      */
     boolean existsByUsuarioId(Long usuarioId);
+
+    /**
+     * Controles com envio recente ou bloqueio ainda vigente (restauração do limite em memória)
+     */
+    List<Autenticacao2FARateLimit> findByUltimoEnvioAfterOrBloqueadoAteAfter(LocalDateTime envioDesde, LocalDateTime bloqueioApos);
 }
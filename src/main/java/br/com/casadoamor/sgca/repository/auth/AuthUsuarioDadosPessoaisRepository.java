@@ -1,13 +1,54 @@
 package br.com.casadoamor.sgca.repository.auth;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais.EstadoCivil;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais.Genero;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais.Sexo;
 
 /**
  * Repositório para dados pessoais de usuários do sistema
  */
 @Repository
 public interface AuthUsuarioDadosPessoaisRepository extends JpaRepository<AuthUsuarioDadosPessoais, Long> {
+
+    /**
+     * Dados pessoais de um lote de IDs, sem carregar os usuários de auditoria
+     */
+    @Query("SELECT d.id AS id, d.dataNascimento AS dataNascimento, d.sexo AS sexo, d.genero AS genero, " +
+           "d.naturalidade AS naturalidade, d.estadoCivil AS estadoCivil, d.nomeMae AS nomeMae, " +
+           "d.nomePai AS nomePai, d.profissao AS profissao " +
+           "FROM AuthUsuarioDadosPessoais d WHERE d.id IN :ids")
+    List<DadosPessoaisResumo> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção dos dados pessoais exibidos na listagem de usuários
+     */
+    interface DadosPessoaisResumo {
+        Long getId();
+
+        LocalDate getDataNascimento();
+
+        Sexo getSexo();
+
+        Genero getGenero();
+
+        String getNaturalidade();
+
+        EstadoCivil getEstadoCivil();
+
+        String getNomeMae();
+
+        String getNomePai();
+
+        String getProfissao();
+    }
 }
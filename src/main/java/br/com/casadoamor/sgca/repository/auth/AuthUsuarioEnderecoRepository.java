@@ -1,6 +1,11 @@
 package br.com.casadoamor.sgca.repository.auth;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioEndereco;
@@ -10,4 +15,33 @@ import br.com.casadoamor.sgca.entity.auth.AuthUsuarioEndereco;
  */
 @Repository
 public interface AuthUsuarioEnderecoRepository extends JpaRepository<AuthUsuarioEndereco, Long> {
+
+    /**
+     * Endereços de um lote de IDs, sem carregar os usuários de auditoria
+     */
+    @Query("SELECT e.id AS id, e.logradouro AS logradouro, e.numero AS numero, e.complemento AS complemento, " +
+           "e.bairro AS bairro, e.cidade AS cidade, e.uf AS uf, e.cep AS cep " +
+           "FROM AuthUsuarioEndereco e WHERE e.id IN :ids")
+    List<EnderecoResumo> findResumosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projeção do endereço exibido na listagem de usuários
+     */
+    interface EnderecoResumo {
+        Long getId();
+
+        String getLogradouro();
+
+        String getNumero();
+
+        String getComplemento();
+
+        String getBairro();
+
+        String getCidade();
+
+        String getUf();
+
+        String getCep();
+    }
 }
@@ -0,0 +1,41 @@
+package br.com.casadoamor.sgca.repository.auth;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+
+/**
+ * Consulta da listagem de usuários por projeção: só as colunas da listagem e os IDs
+ * do endereço e dos dados pessoais, sem instanciar a entidade (e, portanto, sem
+ * disparar os relacionamentos EAGER de perfis e auditoria)
+ */
+public interface AuthUsuarioListagemRepository {
+
+  /**
+   * Linhas que atendem à especificação; com Pageable ordenado, a ordem dele substitui
+   * a da especificação (como em findAll(spec, pageable))
+   */
+  List<LinhaUsuario> findLinhas(Specification<AuthUsuario> spec, Pageable pageable);
+
+  record LinhaUsuario(
+      Long id,
+      String uuid,
+      String nome,
+      String email,
+      String cpf,
+      String telefone,
+      TipoUsuario tipo,
+      Boolean ativo,
+      Boolean emailVerificado,
+      LocalDateTime ultimoLoginEm,
+      LocalDateTime criadoEm,
+      LocalDateTime atualizadoEm,
+      Long enderecoId,
+      Long dadosPessoaisId) {
+  }
+}
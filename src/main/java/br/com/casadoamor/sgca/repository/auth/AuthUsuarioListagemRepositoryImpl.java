@@ -0,0 +1,88 @@
+package br.com.casadoamor.sgca.repository.auth;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementação de {@link AuthUsuarioListagemRepository} com uma consulta Criteria de tuplas
+ */
+public class AuthUsuarioListagemRepositoryImpl implements AuthUsuarioListagemRepository {
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<LinhaUsuario> findLinhas(Specification<AuthUsuario> spec, Pageable pageable) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<AuthUsuario> root = query.from(AuthUsuario.class);
+
+    // LEFT JOIN: usuários sem endereço ou dados pessoais continuam na listagem
+    query.multiselect(
+        root.get("id"),
+        root.get("uuid"),
+        root.get("nome"),
+        root.get("email"),
+        root.get("cpf"),
+        root.get("telefone"),
+        root.get("tipo"),
+        root.get("ativo"),
+        root.get("emailVerificado"),
+        root.get("ultimoLoginEm"),
+        root.get("criadoEm"),
+        root.get("atualizadoEm"),
+        root.join("endereco", JoinType.LEFT).get("id"),
+        root.join("dadosPessoais", JoinType.LEFT).get("id"));
+
+    if (spec != null) {
+      Predicate filtro = spec.toPredicate(root, query, cb);
+      if (filtro != null) {
+        query.where(filtro);
+      }
+    }
+    if (pageable.getSort().isSorted()) {
+      query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+    }
+
+    TypedQuery<Tuple> consulta = entityManager.createQuery(query);
+    if (pageable.isPaged()) {
+      consulta.setFirstResult((int) pageable.getOffset());
+      consulta.setMaxResults(pageable.getPageSize());
+    }
+    return consulta.getResultList().stream().map(AuthUsuarioListagemRepositoryImpl::toLinha).toList();
+  }
+
+  private static LinhaUsuario toLinha(Tuple tupla) {
+    return new LinhaUsuario(
+        tupla.get(0, Long.class),
+        tupla.get(1, String.class),
+        tupla.get(2, String.class),
+        tupla.get(3, String.class),
+        tupla.get(4, String.class),
+        tupla.get(5, String.class),
+        tupla.get(6, TipoUsuario.class),
+        tupla.get(7, Boolean.class),
+        tupla.get(8, Boolean.class),
+        tupla.get(9, LocalDateTime.class),
+        tupla.get(10, LocalDateTime.class),
+        tupla.get(11, LocalDateTime.class),
+        tupla.get(12, Long.class),
+        tupla.get(13, Long.class));
+  }
+}
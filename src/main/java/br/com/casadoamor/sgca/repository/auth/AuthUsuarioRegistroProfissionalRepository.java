@@ -2,8 +2,13 @@ package br.com.casadoamor.sgca.repository.auth;
 
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioRegistroProfissional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,6 +22,14 @@ public interface AuthUsuarioRegistroProfissionalRepository extends JpaRepository
      */
     Optional<AuthUsuarioRegistroProfissional> findByUsuarioId(Long usuarioId);
 
+    /**
+     * Registros profissionais de um lote de usuários, sem carregar as entidades
+     */
+    @Query("SELECT r.usuario.id AS usuarioId, r.id AS id, r.tipoProfissional AS tipoProfissional, " +
+           "r.numeroRegistro AS numeroRegistro, r.rqe AS rqe, r.criadoEm AS criadoEm " +
+           "FROM AuthUsuarioRegistroProfissional r WHERE r.usuario.id IN :usuarioIds")
+    List<RegistroProfissionalResumo> findResumosByUsuarioIdIn(@Param("usuarioIds") Collection<Long> usuarioIds);
+
     /**
      * Verifica se existe registro profissional para o usuário
      */
@@ -37,4 +50,21 @@ public interface AuthUsuarioRegistroProfissionalRepository extends JpaRepository
             AuthUsuarioRegistroProfissional.TipoProfissional tipoProfissional,
             String numeroRegistro
     );
+
+    /**
+     * Projeção do registro profissional exibido na listagem de usuários
+     */
+    interface RegistroProfissionalResumo {
+        Long getUsuarioId();
+
+        Long getId();
+
+        AuthUsuarioRegistroProfissional.TipoProfissional getTipoProfissional();
+
+        String getNumeroRegistro();
+
+        String getRqe();
+
+        LocalDateTime getCriadoEm();
+    }
 }
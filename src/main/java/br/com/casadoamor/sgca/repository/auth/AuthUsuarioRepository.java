@@ -1,15 +1,139 @@
 package br.com.casadoamor.sgca.repository.auth;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
 
 @Repository
-public interface AuthUsuarioRepository extends JpaRepository<AuthUsuario, Long>, JpaSpecificationExecutor<AuthUsuario> {
+public interface AuthUsuarioRepository extends JpaRepository<AuthUsuario, Long>, JpaSpecificationExecutor<AuthUsuario>,
+    AuthUsuarioListagemRepository {
   Optional<AuthUsuario> findByCpf(String cpf);
   Optional<AuthUsuario> findByEmail(String email);
+
+  /**
+   * Visão de autenticação: uma linha pelo índice de CPF, só com as colunas que o login
+   * e o filtro JWT consultam, sem hidratar perfis, permissões e registro profissional
+   */
+  @Query("SELECT u.id AS id, u.cpf AS cpf, u.email AS email, u.nome AS nome, u.senhaHash AS senhaHash, " +
+         "u.ativo AS ativo, u.lockedUntil AS lockedUntil, u.tipo AS tipo, u.senhaTemporaria AS senhaTemporaria, " +
+         "u.emailVerificado AS emailVerificado, u.tentativasFalhasDeLogin AS tentativasFalhasDeLogin " +
+         "FROM AuthUsuario u WHERE u.cpf = :cpf")
+  Optional<AutenticacaoUsuario> findAutenticacaoByCpf(@Param("cpf") String cpf);
+
+  /**
+   * Tipo, situação da conta e IDs dos perfis do usuário (uma linha por perfil; perfilId nulo
+   * se não houver perfis), sem carregar a entidade e seus relacionamentos
+   */
+  @Query("SELECT u.tipo AS tipo, u.ativo AS ativo, u.lockedUntil AS lockedUntil, p.id AS perfilId "
+      + "FROM AuthUsuario u LEFT JOIN u.perfis p WHERE u.cpf = :cpf")
+  List<PerfilDoUsuario> findPerfisDoUsuarioByCpf(@Param("cpf") String cpf);
+
+  /**
+   * Incrementa atomicamente as falhas de login e bloqueia ao atingir o limite.
+   * lockedUntil vem antes na cláusula SET: o MySQL avalia as atribuições da esquerda
+   * para a direita, então o CASE ainda enxerga o contador anterior.
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AuthUsuario u SET " +
+         "u.lockedUntil = CASE WHEN u.tentativasFalhasDeLogin + 1 >= :maxTentativas THEN :bloquearAte ELSE u.lockedUntil END, " +
+         "u.tentativasFalhasDeLogin = u.tentativasFalhasDeLogin + 1 " +
+         "WHERE u.id = :id")
+  int incrementarFalhasLogin(@Param("id") Long id,
+                             @Param("maxTentativas") int maxTentativas,
+                             @Param("bloquearAte") LocalDateTime bloquearAte);
+
+  /**
+   * Zera atomicamente as falhas de login e remove o bloqueio
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AuthUsuario u SET u.tentativasFalhasDeLogin = 0, u.lockedUntil = NULL " +
+         "WHERE u.id = :id AND u.tentativasFalhasDeLogin > 0")
+  int zerarFalhasLogin(@Param("id") Long id);
+
+  /**
+   * Atualiza apenas o hash da senha (rehash transparente no login)
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AuthUsuario u SET u.senhaHash = :senhaHash WHERE u.cpf = :cpf")
+  int atualizarSenhaHash(@Param("cpf") String cpf, @Param("senhaHash") String senhaHash);
+
+  /**
+   * Registra o último login sem regravar a entidade inteira
+   */
+  @Transactional
+  @Modifying(flushAutomatically = true)
+  @Query("UPDATE AuthUsuario u SET u.ultimoLoginEm = :ultimoLoginEm WHERE u.id = :id")
+  int atualizarUltimoLogin(@Param("id") Long id, @Param("ultimoLoginEm") LocalDateTime ultimoLoginEm);
+
+  @Query("SELECT u.lockedUntil FROM AuthUsuario u WHERE u.id = :id")
+  Optional<LocalDateTime> findLockedUntilById(@Param("id") Long id);
+
+  /**
+   * Projeção somente leitura usada na autenticação
+   */
+  interface AutenticacaoUsuario {
+    Long getId();
+
+    String getCpf();
+
+    String getEmail();
+
+    String getNome();
+
+    String getSenhaHash();
+
+    Boolean getAtivo();
+
+    LocalDateTime getLockedUntil();
+
+    TipoUsuario getTipo();
+
+    Boolean getSenhaTemporaria();
+
+    Boolean getEmailVerificado();
+
+    Integer getTentativasFalhasDeLogin();
+
+    default boolean isBloqueado() {
+      return getLockedUntil() != null && getLockedUntil().isAfter(LocalDateTime.now());
+    }
+
+    /**
+     * Entidade apenas com a chave e os campos da visão, para vincular sessão e auditoria
+     * ao usuário (só usuario_id é gravado); não deve ser salva nem mesclada
+     */
+    default AuthUsuario referencia() {
+      return AuthUsuario.builder()
+          .id(getId())
+          .cpf(getCpf())
+          .email(getEmail())
+          .nome(getNome())
+          .tipo(getTipo())
+          .build();
+    }
+  }
+
+  interface PerfilDoUsuario {
+    TipoUsuario getTipo();
+
+    Boolean getAtivo();
+
+    LocalDateTime getLockedUntil();
+
+    Long getPerfilId();
+  }
 }
@@ -1,10 +1,14 @@
 package br.com.casadoamor.sgca.repository.auth;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.casadoamor.sgca.entity.auth.SessaoUsuario;
@@ -16,9 +20,9 @@ import br.com.casadoamor.sgca.entity.auth.SessaoUsuario;
 public interface SessaoUsuarioRepository extends JpaRepository<SessaoUsuario, Long> {
 
     /**
-     * Busca sessão pelo token JWT
+     * Busca sessão pelo hash SHA-256 do token JWT (índice único)
      */
-    Optional<SessaoUsuario> findByTokenJwt(String tokenJwt);
+    Optional<SessaoUsuario> findByTokenHash(String tokenHash);
 
     /**
      * Busca todas as sessões ativas de um usuário
@@ -48,8 +52,94 @@ public interface SessaoUsuarioRepository extends JpaRepository<SessaoUsuario, Lo
      */
     List<SessaoUsuario> findByAtivoAndExpiraEmAfter(Boolean ativo, LocalDateTime dataAtual);
 
+    /**
+     * Busca hash e expiração das sessões revogadas que ainda não expiraram
+     * (carga e reconciliação da denylist de tokens)
+     */
+    @Query("SELECT s.tokenHash AS tokenHash, s.expiraEm AS expiraEm FROM SessaoUsuario s " +
+           "WHERE s.ativo = false AND s.expiraEm > :agora")
+    List<TokenRevogado> findTokensRevogadosNaoExpirados(@Param("agora") LocalDateTime agora);
+
+    /**
+     * Busca hash e expiração das sessões ativas e não expiradas dos usuários informados
+     * (as que revogarAtivasPorUsuarios vai revogar)
+     */
+    @Query("SELECT s.tokenHash AS tokenHash, s.expiraEm AS expiraEm FROM SessaoUsuario s " +
+           "WHERE s.usuario.id IN :usuariosIds AND s.ativo = true AND s.expiraEm > :agora")
+    List<TokenRevogado> findTokensAtivosNaoExpiradosPorUsuarios(
+            @Param("usuariosIds") Collection<Long> usuariosIds,
+            @Param("agora") LocalDateTime agora
+    );
+
+    /**
+     * Busca hash e expiração das sessões ativas e não expiradas de um usuário, exceto a do
+     * token informado (as que revogarAtivasPorUsuarioExceto vai revogar)
+     */
+    @Query("SELECT s.tokenHash AS tokenHash, s.expiraEm AS expiraEm FROM SessaoUsuario s " +
+           "WHERE s.usuario.id = :usuarioId AND s.ativo = true AND s.expiraEm > :agora " +
+           "AND s.tokenHash <> :tokenHashAtual")
+    List<TokenRevogado> findTokensAtivosNaoExpiradosPorUsuarioExceto(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tokenHashAtual") String tokenHashAtual,
+            @Param("agora") LocalDateTime agora
+    );
+
+    /**
+     * Busca hash e expiração das sessões ativas e não expiradas dos usuários de um perfil
+     * (as que revogarAtivasPorPerfil vai revogar)
+     */
+    @Query("SELECT s.tokenHash AS tokenHash, s.expiraEm AS expiraEm FROM SessaoUsuario s " +
+           "WHERE s.ativo = true AND s.expiraEm > :agora AND s.usuario.id IN " +
+           "(SELECT u.id FROM AuthUsuario u JOIN u.perfis p WHERE p.id = :perfilId)")
+    List<TokenRevogado> findTokensAtivosNaoExpiradosPorPerfil(
+            @Param("perfilId") Long perfilId,
+            @Param("agora") LocalDateTime agora
+    );
+
+    /**
+     * Revoga todas as sessões ativas dos usuários informados (um único UPDATE)
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SessaoUsuario s SET s.ativo = false " +
+           "WHERE s.usuario.id IN :usuariosIds AND s.ativo = true")
+    int revogarAtivasPorUsuarios(@Param("usuariosIds") Collection<Long> usuariosIds);
+
+    /**
+     * Revoga as sessões ativas de um usuário, exceto a do token informado (um único UPDATE)
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SessaoUsuario s SET s.ativo = false " +
+           "WHERE s.usuario.id = :usuarioId AND s.ativo = true AND s.tokenHash <> :tokenHashAtual")
+    int revogarAtivasPorUsuarioExceto(
+            @Param("usuarioId") Long usuarioId,
+            @Param("tokenHashAtual") String tokenHashAtual
+    );
+
+    /**
+     * Revoga as sessões ativas de todos os usuários de um perfil (um único UPDATE)
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SessaoUsuario s SET s.ativo = false WHERE s.ativo = true AND s.usuario.id IN " +
+           "(SELECT u.id FROM AuthUsuario u JOIN u.perfis p WHERE p.id = :perfilId)")
+    int revogarAtivasPorPerfil(@Param("perfilId") Long perfilId);
+
     /**
      * Deleta sessões expiradas (limpeza periódica)
      */
     void deleteByExpiraEmBefore(LocalDateTime data);
+
+    /**
+     * Projeção de token revogado (hash + expiração)
+     */
+    interface TokenRevogado {
+        String getTokenHash();
+
+        LocalDateTime getExpiraEm();
+    }
 }
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
@@ -12,7 +15,7 @@ import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
  * Repositório para tentativas de login
  */
 @Repository
-public interface TentativaLoginRepository extends JpaRepository<TentativaLogin, Long> {
+public interface TentativaLoginRepository extends JpaRepository<TentativaLogin, Long>, JpaSpecificationExecutor<TentativaLogin> {
 
     /**
      * Busca tentativas de login de um usuário específico
@@ -34,6 +37,13 @@ public interface TentativaLoginRepository extends JpaRepository<TentativaLogin,
      */
     long countByCpfAndSucessoAndDataTentativaAfter(String cpf, Boolean sucesso, LocalDateTime dataInicio);
 
+    /**
+     * Falhas recentes de todos os CPFs (reconstrução do contador de bloqueio em memória)
+     */
+    @Query("SELECT t.cpf AS cpf, t.dataTentativa AS dataTentativa FROM TentativaLogin t " +
+           "WHERE t.sucesso = false AND t.dataTentativa > :desde")
+    List<FalhaRecente> findFalhasDesde(@Param("desde") LocalDateTime desde);
+
     /**
      * Busca últimas tentativas de login (para relatórios)
      */
@@ -58,4 +68,12 @@ public interface TentativaLoginRepository extends JpaRepository<TentativaLogin,
      * Busca tentativas de login por sucesso
      */
     List<TentativaLogin> findBySucesso(Boolean sucesso);
+
+    /**
+     * Projeção de uma falha de login (CPF e momento)
+     */
+    interface FalhaRecente {
+        String getCpf();
+        LocalDateTime getDataTentativa();
+    }
 }
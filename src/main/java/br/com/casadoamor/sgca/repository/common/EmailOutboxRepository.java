@@ -0,0 +1,44 @@
+package br.com.casadoamor.sgca.repository.common;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.StatusEmail;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Próximos emails a enviar por prioridade: pendentes com tentativa vencida e
+     * reservas expiradas (worker que caiu no meio do envio). SKIP LOCKED deixa
+     * várias instâncias reservarem lotes diferentes sem se bloquearem.
+     */
+    @Query(value = "SELECT * FROM email_outbox "
+            + "WHERE (status = 'PENDENTE' AND proxima_tentativa_em <= :agora) "
+            + "OR (status = 'ENVIANDO' AND reservado_ate < :agora) "
+            + "ORDER BY prioridade, id LIMIT :limite FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<EmailOutbox> findProntosParaEnvio(@Param("agora") LocalDateTime agora, @Param("limite") int limite);
+
+    long countByStatus(StatusEmail status);
+
+    /**
+     * Remove até {@code limite} emails finalizados (ENVIADO ou FALHA) criados antes de {@code criadoAntesDe}
+     *
+     * @return quantidade de emails removidos
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox "
+            + "WHERE status IN ('ENVIADO', 'FALHA') AND criado_em < :criadoAntesDe LIMIT :limite",
+            nativeQuery = true)
+    int deleteFinalizadosAntesDe(@Param("criadoAntesDe") LocalDateTime criadoAntesDe, @Param("limite") int limite);
+}
@@ -1,7 +1,10 @@
 package br.com.casadoamor.sgca.repository.paciente;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -24,4 +27,19 @@ public interface PacienteRepository extends JpaRepository<Paciente, String>, Jpa
   @EntityGraph(attributePaths = {"dadoPessoal", "endereco"})
   @NonNull
   List<Paciente> findAll(@Nullable Specification<Paciente> spec);
+
+  /**
+   * Página com LIMIT/OFFSET no banco (relações 1:1, sem paginação em memória);
+   * a contagem é uma consulta separada, sem os joins de fetch
+   */
+  @Override
+  @EntityGraph(attributePaths = {"dadoPessoal", "endereco"})
+  @NonNull
+  Page<Paciente> findAll(@Nullable Specification<Paciente> spec, @NonNull Pageable pageable);
+
+  /**
+   * Pacientes de uma página da busca em memória, com dadoPessoal e endereco
+   */
+  @EntityGraph(attributePaths = {"dadoPessoal", "endereco"})
+  List<Paciente> findByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,177 @@
+package br.com.casadoamor.sgca.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.casadoamor.sgca.config.exception.CustomError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * PasswordEncoder que executa o hash (BCrypt) em um executor dedicado e limitado.
+ *
+ * O trabalho de CPU do hash deixa de competir com as threads do Tomcat: no máximo
+ * N hashes rodam em paralelo e a fila de espera é limitada. Com a fila cheia (ou
+ * espera acima do limite) a chamada falha na hora com 503, em vez de acumular
+ * requisições. Registra histogramas de tempo em fila e de tempo de hash.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    static final String MENSAGEM_SOBRECARGA = "Serviço de autenticação sobrecarregado. Tente novamente em instantes.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer tempoFila;
+    private final Timer tempoHashEncode;
+    private final Timer tempoHashMatches;
+    private final Counter rejeitados;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry,
+                                  int threads, int capacidadeFila, long timeoutMs) {
+        this.delegate = delegate;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, "password-hash-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.tempoFila = Timer.builder("password.hash.queue")
+                .description("Tempo de espera na fila do executor de hash de senha")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tempoHashEncode = Timer.builder("password.hash.duration")
+                .description("Tempo de cálculo do hash de senha")
+                .tag("operacao", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.tempoHashMatches = Timer.builder("password.hash.duration")
+                .description("Tempo de cálculo do hash de senha")
+                .tag("operacao", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejeitados = Counter.builder("password.hash.rejected")
+                .description("Operações de hash recusadas por saturação do executor")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size())
+                .description("Operações de hash aguardando execução")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operações de hash em execução")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(tempoHashEncode, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(tempoHashMatches, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Compara a senha de forma assíncrona no mesmo executor limitado.
+     * Cancelar o futuro retornado evita o cálculo se a comparação ainda estiver na fila.
+     * Lança CustomError (503) se o executor estiver saturado.
+     */
+    public CompletableFuture<Boolean> matchesAsync(CharSequence rawPassword, String encodedPassword) {
+        CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        long enfileiradoEm = System.nanoTime();
+        Future<?> tarefa;
+        try {
+            tarefa = executor.submit(() -> {
+                if (resultado.isDone()) {
+                    return;
+                }
+                tempoFila.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                try {
+                    resultado.complete(tempoHashMatches.recordCallable(
+                            () -> delegate.matches(rawPassword, encodedPassword)));
+                } catch (Throwable e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            log.warn("Executor de hash de senha saturado ({} na fila)", executor.getQueue().size());
+            throw new CustomError(MENSAGEM_SOBRECARGA, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        resultado.whenComplete((r, e) -> {
+            if (resultado.isCancelled()) {
+                tarefa.cancel(false);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Indica se o hash foi gerado com custo menor que o configurado (sem cálculo de hash)
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T executar(Timer tempoHash, Callable<T> operacao) {
+        long enfileiradoEm = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                tempoFila.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return tempoHash.recordCallable(operacao);
+            });
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            log.warn("Executor de hash de senha saturado ({} na fila)", executor.getQueue().size());
+            throw new CustomError(MENSAGEM_SOBRECARGA, HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+        try {
+            return futuro.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            rejeitados.increment();
+            log.warn("Operação de hash de senha excedeu {} ms", timeoutMs);
+            throw new CustomError(MENSAGEM_SOBRECARGA, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CustomError(MENSAGEM_SOBRECARGA, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
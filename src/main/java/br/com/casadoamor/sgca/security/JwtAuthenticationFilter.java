@@ -1,11 +1,14 @@
 package br.com.casadoamor.sgca.security;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -30,6 +33,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
     private br.com.casadoamor.sgca.service.admin.SessaoService sessaoService;
+
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    @Autowired
+    private JwtPermissionClaims permissionClaims;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -41,16 +51,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             // Se o token existe e é válido
             if (jwt != null) {
-                // Extrai o email (username) do token
-                String email = jwtUtil.extractUsername(jwt);
+                // Verifica assinatura e expiração uma única vez para toda a requisição
+                TokenVerificado token = jwtUtil.verificarToken(jwt);
+                String cpf = token.getUsername();
 
-                // Se o email existe e não há autenticação no contexto
-                if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    // Carrega os detalhes do usuário do banco de dados
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                // Se o CPF existe e não há autenticação no contexto
+                if (cpf != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    // Principal já validado recentemente para este token (sem ida ao banco)
+                    UserDetails userDetails = principalCache.buscar(jwt);
 
-                    // Valida o token e verifica se a sessão ainda é válida no banco
-                    if (jwtUtil.validateToken(jwt, userDetails) && sessaoService.sessaoValida(jwt)) {
+                    if (userDetails == null) {
+                        userDetails = carregarPrincipal(token, cpf);
+                        if (userDetails != null) {
+                            principalCache.armazenar(jwt, userDetails, token.getExpiracao());
+                        }
+                    }
+
+                    // Permissões do token desatualizadas: cliente deve renovar o token
+                    if (userDetails != null && permissionClaims.isDesatualizado(token)) {
+                        response.setHeader(JwtPermissionClaims.HEADER_RENOVAR_TOKEN, "true");
+                    }
+
+                    if (userDetails != null) {
                         // Cria a autenticação
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
@@ -75,6 +97,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Monta o principal do token: direto dos claims de permissão quando atuais
+     * (sem ida ao banco) ou carregando o usuário do banco
+     */
+    private UserDetails carregarPrincipal(TokenVerificado token, String cpf) {
+        Collection<GrantedAuthority> authorities = permissionClaims.authoritiesDoToken(token);
+        if (authorities != null) {
+            // Conta inativa ou bloqueada não autentica com tokens já emitidos;
+            // sessão verificada na denylist em memória
+            return permissionClaims.isContaLiberada(cpf) && sessaoService.sessaoValida(token.token())
+                    ? new User(cpf, "", authorities)
+                    : null;
+        }
+
+        // Carrega os detalhes do usuário do banco de dados
+        UserDetails userDetails = userDetailsService.loadUserByUsername(cpf);
+
+        // Valida o token e verifica se a sessão ainda é válida no banco
+        if (!token.pertenceA(userDetails) || !sessaoService.sessaoValida(token.token())) {
+            return null;
+        }
+
+        if (permissionClaims.isDesatualizado(token)) {
+            return User.withUserDetails(userDetails)
+                    .authorities(permissionClaims.authoritiesAtuais(cpf))
+                    .build();
+        }
+        return userDetails;
+    }
+
     /**
      * Extrai o token JWT do header Authorization
      */
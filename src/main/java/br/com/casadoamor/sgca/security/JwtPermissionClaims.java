@@ -0,0 +1,148 @@
+package br.com.casadoamor.sgca.security;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel.PermissoesUsuario;
+import br.com.casadoamor.sgca.service.auth.PermissionService;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Claims de autorização embutidos no JWT (modo opcional).
+ *
+ * Quando habilitado, o token carrega o tipo do usuário, o conjunto de permissões
+ * codificado (bits do modelo compilado em Base64URL) e a versão do modelo.
+ * O filtro monta as authorities direto do token, sem ida ao banco. Se a versão
+ * do modelo mudou desde a emissão, ou se o tipo e as permissões do próprio usuário
+ * (perfis atribuídos, que a versão global não cobre) diferem das atuais no modelo
+ * compilado, o token é tratado como desatualizado: as permissões atuais são usadas
+ * e o cliente é sinalizado para renovar o token. Como o caminho pelas claims não
+ * passa pelo UserDetailsServiceImpl, a situação da conta (ativa, bloqueio) também
+ * é conferida no modelo compilado.
+ */
+@Slf4j
+@Component
+public class JwtPermissionClaims {
+
+    public static final String CLAIM_TIPO = "role";
+    public static final String CLAIM_PERMISSOES = "perms";
+    public static final String CLAIM_VERSAO = "pv";
+
+    /** Header de resposta que sinaliza token com permissões desatualizadas */
+    public static final String HEADER_RENOVAR_TOKEN = "X-Token-Refresh";
+
+    private final CompiledPermissionModel permissionModel;
+    private final PermissionService permissionService;
+    private final boolean habilitado;
+
+    public JwtPermissionClaims(CompiledPermissionModel permissionModel,
+                               PermissionService permissionService,
+                               @Value("${security.jwt.permission-claims.enabled:false}") boolean habilitado) {
+        this.permissionModel = permissionModel;
+        this.permissionService = permissionService;
+        this.habilitado = habilitado;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Claims de autorização para o token do usuário (vazio se o modo estiver desabilitado)
+     */
+    public Map<String, Object> gerarClaims(String cpf) {
+        if (!habilitado) {
+            return Map.of();
+        }
+        try {
+            long versao = permissionModel.getVersao();
+            PermissoesUsuario usuario = permissionModel.permissoesDoUsuario(cpf);
+            if (usuario == null) {
+                return Map.of();
+            }
+            return Map.of(
+                    CLAIM_TIPO, usuario.tipo().name(),
+                    CLAIM_PERMISSOES, Base64.getUrlEncoder().withoutPadding().encodeToString(usuario.bits().toByteArray()),
+                    CLAIM_VERSAO, versao);
+        } catch (Exception e) {
+            // Sem claims o token continua válido, apenas segue o caminho com consulta ao banco
+            log.error("Erro ao gerar claims de permissão para usuário {}: {}", cpf, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Authorities montadas a partir do token, ou null se o token não tiver claims
+     * de permissão atuais (modo desabilitado, token antigo ou versão desatualizada)
+     */
+    public Collection<GrantedAuthority> authoritiesDoToken(TokenVerificado token) {
+        if (!habilitado || !possuiClaims(token.claims()) || isDesatualizado(token)) {
+            return null;
+        }
+
+        Claims claims = token.claims();
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        permissionModel.nomes(bitsDoToken(claims)).forEach(nome -> authorities.add(new SimpleGrantedAuthority(nome)));
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + claims.get(CLAIM_TIPO, String.class)));
+        return authorities;
+    }
+
+    /**
+     * Indica se o token traz permissões de uma versão anterior do modelo ou diferentes
+     * das atuais do usuário (ex.: perfil removido ou tipo alterado após a emissão).
+     * As permissões atuais vêm do cache por usuário do modelo compilado, invalidado
+     * após o commit de cada alteração de perfis ou tipo.
+     */
+    public boolean isDesatualizado(TokenVerificado token) {
+        if (!habilitado || !possuiClaims(token.claims())) {
+            return false;
+        }
+        Claims claims = token.claims();
+        Number versao = claims.get(CLAIM_VERSAO, Number.class);
+        if (versao.longValue() != permissionModel.getVersao()) {
+            return true;
+        }
+
+        PermissoesUsuario atual = permissionModel.permissoesDoUsuario(token.getUsername());
+        return atual == null
+                || !atual.tipo().name().equals(claims.get(CLAIM_TIPO, String.class))
+                || !atual.bits().equals(bitsDoToken(claims));
+    }
+
+    /**
+     * Indica se a conta do usuário está ativa e sem bloqueio vigente, conforme o cache
+     * por usuário do modelo compilado (invalidado ao bloquear ou desativar a conta)
+     */
+    public boolean isContaLiberada(String cpf) {
+        PermissoesUsuario atual = permissionModel.permissoesDoUsuario(cpf);
+        return atual != null && atual.isLiberada();
+    }
+
+    /**
+     * Authorities atuais do usuário (usadas quando o token está desatualizado)
+     */
+    public Collection<? extends GrantedAuthority> authoritiesAtuais(String cpf) {
+        return permissionService.getAuthorities(cpf);
+    }
+
+    private static BitSet bitsDoToken(Claims claims) {
+        return BitSet.valueOf(Base64.getUrlDecoder().decode(claims.get(CLAIM_PERMISSOES, String.class)));
+    }
+
+    private static boolean possuiClaims(Claims claims) {
+        return claims.get(CLAIM_VERSAO) != null
+                && claims.get(CLAIM_PERMISSOES) != null
+                && claims.get(CLAIM_TIPO) != null;
+    }
+}
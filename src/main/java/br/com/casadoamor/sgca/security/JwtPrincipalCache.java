@@ -0,0 +1,147 @@
+package br.com.casadoamor.sgca.security;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import br.com.casadoamor.sgca.util.TokenHashUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache em memória do principal autenticado por token JWT.
+ *
+ * Evita que o JwtAuthenticationFilter consulte o banco (usuário e sessão) em
+ * toda requisição. A chave é o SHA-256 do token, e cada entrada vive no máximo
+ * pelo TTL configurado, nunca além da expiração do próprio token.
+ *
+ * Revogações feitas nesta instância invalidam o cache imediatamente; em outras
+ * instâncias a mudança é percebida em até um TTL.
+ */
+@Slf4j
+@Component
+public class JwtPrincipalCache {
+
+    private final Cache<String, PrincipalCacheado> cache;
+
+    public JwtPrincipalCache(MeterRegistry meterRegistry,
+                             @Value("${security.principal-cache.max-size:10000}") long tamanhoMaximo,
+                             @Value("${security.principal-cache.ttl-seconds:60}") long ttlSegundos) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoLimitadaAoToken(Duration.ofSeconds(ttlSegundos)))
+                .recordStats()
+                .build();
+
+        // Expõe cache.gets{result=hit|miss}, cache.evictions, cache.size...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.principal");
+    }
+
+    /**
+     * Retorna o principal em cache para o token, ou null se não houver
+     */
+    public UserDetails buscar(String token) {
+        PrincipalCacheado principal = cache.getIfPresent(TokenHashUtil.sha256Hex(token));
+        return principal != null ? principal.userDetails() : null;
+    }
+
+    /**
+     * Armazena o principal já validado (token + sessão) para o token
+     */
+    public void armazenar(String token, UserDetails userDetails, Date expiracaoToken) {
+        cache.put(TokenHashUtil.sha256Hex(token),
+                new PrincipalCacheado(userDetails, expiracaoToken.getTime()));
+    }
+
+    /**
+     * Remove o principal de um token específico (ex: sessão revogada)
+     */
+    public void invalidarToken(String token) {
+        if (token != null) {
+            invalidarTokenHash(TokenHashUtil.sha256Hex(token));
+        }
+    }
+
+    /**
+     * Remove o principal pelo hash SHA-256 do token (ex: revogação em lote)
+     */
+    public void invalidarTokenHash(String tokenHash) {
+        if (tokenHash != null) {
+            executarAgoraEAposCommit(() -> cache.invalidate(tokenHash));
+        }
+    }
+
+    /**
+     * Remove todos os principais de um usuário (ex: dados, perfis ou bloqueio alterados)
+     */
+    public void invalidarUsuario(String cpf) {
+        if (cpf == null) {
+            return;
+        }
+        executarAgoraEAposCommit(() ->
+                cache.asMap().values().removeIf(p -> cpf.equals(p.userDetails().getUsername())));
+        log.debug("Cache de principal invalidado para usuário CPF: {}", cpf);
+    }
+
+    /**
+     * Esvazia o cache
+     */
+    public void invalidarTodos() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalida imediatamente e, se houver transação ativa, novamente após o commit,
+     * para que uma requisição concorrente não recoloque no cache o estado anterior.
+     */
+    private void executarAgoraEAposCommit(Runnable invalidacao) {
+        invalidacao.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidacao.run();
+                }
+            });
+        }
+    }
+
+    private record PrincipalCacheado(UserDetails userDetails, long expiraEmMillis) {
+    }
+
+    /**
+     * Expira a entrada no menor tempo entre o TTL e a expiração do token
+     */
+    private record ExpiracaoLimitadaAoToken(Duration ttl) implements Expiry<String, PrincipalCacheado> {
+
+        @Override
+        public long expireAfterCreate(String chave, PrincipalCacheado principal, long currentTime) {
+            long restanteToken = TimeUnit.MILLISECONDS.toNanos(
+                    Math.max(0, principal.expiraEmMillis() - System.currentTimeMillis()));
+            return Math.min(ttl.toNanos(), restanteToken);
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, PrincipalCacheado principal,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(chave, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, PrincipalCacheado principal,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
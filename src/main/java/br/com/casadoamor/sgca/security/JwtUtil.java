@@ -3,6 +3,7 @@ package br.com.casadoamor.sgca.security;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -12,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -30,6 +32,9 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
+    // Chave e parser derivados do secret, criados uma única vez (ambos são thread-safe)
+    private volatile ChaveAssinatura chaveAssinatura;
+
     /**
      * Gera um token JWT para o usuário
      */
@@ -38,6 +43,14 @@ public class JwtUtil {
         return createToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * Gera um token JWT para o usuário com claims adicionais (ex: permissões)
+     */
+    public String generateToken(UserDetails userDetails, Map<String, Object> claimsAdicionais) {
+        Map<String, Object> claims = new HashMap<>(claimsAdicionais);
+        return createToken(claims, userDetails.getUsername());
+    }
+
     /**
      * Cria o token JWT com claims e subject
      */
@@ -48,6 +61,7 @@ public class JwtUtil {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString()) // jti: garante token (e hash da sessão) único
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
@@ -58,8 +72,30 @@ public class JwtUtil {
      * Obtém a chave de assinatura a partir do secret
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return getChaveAssinatura().chave();
+    }
+
+    /**
+     * Obtém (ou cria na primeira chamada) a chave e o parser reutilizáveis.
+     * O secret é comparado para que uma troca de configuração recrie ambos.
+     */
+    private ChaveAssinatura getChaveAssinatura() {
+        ChaveAssinatura atual = chaveAssinatura;
+        if (atual == null || !atual.secret().equals(jwtSecret)) {
+            byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+            SecretKey chave = Keys.hmacShaKeyFor(keyBytes);
+            atual = new ChaveAssinatura(jwtSecret, chave, Jwts.parser().verifyWith(chave).build());
+            chaveAssinatura = atual;
+        }
+        return atual;
+    }
+
+    /**
+     * Verifica assinatura e expiração do token uma única vez.
+     * Lança {@link io.jsonwebtoken.JwtException} se o token for inválido ou expirado.
+     */
+    public TokenVerificado verificarToken(String token) {
+        return new TokenVerificado(token, extractAllClaims(token));
     }
 
     /**
@@ -88,26 +124,16 @@ public class JwtUtil {
      * Extrai todos os claims do token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getChaveAssinatura().parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    /**
-     * Verifica se o token está expirado
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
     /**
      * Valida o token JWT
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return verificarToken(token).pertenceA(userDetails);
     }
 
     /**
@@ -116,4 +142,7 @@ public class JwtUtil {
     public long getExpirationTime() {
         return jwtExpirationMs;
     }
+
+    private record ChaveAssinatura(String secret, SecretKey chave, JwtParser parser) {
+    }
 }
@@ -0,0 +1,160 @@
+package br.com.casadoamor.sgca.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository;
+import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository.FalhaRecente;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Contador em memória de falhas de login por CPF em janela deslizante.
+ *
+ * Cada CPF tem um anel de buckets de tempo; cada bucket guarda período e contagem
+ * empacotados em um único long, atualizado por CAS (sem locks). A verificação de
+ * bloqueio passa a somar os buckets da janela, sem COUNT em tentativas_login.
+ * Na inicialização o contador é reconstruído a partir das falhas recentes.
+ */
+@Slf4j
+@Component
+public class LoginFailureCounter {
+
+    private static final int BUCKETS = 15;
+    private static final int BITS_CONTAGEM = 24;
+    private static final long MASCARA_CONTAGEM = (1L << BITS_CONTAGEM) - 1;
+
+    private final TentativaLoginRepository tentativaLoginRepository;
+    private final Cache<String, Janela> janelas;
+    private final int maxTentativas;
+    private final long janelaMillis;
+    private final long bucketMillis;
+
+    public LoginFailureCounter(TentativaLoginRepository tentativaLoginRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${security.lockout.max-attempts:5}") int maxTentativas,
+                               @Value("${security.lockout.window-minutes:30}") long janelaMinutos,
+                               @Value("${security.lockout.max-tracked:100000}") long maxRastreados) {
+        this.tentativaLoginRepository = tentativaLoginRepository;
+        this.maxTentativas = maxTentativas;
+        this.janelaMillis = Duration.ofMinutes(janelaMinutos).toMillis();
+        this.bucketMillis = Math.max(1, janelaMillis / BUCKETS);
+        this.janelas = Caffeine.newBuilder()
+                .maximumSize(maxRastreados)
+                .expireAfterAccess(Duration.ofMillis(janelaMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, janelas, "login.failures");
+    }
+
+    /**
+     * Reconstrói as janelas a partir das falhas recentes gravadas no banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            LocalDateTime desde = LocalDateTime.now().minus(Duration.ofMillis(janelaMillis));
+            int total = 0;
+            for (FalhaRecente falha : tentativaLoginRepository.findFalhasDesde(desde)) {
+                registrarFalha(falha.getCpf(), paraMillis(falha.getDataTentativa()));
+                total++;
+            }
+            log.info("Contador de falhas de login reconstruído com {} tentativas recentes", total);
+        } catch (Exception e) {
+            log.error("Erro ao reconstruir contador de falhas de login: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra uma falha de login para o CPF
+     */
+    public void registrarFalha(String cpf) {
+        registrarFalha(cpf, System.currentTimeMillis());
+    }
+
+    /**
+     * Quantidade de falhas do CPF dentro da janela
+     */
+    public int contarFalhas(String cpf) {
+        return contarFalhas(cpf, System.currentTimeMillis());
+    }
+
+    /**
+     * Verifica se o CPF atingiu o limite de falhas na janela
+     */
+    public boolean isBloqueado(String cpf) {
+        return contarFalhas(cpf) >= maxTentativas;
+    }
+
+    void registrarFalha(String cpf, long instanteMillis) {
+        if (cpf == null) {
+            return;
+        }
+        janelas.get(cpf, c -> new Janela()).incrementar(instanteMillis / bucketMillis);
+    }
+
+    int contarFalhas(String cpf, long agoraMillis) {
+        Janela janela = cpf != null ? janelas.getIfPresent(cpf) : null;
+        return janela != null ? janela.somar(agoraMillis / bucketMillis) : 0;
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Anel de buckets; cada posição guarda (período << 24) | contagem
+     */
+    private static final class Janela {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        void incrementar(long periodo) {
+            int indice = (int) (periodo % BUCKETS);
+            while (true) {
+                long atual = buckets.get(indice);
+                long periodoAtual = atual >>> BITS_CONTAGEM;
+                long novo;
+                if (periodoAtual == periodo) {
+                    long contagem = atual & MASCARA_CONTAGEM;
+                    if (contagem == MASCARA_CONTAGEM) {
+                        return;
+                    }
+                    novo = atual + 1;
+                } else if (periodoAtual < periodo) {
+                    // Bucket de um período antigo: reinicia para o período atual
+                    novo = (periodo << BITS_CONTAGEM) | 1;
+                } else {
+                    // Falha mais antiga que o período do bucket (fora da janela)
+                    return;
+                }
+                if (buckets.compareAndSet(indice, atual, novo)) {
+                    return;
+                }
+            }
+        }
+
+        int somar(long periodoAtual) {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                long valor = buckets.get(i);
+                long periodo = valor >>> BITS_CONTAGEM;
+                if (periodo > periodoAtual - BUCKETS && periodo <= periodoAtual) {
+                    total += valor & MASCARA_CONTAGEM;
+                }
+            }
+            return (int) Math.min(total, Integer.MAX_VALUE);
+        }
+    }
+}
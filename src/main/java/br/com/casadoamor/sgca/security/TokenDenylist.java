@@ -0,0 +1,189 @@
+package br.com.casadoamor.sgca.security;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository.TokenRevogado;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Denylist em memória dos tokens revogados (hash SHA-256 → expiração).
+ *
+ * Como quase nenhum token é revogado, a validação de sessão passa a ser uma
+ * consulta em memória. Guarda apenas tokens revogados ainda não expirados;
+ * é carregada na inicialização, atualizada pelas revogações desta instância
+ * e reconciliada periodicamente com sessoes_usuario para refletir revogações
+ * feitas em outras instâncias.
+ *
+ * A ausência na denylist não basta para aceitar um token: a sessão também precisa
+ * ser conhecida. Os hashes das sessões criadas nesta instância, ou já confirmadas
+ * em sessoes_usuario, ficam em um cache limitado até expirarem; um hash desconhecido
+ * volta a ser validado no banco.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    private final SessaoUsuarioRepository sessaoRepository;
+    private final Map<String, Long> revogados = new ConcurrentHashMap<>();
+    private final Cache<String, Long> emitidos;
+    private volatile boolean carregada = false;
+
+    public TokenDenylist(SessaoUsuarioRepository sessaoRepository, MeterRegistry meterRegistry,
+                         @Value("${security.denylist.max-known-sessions:200000}") long maxSessoesConhecidas) {
+        this.sessaoRepository = sessaoRepository;
+        this.emitidos = Caffeine.newBuilder()
+                .maximumSize(maxSessoesConhecidas)
+                .expireAfter(new ExpiracaoDoToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, emitidos, "jwt.sessions.known");
+        Gauge.builder("jwt.denylist.size", revogados, Map::size)
+                .description("Tokens revogados e ainda não expirados mantidos em memória")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Carga inicial a partir do banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Reconcilia com o banco (revogações de outras instâncias) e descarta entradas expiradas
+     */
+    @Scheduled(fixedDelayString = "${security.denylist.reconciliation-ms:30000}",
+               initialDelayString = "${security.denylist.reconciliation-ms:30000}")
+    public void reconciliar() {
+        try {
+            List<TokenRevogado> tokens = sessaoRepository.findTokensRevogadosNaoExpirados(LocalDateTime.now());
+            tokens.forEach(t -> revogados.put(t.getTokenHash(), paraMillis(t.getExpiraEm())));
+
+            long agora = System.currentTimeMillis();
+            revogados.values().removeIf(expiraEm -> expiraEm <= agora);
+
+            carregada = true;
+            log.debug("Denylist de tokens reconciliada: {} tokens revogados", revogados.size());
+        } catch (Exception e) {
+            // Mantém o estado atual; a próxima execução tenta novamente
+            log.error("Erro ao reconciliar denylist de tokens: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Registra token revogado. Com transação ativa, o registro ocorre após o commit.
+     */
+    public void revogar(String tokenHash, LocalDateTime expiraEm) {
+        if (tokenHash == null || expiraEm == null) {
+            return;
+        }
+        long expiraEmMillis = paraMillis(expiraEm);
+        aposCommit(() -> {
+            revogados.put(tokenHash, expiraEmMillis);
+            emitidos.invalidate(tokenHash);
+        });
+    }
+
+    /**
+     * Registra o token de uma sessão existente (criada ou confirmada no banco).
+     * Com transação ativa, o registro ocorre após o commit.
+     */
+    public void registrarSessao(String tokenHash, LocalDateTime expiraEm) {
+        if (tokenHash == null || expiraEm == null) {
+            return;
+        }
+        long expiraEmMillis = paraMillis(expiraEm);
+        aposCommit(() -> emitidos.put(tokenHash, expiraEmMillis));
+    }
+
+    /**
+     * Verifica se o token (pelo hash) pertence a uma sessão conhecida e não expirada
+     */
+    public boolean isSessaoConhecida(String tokenHash) {
+        Long expiraEm = emitidos.getIfPresent(tokenHash);
+        return expiraEm != null && expiraEm > System.currentTimeMillis();
+    }
+
+    /**
+     * Verifica se o token (pelo hash) foi revogado
+     */
+    public boolean isRevogado(String tokenHash) {
+        Long expiraEm = revogados.get(tokenHash);
+        return expiraEm != null && expiraEm > System.currentTimeMillis();
+    }
+
+    /**
+     * Indica se a carga inicial já ocorreu (antes disso, a validação consulta o banco)
+     */
+    public boolean isCarregada() {
+        return carregada;
+    }
+
+    public int tamanho() {
+        return revogados.size();
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private static long paraMillis(LocalDateTime dataHora) {
+        return dataHora.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Cada sessão conhecida sai do cache quando o token expira
+     */
+    private static final class ExpiracaoDoToken implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String key, Long expiraEm, long currentTime) {
+            return restante(expiraEm);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Long expiraEm, long currentTime, long currentDuration) {
+            return restante(expiraEm);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Long expiraEm, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long restante(Long expiraEm) {
+            return Duration.ofMillis(Math.max(0, expiraEm - System.currentTimeMillis())).toNanos();
+        }
+    }
+}
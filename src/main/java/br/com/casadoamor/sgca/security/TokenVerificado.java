@@ -0,0 +1,39 @@
+package br.com.casadoamor.sgca.security;
+
+import java.util.Date;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Token JWT cuja assinatura e expiração já foram verificadas.
+ *
+ * Produzido uma única vez por requisição via {@link JwtUtil#verificarToken(String)},
+ * evita que o mesmo token seja decodificado e verificado várias vezes.
+ */
+public record TokenVerificado(String token, Claims claims) {
+
+    /**
+     * CPF (subject) do token
+     */
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    /**
+     * Data de expiração do token
+     */
+    public Date getExpiracao() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * Verifica se o token pertence ao usuário e ainda não expirou
+     */
+    public boolean pertenceA(UserDetails userDetails) {
+        return getUsername() != null
+                && getUsername().equals(userDetails.getUsername())
+                && getExpiracao().after(new Date());
+    }
+}
@@ -8,19 +8,23 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository.AutenticacaoUsuario;
 
 /**
  * Implementação do UserDetailsService do Spring Security
  * Carrega usuários do banco de dados para autenticação
+ * e regrava o hash da senha quando o custo do BCrypt é alterado.
+ * A carga usa a visão {@link AutenticacaoUsuario} (uma linha, sem perfis e permissões,
+ * que são resolvidos pelo modelo compilado de permissões)
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private AuthUsuarioRepository authUsuarioRepository;
@@ -31,7 +35,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String cpf) throws UsernameNotFoundException {
         // Busca o usuário no banco de dados pelo CPF
-        AuthUsuario usuario = authUsuarioRepository.findByCpf(cpf)
+        AutenticacaoUsuario usuario = authUsuarioRepository.findAutenticacaoByCpf(cpf)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com CPF: " + cpf));
 
         // Verifica se o usuário está ativo
@@ -40,7 +44,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // Verifica se a conta está bloqueada
-        if (usuario.getLockedUntil() != null && usuario.getLockedUntil().isAfter(java.time.LocalDateTime.now())) {
+        if (usuario.isBloqueado()) {
             throw new UsernameNotFoundException("Conta bloqueada até: " + usuario.getLockedUntil());
         }
 
@@ -56,8 +60,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 usuario.getAtivo(),
                 true, // accountNonExpired
                 true, // credentialsNonExpired
-                usuario.getLockedUntil() == null || usuario.getLockedUntil().isBefore(java.time.LocalDateTime.now()), // accountNonLocked
+                !usuario.isBloqueado(), // accountNonLocked
                 authorities
         );
     }
+
+    /**
+     * Atualiza o hash da senha após login bem-sucedido com hash de custo menor que o configurado
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        authUsuarioRepository.atualizarSenhaHash(user.getUsername(), newPassword);
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
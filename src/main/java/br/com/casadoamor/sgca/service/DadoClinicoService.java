@@ -1,5 +1,6 @@
 package br.com.casadoamor.sgca.service;
 
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoInputDTO;
 
@@ -29,6 +30,17 @@ public interface DadoClinicoService {
    * @return Lista de DTOs com histórico de dados clínicos
    */
   List<DadoClinicoDTO> buscarDadosClinicosPorPaciente(String pacienteId);
+
+  /**
+   * Busca uma página do histórico de dados clínicos de um paciente por cursor (keyset),
+   * do registro mais recente ao mais antigo
+   * @param pacienteId ID do paciente
+   * @param limit Tamanho da página
+   * @param after Cursor (endCursor) para a próxima página
+   * @param before Cursor (startCursor) para a página anterior
+   * @return Página com os DTOs e os cursores
+   */
+  PaginatedResponseDTO<DadoClinicoDTO> buscarDadosClinicosPorCursor(String pacienteId, int limit, String after, String before);
   
   /**
    * Busca o registro mais recente de dados clínicos de um paciente
@@ -1,14 +1,23 @@
 package br.com.casadoamor.sgca.service.admin;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.casadoamor.sgca.dto.admin.auditoria.TentativaLoginDTO;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
 import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository;
+import br.com.casadoamor.sgca.security.LoginFailureCounter;
+import br.com.casadoamor.sgca.util.KeysetUtil;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,15 +29,18 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuditoriaService {
 
-    private final TentativaLoginRepository tentativaLoginRepository;
+    private static final String ESCOPO_CURSOR = "tentativas-login";
 
-    private static final int MAX_TENTATIVAS = 5;
-    private static final int MINUTOS_BLOQUEIO = 30;
+    private final TentativaLoginRepository tentativaLoginRepository;
+    private final LoginAuditWriter loginAuditWriter;
+    private final LoginFailureCounter loginFailureCounter;
+    private final CursorCodec cursorCodec;
+    private final PaginatedResponseMapper paginatedMapper;
+    private final TentativaLoginTotais tentativaLoginTotais;
 
     /**
-     * Registra tentativa de login bem-sucedida
+     * Registra tentativa de login bem-sucedida (gravação assíncrona em lote)
      */
-    @Transactional
     public void registrarLoginSucesso(AuthUsuario usuario, String ipOrigem, String userAgent) {
         TentativaLogin tentativa = TentativaLogin.builder()
                 .usuario(usuario)
@@ -39,14 +51,13 @@ public class AuditoriaService {
                 .bloqueado(false)
                 .build();
 
-        tentativaLoginRepository.save(tentativa);
+        loginAuditWriter.registrar(tentativa);
         log.info("Login bem-sucedido registrado para usuário: {}", usuario.getEmail());
     }
 
     /**
-     * Registra tentativa de login com falha
+     * Registra tentativa de login com falha (gravação assíncrona em lote)
      */
-    @Transactional
     public void registrarLoginFalha(String cpf, String ipOrigem, String userAgent, String motivoFalha) {
         TentativaLogin tentativa = TentativaLogin.builder()
                 .cpf(cpf)
@@ -57,23 +68,20 @@ public class AuditoriaService {
                 .bloqueado(verificarBloqueio(cpf))
                 .build();
 
-        tentativaLoginRepository.save(tentativa);
+        loginFailureCounter.registrarFalha(cpf);
+        loginAuditWriter.registrar(tentativa);
         log.warn("Login falho registrado para CPF: {} - Motivo: {}", cpf, motivoFalha);
     }
 
     /**
      * Verifica se CPF está bloqueado por excesso de tentativas
+     * (janela deslizante em memória, sem consulta ao banco)
      */
     public boolean verificarBloqueio(String cpf) {
-        LocalDateTime limiteData = LocalDateTime.now().minusMinutes(MINUTOS_BLOQUEIO);
-        
-        Long tentativasFalhas = tentativaLoginRepository
-                .countByCpfAndSucessoAndDataTentativaAfter(cpf, false, limiteData);
-
-        boolean bloqueado = tentativasFalhas >= MAX_TENTATIVAS;
+        boolean bloqueado = loginFailureCounter.isBloqueado(cpf);
         
         if (bloqueado) {
-            log.warn("CPF {} bloqueado por excesso de tentativas ({})", cpf, tentativasFalhas);
+            log.warn("CPF {} bloqueado por excesso de tentativas ({})", cpf, loginFailureCounter.contarFalhas(cpf));
         }
         
         return bloqueado;
@@ -94,4 +102,85 @@ public class AuditoriaService {
     public List<TentativaLogin> obterTentativasSuspeitas() {
         return tentativaLoginRepository.findTop100ByOrderByDataTentativaDesc();
     }
+
+    /**
+     * Tentativas de login por keyset, da mais recente para a mais antiga
+     * (data_tentativa, id), com filtros opcionais de sucesso e CPF
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponseDTO<TentativaLoginDTO> listarTentativas(Boolean sucesso, String cpf, int limit,
+                                                                    String after, String before) {
+        if (limit <= 0) {
+            throw new RuntimeException("Limit deve ser maior que zero");
+        }
+        CursorCodec.Posicao posicao = cursorCodec.posicao(ESCOPO_CURSOR, after, before);
+
+        // limit + 1: a linha extra indica se há mais registros no sentido da leitura
+        List<TentativaLoginDTO> linhas = tentativaLoginRepository
+                .findBy(filtroTentativas(sucesso, cpf, posicao), q -> q.project("usuario").limit(limit + 1).all())
+                .stream()
+                .map(AuditoriaService::toDTO)
+                .toList();
+        // O total (sem o cursor) não é recontado a cada página
+        long total = tentativaLoginTotais.total(sucesso, cpf, () -> tentativaLoginRepository
+                .count(filtroTentativas(sucesso, cpf, new CursorCodec.Posicao(null, false))));
+
+        return paginatedMapper.toKeysetDTO(linhas, limit, posicao, total, ESCOPO_CURSOR,
+                tentativa -> List.of(tentativa.getDataTentativa(), tentativa.getId()));
+    }
+
+    private static Specification<TentativaLogin> filtroTentativas(Boolean sucesso, String cpf, CursorCodec.Posicao posicao) {
+        return (root, query, cb) -> {
+            // Mais recentes primeiro; lendo para trás (before), a ordem inverte
+            boolean crescente = posicao.paraTras();
+            List<Predicate> filtros = new ArrayList<>();
+            if (sucesso != null) {
+                filtros.add(cb.equal(root.get("sucesso"), sucesso));
+            }
+            if (cpf != null && !cpf.isBlank()) {
+                filtros.add(cb.equal(root.get("cpf"), cpf));
+            }
+            CursorCodec.Cursor cursor = posicao.cursor();
+            if (cursor != null) {
+                filtros.add(KeysetUtil.depoisDe(cb, root.<LocalDateTime>get("dataTentativa"), cursor.dataHora(0),
+                        root.<Long>get("id"), cursor.longo(1), crescente));
+            }
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                query.orderBy(KeysetUtil.ordem(cb, root.get("dataTentativa"), crescente),
+                        KeysetUtil.ordem(cb, root.get("id"), crescente));
+            }
+            return cb.and(filtros.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Tentativa de login com o resumo do usuário (se encontrado)
+     */
+    public static TentativaLoginDTO toDTO(TentativaLogin t) {
+        TentativaLoginDTO.TentativaLoginDTOBuilder builder = TentativaLoginDTO.builder()
+                .id(t.getId())
+                .cpf(t.getCpf())
+                .ipOrigem(t.getIpOrigem())
+                .userAgent(t.getUserAgent())
+                .dataTentativa(t.getDataTentativa())
+                .sucesso(t.getSucesso())
+                .motivoFalha(t.getMotivoFalha())
+                .bloqueado(t.getBloqueado());
+
+        // Incluir dados do usuário se existir
+        if (t.getUsuario() != null) {
+            var usuario = t.getUsuario();
+            builder.usuario(TentativaLoginDTO.UsuarioTentativaDTO.builder()
+                    .id(usuario.getId())
+                    .nome(usuario.getNome())
+                    .email(usuario.getEmail())
+                    .tipo(usuario.getTipo().name())
+                    .ativo(usuario.getAtivo())
+                    .bloqueado(usuario.getLockedUntil() != null
+                            && usuario.getLockedUntil().isAfter(LocalDateTime.now()))
+                    .build());
+        }
+
+        return builder.build();
+    }
 }
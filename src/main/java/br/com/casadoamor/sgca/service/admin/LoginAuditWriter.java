@@ -0,0 +1,208 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gravação assíncrona em lote das tentativas de login.
+ *
+ * As tentativas entram em uma fila limitada e uma thread de fundo grava em lotes
+ * (JDBC batch) quando o lote enche ou o intervalo expira, tirando o INSERT do
+ * caminho crítico do login. Com a fila cheia, aplica a política de overflow:
+ * GRAVAR_SINCRONO (grava na própria requisição, sem perda) ou DESCARTAR.
+ * No desligamento da aplicação a fila é drenada.
+ */
+@Slf4j
+@Component
+public class LoginAuditWriter implements SmartLifecycle {
+
+    static final String SQL_INSERT = "INSERT INTO tentativas_login "
+            + "(usuario_id, cpf, ip_origem, user_agent, data_tentativa, sucesso, motivo_falha, bloqueado, criado_em) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long ESPERA_MAXIMA_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    public enum PoliticaOverflow {
+        GRAVAR_SINCRONO, DESCARTAR
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<TentativaLogin> fila;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+    private final PoliticaOverflow politicaOverflow;
+
+    private final Timer tempoGravacao;
+    private final Counter descartadas;
+    private final Counter falhasGravacao;
+
+    private volatile boolean executando = false;
+    private Thread gravador;
+
+    public LoginAuditWriter(JdbcTemplate jdbcTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${audit.login.queue-capacity:10000}") int capacidade,
+                            @Value("${audit.login.batch-size:200}") int tamanhoLote,
+                            @Value("${audit.login.flush-interval-ms:1000}") long intervaloMs,
+                            @Value("${audit.login.overflow-policy:GRAVAR_SINCRONO}") PoliticaOverflow politicaOverflow) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+        this.politicaOverflow = politicaOverflow;
+
+        Gauge.builder("login.audit.queue.size", fila, BlockingQueue::size)
+                .description("Tentativas de login aguardando gravação")
+                .register(meterRegistry);
+        this.tempoGravacao = Timer.builder("login.audit.flush")
+                .description("Tempo de gravação de um lote de tentativas de login")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("login.audit.dropped")
+                .description("Tentativas de login descartadas por fila cheia")
+                .register(meterRegistry);
+        this.falhasGravacao = Counter.builder("login.audit.failed")
+                .description("Tentativas de login perdidas por erro na gravação do lote")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enfileira a tentativa para gravação assíncrona
+     */
+    public void registrar(TentativaLogin tentativa) {
+        LocalDateTime agora = LocalDateTime.now();
+        if (tentativa.getDataTentativa() == null) {
+            tentativa.setDataTentativa(agora);
+        }
+        if (tentativa.getCriadoEm() == null) {
+            tentativa.setCriadoEm(agora);
+        }
+
+        if (!executando) {
+            gravar(List.of(tentativa));
+            return;
+        }
+
+        if (fila.offer(tentativa)) {
+            return;
+        }
+
+        if (politicaOverflow == PoliticaOverflow.GRAVAR_SINCRONO) {
+            gravar(List.of(tentativa));
+        } else {
+            descartadas.increment();
+            log.warn("Fila de auditoria de login cheia: tentativa do CPF {} descartada", tentativa.getCpf());
+        }
+    }
+
+    public int tamanhoFila() {
+        return fila.size();
+    }
+
+    /**
+     * Grava tudo o que estiver na fila (usado no desligamento e em testes)
+     */
+    public void drenar() {
+        List<TentativaLogin> lote = new ArrayList<>(tamanhoLote);
+        while (fila.drainTo(lote, tamanhoLote) > 0) {
+            gravar(lote);
+            lote.clear();
+        }
+    }
+
+    private void executarGravador() {
+        List<TentativaLogin> lote = new ArrayList<>(tamanhoLote);
+        while (executando) {
+            try {
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervaloMs);
+                // Acumula até encher o lote ou o intervalo expirar
+                while (executando && lote.size() < tamanhoLote) {
+                    long restante = limite - System.nanoTime();
+                    if (restante <= 0) {
+                        break;
+                    }
+                    // Espera em fatias curtas para perceber o desligamento rapidamente
+                    TentativaLogin tentativa = fila.poll(Math.min(restante, ESPERA_MAXIMA_NANOS), TimeUnit.NANOSECONDS);
+                    if (tentativa != null) {
+                        lote.add(tentativa);
+                        fila.drainTo(lote, tamanhoLote - lote.size());
+                    }
+                }
+                if (!lote.isEmpty()) {
+                    gravar(lote);
+                    lote.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravar(lote);
+        }
+    }
+
+    private void gravar(List<TentativaLogin> lote) {
+        try {
+            tempoGravacao.record(() -> jdbcTemplate.batchUpdate(SQL_INSERT, lote, lote.size(), (ps, t) -> {
+                ps.setObject(1, t.getUsuario() != null ? t.getUsuario().getId() : null, Types.BIGINT);
+                ps.setString(2, t.getCpf());
+                ps.setString(3, t.getIpOrigem());
+                ps.setString(4, t.getUserAgent());
+                ps.setTimestamp(5, Timestamp.valueOf(t.getDataTentativa()));
+                ps.setBoolean(6, Boolean.TRUE.equals(t.getSucesso()));
+                ps.setString(7, t.getMotivoFalha());
+                ps.setBoolean(8, Boolean.TRUE.equals(t.getBloqueado()));
+                ps.setTimestamp(9, Timestamp.valueOf(t.getCriadoEm()));
+            }));
+        } catch (Exception e) {
+            falhasGravacao.increment(lote.size());
+            log.error("Erro ao gravar lote de {} tentativas de login: {}", lote.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        gravador = new Thread(this::executarGravador, "login-audit-writer");
+        gravador.setDaemon(true);
+        gravador.start();
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (gravador != null) {
+            // Sem interrupt: o gravador termina o lote em andamento antes de sair
+            try {
+                gravador.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drenar();
+        log.info("Gravador de auditoria de login encerrado");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+}
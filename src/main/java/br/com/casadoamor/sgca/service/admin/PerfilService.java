@@ -14,6 +14,7 @@ import br.com.casadoamor.sgca.entity.admin.Perfil;
 import br.com.casadoamor.sgca.entity.admin.Permissao;
 import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
 import br.com.casadoamor.sgca.repository.admin.PermissaoRepository;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -25,6 +26,7 @@ public class PerfilService {
 
     private final PerfilRepository perfilRepository;
     private final PermissaoRepository permissaoRepository;
+    private final CompiledPermissionModel permissionModel;
 
     /**
      * Cria um novo perfil
@@ -50,6 +52,7 @@ public class PerfilService {
         }
 
         Perfil salvo = perfilRepository.save(perfil);
+        permissionModel.reconstruirAposCommit();
         return toDTO(salvo);
     }
 
@@ -109,6 +112,7 @@ public class PerfilService {
         perfil.setAtualizadoPor(atualizadoPor);
 
         Perfil atualizado = perfilRepository.save(perfil);
+        permissionModel.reconstruirAposCommit();
         return toDTO(atualizado);
     }
 
@@ -131,6 +135,7 @@ public class PerfilService {
 
         perfil.setDeletadoEm(LocalDateTime.now());
         perfilRepository.save(perfil);
+        permissionModel.reconstruirAposCommit();
     }
 
     /**
@@ -163,6 +168,7 @@ public class PerfilService {
         perfil.setAtualizadoPor(atualizadoPor);
 
         Perfil atualizado = perfilRepository.save(perfil);
+        permissionModel.reconstruirAposCommit();
         return toDTO(atualizado);
     }
 
@@ -188,6 +194,7 @@ public class PerfilService {
         perfil.setAtualizadoPor(atualizadoPor);
 
         Perfil atualizado = perfilRepository.save(perfil);
+        permissionModel.reconstruirAposCommit();
         return toDTO(atualizado);
     }
 
@@ -11,6 +11,7 @@ import br.com.casadoamor.sgca.dto.admin.permissao.CreatePermissaoDTO;
 import br.com.casadoamor.sgca.dto.admin.permissao.PermissaoDTO;
 import br.com.casadoamor.sgca.entity.admin.Permissao;
 import br.com.casadoamor.sgca.repository.admin.PermissaoRepository;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -21,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 public class PermissaoService {
 
     private final PermissaoRepository permissaoRepository;
+    private final CompiledPermissionModel permissionModel;
 
     /**
      * Cria uma nova permissão
@@ -40,6 +42,7 @@ public class PermissaoService {
                 .build();
 
         Permissao salva = permissaoRepository.save(permissao);
+        permissionModel.reconstruirAposCommit();
         return toDTO(salva);
     }
 
@@ -89,6 +92,7 @@ public class PermissaoService {
         permissao.setAtualizadoPor(atualizadoPor);
 
         Permissao atualizada = permissaoRepository.save(permissao);
+        permissionModel.reconstruirAposCommit();
         return toDTO(atualizada);
     }
 
@@ -111,6 +115,7 @@ public class PermissaoService {
 
         permissao.setDeletadoEm(LocalDateTime.now());
         permissaoRepository.save(permissao);
+        permissionModel.reconstruirAposCommit();
     }
 
     /**
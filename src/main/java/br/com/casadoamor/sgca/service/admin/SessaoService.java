@@ -1,17 +1,25 @@
 package br.com.casadoamor.sgca.service.admin;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.dto.SessaoDTO;
+import br.com.casadoamor.sgca.dto.admin.sessao.RevogarSessoesEmLoteDTO;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.entity.auth.SessaoUsuario;
 import br.com.casadoamor.sgca.exception.ResourceNotFoundException;
 import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository.TokenRevogado;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import br.com.casadoamor.sgca.security.TokenDenylist;
+import br.com.casadoamor.sgca.util.TokenHashUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -24,6 +32,8 @@ import lombok.extern.slf4j.Slf4j;
 public class SessaoService {
 
     private final SessaoUsuarioRepository sessaoRepository;
+    private final JwtPrincipalCache principalCache;
+    private final TokenDenylist tokenDenylist;
 
     /**
      * Cria nova sessão para o usuário
@@ -35,6 +45,7 @@ public class SessaoService {
         SessaoUsuario sessao = SessaoUsuario.builder()
                 .usuario(usuario)
                 .tokenJwt(tokenJwt)
+                .tokenHash(TokenHashUtil.sha256Hex(tokenJwt))
                 .ipOrigem(ipOrigem)
                 .userAgent(userAgent)
                 .expiraEm(expiracao)
@@ -42,19 +53,38 @@ public class SessaoService {
                 .build();
 
         sessaoRepository.save(sessao);
+        tokenDenylist.registrarSessao(sessao.getTokenHash(), expiracao);
         log.info("Nova sessão criada para usuário: {}", usuario.getEmail());
         
         return sessao;
     }
 
     /**
-     * Valida se sessão está ativa
+     * Valida se sessão está ativa.
+     * Com a denylist carregada, um token revogado é rejeitado e um token de sessão já
+     * conhecida é aceito sem I/O (a expiração já é garantida pela validação do próprio JWT).
+     * Um token sem sessão conhecida é validado no banco: sem linha em sessoes_usuario,
+     * não é aceito.
      */
     @Transactional(readOnly = true)
     public boolean sessaoValida(String tokenJwt) {
-        return sessaoRepository.findByTokenJwt(tokenJwt)
-                .map(sessao -> sessao.getAtivo() && 
-                              sessao.getExpiraEm().isAfter(LocalDateTime.now()))
+        String tokenHash = TokenHashUtil.sha256Hex(tokenJwt);
+        if (tokenDenylist.isCarregada()) {
+            if (tokenDenylist.isRevogado(tokenHash)) {
+                return false;
+            }
+            if (tokenDenylist.isSessaoConhecida(tokenHash)) {
+                return true;
+            }
+        }
+
+        return sessaoRepository.findByTokenHash(tokenHash)
+                .filter(sessao -> sessao.getAtivo() &&
+                                  sessao.getExpiraEm().isAfter(LocalDateTime.now()))
+                .map(sessao -> {
+                    tokenDenylist.registrarSessao(tokenHash, sessao.getExpiraEm());
+                    return true;
+                })
                 .orElse(false);
     }
 
@@ -70,41 +100,147 @@ public class SessaoService {
             throw new IllegalArgumentException("Sessão não pertence ao usuário");
         }
 
-        sessao.revogar();
-        sessaoRepository.save(sessao);
+        revogar(sessao);
         log.info("Sessão {} revogada para usuário ID: {}", sessaoId, usuarioId);
     }
 
     /**
-     * Revoga todas as sessões de um usuário (exceto a atual)
+     * Revoga sessão específica de qualquer usuário (uso administrativo)
      */
     @Transactional
-    public void revogarTodasSessoes(Long usuarioId, String tokenAtual) {
-        List<SessaoUsuario> sessoes = sessaoRepository.findByUsuarioIdAndAtivo(usuarioId, true);
-        
-        sessoes.stream()
-                .filter(s -> !s.getTokenJwt().equals(tokenAtual))
-                .forEach(sessao -> {
-                    sessao.revogar();
-                    sessaoRepository.save(sessao);
-                });
-
-        log.info("Todas as sessões revogadas para usuário ID: {} (exceto sessão atual)", usuarioId);
+    public void revogarSessao(Long sessaoId) {
+        SessaoUsuario sessao = sessaoRepository.findById(sessaoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sessão não encontrada"));
+
+        revogar(sessao);
+        log.info("Sessão {} revogada pelo administrador", sessaoId);
+    }
+
+    /**
+     * Revoga a sessão associada ao token (ex: token substituído na renovação)
+     */
+    @Transactional
+    public void revogarSessaoPorToken(String tokenJwt) {
+        sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(tokenJwt))
+                .filter(SessaoUsuario::getAtivo)
+                .ifPresent(this::revogar);
+    }
+
+    /**
+     * Revoga todas as sessões de um usuário (exceto a atual).
+     * Sem token atual não há sessão a preservar: todas são revogadas
+     * (tokenHash <> NULL não casaria com nenhuma linha).
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Transactional
+    public int revogarTodasSessoes(Long usuarioId, String tokenAtual) {
+        String tokenHashAtual = TokenHashUtil.sha256Hex(tokenAtual);
+        if (tokenHashAtual == null) {
+            return revogarTodasSessoes(usuarioId);
+        }
+
+        List<TokenRevogado> tokens = sessaoRepository.findTokensAtivosNaoExpiradosPorUsuarioExceto(
+                usuarioId, tokenHashAtual, LocalDateTime.now());
+        int revogadas = sessaoRepository.revogarAtivasPorUsuarioExceto(usuarioId, tokenHashAtual);
+        propagarRevogacoes(tokens);
+
+        log.info("{} sessões revogadas para usuário ID: {} (exceto sessão atual)", revogadas, usuarioId);
+        return revogadas;
     }
 
     /**
      * Revoga TODAS as sessões de um usuário (inclui sessão atual) - Force Logout
+     *
+     * @return quantidade de sessões revogadas
      */
     @Transactional
-    public void revogarTodasSessoes(Long usuarioId) {
-        List<SessaoUsuario> sessoes = sessaoRepository.findByUsuarioIdAndAtivo(usuarioId, true);
-        
-        sessoes.forEach(sessao -> {
-            sessao.revogar();
-            sessaoRepository.save(sessao);
+    public int revogarTodasSessoes(Long usuarioId) {
+        int revogadas = revogarSessoesDeUsuarios(List.of(usuarioId));
+
+        log.info("FORCE LOGOUT: {} sessões revogadas para usuário ID: {}", revogadas, usuarioId);
+        return revogadas;
+    }
+
+    /**
+     * Revoga todas as sessões de vários usuários em um único UPDATE
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Transactional
+    public int revogarSessoesDeUsuarios(Collection<Long> usuariosIds) {
+        if (usuariosIds == null || usuariosIds.isEmpty()) {
+            return 0;
+        }
+
+        List<TokenRevogado> tokens = sessaoRepository.findTokensAtivosNaoExpiradosPorUsuarios(
+                usuariosIds, LocalDateTime.now());
+        int revogadas = sessaoRepository.revogarAtivasPorUsuarios(usuariosIds);
+        propagarRevogacoes(tokens);
+        return revogadas;
+    }
+
+    /**
+     * Revoga as sessões de todos os usuários de um perfil em um único UPDATE
+     *
+     * @return quantidade de sessões revogadas
+     */
+    @Transactional
+    public int revogarSessoesDoPerfil(Long perfilId) {
+        List<TokenRevogado> tokens = sessaoRepository.findTokensAtivosNaoExpiradosPorPerfil(
+                perfilId, LocalDateTime.now());
+        int revogadas = sessaoRepository.revogarAtivasPorPerfil(perfilId);
+        propagarRevogacoes(tokens);
+
+        log.info("{} sessões revogadas para usuários do perfil ID: {}", revogadas, perfilId);
+        return revogadas;
+    }
+
+    /**
+     * Revoga em lote as sessões dos usuários e/ou do perfil informados
+     *
+     * @return quantidade total de sessões revogadas
+     */
+    @Transactional
+    public int revogarEmLote(RevogarSessoesEmLoteDTO dto) {
+        boolean semUsuarios = dto.getUsuariosIds() == null || dto.getUsuariosIds().isEmpty();
+        if (semUsuarios && dto.getPerfilId() == null) {
+            throw new CustomError("Informe usuariosIds e/ou perfilId", HttpStatus.BAD_REQUEST);
+        }
+
+        int revogadas = 0;
+        if (!semUsuarios) {
+            revogadas += revogarSessoesDeUsuarios(dto.getUsuariosIds());
+        }
+        if (dto.getPerfilId() != null) {
+            revogadas += revogarSessoesDoPerfil(dto.getPerfilId());
+        }
+
+        log.info("Revogação em lote: {} sessões revogadas", revogadas);
+        return revogadas;
+    }
+
+    /**
+     * Propaga revogações feitas em lote para a denylist e o cache de principal.
+     * Recebe só as sessões ativas lidas antes do UPDATE, e não todo o histórico de
+     * tokens revogados do usuário; uma sessão criada entre a leitura e o UPDATE é
+     * captada pela reconciliação periódica da denylist.
+     */
+    private void propagarRevogacoes(List<TokenRevogado> tokens) {
+        tokens.forEach(t -> {
+            tokenDenylist.revogar(t.getTokenHash(), t.getExpiraEm());
+            principalCache.invalidarTokenHash(t.getTokenHash());
         });
+    }
 
-        log.info("FORCE LOGOUT: Todas as sessões revogadas para usuário ID: {}", usuarioId);
+    /**
+     * Marca a sessão como revogada e propaga para a denylist e o cache de principal
+     */
+    private void revogar(SessaoUsuario sessao) {
+        sessao.revogar();
+        sessaoRepository.save(sessao);
+        tokenDenylist.revogar(sessao.getTokenHash(), sessao.getExpiraEm());
+        principalCache.invalidarToken(sessao.getTokenJwt());
     }
 
     /**
@@ -114,6 +250,7 @@ public class SessaoService {
     public List<SessaoDTO> listarSessoesAtivas(Long usuarioId, String tokenAtual) {
         List<SessaoUsuario> sessoes = sessaoRepository
                 .findByUsuarioIdAndAtivoAndExpiraEmAfter(usuarioId, true, LocalDateTime.now());
+        String hashAtual = TokenHashUtil.sha256Hex(tokenAtual);
 
         return sessoes.stream()
                 .map(sessao -> {
@@ -125,7 +262,7 @@ public class SessaoService {
                             .criadoEm(sessao.getCriadoEm())
                             .expiraEm(sessao.getExpiraEm())
                             .ativo(sessao.getAtivo())
-                            .atual(sessao.getTokenJwt().equals(tokenAtual))
+                            .atual(sessao.getTokenHash().equals(hashAtual))
                             .usuario(SessaoDTO.UsuarioSessaoDTO.builder()
                                     .id(usuario.getId())
                                     .nome(usuario.getNome())
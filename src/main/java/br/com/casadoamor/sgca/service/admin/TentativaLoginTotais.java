@@ -0,0 +1,50 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache do total de tentativas de login por filtro (sucesso, CPF), usado na listagem
+ * por keyset da auditoria.
+ *
+ * Sem filtro a contagem percorre a tabela inteira; com o cache ela é feita uma vez por
+ * filtro e TTL, e não a cada página. A tabela só recebe inserções (em lote, pelo
+ * LoginAuditWriter), então o total fica no máximo um TTL atrás; a navegação não depende
+ * dele (hasNextPage vem da linha extra da página).
+ */
+@Component
+public class TentativaLoginTotais {
+
+    private final Cache<String, Long> totais;
+
+    public TentativaLoginTotais(MeterRegistry meterRegistry,
+                                @Value("${audit.login.total-cache.max-size:1000}") long tamanhoMaximo,
+                                @Value("${audit.login.total-cache.ttl-seconds:60}") long ttlSegundos) {
+        this.totais = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, totais, "audit.login.totals");
+    }
+
+    /**
+     * Total em cache para o filtro, ou o resultado da contagem (que passa a ficar em cache)
+     */
+    public long total(Boolean sucesso, String cpf, LongSupplier contagem) {
+        return totais.get(chave(sucesso, cpf), filtro -> contagem.getAsLong());
+    }
+
+    private static String chave(Boolean sucesso, String cpf) {
+        return sucesso + "\n" + (cpf == null || cpf.isBlank() ? "" : cpf);
+    }
+}
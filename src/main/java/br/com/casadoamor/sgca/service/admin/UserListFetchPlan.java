@@ -0,0 +1,201 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.dto.admin.perfil.PerfilDTO;
+import br.com.casadoamor.sgca.dto.admin.permissao.PermissaoDTO;
+import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
+import br.com.casadoamor.sgca.dto.auth.AuthUsuarioDadosPessoaisDTO;
+import br.com.casadoamor.sgca.dto.auth.AuthUsuarioEnderecoDTO;
+import br.com.casadoamor.sgca.dto.auth.RegistroProfissionalResponseDTO;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PerfilDoUsuario;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PermissaoDoPerfil;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository.DadosPessoaisResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository.EnderecoResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioListagemRepository.LinhaUsuario;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository.RegistroProfissionalResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Plano de carga da listagem de usuários do painel administrativo.
+ *
+ * A página sai de uma consulta por projeção (sem instanciar AuthUsuario) e os
+ * relacionamentos vêm de consultas em lote por IN: perfis, permissões desses perfis,
+ * dados pessoais, endereços e registros profissionais. O número de consultas por
+ * página é fixo (no máximo sete, com a contagem), qualquer que seja o tamanho da página.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserListFetchPlan {
+
+    private final AuthUsuarioRepository usuarioRepository;
+    private final PerfilRepository perfilRepository;
+    private final AuthUsuarioDadosPessoaisRepository dadosPessoaisRepository;
+    private final AuthUsuarioEnderecoRepository enderecoRepository;
+    private final AuthUsuarioRegistroProfissionalRepository registroProfissionalRepository;
+
+    /**
+     * Página de usuários que atendem à especificação (null = todos)
+     */
+    public Page<UserResponseDTO> carregarPagina(Specification<AuthUsuario> spec, Pageable pageable) {
+        List<LinhaUsuario> linhas = usuarioRepository.findLinhas(spec, pageable);
+        // A contagem só é feita quando não dá para deduzi-la da própria página
+        return PageableExecutionUtils.getPage(montar(linhas), pageable,
+                () -> spec != null ? usuarioRepository.count(spec) : usuarioRepository.count());
+    }
+
+    /**
+     * Até {@code limite} usuários na ordem definida pela especificação
+     */
+    public List<UserResponseDTO> carregar(Specification<AuthUsuario> spec, int limite) {
+        return montar(usuarioRepository.findLinhas(spec, Pageable.ofSize(limite)));
+    }
+
+    private List<UserResponseDTO> montar(List<LinhaUsuario> linhas) {
+        if (linhas.isEmpty()) {
+            return List.of();
+        }
+        List<Long> usuarioIds = linhas.stream().map(LinhaUsuario::id).toList();
+
+        Map<Long, List<PerfilDTO>> perfis = perfisPorUsuario(usuarioIds);
+        Map<Long, AuthUsuarioDadosPessoaisDTO> dadosPessoais = porId(ids(linhas, LinhaUsuario::dadosPessoaisId),
+                dadosPessoaisRepository::findResumosByIdIn, DadosPessoaisResumo::getId, UserListFetchPlan::toDTO);
+        Map<Long, AuthUsuarioEnderecoDTO> enderecos = porId(ids(linhas, LinhaUsuario::enderecoId),
+                enderecoRepository::findResumosByIdIn, EnderecoResumo::getId, UserListFetchPlan::toDTO);
+        Map<Long, RegistroProfissionalResponseDTO> registros = porId(usuarioIds,
+                registroProfissionalRepository::findResumosByUsuarioIdIn, RegistroProfissionalResumo::getUsuarioId,
+                UserListFetchPlan::toDTO);
+
+        return linhas.stream()
+                .map(linha -> UserResponseDTO.builder()
+                        .id(linha.id())
+                        .uuid(linha.uuid())
+                        .nome(linha.nome())
+                        .email(linha.email())
+                        .cpf(linha.cpf())
+                        .telefone(linha.telefone())
+                        .tipo(linha.tipo().name())
+                        .ativo(linha.ativo())
+                        .emailVerificado(linha.emailVerificado())
+                        .ultimoLoginEm(linha.ultimoLoginEm())
+                        .criadoEm(linha.criadoEm())
+                        .atualizadoEm(linha.atualizadoEm())
+                        .perfis(perfis.getOrDefault(linha.id(), new ArrayList<>()))
+                        .dadosPessoais(dadosPessoais.get(linha.dadosPessoaisId()))
+                        .endereco(enderecos.get(linha.enderecoId()))
+                        .registroProfissional(registros.get(linha.id()))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Perfis ativos de cada usuário, com as permissões de todos os perfis em uma única consulta
+     */
+    private Map<Long, List<PerfilDTO>> perfisPorUsuario(List<Long> usuarioIds) {
+        List<PerfilDoUsuario> atribuicoes = perfilRepository.findPerfisDosUsuarios(usuarioIds);
+        if (atribuicoes.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, List<PermissaoDTO>> permissoes = new LinkedHashMap<>();
+        List<Long> perfilIds = atribuicoes.stream().map(PerfilDoUsuario::getId).distinct().toList();
+        for (PermissaoDoPerfil permissao : perfilRepository.findPermissoesDosPerfis(perfilIds)) {
+            permissoes.computeIfAbsent(permissao.getPerfilId(), id -> new ArrayList<>())
+                    .add(PermissaoDTO.builder()
+                            .id(permissao.getId())
+                            .nome(permissao.getNome())
+                            .descricao(permissao.getDescricao())
+                            .build());
+        }
+
+        Map<Long, List<PerfilDTO>> perfis = new LinkedHashMap<>();
+        for (PerfilDoUsuario perfil : atribuicoes) {
+            List<PermissaoDTO> doPerfil = permissoes.getOrDefault(perfil.getId(), List.of());
+            perfis.computeIfAbsent(perfil.getUsuarioId(), id -> new ArrayList<>())
+                    .add(PerfilDTO.builder()
+                            .id(perfil.getId())
+                            .nome(perfil.getNome())
+                            .descricao(perfil.getDescricao())
+                            .totalPermissoes(doPerfil.size())
+                            .permissoes(new ArrayList<>(doPerfil))
+                            .build());
+        }
+        return perfis;
+    }
+
+    private static List<Long> ids(List<LinhaUsuario> linhas, Function<LinhaUsuario, Long> id) {
+        return linhas.stream().map(id).filter(Objects::nonNull).distinct().toList();
+    }
+
+    /**
+     * Uma consulta IN para o lote de IDs (nenhuma se o lote estiver vazio), indexada pela chave
+     */
+    private static <R, D> Map<Long, D> porId(List<Long> ids, Function<Collection<Long>, List<R>> consulta,
+                                             Function<R, Long> chave, Function<R, D> conversor) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, D> resultado = new LinkedHashMap<>();
+        for (R resumo : consulta.apply(ids)) {
+            resultado.put(chave.apply(resumo), conversor.apply(resumo));
+        }
+        return resultado;
+    }
+
+    private static AuthUsuarioDadosPessoaisDTO toDTO(DadosPessoaisResumo dadosPessoais) {
+        return AuthUsuarioDadosPessoaisDTO.builder()
+                .id(dadosPessoais.getId())
+                .dataNascimento(dadosPessoais.getDataNascimento())
+                .sexo(dadosPessoais.getSexo() != null ? dadosPessoais.getSexo().name() : null)
+                .genero(dadosPessoais.getGenero() != null ? dadosPessoais.getGenero().name() : null)
+                .naturalidade(dadosPessoais.getNaturalidade())
+                .estadoCivil(dadosPessoais.getEstadoCivil() != null ? dadosPessoais.getEstadoCivil().name() : null)
+                .nomeMae(dadosPessoais.getNomeMae())
+                .nomePai(dadosPessoais.getNomePai())
+                .profissao(dadosPessoais.getProfissao())
+                .build();
+    }
+
+    private static AuthUsuarioEnderecoDTO toDTO(EnderecoResumo endereco) {
+        return AuthUsuarioEnderecoDTO.builder()
+                .id(endereco.getId())
+                .logradouro(endereco.getLogradouro())
+                .numero(endereco.getNumero())
+                .complemento(endereco.getComplemento())
+                .bairro(endereco.getBairro())
+                .cidade(endereco.getCidade())
+                .uf(endereco.getUf())
+                .cep(endereco.getCep())
+                .build();
+    }
+
+    private static RegistroProfissionalResponseDTO toDTO(RegistroProfissionalResumo registro) {
+        return RegistroProfissionalResponseDTO.builder()
+                .id(registro.getId())
+                .tipoProfissional(registro.getTipoProfissional().name())
+                .descricaoTipo(registro.getTipoProfissional().getDescricao())
+                .numeroRegistro(registro.getNumeroRegistro())
+                .rqe(registro.getRqe())
+                .criadoEm(registro.getCriadoEm())
+                .build();
+    }
+}
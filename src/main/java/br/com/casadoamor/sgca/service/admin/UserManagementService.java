@@ -2,11 +2,14 @@ package br.com.casadoamor.sgca.service.admin;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,19 +23,27 @@ import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
 import br.com.casadoamor.sgca.dto.auth.AuthUsuarioDadosPessoaisDTO;
 import br.com.casadoamor.sgca.dto.auth.AuthUsuarioEnderecoDTO;
 import br.com.casadoamor.sgca.dto.auth.RegistroProfissionalResponseDTO;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.entity.admin.Perfil;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioEndereco;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuarioRegistroProfissional;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
 import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
 import br.com.casadoamor.sgca.service.auth.AccountActivationService;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
 import br.com.casadoamor.sgca.util.CpfUtil;
+import br.com.casadoamor.sgca.util.KeysetUtil;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -50,9 +61,15 @@ public class UserManagementService {
     private final AuthUsuarioEnderecoRepository enderecoRepository;
     private final AuthUsuarioDadosPessoaisRepository dadosPessoaisRepository;
     private final AuthUsuarioRegistroProfissionalRepository registroProfissionalRepository;
+    private final JwtPrincipalCache principalCache;
+    private final CompiledPermissionModel permissionModel;
+    private final CursorCodec cursorCodec;
+    private final PaginatedResponseMapper paginatedMapper;
+    private final UserListFetchPlan listFetchPlan;
 
     private static final String SAFE_CHARS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghjkmnpqrstuvwxyz23456789@#$%";
     private static final SecureRandom RANDOM = new SecureRandom();
+    private static final String ESCOPO_CURSOR = "usuarios";
 
     /**
      * Cria um novo usuário (admin)
@@ -136,7 +153,7 @@ public class UserManagementService {
     }
 
     /**
-     * Lista usuários com paginação
+     * Lista usuários com paginação, pelo plano de carga em lote da listagem
      */
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> listarUsuarios(Pageable pageable) {
@@ -146,18 +163,57 @@ public class UserManagementService {
     @Transactional(readOnly = true)
     public Page<UserResponseDTO> listarUsuarios(String searchText, Pageable pageable) {
         if (searchText == null || searchText.isBlank()) {
-            return usuarioRepository.findAll(pageable).map(this::toDTO);
+            return listFetchPlan.carregarPagina(null, pageable);
         }
 
-        String search = "%" + searchText.toLowerCase() + "%";
-    String searchPlain = searchText.toLowerCase();
+        return listFetchPlan.carregarPagina(buscaUsuarios(searchText, new CursorCodec.Posicao(null, false)), pageable);
+    }
+
+    /**
+     * Lista usuários por keyset: a página começa depois (after) ou antes (before) do cursor,
+     * sem OFFSET; ordem pela faixa do ranking da busca e pelo id
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponseDTO<UserResponseDTO> listarUsuariosPorCursor(String searchText, int limit,
+                                                                         String after, String before) {
+        if (limit <= 0) {
+            throw new RuntimeException("Limit deve ser maior que zero");
+        }
+        CursorCodec.Posicao posicao = cursorCodec.posicao(ESCOPO_CURSOR, after, before);
+
+        // limit + 1: a linha extra indica se há mais registros no sentido da leitura
+        List<UserResponseDTO> linhas = listFetchPlan.carregar(buscaUsuarios(searchText, posicao), limit + 1);
+        long total = usuarioRepository.count(buscaUsuarios(searchText, new CursorCodec.Posicao(null, false)));
+
+        return paginatedMapper.toKeysetDTO(linhas, limit, posicao, total, ESCOPO_CURSOR, chaveCursor(searchText));
+    }
+
+    /**
+     * Filtro e ranking da busca de usuários por nome, email e telefone (contém);
+     * ranking: exato (0), começa com (1), contém (2), também pelo tipo; empate pelo id.
+     * Sem texto, todos os usuários em ordem de id.
+     */
+    private Specification<AuthUsuario> buscaUsuarios(String searchText, CursorCodec.Posicao posicao) {
+        return (root, query, cb) -> {
+            boolean ordenar = query != null && !Long.class.equals(query.getResultType());
+            boolean crescente = !posicao.paraTras();
+            CursorCodec.Cursor cursor = posicao.cursor();
+
+            if (searchText == null || searchText.isBlank()) {
+                if (ordenar) {
+                    query.orderBy(KeysetUtil.ordem(cb, root.get("id"), crescente));
+                }
+                return cursor == null
+                        ? cb.conjunction()
+                        : KeysetUtil.depoisDe(cb, root.<Long>get("id"), cursor.longo(1), crescente);
+            }
 
-        org.springframework.data.jpa.domain.Specification<br.com.casadoamor.sgca.entity.auth.AuthUsuario> spec = (root, query, cb) -> {
-            var predicate = cb.disjunction();
+            String search = "%" + searchText.toLowerCase() + "%";
+            String searchPlain = searchText.toLowerCase();
 
-            jakarta.persistence.criteria.Expression<String> nome = root.get("nome").as(String.class);
-            jakarta.persistence.criteria.Expression<String> email = root.get("email").as(String.class);
-            jakarta.persistence.criteria.Expression<String> telefone = root.get("telefone").as(String.class);
+            Expression<String> nome = root.get("nome").as(String.class);
+            Expression<String> email = root.get("email").as(String.class);
+            Expression<String> telefone = root.get("telefone").as(String.class);
 
             // contains predicates
             var nomeContains = cb.like(cb.lower(nome), search);
@@ -165,10 +221,10 @@ public class UserManagementService {
             var telefoneContains = cb.like(cb.lower(telefone), search);
 
             // tipo (enum) - compare name() as lower-case string
-            jakarta.persistence.criteria.Expression<String> tipoExpr = root.get("tipo").as(String.class);
+            Expression<String> tipoExpr = root.get("tipo").as(String.class);
             var tipoContains = cb.like(cb.lower(tipoExpr), search);
 
-            jakarta.persistence.criteria.Predicate containsPredicate = cb.or(nomeContains, emailContains, telefoneContains);
+            Predicate containsPredicate = cb.or(nomeContains, emailContains, telefoneContains);
 
             // starts-with
             var nomeStarts = cb.like(cb.lower(nome), searchPlain + "%");
@@ -182,26 +238,54 @@ public class UserManagementService {
             var exactTelefone = cb.equal(cb.lower(telefone), searchPlain);
             var exactTipo = cb.equal(cb.lower(tipoExpr), searchPlain);
 
-            var caseExpr = cb.selectCase()
+            Expression<Integer> caseExpr = cb.<Integer>selectCase()
                 .when(cb.or(exactNome, exactEmail, exactTelefone, exactTipo), 0)
                 .when(cb.or(nomeStarts, emailStarts, telefoneStarts, tipoStarts), 1)
                 .when(cb.or(nomeContains, emailContains, telefoneContains, tipoContains), 2)
                 .otherwise(3);
 
             // Build orders and set ordering only if query is provided (some JPA implementations may pass null)
-            List<Order> orders = List.of(cb.asc(caseExpr), cb.asc(root.get("id")));
-            if (query != null) {
+            if (ordenar) {
+                List<Order> orders = List.of(KeysetUtil.ordem(cb, caseExpr, crescente), KeysetUtil.ordem(cb, root.get("id"), crescente));
                 query.orderBy(orders);
             }
 
-            predicate = containsPredicate;
-
-            return predicate;
+            if (cursor == null) {
+                return containsPredicate;
+            }
+            return cb.and(containsPredicate, KeysetUtil.depoisDe(cb,
+                    caseExpr, cursor.inteiro(0), root.<Long>get("id"), cursor.longo(1), crescente));
         };
+    }
 
-        return usuarioRepository.findAll(spec, pageable).map(this::toDTO);
+    /**
+     * Chave do cursor de um usuário: a faixa do ranking calculada como em {@link #buscaUsuarios} e o id
+     */
+    private static Function<UserResponseDTO, List<?>> chaveCursor(String searchText) {
+        if (searchText == null || searchText.isBlank()) {
+            return usuario -> List.of(0, usuario.getId());
+        }
+        String termo = searchText.toLowerCase();
+        return usuario -> {
+            List<String> campos = new ArrayList<>(4);
+            for (String campo : new String[] {usuario.getNome(), usuario.getEmail(), usuario.getTelefone(), usuario.getTipo()}) {
+                if (campo != null) {
+                    campos.add(campo.toLowerCase());
+                }
+            }
+            int faixa = 3;
+            if (campos.stream().anyMatch(termo::equals)) {
+                faixa = 0;
+            } else if (campos.stream().anyMatch(c -> c.startsWith(termo))) {
+                faixa = 1;
+            } else if (campos.stream().anyMatch(c -> c.contains(termo))) {
+                faixa = 2;
+            }
+            return List.of(faixa, usuario.getId());
+        };
     }
 
+
     /**
      * Busca usuário por ID
      */
@@ -219,6 +303,7 @@ public class UserManagementService {
     public UserResponseDTO atualizarUsuario(Long id, UpdateUserDTO dto, Long adminId) {
         AuthUsuario usuario = usuarioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        boolean desativado = false;
 
         // Atualiza campos se fornecidos
         if (dto.getNome() != null) {
@@ -240,6 +325,7 @@ public class UserManagementService {
             if (id.equals(adminId) && !dto.getAtivo()) {
                 throw new RuntimeException("Você não pode desativar sua própria conta");
             }
+            desativado = Boolean.TRUE.equals(usuario.getAtivo()) && !dto.getAtivo();
             usuario.setAtivo(dto.getAtivo());
         }
         if (dto.getTipo() != null) {
@@ -280,7 +366,16 @@ public class UserManagementService {
         }
 
         AuthUsuario atualizado = usuarioRepository.save(usuario);
-        return toDTO(atualizado);
+        principalCache.invalidarUsuario(atualizado.getCpf());
+        permissionModel.invalidarUsuario(atualizado.getCpf());
+        UserResponseDTO resposta = toDTO(atualizado);
+
+        // Usuário desativado não pode seguir autenticando com tokens já emitidos. Por último:
+        // a revogação em lote limpa o contexto de persistência e desanexa o usuário
+        if (desativado) {
+            sessaoService.revogarTodasSessoes(id);
+        }
+        return resposta;
     }
 
     /**
@@ -302,11 +397,13 @@ public class UserManagementService {
 
         usuario.setDeletadoEm(LocalDateTime.now());
         usuario.setAtivo(false);
-        
-        // Revoga todas sessões
-        sessaoService.revogarTodasSessoes(id);
-        
+
         usuarioRepository.save(usuario);
+        principalCache.invalidarUsuario(usuario.getCpf());
+        permissionModel.invalidarUsuario(usuario.getCpf());
+
+        // Revoga todas sessões (depois do save: a revogação em lote limpa o contexto de persistência)
+        sessaoService.revogarTodasSessoes(id);
     }
 
     /**
@@ -318,6 +415,8 @@ public class UserManagementService {
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         atribuirPerfisInterno(usuario, dto.getPerfisIds(), adminId);
+        principalCache.invalidarUsuario(usuario.getCpf());
+        permissionModel.invalidarUsuario(usuario.getCpf());
         
         return toDTO(usuario);
     }
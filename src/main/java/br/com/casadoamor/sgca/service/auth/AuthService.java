@@ -13,6 +13,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.dto.admin.perfil.PerfilDTO;
 import br.com.casadoamor.sgca.dto.admin.permissao.PermissaoDTO;
 import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
@@ -32,6 +33,9 @@ import br.com.casadoamor.sgca.entity.auth.AuthUsuarioEndereco;
 import br.com.casadoamor.sgca.entity.auth.TokenRecuperacao;
 import br.com.casadoamor.sgca.enums.TipoToken;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository.AutenticacaoUsuario;
+import br.com.casadoamor.sgca.security.JwtPermissionClaims;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
 import br.com.casadoamor.sgca.security.JwtUtil;
 import br.com.casadoamor.sgca.service.admin.AuditoriaService;
 import br.com.casadoamor.sgca.service.admin.SessaoService;
@@ -58,6 +62,9 @@ public class AuthService {
     private final SessaoService sessaoService;
     private final HistoricoSenhaService historicoSenhaService;
     private final TwoFactorService twoFactorService;
+    private final JwtPrincipalCache principalCache;
+    private final JwtPermissionClaims permissionClaims;
+    private final CompiledPermissionModel permissionModel;
 
     /**
      * Registra um novo usuário no sistema
@@ -121,6 +128,10 @@ public class AuthService {
         // Gera o token JWT
         String token = jwtUtil.generateToken(userDetails);
 
+        // Registra a sessão: tokens sem sessão em sessoes_usuario não autenticam
+        LocalDateTime expiracao = LocalDateTime.now().plusSeconds(jwtUtil.getExpirationTime() / 1000);
+        sessaoService.criarSessao(usuarioSalvo, token, null, null, expiracao);
+
         // Retorna a resposta com o token
         return AuthResponseDTO.builder()
                 .token(token)
@@ -148,8 +159,8 @@ public class AuthService {
             throw new RuntimeException("Conta bloqueada temporariamente por excesso de tentativas");
         }
 
-        // Busca o usuário pelo CPF
-        AuthUsuario usuario = authUsuarioRepository.findByCpf(cpfLimpo)
+        // Busca o usuário pelo CPF (visão de autenticação, sem o grafo de perfis e permissões)
+        AutenticacaoUsuario usuario = authUsuarioRepository.findAutenticacaoByCpf(cpfLimpo)
                 .orElseThrow(() -> {
                     auditoriaService.registrarLoginFalha(cpfLimpo, ipOrigem, userAgent, "CPF_INVALIDO");
                     return new RuntimeException("Credenciais inválidas");
@@ -162,7 +173,7 @@ public class AuthService {
         }
 
         // Verifica se a conta está bloqueada
-        if (usuario.getLockedUntil() != null && usuario.getLockedUntil().isAfter(LocalDateTime.now())) {
+        if (usuario.isBloqueado()) {
             auditoriaService.registrarLoginFalha(cpfLimpo, ipOrigem, userAgent, "CONTA_BLOQUEADA");
             throw new RuntimeException("Conta bloqueada até: " + usuario.getLockedUntil());
         }
@@ -183,11 +194,9 @@ public class AuthService {
                     )
             );
 
-            // Reseta as tentativas falhas de login
+            // Reseta as tentativas falhas de login (UPDATE atômico)
             if (usuario.getTentativasFalhasDeLogin() > 0) {
-                usuario.setTentativasFalhasDeLogin(0);
-                usuario.setLockedUntil(null);
-                authUsuarioRepository.save(usuario);
+                authUsuarioRepository.zerarFalhasLogin(usuario.getId());
             }
 
             // Verifica se 2FA está habilitado para este usuário
@@ -215,20 +224,22 @@ public class AuthService {
                         .build();
             }
 
-            // Atualiza o último login
-            usuario.setUltimoLoginEm(LocalDateTime.now());
-            authUsuarioRepository.save(usuario);
+            // Atualiza o último login (UPDATE pontual: não sobrescreve um hash de senha regravado no login)
+            authUsuarioRepository.atualizarUltimoLogin(usuario.getId(), LocalDateTime.now());
 
             // Gera o token JWT
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
+            String token = jwtUtil.generateToken(userDetails, permissionClaims.gerarClaims(usuario.getCpf()));
+
+            // Sessão e auditoria só gravam usuario_id: basta a referência montada pela visão
+            AuthUsuario referencia = usuario.referencia();
 
             // Registra tentativa de login bem-sucedida
-            auditoriaService.registrarLoginSucesso(usuario, ipOrigem, userAgent);
+            auditoriaService.registrarLoginSucesso(referencia, ipOrigem, userAgent);
 
             // Cria sessão JWT
             LocalDateTime expiracao = LocalDateTime.now().plusSeconds(jwtUtil.getExpirationTime() / 1000);
-            sessaoService.criarSessao(usuario, token, ipOrigem, userAgent, expiracao);
+            sessaoService.criarSessao(referencia, token, ipOrigem, userAgent, expiracao);
 
             // Retorna a resposta com o token
             return AuthResponseDTO.builder()
@@ -241,17 +252,24 @@ public class AuthService {
                     .requires2FA(false)
                     .build();
 
+        } catch (CustomError e) {
+            // Indisponibilidade (ex: executor de hash saturado) não conta como falha de login
+            throw e;
         } catch (Exception e) {
-            // Incrementa as tentativas falhas de login
-            usuario.setTentativasFalhasDeLogin(usuario.getTentativasFalhasDeLogin() + 1);
-
-            // Bloqueia a conta após 5 tentativas falhas
-            if (usuario.getTentativasFalhasDeLogin() >= 5) {
-                usuario.setLockedUntil(LocalDateTime.now().plusMinutes(30)); // Bloqueia por 30 minutos
+            // Incrementa as tentativas falhas de login e bloqueia após 5 falhas por 30 minutos
+            // (UPDATE atômico: tentativas concorrentes não se sobrescrevem)
+            authUsuarioRepository.incrementarFalhasLogin(usuario.getId(), 5, LocalDateTime.now().plusMinutes(30));
+
+            // Conta bloqueada: tokens já emitidos não podem seguir autenticando pelo cache
+            boolean bloqueada = authUsuarioRepository.findLockedUntilById(usuario.getId())
+                    .filter(ate -> ate.isAfter(LocalDateTime.now()))
+                    .isPresent();
+            if (bloqueada) {
+                principalCache.invalidarUsuario(usuario.getCpf());
+                // Tokens com claims de permissão consultam a situação da conta no modelo compilado
+                permissionModel.invalidarUsuario(usuario.getCpf());
             }
 
-            authUsuarioRepository.save(usuario);
-
             // Registra tentativa de login falhada
             auditoriaService.registrarLoginFalha(cpfLimpo, ipOrigem, userAgent, "SENHA_INVALIDA");
 
@@ -307,6 +325,7 @@ public class AuthService {
         usuario.setTentativasFalhasDeLogin(0);
         usuario.setLockedUntil(null);
         authUsuarioRepository.save(usuario);
+        permissionModel.invalidarUsuario(usuario.getCpf());
         
         // Salva no histórico
         historicoSenhaService.salvarHistorico(usuario.getId(), novaSenhaHash);
@@ -411,7 +430,41 @@ public class AuthService {
                 .authorities("ROLE_" + usuario.getTipo().name())
                 .build();
 
-        String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(userDetails, permissionClaims.gerarClaims(usuario.getCpf()));
+
+        // Registra a sessão para que o token possa ser listado e revogado
+        LocalDateTime expiracao = LocalDateTime.now().plusSeconds(jwtUtil.getExpirationTime() / 1000);
+        sessaoService.criarSessao(usuario, token, null, null, expiracao);
+
+        return AuthResponseDTO.builder()
+                .token(token)
+                .tipo("Bearer")
+                .email(usuario.getEmail())
+                .nome(usuario.getNome())
+                .tipoUsuario(usuario.getTipo().name())
+                .expiresIn(jwtUtil.getExpirationTime())
+                .build();
+    }
+
+    /**
+     * Renova o token do usuário autenticado (ex: permissões do token desatualizadas).
+     * Emite novo token com as permissões atuais e revoga a sessão do token anterior.
+     */
+    public AuthResponseDTO renovarToken(String cpf, String tokenAtual, HttpServletRequest httpRequest) {
+        AuthUsuario usuario = authUsuarioRepository.findByCpf(cpf)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+
+        UserDetails userDetails = User.builder()
+                .username(usuario.getCpf())
+                .password(usuario.getSenhaHash())
+                .authorities("ROLE_" + usuario.getTipo().name())
+                .build();
+
+        String token = jwtUtil.generateToken(userDetails, permissionClaims.gerarClaims(usuario.getCpf()));
+
+        LocalDateTime expiracao = LocalDateTime.now().plusSeconds(jwtUtil.getExpirationTime() / 1000);
+        sessaoService.criarSessao(usuario, token, obterIpOrigem(httpRequest), obterUserAgent(httpRequest), expiracao);
+        sessaoService.revogarSessaoPorToken(tokenAtual);
 
         return AuthResponseDTO.builder()
                 .token(token)
@@ -0,0 +1,305 @@
+package br.com.casadoamor.sgca.service.auth;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.casadoamor.sgca.entity.admin.Permissao;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PerfilPermissao;
+import br.com.casadoamor.sgca.repository.admin.PermissaoRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository.PerfilDoUsuario;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modelo de autorização compilado.
+ *
+ * O catálogo de permissões ativas é indexado pelo ID da permissão (posição do bit),
+ * cada perfil é pré-calculado como um BitSet e as permissões efetivas de cada usuário
+ * (união dos perfis) ficam em cache como um único BitSet. Verificar uma permissão
+ * passa a ser um lookup de nome + teste de bit, sem ida ao banco.
+ *
+ * O modelo é reconstruído após mutações em PerfilService/PermissaoService e
+ * periodicamente (para refletir mudanças feitas em outras instâncias). A versão
+ * é derivada do conteúdo do modelo, portanto igual em todas as instâncias.
+ */
+@Slf4j
+@Component
+public class CompiledPermissionModel {
+
+    private final PermissaoRepository permissaoRepository;
+    private final PerfilRepository perfilRepository;
+    private final AuthUsuarioRepository usuarioRepository;
+    private final JwtPrincipalCache principalCache;
+    private final Cache<String, PermissoesUsuario> usuarios;
+
+    private volatile Modelo modelo;
+
+    public CompiledPermissionModel(PermissaoRepository permissaoRepository,
+                                   PerfilRepository perfilRepository,
+                                   AuthUsuarioRepository usuarioRepository,
+                                   JwtPrincipalCache principalCache,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${security.permission-model.user-cache.max-size:10000}") long tamanhoMaximo,
+                                   @Value("${security.permission-model.user-cache.ttl-seconds:300}") long ttlSegundos) {
+        this.permissaoRepository = permissaoRepository;
+        this.perfilRepository = perfilRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.principalCache = principalCache;
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "permission.model.users");
+    }
+
+    /**
+     * Permissões efetivas, tipo e situação da conta de um usuário
+     */
+    public record PermissoesUsuario(TipoUsuario tipo, BitSet bits, boolean ativo, LocalDateTime bloqueadoAte) {
+
+        /**
+         * Conta ativa e sem bloqueio vigente (mesmas regras do UserDetailsServiceImpl)
+         */
+        public boolean isLiberada() {
+            return ativo && (bloqueadoAte == null || !bloqueadoAte.isAfter(LocalDateTime.now()));
+        }
+    }
+
+    private record Modelo(long versao,
+                          Map<String, Integer> indicePorNome,
+                          Map<Integer, String> nomePorIndice,
+                          Map<Long, BitSet> bitsPorPerfil) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        reconstruir();
+    }
+
+    /**
+     * Reconstrói periodicamente para captar mudanças feitas por outras instâncias
+     */
+    @Scheduled(fixedDelayString = "${security.permission-model.refresh-ms:60000}",
+               initialDelayString = "${security.permission-model.refresh-ms:60000}")
+    public void atualizarPeriodicamente() {
+        try {
+            Modelo anterior = modelo;
+            reconstruir();
+            if (anterior != null && anterior.versao() != modelo.versao()) {
+                log.info("Modelo de permissões alterado externamente (versão {})", modelo.versao());
+            }
+        } catch (Exception e) {
+            log.error("Erro ao atualizar modelo de permissões: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recompila catálogo e perfis a partir do banco e descarta o cache de usuários
+     */
+    public synchronized void reconstruir() {
+        Map<String, Integer> indicePorNome = new HashMap<>();
+        Map<Integer, String> nomePorIndice = new HashMap<>();
+        for (Permissao permissao : permissaoRepository.findAllAtivas()) {
+            int indice = Math.toIntExact(permissao.getId());
+            indicePorNome.put(permissao.getNome(), indice);
+            nomePorIndice.put(indice, permissao.getNome());
+        }
+
+        // TreeMap: ordem estável para o cálculo da versão
+        Map<Long, BitSet> bitsPorPerfil = new TreeMap<>();
+        for (PerfilPermissao par : perfilRepository.findParesPerfilPermissaoAtivos()) {
+            bitsPorPerfil.computeIfAbsent(par.getPerfilId(), id -> new BitSet())
+                    .set(Math.toIntExact(par.getPermissaoId()));
+        }
+
+        Modelo novo = new Modelo(calcularVersao(nomePorIndice, bitsPorPerfil),
+                Map.copyOf(indicePorNome), Map.copyOf(nomePorIndice), Collections.unmodifiableMap(bitsPorPerfil));
+
+        Modelo anterior = modelo;
+        modelo = novo;
+        if (anterior == null || anterior.versao() != novo.versao()) {
+            usuarios.invalidateAll();
+            if (anterior != null) {
+                // Principais em cache carregam authorities da versão anterior
+                principalCache.invalidarTodos();
+            }
+        }
+        log.debug("Modelo de permissões compilado: {} permissões, {} perfis, versão {}",
+                nomePorIndice.size(), bitsPorPerfil.size(), novo.versao());
+    }
+
+    /**
+     * Agenda a reconstrução para após o commit da transação atual (ou executa já, se não houver)
+     */
+    public void reconstruirAposCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reconstruir();
+                }
+            });
+        } else {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Descarta as permissões em cache de um usuário (ex: perfis, tipo ou situação da conta alterados)
+     */
+    public void invalidarUsuario(String cpf) {
+        if (cpf == null) {
+            return;
+        }
+        usuarios.invalidate(cpf);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usuarios.invalidate(cpf);
+                }
+            });
+        }
+    }
+
+    /**
+     * Permissões efetivas do usuário, ou null se o usuário não existir
+     */
+    public PermissoesUsuario permissoesDoUsuario(String cpf) {
+        return usuarios.get(cpf, this::compilarUsuario);
+    }
+
+    /**
+     * Verifica uma permissão pelo nome (teste de bit)
+     */
+    public boolean temPermissao(String cpf, String permissao) {
+        Integer indice = modeloAtual().indicePorNome().get(permissao);
+        if (indice == null) {
+            return false;
+        }
+        PermissoesUsuario usuario = permissoesDoUsuario(cpf);
+        return usuario != null && usuario.bits().get(indice);
+    }
+
+    /**
+     * Verifica se o usuário possui todas as permissões
+     */
+    public boolean temTodas(String cpf, String... permissoes) {
+        Modelo atual = modeloAtual();
+        PermissoesUsuario usuario = permissoesDoUsuario(cpf);
+        if (usuario == null) {
+            return false;
+        }
+        for (String permissao : permissoes) {
+            Integer indice = atual.indicePorNome().get(permissao);
+            if (indice == null || !usuario.bits().get(indice)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifica se o usuário possui ao menos uma das permissões
+     */
+    public boolean temAlguma(String cpf, String... permissoes) {
+        Modelo atual = modeloAtual();
+        PermissoesUsuario usuario = permissoesDoUsuario(cpf);
+        if (usuario == null) {
+            return false;
+        }
+        for (String permissao : permissoes) {
+            Integer indice = atual.indicePorNome().get(permissao);
+            if (indice != null && usuario.bits().get(indice)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converte um conjunto de bits nos nomes das permissões
+     */
+    public Set<String> nomes(BitSet bits) {
+        Map<Integer, String> nomePorIndice = modeloAtual().nomePorIndice();
+        Set<String> nomes = new LinkedHashSet<>();
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            String nome = nomePorIndice.get(i);
+            if (nome != null) {
+                nomes.add(nome);
+            }
+        }
+        return nomes;
+    }
+
+    /**
+     * Versão do modelo (muda quando o catálogo ou as permissões dos perfis mudam)
+     */
+    public long getVersao() {
+        return modeloAtual().versao();
+    }
+
+    private Modelo modeloAtual() {
+        Modelo atual = modelo;
+        if (atual == null) {
+            reconstruir();
+            atual = modelo;
+        }
+        return atual;
+    }
+
+    private PermissoesUsuario compilarUsuario(String cpf) {
+        List<PerfilDoUsuario> linhas = usuarioRepository.findPerfisDoUsuarioByCpf(cpf);
+        if (linhas.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, BitSet> bitsPorPerfil = modeloAtual().bitsPorPerfil();
+        BitSet bits = new BitSet();
+        for (PerfilDoUsuario linha : linhas) {
+            BitSet doPerfil = linha.getPerfilId() != null ? bitsPorPerfil.get(linha.getPerfilId()) : null;
+            if (doPerfil != null) {
+                bits.or(doPerfil);
+            }
+        }
+        PerfilDoUsuario usuario = linhas.get(0);
+        return new PermissoesUsuario(usuario.getTipo(), bits,
+                Boolean.TRUE.equals(usuario.getAtivo()), usuario.getLockedUntil());
+    }
+
+    private static long calcularVersao(Map<Integer, String> nomePorIndice, Map<Long, BitSet> bitsPorPerfil) {
+        CRC32 crc = new CRC32();
+        new TreeMap<>(nomePorIndice).forEach((indice, nome) -> crc.update((indice + "=" + nome + ";").getBytes()));
+        bitsPorPerfil.forEach((perfilId, bits) -> {
+            crc.update(("P" + perfilId + ":").getBytes());
+            crc.update(bits.toByteArray());
+        });
+        return crc.getValue();
+    }
+}
@@ -1,17 +1,28 @@
 package br.com.casadoamor.sgca.service.auth;
 
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.entity.auth.HistoricoSenha;
 import br.com.casadoamor.sgca.repository.auth.HistoricoSenhaRepository;
+import br.com.casadoamor.sgca.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service responsável por gerenciar o histórico de senhas dos usuários.
@@ -24,6 +35,7 @@ public class HistoricoSenhaService {
 
     private final HistoricoSenhaRepository historicoSenhaRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Quantidade de senhas antigas a verificar.
@@ -32,6 +44,12 @@ public class HistoricoSenhaService {
     @Value("${password.history.check-last:5}")
     private int quantidadeSenhasVerificar;
 
+    /**
+     * Tempo máximo para comparar a nova senha com todo o histórico.
+     */
+    @Value("${password.history.check-timeout-ms:3000}")
+    private long timeoutVerificacaoMs = 3000;
+
     /**
      * Salva uma nova senha no histórico do usuário.
      *
@@ -76,18 +94,69 @@ public class HistoricoSenhaService {
             return false;
         }
 
-        // Verifica se a nova senha corresponde a alguma senha antiga
-        for (HistoricoSenha historico : historicoSenhas) {
-            if (passwordEncoder.matches(novaSenha, historico.getSenhaHash())) {
-                log.warn("Usuário ID: {} tentou reutilizar uma senha antiga", usuarioId);
-                return true;
-            }
+        // Compara com todas as senhas antigas em paralelo; a primeira correspondência encerra a verificação
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        boolean usada = compararComHistorico(novaSenha, historicoSenhas);
+        amostra.stop(meterRegistry.timer("password.history.check", "resultado", usada ? "reutilizada" : "nova"));
+
+        if (usada) {
+            log.warn("Usuário ID: {} tentou reutilizar uma senha antiga", usuarioId);
+            return true;
         }
 
         log.debug("Senha não foi encontrada no histórico do usuário ID: {}", usuarioId);
         return false;
     }
 
+    /**
+     * Dispara as comparações no executor de hash e aguarda até a primeira correspondência,
+     * o fim de todas ou o estouro do tempo limite (falha fechada com 503).
+     * Comparações ainda na fila são canceladas assim que o resultado é conhecido.
+     */
+    private boolean compararComHistorico(String novaSenha, List<HistoricoSenha> historicoSenhas) {
+        if (!(passwordEncoder instanceof BoundedPasswordEncoder encoderLimitado)) {
+            return historicoSenhas.stream()
+                    .anyMatch(historico -> passwordEncoder.matches(novaSenha, historico.getSenhaHash()));
+        }
+
+        CompletableFuture<Boolean> resultado = new CompletableFuture<>();
+        AtomicInteger pendentes = new AtomicInteger(historicoSenhas.size());
+        List<CompletableFuture<Boolean>> comparacoes = new ArrayList<>(historicoSenhas.size());
+        try {
+            for (HistoricoSenha historico : historicoSenhas) {
+                CompletableFuture<Boolean> comparacao = encoderLimitado.matchesAsync(novaSenha, historico.getSenhaHash());
+                comparacoes.add(comparacao);
+                comparacao.whenComplete((corresponde, erro) -> {
+                    if (erro != null && !comparacao.isCancelled()) {
+                        resultado.completeExceptionally(erro);
+                    } else if (Boolean.TRUE.equals(corresponde)) {
+                        resultado.complete(true);
+                    } else if (pendentes.decrementAndGet() == 0) {
+                        resultado.complete(false);
+                    }
+                });
+            }
+            return resultado.get(timeoutVerificacaoMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Verificação do histórico de senhas excedeu {} ms", timeoutVerificacaoMs);
+            throw new CustomError("Não foi possível validar o histórico de senhas. Tente novamente em instantes.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação do histórico de senhas interrompida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            long canceladas = comparacoes.stream().filter(c -> c.cancel(false)).count();
+            if (canceladas > 0) {
+                meterRegistry.counter("password.history.cancelled").increment(canceladas);
+            }
+        }
+    }
+
     /**
      * Retorna a quantidade de senhas que são verificadas no histórico.
      *
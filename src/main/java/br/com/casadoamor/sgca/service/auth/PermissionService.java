@@ -1,38 +1,35 @@
 package br.com.casadoamor.sgca.service.auth;
 
-import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
-import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel.PermissoesUsuario;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Serviço para verificação de permissões de usuários
+ * As verificações usam o modelo compilado (bitsets), sem recarregar o usuário a cada chamada
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PermissionService {
 
-    private final AuthUsuarioRepository usuarioRepository;
+    private final CompiledPermissionModel permissionModel;
 
     /**
      * Verifica se o usuário possui uma permissão específica
      */
     public boolean hasPermission(String cpf, String permissionName) {
         try {
-            AuthUsuario usuario = usuarioRepository.findByCpf(cpf)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
-            return usuario.getPerfis().stream()
-                    .flatMap(perfil -> perfil.getPermissoes().stream())
-                    .anyMatch(permissao -> permissao.getNome().equals(permissionName));
+            return permissionModel.temPermissao(cpf, permissionName);
         } catch (Exception e) {
             log.error("Erro ao verificar permissão {} para usuário {}: {}", permissionName, cpf, e.getMessage());
             return false;
@@ -43,24 +40,24 @@ public class PermissionService {
      * Verifica se o usuário possui todas as permissões especificadas
      */
     public boolean hasAllPermissions(String cpf, String... permissionNames) {
-        for (String permission : permissionNames) {
-            if (!hasPermission(cpf, permission)) {
-                return false;
-            }
+        try {
+            return permissionModel.temTodas(cpf, permissionNames);
+        } catch (Exception e) {
+            log.error("Erro ao verificar permissões para usuário {}: {}", cpf, e.getMessage());
+            return false;
         }
-        return true;
     }
 
     /**
      * Verifica se o usuário possui ao menos uma das permissões especificadas
      */
     public boolean hasAnyPermission(String cpf, String... permissionNames) {
-        for (String permission : permissionNames) {
-            if (hasPermission(cpf, permission)) {
-                return true;
-            }
+        try {
+            return permissionModel.temAlguma(cpf, permissionNames);
+        } catch (Exception e) {
+            log.error("Erro ao verificar permissões para usuário {}: {}", cpf, e.getMessage());
+            return false;
         }
-        return false;
     }
 
     /**
@@ -68,13 +65,11 @@ public class PermissionService {
      */
     public Set<String> getUserPermissions(String cpf) {
         try {
-            AuthUsuario usuario = usuarioRepository.findByCpf(cpf)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
-            return usuario.getPerfis().stream()
-                    .flatMap(perfil -> perfil.getPermissoes().stream())
-                    .map(permissao -> permissao.getNome())
-                    .collect(Collectors.toSet());
+            PermissoesUsuario usuario = permissionModel.permissoesDoUsuario(cpf);
+            if (usuario == null) {
+                throw new RuntimeException("Usuário não encontrado");
+            }
+            return permissionModel.nomes(usuario.bits());
         } catch (Exception e) {
             log.error("Erro ao obter permissões do usuário {}: {}", cpf, e.getMessage());
             return Set.of();
@@ -86,10 +81,11 @@ public class PermissionService {
      */
     public boolean isAdmin(String cpf) {
         try {
-            AuthUsuario usuario = usuarioRepository.findByCpf(cpf)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
-            return "ADMINISTRADOR".equals(usuario.getTipo().name());
+            PermissoesUsuario usuario = permissionModel.permissoesDoUsuario(cpf);
+            if (usuario == null) {
+                throw new RuntimeException("Usuário não encontrado");
+            }
+            return usuario.tipo() == TipoUsuario.ADMINISTRADOR;
         } catch (Exception e) {
             log.error("Erro ao verificar se usuário {} é admin: {}", cpf, e.getMessage());
             return false;
@@ -113,16 +109,17 @@ public class PermissionService {
      */
     public Collection<? extends GrantedAuthority> getAuthorities(String cpf) {
         try {
-            AuthUsuario usuario = usuarioRepository.findByCpf(cpf)
-                    .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+            PermissoesUsuario usuario = permissionModel.permissoesDoUsuario(cpf);
+            if (usuario == null) {
+                throw new RuntimeException("Usuário não encontrado");
+            }
 
-            Set<GrantedAuthority> authorities = usuario.getPerfis().stream()
-                    .flatMap(perfil -> perfil.getPermissoes().stream())
-                    .map(permissao -> (GrantedAuthority) () -> permissao.getNome())
-                    .collect(Collectors.toSet());
+            Set<GrantedAuthority> authorities = new HashSet<>();
+            permissionModel.nomes(usuario.bits())
+                    .forEach(nome -> authorities.add(new SimpleGrantedAuthority(nome)));
 
             // Adiciona o tipo de usuário como role
-            authorities.add((GrantedAuthority) () -> "ROLE_" + usuario.getTipo().name());
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + usuario.tipo().name()));
 
             return authorities;
         } catch (Exception e) {
@@ -0,0 +1,191 @@
+package br.com.casadoamor.sgca.service.auth;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.casadoamor.sgca.entity.auth.Autenticacao2FARateLimit;
+import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARateLimitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limite de envio de códigos 2FA mantido em memória por usuário.
+ *
+ * As janelas de 15 minutos, 1 hora e diária (e o intervalo mínimo entre envios)
+ * continuam sendo as de {@link Autenticacao2FARateLimit}, mas o estado fica em
+ * memória: o envio não lê nem grava a linha no banco. Os estados alterados são
+ * gravados em lote periodicamente (write-behind) em autenticacao_2fa_rate_limit
+ * e recarregados na inicialização.
+ */
+@Slf4j
+@Component
+public class TwoFactorSendThrottle {
+
+    static final String SQL_UPSERT = "INSERT INTO autenticacao_2fa_rate_limit "
+            + "(usuario_id, ultimo_envio, tentativas_ultimos_15min, tentativas_ultima_hora, tentativas_hoje, "
+            + "bloqueado_ate, criado_em, atualizado_em) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE ultimo_envio = VALUES(ultimo_envio), "
+            + "tentativas_ultimos_15min = VALUES(tentativas_ultimos_15min), "
+            + "tentativas_ultima_hora = VALUES(tentativas_ultima_hora), "
+            + "tentativas_hoje = VALUES(tentativas_hoje), "
+            + "bloqueado_ate = VALUES(bloqueado_ate), atualizado_em = VALUES(atualizado_em)";
+
+    /** Estados sem envio há mais de um dia já estão com todas as janelas zeradas */
+    private static final Duration RETENCAO = Duration.ofDays(1);
+
+    private final Autenticacao2FARateLimitRepository rateLimitRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, Autenticacao2FARateLimit> estados;
+    private final Map<Long, Autenticacao2FARateLimit> pendentes = new ConcurrentHashMap<>();
+    private final Counter falhasGravacao;
+
+    public TwoFactorSendThrottle(Autenticacao2FARateLimitRepository rateLimitRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${security.2fa.rate-limit.max-tracked:100000}") long maxRastreados) {
+        this.rateLimitRepository = rateLimitRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.estados = Caffeine.newBuilder()
+                .maximumSize(maxRastreados)
+                .expireAfterAccess(RETENCAO)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, estados, "twofactor.throttle");
+        Gauge.builder("twofactor.throttle.pending", pendentes, Map::size)
+                .description("Estados de limite de envio 2FA aguardando gravação")
+                .register(meterRegistry);
+        this.falhasGravacao = Counter.builder("twofactor.throttle.flush.failed")
+                .description("Falhas na gravação em lote dos limites de envio 2FA")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Recarrega os estados com envio recente gravados no banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            LocalDateTime agora = LocalDateTime.now();
+            List<Autenticacao2FARateLimit> recentes = rateLimitRepository
+                    .findByUltimoEnvioAfterOrBloqueadoAteAfter(agora.minus(RETENCAO), agora);
+            recentes.forEach(estado -> estados.asMap().putIfAbsent(estado.getUsuarioId(), estado));
+            log.info("Limite de envio 2FA restaurado para {} usuários", recentes.size());
+        } catch (Exception e) {
+            log.error("Erro ao restaurar limite de envio 2FA: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verifica se o usuário pode receber um novo código
+     * Lança exceção se o usuário excedeu os limites de envio
+     */
+    public void verificar(Long usuarioId) {
+        Autenticacao2FARateLimit estado = estado(usuarioId);
+        String tempoEspera;
+        synchronized (estado) {
+            LocalDateTime bloqueioAnterior = estado.getBloqueadoAte();
+            if (estado.podeEnviarNovoCodigo()) {
+                return;
+            }
+            // Um bloqueio novo também precisa sobreviver a reinicializações
+            if (!Objects.equals(bloqueioAnterior, estado.getBloqueadoAte()) && estado.getUltimoEnvio() != null) {
+                pendentes.put(usuarioId, estado);
+            }
+            tempoEspera = estado.getTempoEsperaFormatado();
+        }
+        log.warn("Rate limit excedido para usuário ID: {}. Tempo de espera: {}", usuarioId, tempoEspera);
+        throw new RuntimeException("Limite de envios excedido. Por favor, aguarde " + tempoEspera);
+    }
+
+    /**
+     * Registra um envio bem-sucedido nas janelas do usuário
+     */
+    public void registrarEnvio(Long usuarioId) {
+        Autenticacao2FARateLimit estado = estado(usuarioId);
+        synchronized (estado) {
+            estado.resetarSeNecessario();
+            estado.incrementarContadores();
+        }
+        pendentes.put(usuarioId, estado);
+    }
+
+    /**
+     * Grava em lote os estados alterados desde a última gravação
+     */
+    @Scheduled(fixedDelayString = "${security.2fa.rate-limit.flush-interval-ms:5000}",
+               initialDelayString = "${security.2fa.rate-limit.flush-interval-ms:5000}")
+    public void gravarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<Object[]> lote = new ArrayList<>();
+        List<Autenticacao2FARateLimit> gravados = new ArrayList<>();
+        Timestamp gravadoEm = Timestamp.valueOf(LocalDateTime.now());
+        for (Long usuarioId : new ArrayList<>(pendentes.keySet())) {
+            Autenticacao2FARateLimit estado = pendentes.remove(usuarioId);
+            if (estado == null) {
+                continue;
+            }
+            gravados.add(estado);
+            synchronized (estado) {
+                lote.add(new Object[] {
+                        usuarioId,
+                        Timestamp.valueOf(estado.getUltimoEnvio()),
+                        estado.getTentativasUltimos15Min(),
+                        estado.getTentativasUltimaHora(),
+                        estado.getTentativasHoje(),
+                        estado.getBloqueadoAte() != null ? Timestamp.valueOf(estado.getBloqueadoAte()) : null,
+                        gravadoEm,
+                        gravadoEm
+                });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(SQL_UPSERT, lote);
+            log.debug("{} estados de limite de envio 2FA gravados", lote.size());
+        } catch (Exception e) {
+            // Volta para a fila; a próxima execução tenta de novo
+            gravados.forEach(estado -> pendentes.putIfAbsent(estado.getUsuarioId(), estado));
+            falhasGravacao.increment();
+            log.error("Erro ao gravar {} estados de limite de envio 2FA: {}", lote.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravarPendentes();
+    }
+
+    int quantidadePendentes() {
+        return pendentes.size();
+    }
+
+    private Autenticacao2FARateLimit estado(Long usuarioId) {
+        return estados.get(usuarioId, id -> {
+            Autenticacao2FARateLimit novo = new Autenticacao2FARateLimit();
+            novo.setUsuarioId(id);
+            return novo;
+        });
+    }
+}
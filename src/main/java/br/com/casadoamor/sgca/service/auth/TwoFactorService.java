@@ -9,9 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import br.com.casadoamor.sgca.dto.twofactor.Enable2FADTO;
 import br.com.casadoamor.sgca.dto.twofactor.Setup2FADTO;
 import br.com.casadoamor.sgca.entity.auth.Autenticacao2FA;
-import br.com.casadoamor.sgca.entity.auth.Autenticacao2FARateLimit;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
-import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARateLimitRepository;
 import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
 import br.com.casadoamor.sgca.service.common.EmailService;
@@ -27,7 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 public class TwoFactorService {
 
     private final Autenticacao2FARepository autenticacao2FARepository;
-    private final Autenticacao2FARateLimitRepository rateLimitRepository;
+    private final TwoFactorSendThrottle sendThrottle;
     private final AuthUsuarioRepository authUsuarioRepository;
     private final EmailService emailService;
 
@@ -254,45 +252,14 @@ public class TwoFactorService {
      */
     private void verificarRateLimit(Long usuarioId) {
         log.debug("Verificando rate limit para usuário ID: {}", usuarioId);
-        
-        // Busca ou cria registro de rate limit
-        Autenticacao2FARateLimit rateLimit = rateLimitRepository.findByUsuarioId(usuarioId)
-                .orElseGet(() -> {
-                    Autenticacao2FARateLimit novoRateLimit = new Autenticacao2FARateLimit();
-                    novoRateLimit.setUsuarioId(usuarioId);
-                    return novoRateLimit;
-                });
-
-        // Reseta contadores se necessário
-        rateLimit.resetarSeNecessario();
-
-        // Verifica se pode enviar novo código
-        if (!rateLimit.podeEnviarNovoCodigo()) {
-            String tempoEspera = rateLimit.getTempoEsperaFormatado();
-            log.warn("Rate limit excedido para usuário ID: {}. Tempo de espera: {}", usuarioId, tempoEspera);
-            throw new RuntimeException("Limite de envios excedido. Por favor, aguarde " + tempoEspera);
-        }
-        
-        log.debug("Rate limit OK para usuário ID: {}", usuarioId);
+        sendThrottle.verificar(usuarioId);
     }
 
     /**
      * Incrementa os contadores de rate limit após envio bem-sucedido
      */
     private void incrementarRateLimit(Long usuarioId) {
-        log.debug("Incrementando contadores de rate limit para usuário ID: {}", usuarioId);
-        
-        Autenticacao2FARateLimit rateLimit = rateLimitRepository.findByUsuarioId(usuarioId)
-                .orElseGet(() -> {
-                    Autenticacao2FARateLimit novoRateLimit = new Autenticacao2FARateLimit();
-                    novoRateLimit.setUsuarioId(usuarioId);
-                    return novoRateLimit;
-                });
-
-        rateLimit.incrementarContadores();
-        rateLimitRepository.save(rateLimit);
-        
-        log.debug("Contadores de rate limit atualizados para usuário ID: {}", usuarioId);
+        sendThrottle.registrarEnvio(usuarioId);
     }
 
     /**
@@ -0,0 +1,207 @@
+package br.com.casadoamor.sgca.service.common;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.StatusEmail;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.TipoEmail;
+import br.com.casadoamor.sgca.repository.common.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Outbox transacional de emails.
+ *
+ * {@link #enfileirar} grava o email na transação de quem chamou (se houver): o email
+ * só existe se a operação for confirmada, e nenhuma conexão fica presa esperando o
+ * SMTP. A entrega é feita por {@link EmailOutboxWorker}, que reserva os emails por
+ * prioridade e registra o resultado aqui. Falhas são reagendadas com backoff
+ * exponencial; ao esgotar as tentativas o email fica com status FALHA (dead letter).
+ *
+ * O corpo (que pode trazer códigos 2FA, links de redefinição e senhas temporárias) é
+ * apagado quando o email chega a ENVIADO ou FALHA, e as linhas finalizadas são removidas
+ * após email.outbox.retention-days.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+    private static final int LOTE_REMOCAO = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxTentativas;
+    private final Duration esperaBase;
+    private final Duration esperaMaxima;
+    private final Duration reserva;
+    private final Duration retencao;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter enviados;
+    private final Counter reagendados;
+    private final Counter descartados;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              MeterRegistry meterRegistry,
+                              @Value("${email.outbox.max-attempts:8}") int maxTentativas,
+                              @Value("${email.outbox.backoff-base-ms:30000}") long esperaBaseMs,
+                              @Value("${email.outbox.backoff-max-ms:3600000}") long esperaMaximaMs,
+                              @Value("${email.outbox.lease-ms:300000}") long reservaMs,
+                              @Value("${email.outbox.retention-days:30}") long retencaoDias) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.maxTentativas = maxTentativas;
+        this.esperaBase = Duration.ofMillis(esperaBaseMs);
+        this.esperaMaxima = Duration.ofMillis(esperaMaximaMs);
+        this.reserva = Duration.ofMillis(reservaMs);
+        this.retencao = Duration.ofDays(retencaoDias);
+
+        this.meterRegistry = meterRegistry;
+        this.enviados = Counter.builder("email.outbox.sent")
+                .description("Emails do outbox entregues ao servidor SMTP")
+                .register(meterRegistry);
+        this.reagendados = Counter.builder("email.outbox.retried")
+                .description("Falhas de entrega reagendadas com backoff")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("email.outbox.dead")
+                .description("Emails que esgotaram as tentativas (status FALHA)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava o email para entrega assíncrona; os workers são acordados após o commit
+     */
+    @Transactional
+    public EmailOutbox enfileirar(String destinatario, String assunto, String corpo, boolean html, TipoEmail tipo) {
+        EmailOutbox email = emailOutboxRepository.save(EmailOutbox.builder()
+                .destinatario(destinatario)
+                .assunto(assunto)
+                .corpo(corpo)
+                .html(html)
+                .tipo(tipo)
+                .prioridade(tipo.getPrioridade())
+                .build());
+        meterRegistry.counter("email.outbox.enqueued", "tipo", tipo.name()).increment();
+        log.info("📧 Email {} ({}) enfileirado para: {}", email.getId(), tipo, destinatario);
+        eventPublisher.publishEvent(new EmailEnfileirado(email.getId(), tipo));
+        return email;
+    }
+
+    /**
+     * Reserva até {@code limite} emails prontos para envio, por prioridade.
+     * A reserva expira após o lease; um worker que cair não prende o email.
+     */
+    @Transactional
+    public List<EmailOutbox> reservar(int limite) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EmailOutbox> prontos = emailOutboxRepository.findProntosParaEnvio(agora, limite);
+        for (EmailOutbox email : prontos) {
+            email.setStatus(StatusEmail.ENVIANDO);
+            email.setReservadoAte(agora.plus(reserva));
+        }
+        return prontos.isEmpty() ? prontos : emailOutboxRepository.saveAll(prontos);
+    }
+
+    @Transactional
+    public void marcarEnviado(Long id) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            email.setStatus(StatusEmail.ENVIADO);
+            email.setTentativas(email.getTentativas() + 1);
+            email.setEnviadoEm(LocalDateTime.now());
+            email.setReservadoAte(null);
+            email.setUltimoErro(null);
+            email.setCorpo(null);
+            emailOutboxRepository.save(email);
+            enviados.increment();
+        });
+    }
+
+    /**
+     * Reagenda o email com backoff exponencial ou, esgotadas as tentativas, marca como FALHA
+     */
+    @Transactional
+    public void registrarFalha(Long id, String erro) {
+        emailOutboxRepository.findById(id).ifPresent(email -> {
+            int tentativas = email.getTentativas() + 1;
+            email.setTentativas(tentativas);
+            email.setReservadoAte(null);
+            email.setUltimoErro(truncar(erro));
+            if (tentativas >= maxTentativas) {
+                email.setStatus(StatusEmail.FALHA);
+                email.setCorpo(null);
+                descartados.increment();
+                log.error("❌ Email {} ({}) para {} descartado após {} tentativas: {}",
+                        id, email.getTipo(), email.getDestinatario(), tentativas, erro);
+            } else {
+                Duration espera = calcularEspera(tentativas, esperaBase, esperaMaxima);
+                email.setStatus(StatusEmail.PENDENTE);
+                email.setProximaTentativaEm(LocalDateTime.now().plus(espera));
+                reagendados.increment();
+                log.warn("Falha ao enviar email {} ({}) para {} (tentativa {}). Nova tentativa em {}s: {}",
+                        id, email.getTipo(), email.getDestinatario(), tentativas, espera.toSeconds(), erro);
+            }
+            emailOutboxRepository.save(email);
+        });
+    }
+
+    /**
+     * Remove, em lotes, os emails finalizados (ENVIADO ou FALHA) mais antigos que a retenção
+     *
+     * @return quantidade de emails removidos
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}",
+               initialDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public int removerFinalizados() {
+        LocalDateTime criadoAntesDe = LocalDateTime.now().minus(retencao);
+        int total = 0;
+        try {
+            int removidos;
+            do {
+                removidos = emailOutboxRepository.deleteFinalizadosAntesDe(criadoAntesDe, LOTE_REMOCAO);
+                total += removidos;
+            } while (removidos == LOTE_REMOCAO);
+        } catch (Exception e) {
+            log.error("Erro ao remover emails finalizados do outbox: {}", e.getMessage());
+        }
+        if (total > 0) {
+            log.info("{} emails finalizados removidos do outbox (criados antes de {})", total, criadoAntesDe);
+        }
+        return total;
+    }
+
+    /**
+     * Espera antes da próxima tentativa: base * 2^(tentativas - 1), limitada ao máximo
+     */
+    static Duration calcularEspera(int tentativas, Duration base, Duration maximo) {
+        int expoente = Math.min(Math.max(tentativas - 1, 0), 30);
+        long esperaMs = base.toMillis() << expoente;
+        if (esperaMs <= 0 || esperaMs > maximo.toMillis()) {
+            return maximo;
+        }
+        return Duration.ofMillis(esperaMs);
+    }
+
+    private static String truncar(String erro) {
+        if (erro == null || erro.length() <= TAMANHO_MAXIMO_ERRO) {
+            return erro;
+        }
+        return erro.substring(0, TAMANHO_MAXIMO_ERRO);
+    }
+
+    /**
+     * Publicado ao enfileirar; entregue aos workers após o commit da transação
+     */
+    public record EmailEnfileirado(Long id, TipoEmail tipo) {
+    }
+}
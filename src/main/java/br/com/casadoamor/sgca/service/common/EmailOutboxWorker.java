@@ -0,0 +1,211 @@
+package br.com.casadoamor.sgca.service.common;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.service.imp.SmtpEmailSender;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Workers de entrega do outbox de emails.
+ *
+ * Uma thread despachante reserva lotes de emails prontos (por prioridade) e os
+ * entrega a um pool de threads cuja fila também é ordenada por prioridade, então um
+ * código 2FA reservado depois passa na frente de emails menos urgentes já na fila.
+ * Cada worker envia o email que recebeu e, na mesma conexão SMTP do pool, os
+ * próximos da fila.
+ * O despachante é acordado logo após o commit de um novo email e, sem avisos,
+ * consulta o outbox no intervalo configurado (novas tentativas e outras instâncias).
+ */
+@Slf4j
+@Component
+public class EmailOutboxWorker implements SmartLifecycle {
+
+    private final EmailOutboxService emailOutboxService;
+    private final SmtpEmailSender smtpEmailSender;
+    private final int threads;
+    private final int tamanhoLote;
+    private final long intervaloMs;
+
+    private final BlockingQueue<Runnable> fila = new PriorityBlockingQueue<>();
+    private final Semaphore sinal = new Semaphore(0);
+
+    private volatile boolean executando = false;
+    private ThreadPoolExecutor entregadores;
+    private Thread despachante;
+
+    public EmailOutboxWorker(EmailOutboxService emailOutboxService,
+                             SmtpEmailSender smtpEmailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.outbox.worker-threads:4}") int threads,
+                             @Value("${email.outbox.batch-size:50}") int tamanhoLote,
+                             @Value("${email.outbox.poll-interval-ms:5000}") long intervaloMs) {
+        this.emailOutboxService = emailOutboxService;
+        this.smtpEmailSender = smtpEmailSender;
+        this.threads = threads;
+        this.tamanhoLote = tamanhoLote;
+        this.intervaloMs = intervaloMs;
+
+        Gauge.builder("email.outbox.queue.size", fila, BlockingQueue::size)
+                .description("Emails reservados aguardando um worker de entrega")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Novo email confirmado no outbox: acorda o despachante sem esperar o intervalo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoEnfileirar(EmailOutboxService.EmailEnfileirado evento) {
+        acordar();
+    }
+
+    public void acordar() {
+        if (sinal.availablePermits() == 0) {
+            sinal.release();
+        }
+    }
+
+    private void executarDespachante() {
+        while (executando) {
+            try {
+                // Reserva só o que cabe na fila local, para o lease não vencer antes da entrega
+                int livres = tamanhoLote - fila.size();
+                int reservados = livres > 0 ? despachar(livres) : 0;
+                if (reservados < livres || livres <= 0) {
+                    sinal.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                    sinal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Erro ao reservar emails do outbox: {}", e.getMessage());
+                try {
+                    sinal.tryAcquire(intervaloMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private int despachar(int limite) {
+        List<EmailOutbox> lote = emailOutboxService.reservar(limite);
+        for (EmailOutbox email : lote) {
+            // execute (não submit): a fila de prioridade precisa da própria Entrega
+            entregadores.execute(new Entrega(email, this));
+        }
+        return lote.size();
+    }
+
+    /**
+     * Entrega o email e, na mesma conexão SMTP, os próximos da fila (ainda por prioridade)
+     */
+    void entregar(EmailOutbox email) {
+        smtpEmailSender.enviarEmLote(email, this::proximoDaFila, new SmtpEmailSender.ResultadoEnvio() {
+            @Override
+            public void enviado(EmailOutbox enviado) {
+                marcarEnviado(enviado);
+            }
+
+            @Override
+            public void falhou(EmailOutbox email, Exception erro) {
+                registrarFalha(email, erro);
+            }
+        });
+    }
+
+    private EmailOutbox proximoDaFila() {
+        return fila.poll() instanceof Entrega entrega ? entrega.email() : null;
+    }
+
+    private void marcarEnviado(EmailOutbox email) {
+        try {
+            emailOutboxService.marcarEnviado(email.getId());
+        } catch (Exception e) {
+            // O lease expira e o email é reenviado (entrega pelo menos uma vez)
+            log.error("Email {} enviado, mas não foi possível marcá-lo como ENVIADO: {}", email.getId(), e.getMessage());
+        }
+    }
+
+    private void registrarFalha(EmailOutbox email, Exception causa) {
+        try {
+            emailOutboxService.registrarFalha(email.getId(), causa.getClass().getSimpleName() + ": " + causa.getMessage());
+        } catch (Exception e) {
+            log.error("Erro ao registrar falha do email {}: {}", email.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        AtomicInteger contador = new AtomicInteger();
+        entregadores = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, fila, tarefa -> {
+            Thread thread = new Thread(tarefa, "email-outbox-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        despachante = new Thread(this::executarDespachante, "email-outbox-dispatcher");
+        despachante.setDaemon(true);
+        despachante.start();
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        acordar();
+        try {
+            if (despachante != null) {
+                despachante.join(TimeUnit.SECONDS.toMillis(10));
+            }
+            if (entregadores != null) {
+                // Emails ainda na fila local voltam a ser reservados quando o lease expirar
+                entregadores.shutdown();
+                entregadores.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Workers do outbox de emails encerrados");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    /**
+     * Entrega de um email; ordenada por prioridade e, depois, por ordem de chegada
+     */
+    record Entrega(EmailOutbox email, EmailOutboxWorker worker) implements Runnable, Comparable<Entrega> {
+
+        private static final Comparator<Entrega> ORDEM = Comparator
+                .comparing((Entrega e) -> e.email().getPrioridade())
+                .thenComparing(e -> e.email().getId(), Comparator.nullsLast(Comparator.naturalOrder()));
+
+        @Override
+        public void run() {
+            worker.entregar(email);
+        }
+
+        @Override
+        public int compareTo(Entrega outra) {
+            return ORDEM.compare(this, outra);
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package br.com.casadoamor.sgca.service.imp;
 
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoDTO;
 import br.com.casadoamor.sgca.dto.paciente.DadoClinicoInputDTO;
 import br.com.casadoamor.sgca.entity.paciente.DadoClinico;
 import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
 import br.com.casadoamor.sgca.mapper.paciente.DadoClinicoMapper;
 import br.com.casadoamor.sgca.repository.DadoClinicoRepository;
 import br.com.casadoamor.sgca.repository.paciente.PacienteRepository;
 import br.com.casadoamor.sgca.service.DadoClinicoService;
+import br.com.casadoamor.sgca.util.KeysetUtil;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,9 +26,13 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DadoClinicoServiceImp implements DadoClinicoService {
 
+  private static final String ESCOPO_CURSOR = "dados-clinicos";
+
   private final DadoClinicoRepository dadoClinicoRepository;
   private final PacienteRepository pacienteRepository;
   private final DadoClinicoMapper dadoClinicoMapper;
+  private final CursorCodec cursorCodec;
+  private final PaginatedResponseMapper paginatedMapper;
 
   @Override
   @Transactional
@@ -57,6 +68,48 @@ public class DadoClinicoServiceImp implements DadoClinicoService {
         .collect(Collectors.toList());
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public PaginatedResponseDTO<DadoClinicoDTO> buscarDadosClinicosPorCursor(String pacienteId, int limit, String after, String before) {
+    if (limit <= 0) {
+      throw new RuntimeException("Limit deve ser maior que zero");
+    }
+    // O cursor também carrega o paciente: não serve para o histórico de outro
+    String escopo = ESCOPO_CURSOR + ":" + pacienteId;
+    CursorCodec.Posicao posicao = cursorCodec.posicao(escopo, after, before);
+
+    // limit + 1: a linha extra indica se há mais registros no sentido da leitura
+    List<DadoClinicoDTO> linhas = dadoClinicoRepository
+        .findBy(historicoPaciente(pacienteId, posicao), q -> q.limit(limit + 1).all())
+        .stream()
+        .map(dadoClinicoMapper::toDTO)
+        .toList();
+    long total = dadoClinicoRepository.count(historicoPaciente(pacienteId, new CursorCodec.Posicao(null, false)));
+
+    return paginatedMapper.toKeysetDTO(linhas, limit, posicao, total, escopo,
+        dadoClinico -> List.of(dadoClinico.createdAt(), dadoClinico.id()));
+  }
+
+  /**
+   * Histórico do paciente do mais recente ao mais antigo (created_at, id);
+   * lendo para trás (before), a ordem inverte
+   */
+  private static Specification<DadoClinico> historicoPaciente(String pacienteId, CursorCodec.Posicao posicao) {
+    return (root, query, cb) -> {
+      boolean crescente = posicao.paraTras();
+      Predicate filtro = cb.equal(root.get("paciente").get("id"), pacienteId);
+      CursorCodec.Cursor cursor = posicao.cursor();
+      if (cursor != null) {
+        filtro = cb.and(filtro, KeysetUtil.depoisDe(cb, root.<LocalDateTime>get("createdAt"), cursor.dataHora(0),
+            root.<String>get("id"), cursor.texto(1), crescente));
+      }
+      if (query != null && !Long.class.equals(query.getResultType())) {
+        query.orderBy(KeysetUtil.ordem(cb, root.get("createdAt"), crescente), KeysetUtil.ordem(cb, root.get("id"), crescente));
+      }
+      return filtro;
+    };
+  }
+
   @Override
   @Transactional(readOnly = true)
   public DadoClinicoDTO buscarDadoClinicoAtual(String pacienteId) {
@@ -0,0 +1,144 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Renderização dos corpos de email a partir dos templates Thymeleaf em templates/email.
+ *
+ * Os templates de email só substituem valores (th:text, th:href e [(...)] no modo
+ * texto), então cada um é renderizado uma única vez na inicialização com marcadores
+ * no lugar das variáveis e guardado como trechos estáticos. Por envio resta
+ * concatenar os trechos com os valores (escapados nos templates HTML, como o
+ * Thymeleaf faria) em um buffer reaproveitado pela thread.
+ */
+@Slf4j
+@Component
+public class EmailTemplateRenderer {
+
+    private static final String MARCADOR = "{{sgca:";
+    private static final String FIM_MARCADOR = "}}";
+    private static final int CAPACIDADE_MAXIMA_BUFFER = 64 * 1024;
+
+    public enum ModeloEmail {
+        VERIFICACAO("email/verificacao.html", "codigo"),
+        CODIGO_2FA("email/codigo-2fa.html", "codigo"),
+        REDEFINICAO_SENHA("email/redefinicao-senha.html", "link"),
+        RECUPERACAO_CONTA("email/recuperacao-conta.html", "link"),
+        ATIVACAO_CONTA("email/ativacao-conta.txt", "nome", "link", "email", "senhaTemporaria");
+
+        private final String template;
+        private final String[] variaveis;
+
+        ModeloEmail(String template, String... variaveis) {
+            this.template = template;
+            this.variaveis = variaveis;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        public String[] getVariaveis() {
+            return variaveis.clone();
+        }
+
+        boolean html() {
+            return template.endsWith(".html");
+        }
+    }
+
+    private final TemplateEngine templateEngine;
+    private final Map<ModeloEmail, PreRenderizado> preRenderizados = new EnumMap<>(ModeloEmail.class);
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    /**
+     * @param templateEngine engine autoconfigurada pelo Spring Boot (spring.thymeleaf.*); os
+     *                       nomes dos templates têm extensão, então o sufixo não é repetido e
+     *                       os .txt são resolvidos no modo texto
+     */
+    public EmailTemplateRenderer(TemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+
+        for (ModeloEmail modelo : ModeloEmail.values()) {
+            preRenderizados.put(modelo, preRenderizar(modelo));
+        }
+        log.info("{} templates de email pré-renderizados", preRenderizados.size());
+    }
+
+    /**
+     * Corpo do email com os valores na ordem de {@link ModeloEmail#getVariaveis()}
+     */
+    public String renderizar(ModeloEmail modelo, Object... valores) {
+        PreRenderizado preRenderizado = preRenderizados.get(modelo);
+        if (valores.length != modelo.variaveis.length) {
+            throw new IllegalArgumentException("Template " + modelo.template + " espera "
+                    + modelo.variaveis.length + " valores, recebeu " + valores.length);
+        }
+
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        String[] trechos = preRenderizado.trechos();
+        int[] posicoes = preRenderizado.variaveis();
+        for (int i = 0; i < posicoes.length; i++) {
+            buffer.append(trechos[i]);
+            String valor = valores[posicoes[i]] != null ? valores[posicoes[i]].toString() : "";
+            buffer.append(modelo.html() ? HtmlEscape.escapeHtml4Xml(valor) : valor);
+        }
+        buffer.append(trechos[trechos.length - 1]);
+
+        String corpo = buffer.toString();
+        if (buffer.capacity() > CAPACIDADE_MAXIMA_BUFFER) {
+            // Não mantém por thread um buffer inflado por um email fora do comum
+            buffers.remove();
+        }
+        return corpo;
+    }
+
+    /**
+     * Renderização completa pelo Thymeleaf, sem os trechos pré-renderizados
+     */
+    String renderizarComThymeleaf(ModeloEmail modelo, Object... valores) {
+        Context contexto = new Context();
+        for (int i = 0; i < modelo.variaveis.length; i++) {
+            contexto.setVariable(modelo.variaveis[i], valores[i]);
+        }
+        return templateEngine.process(modelo.template, contexto);
+    }
+
+    private PreRenderizado preRenderizar(ModeloEmail modelo) {
+        Object[] marcadores = new Object[modelo.variaveis.length];
+        for (int i = 0; i < marcadores.length; i++) {
+            marcadores[i] = MARCADOR + i + FIM_MARCADOR;
+        }
+        String renderizado = renderizarComThymeleaf(modelo, marcadores);
+
+        List<String> trechos = new ArrayList<>();
+        List<Integer> variaveis = new ArrayList<>();
+        int inicio = 0;
+        int marcador;
+        while ((marcador = renderizado.indexOf(MARCADOR, inicio)) >= 0) {
+            int fim = renderizado.indexOf(FIM_MARCADOR, marcador + MARCADOR.length());
+            trechos.add(renderizado.substring(inicio, marcador));
+            variaveis.add(Integer.parseInt(renderizado.substring(marcador + MARCADOR.length(), fim)));
+            inicio = fim + FIM_MARCADOR.length();
+        }
+        trechos.add(renderizado.substring(inicio));
+
+        return new PreRenderizado(trechos.toArray(String[]::new), variaveis.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Trechos estáticos intercalados com os índices das variáveis (trechos = variáveis + 1)
+     */
+    private record PreRenderizado(String[] trechos, int[] variaveis) {
+    }
+}
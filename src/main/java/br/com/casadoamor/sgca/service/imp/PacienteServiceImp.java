@@ -1,7 +1,15 @@
 package br.com.casadoamor.sgca.service.imp;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -14,24 +22,45 @@ import br.com.casadoamor.sgca.dto.paciente.RegistrarPacienteDTO;
 import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
 import br.com.casadoamor.sgca.entity.paciente.Endereco;
 import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
 import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
 import br.com.casadoamor.sgca.mapper.paciente.DadoPessoalMapper;
 import br.com.casadoamor.sgca.mapper.paciente.EnderecoMapper;
 import br.com.casadoamor.sgca.mapper.paciente.PacienteMapper;
 import br.com.casadoamor.sgca.repository.paciente.PacienteRepository;
+import br.com.casadoamor.sgca.service.paciente.PacienteBuscaTotais;
+import br.com.casadoamor.sgca.service.paciente.PacienteIndexador;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex.ResultadoBusca;
 import br.com.casadoamor.sgca.service.paciente.PacienteService;
+import br.com.casadoamor.sgca.service.paciente.PacienteTypeaheadIndex;
 import br.com.casadoamor.sgca.util.CpfUtil;
+import br.com.casadoamor.sgca.util.KeysetUtil;
+import br.com.casadoamor.sgca.util.TextoBuscaUtil;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class PacienteServiceImp implements PacienteService {
+  private static final int TAMANHO_CPF = 11;
+  private static final int TAMANHO_RG = 10;
+  private static final int MAX_SUGESTOES = 20;
+  private static final String ESCOPO_CURSOR = "pacientes";
+
   private final PacienteRepository pacienteRepository;
   private final EnderecoMapper enderecoMapper;
   private final DadoPessoalMapper dadoPessoalMapper;
   private final PacienteMapper pacienteMapper;
   private final PaginatedResponseMapper paginatedMapper;
+  private final CursorCodec cursorCodec;
+  private final PacienteSearchIndex searchIndex;
+  private final PacienteTypeaheadIndex typeaheadIndex;
+  private final PacienteBuscaTotais buscaTotais;
+  private final PacienteIndexador indexador;
 
   @Override
   public PacienteDTO registrarPaciente(RegistrarPacienteDTO registrarPacienteDTO) {
@@ -65,6 +94,8 @@ public class PacienteServiceImp implements PacienteService {
     Paciente paciente = pacienteMapper.toEntityFromEntities(dadoPessoal, endereco);
 
     pacienteRepository.save(paciente);
+    indexador.indexar(paciente);
+    buscaTotais.invalidar();
 
     return pacienteMapper.toDTO(paciente);
   }
@@ -115,106 +146,247 @@ public class PacienteServiceImp implements PacienteService {
     }
 
     pacienteRepository.save(pacienteExistente);
+    indexador.indexar(pacienteExistente);
+    buscaTotais.invalidar();
 
     return pacienteMapper.toDTO(pacienteExistente);
   }
 
   public  PaginatedResponseDTO<PacienteDTO> pacientesPaginados (String searchText, int limit, int offset) {
-     Specification<Paciente> spec = (root, query, criteriaBuilder) -> {
-        Predicate predicate = criteriaBuilder.conjunction(); 
-
-    if (searchText != null && !searchText.isBlank()) {
-      String search = "%" + searchText.toLowerCase() + "%";
-      String searchPlain = searchText.toLowerCase();
-      String searchNorm = searchText.toLowerCase().replaceAll("\\s|\\.|-", "");
-
-      var dadoJoin = root.join("dadoPessoal");
-
-      // normalize DB cpf/rg once and use for starts/contains/exact
-      var cpfNormalizedDb = criteriaBuilder.lower(
-        criteriaBuilder.function("REPLACE", String.class,
-          criteriaBuilder.function("REPLACE", String.class,
-            criteriaBuilder.function("REPLACE", String.class,
-              dadoJoin.get("cpf"),
-              criteriaBuilder.literal("."),
-              criteriaBuilder.literal("")
-            ),
-            criteriaBuilder.literal("-"),
-            criteriaBuilder.literal("")
-          ),
-          criteriaBuilder.literal(" "),
-          criteriaBuilder.literal("")
-        )
-      );
-
-      var rgNormalizedDb = criteriaBuilder.lower(
-        criteriaBuilder.function("REPLACE", String.class,
-          criteriaBuilder.function("REPLACE", String.class,
-            criteriaBuilder.function("REPLACE", String.class,
-              dadoJoin.get("rg"),
-              criteriaBuilder.literal("."),
-              criteriaBuilder.literal("")
-            ),
-            criteriaBuilder.literal("-"),
-            criteriaBuilder.literal("")
-          ),
-          criteriaBuilder.literal(" "),
-          criteriaBuilder.literal("")
-        )
-      );
-
-      // name predicates (using lower-cased name)
-      Predicate nameContains = criteriaBuilder.like(criteriaBuilder.lower(dadoJoin.get("nome")), search);
-      Predicate nameStarts = criteriaBuilder.like(criteriaBuilder.lower(dadoJoin.get("nome")), searchPlain + "%");
-      Predicate exactName = criteriaBuilder.equal(criteriaBuilder.lower(dadoJoin.get("nome")), searchPlain);
-
-      // cpf predicates (use normalized DB and normalized search)
-      Predicate cpfContains = criteriaBuilder.like(cpfNormalizedDb, "%" + searchNorm + "%");
-      Predicate cpfStarts = criteriaBuilder.like(cpfNormalizedDb, searchNorm + "%");
-      Predicate exactCpf = criteriaBuilder.equal(cpfNormalizedDb, searchNorm);
-
-      // rg predicates
-      Predicate rgContains = criteriaBuilder.like(rgNormalizedDb, "%" + searchNorm + "%");
-      Predicate rgStarts = criteriaBuilder.like(rgNormalizedDb, searchNorm + "%");
-      Predicate exactRg = criteriaBuilder.equal(rgNormalizedDb, searchNorm);
-
-      // overall contains predicate (keep to filter results)
-      Predicate anyContains = criteriaBuilder.or(nameContains, cpfContains, rgContains);
-      predicate = criteriaBuilder.and(predicate, anyContains);
-
-      // CASE: exact (0), starts-with (1), contains (2), else 3
-      var caseExpr = criteriaBuilder.selectCase()
-        .when(criteriaBuilder.or(exactName, exactCpf, exactRg), 0)
-        .when(criteriaBuilder.or(nameStarts, cpfStarts, rgStarts), 1)
-        .when(criteriaBuilder.or(nameContains, cpfContains, rgContains), 2)
-        .otherwise(3);
-
-      if (query != null) {
-        query.orderBy(criteriaBuilder.asc(caseExpr), criteriaBuilder.asc(root.get("id")));
-      }
-      
-    } else {
-      if (query != null) {
-        query.orderBy(criteriaBuilder.asc(root.get("id")));
+    if (offset < 0) {
+      throw new CustomError("Offset não pode ser negativo", HttpStatus.BAD_REQUEST);
+    }
+
+    List<PacienteDTO> nodes = new ArrayList<>();
+    Map<String, Integer> faixaPorId = new HashMap<>();
+
+    // Totais por faixa em cache: a varredura do "contém" não é recontada a cada página
+    long[] totaisPorFaixa = buscaTotais.porFaixa(searchText, () -> contarPorFaixa(searchText));
+    long total = Arrays.stream(totaisPorFaixa).sum();
+
+    // Uma consulta por faixa do ranking, na ordem: exato e prefixo vêm de buscas nos
+    // índices e o "contém" só é lido quando a página chega nele
+    long inicioDaFaixa = 0;
+    for (int faixa = 0; faixa < totaisPorFaixa.length; faixa++) {
+      int faltam = limit - nodes.size();
+      // As faixas anteriores ocupam as primeiras 'inicioDaFaixa' posições
+      long pular = Math.max(0, offset - inicioDaFaixa);
+      if (faltam > 0 && pular < totaisPorFaixa[faixa]) {
+        for (Paciente paciente : lerFaixa(buscaNaFaixa(searchText, faixa, null, true), pular, faltam)) {
+          nodes.add(pacienteMapper.toDTO(paciente));
+          faixaPorId.put(paciente.getId(), faixa);
+        }
       }
+      inicioDaFaixa += totaisPorFaixa[faixa];
+    }
+
+    boolean hasPreviousPage = offset > 0;
+    if (limit <= 0) {
+      return paginatedMapper.toDTO(List.of(), total, hasPreviousPage, offset < total);
+    }
+
+    boolean hasNextPage = ((long) offset + limit) < total;
+
+    // Os cursores permitem seguir para as próximas páginas por keyset (pacientesPorCursor)
+    return paginatedMapper.toDTO(nodes, total, hasPreviousPage, hasNextPage,
+      ESCOPO_CURSOR, paciente -> List.of(faixaPorId.get(paciente.id()), paciente.id()));
+  }
+
+  /**
+   * Até 'quantidade' pacientes da faixa depois de pular 'pular' registros, com LIMIT/OFFSET
+   * no banco. Por scroll e não por findAll(spec, pageable), que contaria a faixa de novo
+   * sempre que a página enche (o offset do scroll é o da última linha já lida).
+   */
+  private List<Paciente> lerFaixa(Specification<Paciente> spec, long pular, int quantidade) {
+    ScrollPosition posicao = pular == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pular - 1);
+    return pacienteRepository.findBy(spec,
+      q -> q.project("dadoPessoal", "endereco").limit(quantidade).scroll(posicao)).getContent();
+  }
+
+  /**
+   * Busca por relevância no índice em memória (sem acentos, por prefixo e fonética);
+   * enquanto o índice não foi carregado, cai na busca paginada do banco
+   */
+  public PaginatedResponseDTO<PacienteDTO> buscarPacientes(String q, int limit, int offset) {
+    if (offset < 0) {
+      throw new CustomError("Offset não pode ser negativo", HttpStatus.BAD_REQUEST);
+    }
+
+    if (q == null || q.isBlank() || !searchIndex.isPronto()) {
+      return pacientesPaginados(q, limit, offset);
     }
-        return predicate;
-    };
 
-    List<Paciente> allPacientes = pacienteRepository.findAll(spec);
+    ResultadoBusca resultado = searchIndex.buscar(q, limit, offset);
 
-    int start = Math.min(offset, allPacientes.size());
-    int end = Math.min(offset + limit, allPacientes.size());
+    // Só os pacientes da página vêm do banco, na ordem de relevância do índice
+    Map<String, Paciente> porId = resultado.pacienteIds().isEmpty()
+      ? Map.of()
+      : pacienteRepository.findByIdIn(resultado.pacienteIds())
+          .stream()
+          .collect(Collectors.toMap(Paciente::getId, Function.identity()));
 
-    List<PacienteDTO> nodes = allPacientes.subList(start, end)
+    List<PacienteDTO> nodes = resultado.pacienteIds()
       .stream()
+      .map(porId::get)
+      .filter(Objects::nonNull)
       .map(pacienteMapper::toDTO)
       .toList();
 
-    boolean hasPreviousPage = offset > 0;
-    boolean hasNextPage = (offset + limit) < allPacientes.size();
+    boolean hasNextPage = limit > 0 && ((long) offset + limit) < resultado.total();
+
+    return paginatedMapper.toDTO(nodes, resultado.total(), offset > 0, hasNextPage);
+  }
+
+  /**
+   * Sugestões do autocompletar (resumo do paciente) a partir do índice de prefixos em memória;
+   * enquanto o índice não está disponível, usa a primeira página da busca no banco
+   */
+  public List<PacienteDTO> sugerirPacientes(String q, int limit) {
+    int quantidade = Math.min(Math.max(limit, 0), MAX_SUGESTOES);
+
+    if (!typeaheadIndex.isPronto()) {
+      if (q == null || q.isBlank()) {
+        return List.of();
+      }
+      return pacientesPaginados(q, quantidade, 0).nodes();
+    }
+
+    return typeaheadIndex.sugerir(q, quantidade);
+  }
+
+  /**
+   * Página por keyset: começa depois (after) ou antes (before) do cursor, sem OFFSET.
+   * A ordem é a mesma de {@link #pacientesPaginados}: faixa do ranking e id. A faixa
+   * do cursor é lida por seek no id a partir dele e as faixas seguintes (anteriores,
+   * lendo para trás) desde o início, até completar a página.
+   */
+  public PaginatedResponseDTO<PacienteDTO> pacientesPorCursor(String searchText, int limit, String after, String before) {
+    if (limit <= 0) {
+      throw new CustomError("Limit deve ser maior que zero", HttpStatus.BAD_REQUEST);
+    }
+
+    CursorCodec.Posicao posicao = cursorCodec.posicao(ESCOPO_CURSOR, after, before);
+    CursorCodec.Cursor cursor = posicao.cursor();
+    boolean crescente = !posicao.paraTras();
+
+    List<PacienteDTO> linhas = new ArrayList<>();
+    Map<String, Integer> faixaPorId = new HashMap<>();
+    int inicio = cursor == null ? 0 : cursor.inteiro(0);
+
+    // limit + 1: a linha extra indica se há mais registros no sentido da leitura
+    for (int faixa = inicio; faixa >= 0 && faixa < faixas(searchText) && linhas.size() <= limit; faixa += crescente ? 1 : -1) {
+      String depoisDeId = cursor != null && faixa == inicio ? cursor.texto(1) : null;
+      int faltam = limit + 1 - linhas.size();
+      List<Paciente> daFaixa = pacienteRepository.findBy(buscaNaFaixa(searchText, faixa, depoisDeId, crescente),
+        q -> q.project("dadoPessoal", "endereco").limit(faltam).all());
+      for (Paciente paciente : daFaixa) {
+        linhas.add(pacienteMapper.toDTO(paciente));
+        faixaPorId.put(paciente.getId(), faixa);
+      }
+    }
+
+    // O total (que inclui a varredura do "contém") não é recontado a cada página
+    long total = Arrays.stream(buscaTotais.porFaixa(searchText, () -> contarPorFaixa(searchText))).sum();
+
+    return paginatedMapper.toKeysetDTO(linhas, limit, posicao, total, ESCOPO_CURSOR,
+      paciente -> List.of(faixaPorId.get(paciente.id()), paciente.id()));
+  }
+
+  private long[] contarPorFaixa(String searchText) {
+    long[] totais = new long[faixas(searchText)];
+    for (int faixa = 0; faixa < totais.length; faixa++) {
+      totais[faixa] = pacienteRepository.count(buscaNaFaixa(searchText, faixa, null, true));
+    }
+    return totais;
+  }
+
+  /**
+   * Quantas faixas do ranking a busca percorre: sem termo ou com CPF completo há uma
+   * só (todos por id, ou a igualdade em cpf_busca); nos demais termos, exato (0),
+   * começa com (1) e contém (2)
+   */
+  private static int faixas(String searchText) {
+    String termoNome = TextoBuscaUtil.normalizarNome(searchText);
+    if (termoNome == null || termoNome.isEmpty() || isCpfCompleto(TextoBuscaUtil.normalizarDocumento(searchText))) {
+      return 1;
+    }
+    return 3;
+  }
+
+  /**
+   * Pacientes de uma faixa do ranking, ordenados só pelo id (a partir de depoisDeId,
+   * quando informado). Cada faixa é um filtro próprio sobre as colunas normalizadas
+   * de dados_pessoais, sem CASE nem funções por linha:
+   * - CPF completo: cpf_busca = x, pelo índice da coluna;
+   * - exato: igualdade em nome_busca, cpf_busca ou rg_busca, pelos índices;
+   * - começa com: LIKE 'x%' pelos índices, menos os exatos;
+   * - contém: LIKE '%x%', menos os que começam com o termo. Não há índice que
+   *   atenda essa faixa: ela é uma varredura, feita só quando a página chega nela.
+   */
+  private Specification<Paciente> buscaNaFaixa(String searchText, int faixa, String depoisDeId, boolean crescente) {
+    return (root, query, criteriaBuilder) -> {
+      // A consulta de contagem (Long) não precisa de ordenação
+      if (query != null && !Long.class.equals(query.getResultType())) {
+        query.orderBy(KeysetUtil.ordem(criteriaBuilder, root.get("id"), crescente));
+      }
+      Predicate filtro = filtroDaFaixa(searchText, faixa, root, criteriaBuilder);
+      return depoisDeId == null
+        ? filtro
+        : criteriaBuilder.and(filtro, KeysetUtil.depoisDe(criteriaBuilder, root.<String>get("id"), depoisDeId, crescente));
+    };
+  }
 
-    return paginatedMapper.toDTO(nodes, allPacientes.size(), hasPreviousPage, hasNextPage);
+  private static Predicate filtroDaFaixa(String searchText, int faixa, Root<Paciente> root, CriteriaBuilder criteriaBuilder) {
+    String termoNome = TextoBuscaUtil.normalizarNome(searchText);
+    if (termoNome == null || termoNome.isEmpty()) {
+      return criteriaBuilder.conjunction();
+    }
+    String termoDocumento = TextoBuscaUtil.normalizarDocumento(searchText);
+
+    var dadoJoin = root.join("dadoPessoal");
+    if (isCpfCompleto(termoDocumento)) {
+      return criteriaBuilder.equal(dadoJoin.get("cpfBusca"), termoDocumento);
+    }
+
+    List<Predicate> exatos = new ArrayList<>();
+    List<Predicate> prefixos = new ArrayList<>();
+    List<Predicate> contem = new ArrayList<>();
+
+    adicionarBusca(criteriaBuilder, dadoJoin.get("nomeBusca"), termoNome, exatos, prefixos, contem);
+
+    // Documentos só entram quando o termo cabe na coluna (CPF só com dígitos)
+    if (isCpfParcial(termoDocumento)) {
+      adicionarBusca(criteriaBuilder, dadoJoin.get("cpfBusca"), termoDocumento, exatos, prefixos, contem);
+    }
+    if (!termoDocumento.isEmpty() && termoDocumento.length() <= TAMANHO_RG) {
+      adicionarBusca(criteriaBuilder, dadoJoin.get("rgBusca"), termoDocumento, exatos, prefixos, contem);
+    }
+
+    Predicate algumExato = criteriaBuilder.or(exatos.toArray(Predicate[]::new));
+    Predicate algumPrefixo = criteriaBuilder.or(prefixos.toArray(Predicate[]::new));
+    return switch (faixa) {
+      case 0 -> algumExato;
+      // Exato está contido em "começa com", que está contido em "contém"
+      case 1 -> criteriaBuilder.and(algumPrefixo, criteriaBuilder.not(algumExato));
+      default -> criteriaBuilder.and(criteriaBuilder.or(contem.toArray(Predicate[]::new)), criteriaBuilder.not(algumPrefixo));
+    };
+  }
+
+  private static boolean isCpfCompleto(String termoDocumento) {
+    return termoDocumento.length() == TAMANHO_CPF && termoDocumento.chars().allMatch(Character::isDigit);
   }
 
+  private static boolean isCpfParcial(String termoDocumento) {
+    return !termoDocumento.isEmpty() && termoDocumento.length() < TAMANHO_CPF
+      && termoDocumento.chars().allMatch(Character::isDigit);
+  }
+
+  private static void adicionarBusca(CriteriaBuilder criteriaBuilder, Expression<String> coluna, String termo,
+                                     List<Predicate> exatos, List<Predicate> prefixos, List<Predicate> contem) {
+    String escapado = TextoBuscaUtil.escaparLike(termo);
+    // IS NOT NULL: com a coluna nula o NOT da faixa seguinte não pode virar NULL e descartar a linha
+    exatos.add(criteriaBuilder.and(criteriaBuilder.isNotNull(coluna), criteriaBuilder.equal(coluna, termo)));
+    prefixos.add(criteriaBuilder.and(criteriaBuilder.isNotNull(coluna), criteriaBuilder.like(coluna, escapado + "%", '\\')));
+    contem.add(criteriaBuilder.like(coluna, "%" + escapado + "%", '\\'));
+  }
 }
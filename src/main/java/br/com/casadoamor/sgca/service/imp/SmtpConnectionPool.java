@@ -0,0 +1,208 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pool de conexões SMTP já autenticadas.
+ *
+ * Abrir uma conexão custa o handshake TCP, o STARTTLS e o AUTH; aqui as conexões
+ * ficam abertas e são reutilizadas para várias mensagens. A conexão ociosa mais
+ * recente é reutilizada primeiro (as antigas expiram sozinhas); uma conexão parada
+ * há mais de validate-after-ms é verificada com NOOP antes do uso, e as ociosas
+ * além do idle-timeout são fechadas periodicamente. Após max-messages-per-connection
+ * mensagens a conexão é renovada (limite comum dos provedores).
+ */
+@Slf4j
+@Component
+public class SmtpConnectionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingDeque<Conexao> ociosas = new LinkedBlockingDeque<>();
+    private final int maxOciosas;
+    private final long tempoOciosoNanos;
+    private final long validarAposNanos;
+    private final int maxMensagensPorConexao;
+
+    private final Counter abertas;
+    private final Counter reutilizadas;
+    private final MeterRegistry meterRegistry;
+    private final Timer tempoEnvio;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              MeterRegistry meterRegistry,
+                              @Value("${email.smtp.pool.max-idle:4}") int maxOciosas,
+                              @Value("${email.smtp.pool.idle-timeout-ms:60000}") long tempoOciosoMs,
+                              @Value("${email.smtp.pool.validate-after-ms:10000}") long validarAposMs,
+                              @Value("${email.smtp.pool.max-messages-per-connection:100}") int maxMensagensPorConexao) {
+        this.mailSender = mailSender;
+        this.maxOciosas = maxOciosas;
+        this.tempoOciosoNanos = TimeUnit.MILLISECONDS.toNanos(tempoOciosoMs);
+        this.validarAposNanos = TimeUnit.MILLISECONDS.toNanos(validarAposMs);
+        this.maxMensagensPorConexao = maxMensagensPorConexao;
+
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("email.smtp.connections.idle", ociosas, BlockingDeque::size)
+                .description("Conexões SMTP abertas aguardando uso")
+                .register(meterRegistry);
+        this.abertas = Counter.builder("email.smtp.connections.opened")
+                .description("Conexões SMTP abertas (handshake + autenticação)")
+                .register(meterRegistry);
+        this.reutilizadas = Counter.builder("email.smtp.connections.reused")
+                .description("Usos de uma conexão SMTP já aberta")
+                .register(meterRegistry);
+        this.tempoEnvio = Timer.builder("email.smtp.send")
+                .description("Tempo de envio de uma mensagem em uma conexão aberta")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Conexão ociosa válida ou, se não houver, uma nova conexão autenticada
+     */
+    public Conexao obter() throws MessagingException {
+        Conexao conexao;
+        while ((conexao = ociosas.pollFirst()) != null) {
+            if (conexao.valida()) {
+                reutilizadas.increment();
+                return conexao;
+            }
+            fechar(conexao, "invalida");
+        }
+        return abrir();
+    }
+
+    /**
+     * Devolve a conexão ao pool; conexões esgotadas ou excedentes são fechadas
+     */
+    public void devolver(Conexao conexao) {
+        if (!conexao.disponivel()) {
+            fechar(conexao, "esgotada");
+            return;
+        }
+        conexao.ultimoUso = System.nanoTime();
+        if (ociosas.size() >= maxOciosas || !ociosas.offerFirst(conexao)) {
+            fechar(conexao, "excedente");
+        }
+    }
+
+    /**
+     * Fecha uma conexão que falhou durante o uso
+     */
+    public void descartar(Conexao conexao) {
+        fechar(conexao, "erro");
+    }
+
+    /**
+     * Fecha as conexões ociosas além do idle-timeout (servidores derrubam conexões paradas)
+     */
+    @Scheduled(fixedDelayString = "${email.smtp.pool.eviction-interval-ms:30000}",
+               initialDelayString = "${email.smtp.pool.eviction-interval-ms:30000}")
+    public void removerOciosas() {
+        try {
+            long agora = System.nanoTime();
+            Iterator<Conexao> antigasPrimeiro = ociosas.descendingIterator();
+            while (antigasPrimeiro.hasNext()) {
+                Conexao conexao = antigasPrimeiro.next();
+                if (agora - conexao.ultimoUso >= tempoOciosoNanos && ociosas.removeFirstOccurrence(conexao)) {
+                    fechar(conexao, "ociosa");
+                }
+            }
+        } catch (Exception e) {
+            log.error("Erro ao remover conexões SMTP ociosas: {}", e.getMessage());
+        }
+    }
+
+    public int quantidadeOciosas() {
+        return ociosas.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        Conexao conexao;
+        while ((conexao = ociosas.pollFirst()) != null) {
+            fechar(conexao, "encerramento");
+        }
+    }
+
+    private Conexao abrir() throws MessagingException {
+        String protocolo = Objects.requireNonNullElse(mailSender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL);
+        Transport transport = mailSender.getSession().getTransport(protocolo);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        abertas.increment();
+        log.debug("Nova conexão SMTP aberta com {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new Conexao(transport);
+    }
+
+    private void fechar(Conexao conexao, String motivo) {
+        meterRegistry.counter("email.smtp.connections.closed", "motivo", motivo).increment();
+        try {
+            conexao.transport.close();
+        } catch (Exception e) {
+            log.debug("Erro ao fechar conexão SMTP: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Conexão SMTP emprestada do pool; usada por uma thread por vez
+     */
+    public final class Conexao {
+
+        private final Transport transport;
+        private volatile long ultimoUso = System.nanoTime();
+        private int mensagens = 0;
+
+        private Conexao(Transport transport) {
+            this.transport = transport;
+        }
+
+        public void enviar(MimeMessage mensagem) throws MessagingException {
+            Timer.Sample amostra = Timer.start();
+            try {
+                if (mensagem.getSentDate() == null) {
+                    mensagem.setSentDate(new Date());
+                }
+                mensagem.saveChanges();
+                transport.sendMessage(mensagem, mensagem.getAllRecipients());
+            } finally {
+                mensagens++;
+                ultimoUso = System.nanoTime();
+                amostra.stop(tempoEnvio);
+            }
+        }
+
+        /**
+         * Ainda aceita mensagens antes de ser renovada
+         */
+        public boolean disponivel() {
+            return mensagens < maxMensagensPorConexao;
+        }
+
+        private boolean valida() {
+            if (System.nanoTime() - ultimoUso >= tempoOciosoNanos) {
+                return false;
+            }
+            // isConnected envia NOOP ao servidor
+            return System.nanoTime() - ultimoUso < validarAposNanos || transport.isConnected();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Entrega de emails do outbox via SMTP, usando as conexões de {@link SmtpConnectionPool}.
+ * Usado apenas pelos workers do outbox; erros são devolvidos para a política de novas tentativas.
+ */
+@Slf4j
+@Component
+public class SmtpEmailSender {
+
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpConnectionPool connectionPool;
+    private final int mensagensPorLote;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public SmtpEmailSender(JavaMailSenderImpl mailSender,
+                           SmtpConnectionPool connectionPool,
+                           @Value("${email.smtp.pool.batch-size:20}") int mensagensPorLote) {
+        this.mailSender = mailSender;
+        this.connectionPool = connectionPool;
+        this.mensagensPorLote = mensagensPorLote;
+    }
+
+    /**
+     * Envia o primeiro email e os seguintes obtidos de {@code proximos} pela mesma
+     * conexão, até batch-size mensagens ou até {@code proximos} retornar null.
+     * Se a conexão falhar, o lote para no email que falhou (os demais não são retirados).
+     */
+    public void enviarEmLote(EmailOutbox primeiro, Supplier<EmailOutbox> proximos, ResultadoEnvio resultado) {
+        SmtpConnectionPool.Conexao conexao;
+        try {
+            conexao = connectionPool.obter();
+        } catch (Exception e) {
+            resultado.falhou(primeiro, e);
+            return;
+        }
+
+        EmailOutbox email = primeiro;
+        for (int enviados = 1; email != null; enviados++) {
+            if (!enviar(conexao, email, resultado)) {
+                connectionPool.descartar(conexao);
+                return;
+            }
+            email = enviados < mensagensPorLote && conexao.disponivel() ? proximos.get() : null;
+        }
+        connectionPool.devolver(conexao);
+    }
+
+    /**
+     * @return false se a conexão falhou e precisa ser descartada
+     */
+    private boolean enviar(SmtpConnectionPool.Conexao conexao, EmailOutbox email, ResultadoEnvio resultado) {
+        MimeMessage mensagem;
+        try {
+            mensagem = preparar(email);
+        } catch (Exception e) {
+            resultado.falhou(email, e);
+            return true;
+        }
+        try {
+            conexao.enviar(mensagem);
+        } catch (SendFailedException e) {
+            // Destinatário recusado: a conexão continua utilizável
+            resultado.falhou(email, e);
+            return true;
+        } catch (Exception e) {
+            resultado.falhou(email, e);
+            return false;
+        }
+        log.info("✅ Email {} ({}) enviado para: {}", email.getId(), email.getTipo(), email.getDestinatario());
+        resultado.enviado(email);
+        return true;
+    }
+
+    private MimeMessage preparar(EmailOutbox email) throws MessagingException {
+        boolean html = Boolean.TRUE.equals(email.getHtml());
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getDestinatario());
+        helper.setSubject(email.getAssunto());
+        helper.setText(email.getCorpo(), html);
+        return message;
+    }
+
+    /**
+     * Resultado de cada email de um lote
+     */
+    public interface ResultadoEnvio {
+
+        void enviado(EmailOutbox email);
+
+        void falhou(EmailOutbox email, Exception erro);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.casadoamor.sgca.util.TextoBuscaUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache dos totais de pacientes por termo de busca e faixa do ranking, usados na
+ * paginação por offset (posição de cada faixa) e por cursor (total).
+ *
+ * A contagem da faixa "contém" é uma varredura; com o cache ela é feita uma vez por
+ * termo e TTL, e não a cada página. Cadastros e edições nesta instância limpam o
+ * cache; em outras instâncias os totais se ajustam em até um TTL.
+ */
+@Component
+public class PacienteBuscaTotais {
+
+    private final Cache<String, long[]> totais;
+
+    public PacienteBuscaTotais(MeterRegistry meterRegistry,
+                               @Value("${paciente.search.total-cache.max-size:1000}") long tamanhoMaximo,
+                               @Value("${paciente.search.total-cache.ttl-seconds:60}") long ttlSegundos) {
+        this.totais = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, totais, "paciente.search.totals");
+    }
+
+    /**
+     * Totais por faixa em cache para o termo, ou o resultado da contagem (que passa a
+     * ficar em cache). O array devolvido é uma cópia.
+     */
+    public long[] porFaixa(String searchText, Supplier<long[]> contagem) {
+        return totais.get(chave(searchText), termo -> contagem.get()).clone();
+    }
+
+    /**
+     * Descarta todos os totais (o cadastro ou a edição pode mudar qualquer um deles)
+     */
+    public void invalidar() {
+        totais.invalidateAll();
+    }
+
+    /**
+     * Termos que normalizam igual têm o mesmo resultado
+     */
+    private static String chave(String searchText) {
+        String termoNome = TextoBuscaUtil.normalizarNome(searchText);
+        if (termoNome == null || termoNome.isEmpty()) {
+            return "";
+        }
+        return termoNome + "\n" + TextoBuscaUtil.normalizarDocumento(searchText);
+    }
+}
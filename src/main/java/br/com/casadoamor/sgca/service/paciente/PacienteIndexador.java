@@ -0,0 +1,110 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Atualiza os índices em memória de pacientes (busca e autocompletar) depois de um
+ * cadastro ou edição.
+ *
+ * A atualização só roda depois do commit (ou na hora, fora de transação) e a falha
+ * de um índice não chega a quem salvou o paciente: ela é registrada, contada em
+ * paciente.index.update.failed e o índice fica marcado para ser reconstruído do
+ * banco na próxima verificação (paciente.index.repair-interval-ms).
+ */
+@Slf4j
+@Component
+public class PacienteIndexador {
+
+    private final PacienteSearchIndex searchIndex;
+    private final PacienteTypeaheadIndex typeaheadIndex;
+    private final Counter falhasBusca;
+    private final Counter falhasAutocompletar;
+    private final AtomicBoolean reconstruirBusca = new AtomicBoolean();
+    private final AtomicBoolean reconstruirAutocompletar = new AtomicBoolean();
+
+    public PacienteIndexador(PacienteSearchIndex searchIndex,
+                             PacienteTypeaheadIndex typeaheadIndex,
+                             MeterRegistry meterRegistry) {
+        this.searchIndex = searchIndex;
+        this.typeaheadIndex = typeaheadIndex;
+        this.falhasBusca = falhas(meterRegistry, "busca");
+        this.falhasAutocompletar = falhas(meterRegistry, "autocompletar");
+    }
+
+    /**
+     * Inclui ou atualiza o paciente nos dois índices, depois do commit da transação atual
+     */
+    public void indexar(Paciente paciente) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    atualizar(paciente);
+                }
+            });
+        } else {
+            atualizar(paciente);
+        }
+    }
+
+    /**
+     * Reconstrói os índices cuja atualização incremental falhou
+     */
+    @Scheduled(fixedDelayString = "${paciente.index.repair-interval-ms:60000}",
+               initialDelayString = "${paciente.index.repair-interval-ms:60000}")
+    public void reconstruirPendentes() {
+        reconstruirSePendente(reconstruirBusca, searchIndex::reconstruir, "busca");
+        reconstruirSePendente(reconstruirAutocompletar, typeaheadIndex::reconstruir, "autocompletar");
+    }
+
+    boolean isReconstrucaoPendente() {
+        return reconstruirBusca.get() || reconstruirAutocompletar.get();
+    }
+
+    private void atualizar(Paciente paciente) {
+        atualizar(searchIndex::indexar, paciente, reconstruirBusca, falhasBusca, "busca");
+        atualizar(typeaheadIndex::indexar, paciente, reconstruirAutocompletar, falhasAutocompletar, "autocompletar");
+    }
+
+    private static void atualizar(Consumer<Paciente> indice, Paciente paciente, AtomicBoolean reconstruir,
+                                  Counter falhas, String nome) {
+        try {
+            indice.accept(paciente);
+        } catch (Exception e) {
+            falhas.increment();
+            reconstruir.set(true);
+            log.error("Erro ao atualizar índice de {} do paciente {}; marcado para reconstrução: {}",
+                    nome, paciente.getId(), e.getMessage());
+        }
+    }
+
+    private static void reconstruirSePendente(AtomicBoolean pendente, Runnable reconstruir, String nome) {
+        if (!pendente.getAndSet(false)) {
+            return;
+        }
+        try {
+            reconstruir.run();
+        } catch (Exception e) {
+            pendente.set(true);
+            log.error("Erro ao reconstruir índice de {} de pacientes: {}", nome, e.getMessage());
+        }
+    }
+
+    private static Counter falhas(MeterRegistry meterRegistry, String indice) {
+        return Counter.builder("paciente.index.update.failed")
+                .description("Atualizações incrementais de índice de pacientes que falharam")
+                .tag("indice", indice)
+                .register(meterRegistry);
+    }
+}
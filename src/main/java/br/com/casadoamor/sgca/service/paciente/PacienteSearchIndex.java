@@ -0,0 +1,496 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.util.CpfUtil;
+import br.com.casadoamor.sgca.util.FoneticaUtil;
+import br.com.casadoamor.sgca.util.TextoBuscaUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice invertido em memória para a busca de pacientes.
+ *
+ * Indexa nome, nome da mãe e cidade (palavras normalizadas sem acento + chave
+ * fonética de {@link FoneticaUtil}) e CPF, RG e telefone (só letras e dígitos).
+ * Cada palavra da busca precisa casar com o paciente por igualdade, prefixo ou
+ * fonética; a relevância soma, por palavra, o melhor casamento ponderado pelo campo
+ * (nome e documentos valem mais que nome da mãe e cidade).
+ *
+ * O índice é reconstruído a partir do MySQL na inicialização e atualizado a cada
+ * cadastro/edição de paciente; enquanto a carga não termina, {@link #isPronto()} é false.
+ */
+@Slf4j
+@Component
+public class PacienteSearchIndex {
+
+    static final String SQL_CARGA = "SELECT p.id, d.nome, d.nome_mae, d.cpf, d.rg, d.telefone, e.cidade "
+            + "FROM pacientes p "
+            + "LEFT JOIN dados_pessoais d ON d.id = p.dado_pessoal_id "
+            + "LEFT JOIN enderecos e ON e.id = p.endereco_id";
+
+    private static final float PESO_EXATO = 1.0f;
+    private static final float PESO_PREFIXO = 0.6f;
+    private static final float PESO_FONETICO = 0.3f;
+    private static final int TAMANHO_MINIMO_PREFIXO = 2;
+    private static final int TAMANHO_MINIMO_FONETICO = 3;
+    private static final int MAX_PALAVRAS_CONSULTA = 8;
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern DOCUMENTO = Pattern.compile("[0-9A-Za-z.\\-/()]*[0-9][0-9A-Za-z.\\-/()]*");
+
+    /**
+     * Campos indexados: prefixo do termo no dicionário e peso na relevância
+     */
+    enum Campo {
+        NOME("n:", 3.0f, true),
+        NOME_MAE("m:", 1.0f, true),
+        CIDADE("c:", 0.5f, false),
+        DOCUMENTO("d:", 3.0f, false);
+
+        private final String prefixo;
+        private final float peso;
+        private final boolean fonetico;
+
+        Campo(String prefixo, float peso, boolean fonetico) {
+            this.prefixo = prefixo;
+            this.peso = peso;
+            this.fonetico = fonetico;
+        }
+    }
+
+    private static final Campo[] CAMPOS_TEXTO = {Campo.NOME, Campo.NOME_MAE, Campo.CIDADE};
+    private static final Campo[] CAMPOS_DOCUMENTO = {Campo.DOCUMENTO};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxTermosPrefixo;
+    private final Timer tempoBusca;
+
+    private volatile Indice indice = new Indice();
+    private volatile Indice emConstrucao;
+    private volatile boolean pronto = false;
+
+    public PacienteSearchIndex(JdbcTemplate jdbcTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${paciente.search.max-prefix-terms:200}") int maxTermosPrefixo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxTermosPrefixo = maxTermosPrefixo;
+
+        Gauge.builder("paciente.search.documents", this, PacienteSearchIndex::quantidadeDocumentos)
+                .description("Pacientes no índice de busca")
+                .register(meterRegistry);
+        this.tempoBusca = Timer.builder("paciente.search")
+                .description("Tempo de uma busca no índice de pacientes")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.error("Erro ao carregar índice de busca de pacientes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega o índice inteiro do banco; buscas continuam no índice anterior até a troca
+     */
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        Indice novo = new Indice();
+        emConstrucao = novo;
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_CARGA, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Streaming no MySQL Connector/J: as linhas não são carregadas todas em memória
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }, (RowCallbackHandler) rs -> novo.indexar(new DocumentoPaciente(
+                    rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6), rs.getString(7)), true));
+            indice = novo;
+            pronto = true;
+        } finally {
+            emConstrucao = null;
+        }
+        log.info("Índice de busca de pacientes carregado: {} pacientes em {} ms",
+                novo.quantidade(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Inclui ou atualiza o paciente no índice (após cadastro ou edição)
+     */
+    public void indexar(Paciente paciente) {
+        if (paciente == null || paciente.getId() == null) {
+            return;
+        }
+        DadoPessoal dados = paciente.getDadoPessoal();
+        indexar(new DocumentoPaciente(
+                paciente.getId(),
+                dados != null ? dados.getNome() : null,
+                dados != null ? dados.getNomeMae() : null,
+                dados != null ? dados.getCpf() : null,
+                dados != null ? dados.getRg() : null,
+                dados != null ? dados.getTelefone() : null,
+                paciente.getEndereco() != null ? paciente.getEndereco().getCidade() : null));
+    }
+
+    void indexar(DocumentoPaciente documento) {
+        indice.indexar(documento, false);
+        Indice carga = emConstrucao;
+        if (carga != null) {
+            // Vale sobre a linha lida pela carga, que pode ser anterior à edição
+            carga.indexar(documento, false);
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    public int quantidadeDocumentos() {
+        return indice.quantidade();
+    }
+
+    /**
+     * Pacientes que casam com todas as palavras da busca, por relevância
+     *
+     * @return ids da página (offset/limit) e total de pacientes encontrados
+     */
+    public ResultadoBusca buscar(String texto, int limit, int offset) {
+        List<Consulta> consultas = analisarConsulta(texto);
+        if (consultas.isEmpty()) {
+            return new ResultadoBusca(List.of(), 0);
+        }
+        Timer.Sample amostra = Timer.start();
+        try {
+            return indice.buscar(consultas, limit, offset, maxTermosPrefixo);
+        } finally {
+            amostra.stop(tempoBusca);
+        }
+    }
+
+    /**
+     * Texto sem espaços com algum dígito (ex: 123.456.789-00, MG-12.345) é um documento;
+     * os demais viram palavras normalizadas
+     */
+    static List<Consulta> analisarConsulta(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String semEspacos = texto.strip();
+        if (DOCUMENTO.matcher(semEspacos).matches()) {
+            String documento = TextoBuscaUtil.normalizarDocumento(semEspacos);
+            return documento.isEmpty() ? List.of() : List.of(new Consulta(documento, CAMPOS_DOCUMENTO));
+        }
+        Set<String> palavras = new LinkedHashSet<>(Arrays.asList(SEPARADOR.split(TextoBuscaUtil.normalizarNome(texto))));
+        palavras.remove("");
+        List<Consulta> consultas = new ArrayList<>();
+        for (String palavra : palavras) {
+            if (consultas.size() == MAX_PALAVRAS_CONSULTA) {
+                break;
+            }
+            boolean temDigito = palavra.chars().anyMatch(Character::isDigit);
+            consultas.add(new Consulta(palavra, temDigito ? CAMPOS_DOCUMENTO : CAMPOS_TEXTO));
+        }
+        return consultas;
+    }
+
+    /**
+     * Termos do dicionário para um paciente: palavra exata e chave fonética por campo
+     */
+    static Set<String> termos(DocumentoPaciente documento) {
+        Set<String> termos = new HashSet<>();
+        adicionarPalavras(termos, Campo.NOME, documento.nome());
+        adicionarPalavras(termos, Campo.NOME_MAE, documento.nomeMae());
+        adicionarPalavras(termos, Campo.CIDADE, documento.cidade());
+        adicionarDocumento(termos, TextoBuscaUtil.normalizarDocumento(documento.cpf()));
+        adicionarDocumento(termos, TextoBuscaUtil.normalizarDocumento(documento.rg()));
+        adicionarDocumento(termos, CpfUtil.limparTelefone(documento.telefone()));
+        return termos;
+    }
+
+    private static void adicionarPalavras(Set<String> termos, Campo campo, String texto) {
+        if (texto == null) {
+            return;
+        }
+        for (String palavra : SEPARADOR.split(TextoBuscaUtil.normalizarNome(texto))) {
+            if (palavra.isEmpty()) {
+                continue;
+            }
+            termos.add(campo.prefixo + palavra);
+            if (campo.fonetico) {
+                String chave = FoneticaUtil.chave(palavra);
+                if (chave.length() >= 2) {
+                    termos.add("f" + campo.prefixo + chave);
+                }
+            }
+        }
+    }
+
+    private static void adicionarDocumento(Set<String> termos, String documento) {
+        if (documento != null && !documento.isEmpty()) {
+            termos.add(Campo.DOCUMENTO.prefixo + documento);
+        }
+    }
+
+    record DocumentoPaciente(String id, String nome, String nomeMae, String cpf, String rg,
+                             String telefone, String cidade) {
+    }
+
+    record Consulta(String palavra, Campo[] campos) {
+    }
+
+    public record ResultadoBusca(List<String> pacienteIds, int total) {
+    }
+
+    /**
+     * Lista de documentos (ids internos) ordenada, com capacidade crescente
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[2];
+        private int tamanho;
+
+        void adicionar(int id) {
+            if (tamanho > 0 && ids[tamanho - 1] < id) {
+                garantirCapacidade();
+                ids[tamanho++] = id;
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            garantirCapacidade();
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        void remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+                tamanho--;
+            }
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+
+    /**
+     * Dicionário de termos + documentos; leituras concorrentes, escrita exclusiva
+     */
+    private static final class Indice {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> termos = new TreeMap<>();
+        private final List<DocumentoPaciente> documentos = new ArrayList<>();
+        private final List<String> nomesOrdenacao = new ArrayList<>();
+        private final Map<String, Integer> porPaciente = new HashMap<>();
+        private final Set<String> atualizadosForaDaCarga = new HashSet<>();
+
+        void indexar(DocumentoPaciente documento, boolean daCarga) {
+            lock.writeLock().lock();
+            try {
+                if (daCarga && atualizadosForaDaCarga.contains(documento.id())) {
+                    return;
+                }
+                if (!daCarga) {
+                    atualizadosForaDaCarga.add(documento.id());
+                }
+                Integer id = porPaciente.get(documento.id());
+                if (id == null) {
+                    id = documentos.size();
+                    documentos.add(documento);
+                    nomesOrdenacao.add(TextoBuscaUtil.normalizarNome(documento.nome()));
+                    porPaciente.put(documento.id(), id);
+                } else {
+                    for (String termo : termos(documentos.get(id))) {
+                        Postings postings = termos.get(termo);
+                        if (postings != null) {
+                            postings.remover(id);
+                            if (postings.tamanho == 0) {
+                                termos.remove(termo);
+                            }
+                        }
+                    }
+                    documentos.set(id, documento);
+                    nomesOrdenacao.set(id, TextoBuscaUtil.normalizarNome(documento.nome()));
+                }
+                for (String termo : termos(documento)) {
+                    termos.computeIfAbsent(termo, t -> new Postings()).adicionar(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        int quantidade() {
+            lock.readLock().lock();
+            try {
+                return documentos.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        ResultadoBusca buscar(List<Consulta> consultas, int limit, int offset, int maxTermosPrefixo) {
+            lock.readLock().lock();
+            try {
+                Acumulador acumulador = new Acumulador(documentos.size());
+                for (int i = 0; i < consultas.size(); i++) {
+                    Consulta consulta = consultas.get(i);
+                    String palavra = consulta.palavra();
+                    acumulador.iniciarConsulta();
+                    for (Campo campo : consulta.campos()) {
+                        String termo = campo.prefixo + palavra;
+                        acumulador.pontuar(termos.get(termo), campo.peso * PESO_EXATO, i);
+                        if (palavra.length() >= TAMANHO_MINIMO_PREFIXO) {
+                            int expandidos = 0;
+                            for (Postings postings : termos.subMap(termo, false, termo + Character.MAX_VALUE, false).values()) {
+                                if (++expandidos > maxTermosPrefixo) {
+                                    break;
+                                }
+                                acumulador.pontuar(postings, campo.peso * PESO_PREFIXO, i);
+                            }
+                        }
+                        if (campo.fonetico && palavra.length() >= TAMANHO_MINIMO_FONETICO) {
+                            String chave = FoneticaUtil.chave(palavra);
+                            if (chave.length() >= 2) {
+                                acumulador.pontuar(termos.get("f" + campo.prefixo + chave), campo.peso * PESO_FONETICO, i);
+                            }
+                        }
+                    }
+                    if (!acumulador.fecharConsulta(i)) {
+                        return new ResultadoBusca(List.of(), 0);
+                    }
+                }
+                return acumulador.selecionar(documentos, nomesOrdenacao, limit, offset);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Pontuação de uma busca: cada palavra soma o melhor casamento do paciente e só
+     * continuam candidatos os pacientes que casaram com todas as palavras anteriores
+     */
+    private static final class Acumulador {
+
+        private final float[] total;
+        private final float[] melhor;
+        private final int[] atendidas;
+        private int[] tocados = new int[16];
+        private int quantidadeTocados;
+
+        Acumulador(int quantidadeDocumentos) {
+            this.total = new float[quantidadeDocumentos];
+            this.melhor = new float[quantidadeDocumentos];
+            this.atendidas = new int[quantidadeDocumentos];
+        }
+
+        void iniciarConsulta() {
+            quantidadeTocados = 0;
+        }
+
+        void pontuar(Postings postings, float pontos, int consulta) {
+            if (postings == null) {
+                return;
+            }
+            for (int i = 0; i < postings.tamanho; i++) {
+                int doc = postings.ids[i];
+                if (atendidas[doc] != consulta) {
+                    continue;
+                }
+                if (melhor[doc] == 0) {
+                    if (quantidadeTocados == tocados.length) {
+                        tocados = Arrays.copyOf(tocados, tocados.length * 2);
+                    }
+                    tocados[quantidadeTocados++] = doc;
+                }
+                melhor[doc] = Math.max(melhor[doc], pontos);
+            }
+        }
+
+        /**
+         * @return false se nenhum paciente casou com a palavra (a busca termina vazia)
+         */
+        boolean fecharConsulta(int consulta) {
+            if (quantidadeTocados == 0) {
+                return false;
+            }
+            for (int i = 0; i < quantidadeTocados; i++) {
+                int doc = tocados[i];
+                atendidas[doc] = consulta + 1;
+                total[doc] += melhor[doc];
+                melhor[doc] = 0;
+            }
+            return true;
+        }
+
+        /**
+         * Candidatos da última palavra (os que casaram com todas), ordenados por relevância,
+         * nome e id; só os offset + limit primeiros são ordenados
+         */
+        ResultadoBusca selecionar(List<DocumentoPaciente> documentos, List<String> nomes, int limit, int offset) {
+            int encontrados = quantidadeTocados;
+            if (limit <= 0 || offset >= encontrados) {
+                return new ResultadoBusca(List.of(), encontrados);
+            }
+            Comparator<Integer> relevancia = Comparator.<Integer>comparingDouble(doc -> -total[doc])
+                    .thenComparing(nomes::get, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(doc -> documentos.get(doc).id());
+            int quantidade = (int) Math.min((long) offset + limit, encontrados);
+            PriorityQueue<Integer> melhores = new PriorityQueue<>(quantidade + 1, relevancia.reversed());
+            for (int i = 0; i < encontrados; i++) {
+                melhores.add(tocados[i]);
+                if (melhores.size() > quantidade) {
+                    melhores.poll();
+                }
+            }
+            List<Integer> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(relevancia);
+            List<String> ids = new ArrayList<>(quantidade - offset);
+            for (int doc : ordenados.subList(offset, ordenados.size())) {
+                ids.add(documentos.get(doc).id());
+            }
+            return new ResultadoBusca(ids, encontrados);
+        }
+    }
+}
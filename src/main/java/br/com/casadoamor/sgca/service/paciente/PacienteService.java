@@ -1,5 +1,7 @@
 package br.com.casadoamor.sgca.service.paciente;
 
+import java.util.List;
+
 import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
 import br.com.casadoamor.sgca.dto.paciente.EditarPacienteDTO;
 import br.com.casadoamor.sgca.dto.paciente.PacienteDTO;
@@ -11,4 +13,10 @@ public interface PacienteService {
   PacienteDTO editarPaciente(String id, EditarPacienteDTO editarPacienteDTO);
 
   PaginatedResponseDTO<PacienteDTO> pacientesPaginados (String searchText, int limit, int offset);
+
+  PaginatedResponseDTO<PacienteDTO> pacientesPorCursor(String searchText, int limit, String after, String before);
+
+  PaginatedResponseDTO<PacienteDTO> buscarPacientes(String q, int limit, int offset);
+
+  List<PacienteDTO> sugerirPacientes(String q, int limit);
 }
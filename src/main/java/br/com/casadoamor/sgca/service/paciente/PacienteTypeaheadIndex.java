@@ -0,0 +1,522 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.casadoamor.sgca.dto.paciente.PacienteDTO;
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.util.CpfUtil;
+import br.com.casadoamor.sgca.util.TextoBuscaUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Índice de prefixos para o autocompletar de pacientes.
+ *
+ * Guarda arrays ordenados de chaves normalizadas (nome completo, CPF e RG; e o nome a
+ * partir de cada sobrenome) apontando para um resumo do paciente; cada tecla é uma busca
+ * binária seguida da leitura dos próximos N resultados, sem acesso ao banco.
+ * Os arrays são imutáveis: leituras não usam lock e cada cadastro/edição publica uma
+ * nova versão. A escrita não copia os arrays inteiros: o resumo entra num lote pendente
+ * pequeno (consultado junto com os arrays), que é intercalado nos arrays numa única
+ * passada quando chega a merge-batch-size pacientes.
+ *
+ * Acima do orçamento de memória o índice é desativado e o autocompletar volta para a
+ * consulta paginada. O estado fica exposto no gauge paciente.typeahead.over-budget
+ * (1 enquanto desativado) para alerta: a reconstrução periódica relê o banco e só
+ * reativa o índice quando a nova versão couber no orçamento.
+ */
+@Slf4j
+@Component
+public class PacienteTypeaheadIndex {
+
+    static final String SQL_CARGA = "SELECT p.id, d.nome, d.nome_mae, d.cpf, d.rg, d.data_nascimento, e.cidade "
+            + "FROM pacientes p "
+            + "LEFT JOIN dados_pessoais d ON d.id = p.dado_pessoal_id "
+            + "LEFT JOIN enderecos e ON e.id = p.endereco_id";
+
+    /** Partículas que não iniciam uma chave de sobrenome */
+    private static final Set<String> PARTICULAS = Set.of("da", "de", "do", "das", "dos", "e");
+
+    /** Estimativa por chave (String + array de bytes + referências) e por resumo */
+    private static final long BYTES_POR_CHAVE = 64;
+    private static final long BYTES_POR_PACIENTE = 320;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long orcamentoBytes;
+    private final int tamanhoLote;
+
+    private volatile Versao versao = Versao.VAZIA;
+    private volatile boolean pronto = false;
+    private volatile boolean acimaDoOrcamento = false;
+    private Map<String, PacienteDTO> alteradosDuranteCarga;
+
+    public PacienteTypeaheadIndex(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${paciente.typeahead.max-memory-mb:64}") long maxMemoriaMb,
+                                  @Value("${paciente.typeahead.merge-batch-size:256}") int tamanhoLote) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orcamentoBytes = maxMemoriaMb * 1024 * 1024;
+        this.tamanhoLote = Math.max(tamanhoLote, 1);
+
+        Gauge.builder("paciente.typeahead.entries", this, i -> i.versao.quantidadeChaves())
+                .description("Chaves no índice de autocompletar de pacientes")
+                .register(meterRegistry);
+        Gauge.builder("paciente.typeahead.memory", this, i -> i.versao.bytesEstimados())
+                .description("Memória estimada do índice de autocompletar de pacientes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("paciente.typeahead.over-budget", this, i -> i.acimaDoOrcamento ? 1 : 0)
+                .description("1 enquanto o autocompletar de pacientes está desativado por exceder o orçamento de memória")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.error("Erro ao carregar índice de autocompletar de pacientes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconstrução periódica: corrige divergências (ex: cadastros feitos por outra instância)
+     */
+    @Scheduled(fixedDelayString = "${paciente.typeahead.rebuild-interval-ms:3600000}",
+               initialDelayString = "${paciente.typeahead.rebuild-interval-ms:3600000}")
+    public void reconstruirPeriodicamente() {
+        try {
+            reconstruir();
+        } catch (Exception e) {
+            log.error("Erro ao reconstruir índice de autocompletar de pacientes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recarrega todos os pacientes do banco; o autocompletar segue na versão anterior até a troca
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        synchronized (this) {
+            alteradosDuranteCarga = new LinkedHashMap<>();
+        }
+        Map<String, PacienteDTO> resumos = new LinkedHashMap<>();
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_CARGA, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // Streaming no MySQL Connector/J: as linhas não são carregadas todas em memória
+                ps.setFetchSize(Integer.MIN_VALUE);
+                return ps;
+            }, (RowCallbackHandler) rs -> resumos.put(rs.getString(1), PacienteDTO.builder()
+                    .id(rs.getString(1))
+                    .nome(rs.getString(2))
+                    .nomeMae(rs.getString(3))
+                    .cpf(rs.getString(4))
+                    .rg(rs.getString(5))
+                    .dataNascimento(rs.getDate(6))
+                    .cidade(rs.getString(7))
+                    .build()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                alteradosDuranteCarga = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // Cadastros/edições feitos durante a leitura valem sobre a linha lida
+            resumos.putAll(alteradosDuranteCarga);
+            alteradosDuranteCarga = null;
+            publicar(Versao.de(resumos.values()));
+        }
+        log.info("Índice de autocompletar de pacientes carregado: {} pacientes, {} chaves em {} ms",
+                resumos.size(), versao.quantidadeChaves(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Inclui ou atualiza o resumo do paciente (após cadastro ou edição)
+     */
+    public void indexar(Paciente paciente) {
+        if (paciente == null || paciente.getId() == null) {
+            return;
+        }
+        indexar(resumo(paciente));
+    }
+
+    synchronized void indexar(PacienteDTO resumo) {
+        if (alteradosDuranteCarga != null) {
+            alteradosDuranteCarga.put(resumo.id(), resumo);
+        }
+        if (pronto) {
+            publicar(versao.com(resumo, tamanhoLote));
+        }
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Até {@code limit} pacientes cujo nome, sobrenome, CPF ou RG começa com o texto;
+     * nome completo e documentos antes dos sobrenomes, em ordem alfabética
+     */
+    public List<PacienteDTO> sugerir(String texto, int limit) {
+        String nome = TextoBuscaUtil.normalizarNome(texto);
+        if (nome == null || nome.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return versao.sugerir(nome, TextoBuscaUtil.normalizarDocumento(texto), limit);
+    }
+
+    int quantidadeChaves() {
+        return versao.quantidadeChaves();
+    }
+
+    int quantidadePendentes() {
+        return versao.pendentes().quantidade();
+    }
+
+    boolean isAcimaDoOrcamento() {
+        return acimaDoOrcamento;
+    }
+
+    private void publicar(Versao nova) {
+        if (nova.bytesEstimados() > orcamentoBytes) {
+            // Repetido a cada reconstrução recusada, enquanto o índice não couber
+            log.error("Índice de autocompletar de pacientes desativado: {} bytes estimados excedem o limite de {} "
+                    + "(paciente.typeahead.max-memory-mb)", nova.bytesEstimados(), orcamentoBytes);
+            versao = Versao.VAZIA;
+            pronto = false;
+            acimaDoOrcamento = true;
+            return;
+        }
+        versao = nova;
+        pronto = true;
+        acimaDoOrcamento = false;
+    }
+
+    static PacienteDTO resumo(Paciente paciente) {
+        DadoPessoal dados = paciente.getDadoPessoal();
+        return PacienteDTO.builder()
+                .id(paciente.getId())
+                .nome(dados != null ? dados.getNome() : null)
+                .nomeMae(dados != null ? dados.getNomeMae() : null)
+                .cpf(dados != null ? dados.getCpf() : null)
+                .rg(dados != null ? dados.getRg() : null)
+                .dataNascimento(dados != null ? dados.getDataNascimento() : null)
+                .cidade(paciente.getEndereco() != null ? paciente.getEndereco().getCidade() : null)
+                .build();
+    }
+
+    /**
+     * Chaves do nível principal: nome completo, CPF e RG normalizados
+     */
+    static List<String> chavesPrincipais(PacienteDTO resumo) {
+        List<String> chaves = new ArrayList<>(3);
+        adicionar(chaves, TextoBuscaUtil.normalizarNome(resumo.nome()));
+        adicionar(chaves, CpfUtil.limparCpf(resumo.cpf()));
+        adicionar(chaves, TextoBuscaUtil.normalizarDocumento(resumo.rg()));
+        return chaves;
+    }
+
+    /**
+     * Chaves de sobrenome: o nome a partir de cada palavra depois da primeira
+     * (ex: "jose da conceicao" gera "conceicao")
+     */
+    static List<String> chavesSobrenome(PacienteDTO resumo) {
+        String nome = TextoBuscaUtil.normalizarNome(resumo.nome());
+        if (nome == null) {
+            return List.of();
+        }
+        List<String> chaves = new ArrayList<>();
+        int espaco = nome.indexOf(' ');
+        while (espaco >= 0) {
+            int fim = nome.indexOf(' ', espaco + 1);
+            String palavra = fim < 0 ? nome.substring(espaco + 1) : nome.substring(espaco + 1, fim);
+            if (!PARTICULAS.contains(palavra)) {
+                chaves.add(nome.substring(espaco + 1));
+            }
+            espaco = fim;
+        }
+        return chaves;
+    }
+
+    private static void adicionar(List<String> chaves, String chave) {
+        if (chave != null && !chave.isEmpty() && !chaves.contains(chave)) {
+            chaves.add(chave);
+        }
+    }
+
+    /**
+     * Versão imutável do índice: nível principal, nível de sobrenomes e o lote de
+     * resumos pendentes, que substituem as entradas dos mesmos pacientes nos níveis
+     */
+    private record Versao(Nivel principal, Nivel sobrenomes, int pacientes, Lote pendentes) {
+
+        static final Versao VAZIA = new Versao(Nivel.VAZIO, Nivel.VAZIO, 0, Lote.VAZIO);
+
+        static Versao de(Iterable<PacienteDTO> resumos) {
+            List<Entrada> principais = new ArrayList<>();
+            List<Entrada> sobrenomes = new ArrayList<>();
+            int pacientes = 0;
+            for (PacienteDTO resumo : resumos) {
+                pacientes++;
+                chavesPrincipais(resumo).forEach(chave -> principais.add(new Entrada(chave, resumo)));
+                chavesSobrenome(resumo).forEach(chave -> sobrenomes.add(new Entrada(chave, resumo)));
+            }
+            return new Versao(Nivel.de(principais), Nivel.de(sobrenomes), pacientes, Lote.VAZIO);
+        }
+
+        /**
+         * Versão com o resumo do paciente no lote pendente; com o lote cheio, os
+         * pendentes são intercalados nos níveis
+         */
+        Versao com(PacienteDTO resumo, int tamanhoLote) {
+            Versao nova = new Versao(principal, sobrenomes, pacientes, pendentes.com(resumo));
+            return nova.pendentes.quantidade() >= tamanhoLote ? nova.mesclada() : nova;
+        }
+
+        /**
+         * Níveis com as entradas antigas dos pendentes trocadas pelas do lote, numa passada
+         */
+        Versao mesclada() {
+            Set<String> substituidos = new HashSet<>();
+            Nivel novoPrincipal = principal.mesclar(pendentes.principal(), pendentes.resumos(), substituidos);
+            Nivel novosSobrenomes = sobrenomes.mesclar(pendentes.sobrenomes(), pendentes.resumos(), substituidos);
+            return new Versao(novoPrincipal, novosSobrenomes,
+                    pacientes + pendentes.quantidade() - substituidos.size(), Lote.VAZIO);
+        }
+
+        List<PacienteDTO> sugerir(String nome, String documento, int limit) {
+            List<PacienteDTO> sugestoes = new ArrayList<>(limit);
+            Set<String> vistos = new HashSet<>();
+            Map<String, PacienteDTO> substituidos = pendentes.resumos();
+            Nivel.sugerir(principal, pendentes.principal(), substituidos, nome, limit, vistos, sugestoes);
+            if (!documento.isEmpty() && !documento.equals(nome)) {
+                // "123.456" casa com o CPF "123456..." pela chave só com dígitos
+                Nivel.sugerir(principal, pendentes.principal(), substituidos, documento, limit, vistos, sugestoes);
+            }
+            Nivel.sugerir(sobrenomes, pendentes.sobrenomes(), substituidos, nome, limit, vistos, sugestoes);
+            return sugestoes;
+        }
+
+        int quantidadeChaves() {
+            return principal.quantidade() + sobrenomes.quantidade()
+                    + pendentes.principal().quantidade() + pendentes.sobrenomes().quantidade();
+        }
+
+        /**
+         * Conta os pendentes como pacientes novos: até a mescla, a estimativa pode
+         * sobrar em no máximo um lote
+         */
+        long bytesEstimados() {
+            return principal.bytesEstimados() + sobrenomes.bytesEstimados()
+                    + pendentes.principal().bytesEstimados() + pendentes.sobrenomes().bytesEstimados()
+                    + (long) (pacientes + pendentes.quantidade()) * BYTES_POR_PACIENTE;
+        }
+    }
+
+    /**
+     * Resumos cadastrados/editados desde a última mescla, com as chaves em níveis
+     * próprios; cada escrita copia só o lote
+     */
+    private record Lote(Map<String, PacienteDTO> resumos, Nivel principal, Nivel sobrenomes) {
+
+        static final Lote VAZIO = new Lote(Map.of(), Nivel.VAZIO, Nivel.VAZIO);
+
+        Lote com(PacienteDTO resumo) {
+            Map<String, PacienteDTO> novos = new HashMap<>(resumos);
+            novos.put(resumo.id(), resumo);
+            return new Lote(novos,
+                    principal.sem(resumo.id()).com(chavesPrincipais(resumo), resumo),
+                    sobrenomes.sem(resumo.id()).com(chavesSobrenome(resumo), resumo));
+        }
+
+        int quantidade() {
+            return resumos.size();
+        }
+    }
+
+    private record Entrada(String chave, PacienteDTO paciente) {
+    }
+
+    /**
+     * Chaves ordenadas e o paciente de cada uma, em arrays paralelos
+     */
+    private record Nivel(String[] chaves, PacienteDTO[] pacientes, long bytesChaves) {
+
+        static final Nivel VAZIO = new Nivel(new String[0], new PacienteDTO[0], 0);
+
+        static Nivel de(List<Entrada> entradas) {
+            entradas.sort(Comparator.comparing(Entrada::chave));
+            String[] chaves = new String[entradas.size()];
+            PacienteDTO[] pacientes = new PacienteDTO[entradas.size()];
+            long bytes = 0;
+            for (int i = 0; i < chaves.length; i++) {
+                // Chaves iguais em pacientes diferentes compartilham a mesma String
+                chaves[i] = i > 0 && chaves[i - 1].equals(entradas.get(i).chave()) ? chaves[i - 1] : entradas.get(i).chave();
+                pacientes[i] = entradas.get(i).paciente();
+                bytes += chaves[i].length() + BYTES_POR_CHAVE;
+            }
+            return new Nivel(chaves, pacientes, bytes);
+        }
+
+        int quantidade() {
+            return chaves.length;
+        }
+
+        long bytesEstimados() {
+            return bytesChaves + (long) chaves.length * Integer.BYTES * 2;
+        }
+
+        /**
+         * Cópia sem as chaves do paciente
+         */
+        Nivel sem(String pacienteId) {
+            int removidas = 0;
+            long bytes = bytesChaves;
+            for (int i = 0; i < pacientes.length; i++) {
+                if (pacientes[i].id().equals(pacienteId)) {
+                    removidas++;
+                    bytes -= chaves[i].length() + BYTES_POR_CHAVE;
+                }
+            }
+            if (removidas == 0) {
+                return this;
+            }
+            String[] novasChaves = new String[chaves.length - removidas];
+            PacienteDTO[] novosPacientes = new PacienteDTO[chaves.length - removidas];
+            int j = 0;
+            for (int i = 0; i < pacientes.length; i++) {
+                if (!pacientes[i].id().equals(pacienteId)) {
+                    novasChaves[j] = chaves[i];
+                    novosPacientes[j++] = pacientes[i];
+                }
+            }
+            return new Nivel(novasChaves, novosPacientes, bytes);
+        }
+
+        /**
+         * Cópia com as chaves intercaladas nas posições ordenadas
+         */
+        Nivel com(List<String> novas, PacienteDTO paciente) {
+            if (novas.isEmpty()) {
+                return this;
+            }
+            String[] ordenadas = novas.toArray(String[]::new);
+            Arrays.sort(ordenadas);
+            String[] novasChaves = new String[chaves.length + ordenadas.length];
+            PacienteDTO[] novosPacientes = new PacienteDTO[novasChaves.length];
+            long bytes = bytesChaves;
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < novasChaves.length; k++) {
+                if (j < ordenadas.length && (i == chaves.length || ordenadas[j].compareTo(chaves[i]) < 0)) {
+                    bytes += ordenadas[j].length() + BYTES_POR_CHAVE;
+                    novasChaves[k] = ordenadas[j++];
+                    novosPacientes[k] = paciente;
+                } else {
+                    novasChaves[k] = chaves[i];
+                    novosPacientes[k] = pacientes[i++];
+                }
+            }
+            return new Nivel(novasChaves, novosPacientes, bytes);
+        }
+
+        /**
+         * Cópia com as entradas do lote intercaladas e sem as entradas antigas dos
+         * pacientes do lote (que são registrados em substituidos)
+         */
+        Nivel mesclar(Nivel lote, Map<String, PacienteDTO> doLote, Set<String> substituidos) {
+            if (lote.quantidade() == 0 && doLote.isEmpty()) {
+                return this;
+            }
+            String[] novasChaves = new String[chaves.length + lote.chaves.length];
+            PacienteDTO[] novosPacientes = new PacienteDTO[novasChaves.length];
+            long bytes = 0;
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < chaves.length || j < lote.chaves.length) {
+                if (i < chaves.length && doLote.containsKey(pacientes[i].id())) {
+                    substituidos.add(pacientes[i++].id());
+                    continue;
+                }
+                if (j < lote.chaves.length && (i == chaves.length || lote.chaves[j].compareTo(chaves[i]) < 0)) {
+                    novasChaves[k] = lote.chaves[j];
+                    novosPacientes[k] = lote.pacientes[j++];
+                } else {
+                    novasChaves[k] = chaves[i];
+                    novosPacientes[k] = pacientes[i++];
+                }
+                bytes += novasChaves[k++].length() + BYTES_POR_CHAVE;
+            }
+            return new Nivel(Arrays.copyOf(novasChaves, k), Arrays.copyOf(novosPacientes, k), bytes);
+        }
+
+        /**
+         * Sugestões do prefixo em ordem de chave, intercalando o nível e o lote pendente;
+         * entradas do nível de pacientes que estão no lote estão desatualizadas e são puladas
+         */
+        static void sugerir(Nivel nivel, Nivel lote, Map<String, PacienteDTO> doLote, String prefixo, int limit,
+                            Set<String> vistos, List<PacienteDTO> sugestoes) {
+            int i = nivel.primeiraPosicao(prefixo);
+            int j = lote.primeiraPosicao(prefixo);
+            while (sugestoes.size() < limit) {
+                boolean temNivel = i < nivel.chaves.length && nivel.chaves[i].startsWith(prefixo);
+                boolean temLote = j < lote.chaves.length && lote.chaves[j].startsWith(prefixo);
+                PacienteDTO paciente;
+                if (temLote && (!temNivel || lote.chaves[j].compareTo(nivel.chaves[i]) < 0)) {
+                    paciente = lote.pacientes[j++];
+                } else if (temNivel) {
+                    paciente = nivel.pacientes[i++];
+                    if (doLote.containsKey(paciente.id())) {
+                        continue;
+                    }
+                } else {
+                    return;
+                }
+                if (vistos.add(paciente.id())) {
+                    sugestoes.add(paciente);
+                }
+            }
+        }
+
+        /**
+         * Primeira chave maior ou igual ao prefixo (busca binária)
+         */
+        private int primeiraPosicao(String prefixo) {
+            int inicio = 0;
+            int fim = chaves.length;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (chaves[meio].compareTo(prefixo) < 0) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return inicio;
+        }
+    }
+}
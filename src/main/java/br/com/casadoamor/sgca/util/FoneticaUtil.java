@@ -0,0 +1,76 @@
+package br.com.casadoamor.sgca.util;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Chave fonética simplificada para nomes em português do Brasil.
+ *
+ * Grafias que soam igual recebem a mesma chave (ex: Thiago/Tiago, Luiz/Luis,
+ * Conceição/Conseisão, Jéssica/Gessica). A palavra é normalizada (minúsculas, sem
+ * acentos), passa pelas regras de substituição abaixo e fica com a primeira letra
+ * seguida só das consoantes, sem letras dobradas.
+ */
+public class FoneticaUtil {
+
+    private static final Pattern NAO_LETRA = Pattern.compile("[^a-z]");
+
+    private static final List<Regra> REGRAS = List.of(
+            new Regra("ph", "f"),
+            new Regra("th", "t"),
+            new Regra("sch|sh|ch", "x"),
+            new Regra("lh", "l"),
+            new Regra("nh", "n"),
+            // "ção"/"ções" digitados sem cedilha
+            new Regra("c(?=ao|oe)", "s"),
+            new Regra("[sx]c(?=[eiy])", "s"),
+            new Regra("c(?=[eiy])", "s"),
+            new Regra("qu(?=[eiy])", "k"),
+            new Regra("ck|c|q", "k"),
+            new Regra("gu(?=[eiy])", "g"),
+            new Regra("g(?=[eiy])", "j"),
+            new Regra("y", "i"),
+            new Regra("w", "v"),
+            new Regra("z", "s"),
+            new Regra("h", ""),
+            // Nasal: m antes de consoante ou no fim soa como n
+            new Regra("m(?=[^aeiou]|$)", "n")
+    );
+
+    /**
+     * @param palavra Uma palavra (ex: "Conceição")
+     * @return Chave fonética (ex: "knss"), vazia se não houver letras
+     */
+    public static String chave(String palavra) {
+        if (palavra == null) {
+            return "";
+        }
+        String texto = NAO_LETRA.matcher(TextoBuscaUtil.normalizarNome(palavra)).replaceAll("");
+        if (texto.isEmpty()) {
+            return "";
+        }
+        for (Regra regra : REGRAS) {
+            texto = regra.padrao().matcher(texto).replaceAll(regra.substituto());
+        }
+        if (texto.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder chave = new StringBuilder(texto.length());
+        chave.append(texto.charAt(0));
+        for (int i = 1; i < texto.length(); i++) {
+            char letra = texto.charAt(i);
+            // Letras dobradas (ss, ll, rr) contam uma vez
+            if ("aeiou".indexOf(letra) < 0 && letra != texto.charAt(i - 1)) {
+                chave.append(letra);
+            }
+        }
+        return chave.toString();
+    }
+
+    private record Regra(Pattern padrao, String substituto) {
+        Regra(String padrao, String substituto) {
+            this(Pattern.compile(padrao), substituto);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.casadoamor.sgca.util;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Predicados e ordenação da paginação por keyset (seek): a página seguinte começa
+ * depois da chave do último registro, sem OFFSET, então a página N custa o mesmo que a 1.
+ */
+public class KeysetUtil {
+
+    /**
+     * Registros depois da chave (primeira, segunda) no sentido da leitura
+     *
+     * @param crescente true se a leitura segue ORDER BY crescente nas duas colunas
+     * @return (primeira &gt; a) OR (primeira = a AND segunda &gt; b), ou com &lt; se decrescente
+     */
+    public static <A extends Comparable<? super A>, B extends Comparable<? super B>> Predicate depoisDe(
+            CriteriaBuilder cb, Expression<? extends A> primeira, A valorPrimeira,
+            Expression<? extends B> segunda, B valorSegunda, boolean crescente) {
+        Predicate passouPrimeira = crescente
+                ? cb.greaterThan(primeira, valorPrimeira)
+                : cb.lessThan(primeira, valorPrimeira);
+        return cb.or(passouPrimeira, cb.and(cb.equal(primeira, valorPrimeira), depoisDe(cb, segunda, valorSegunda, crescente)));
+    }
+
+    /**
+     * Registros depois do valor de uma única coluna de ordenação
+     */
+    public static <A extends Comparable<? super A>> Predicate depoisDe(
+            CriteriaBuilder cb, Expression<? extends A> coluna, A valor, boolean crescente) {
+        return crescente ? cb.greaterThan(coluna, valor) : cb.lessThan(coluna, valor);
+    }
+
+    /**
+     * @return ORDER BY da coluna no sentido da leitura
+     */
+    public static Order ordem(CriteriaBuilder cb, Expression<?> coluna, boolean crescente) {
+        return crescente ? cb.asc(coluna) : cb.desc(coluna);
+    }
+}
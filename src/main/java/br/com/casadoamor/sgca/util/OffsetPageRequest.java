@@ -0,0 +1,78 @@
+package br.com.casadoamor.sgca.util;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Pageable por offset/limit (o PageRequest só aceita offsets múltiplos do tamanho da página).
+ * Sem ordenação própria: a ordem vem da Specification.
+ */
+public final class OffsetPageRequest implements Pageable {
+
+    private final long offset;
+    private final int limit;
+
+    private OffsetPageRequest(long offset, int limit) {
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * @param offset registros a pular (>= 0)
+     * @param limit  tamanho da página (>= 1)
+     */
+    public static OffsetPageRequest of(long offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset não pode ser negativo");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit deve ser maior que zero");
+        }
+        return new OffsetPageRequest(offset, limit);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / limit);
+    }
+
+    @Override
+    public int getPageSize() {
+        return limit;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return Sort.unsorted();
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + limit, limit);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - limit), limit) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, limit);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * limit, limit);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.casadoamor.sgca.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalização de texto para as colunas de busca (nome_busca, cpf_busca, rg_busca)
+ * e para os termos pesquisados, que precisam passar pela mesma normalização
+ */
+public class TextoBuscaUtil {
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]");
+
+    /**
+     * Nome em minúsculas, sem acentos e com espaços simples
+     *
+     * @param nome Nome (ex: "  José  da Conceição")
+     * @return Nome normalizado (ex: "jose da conceicao")
+     */
+    public static String normalizarNome(String nome) {
+        if (nome == null) {
+            return null;
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Documento (CPF/RG) em minúsculas, só com letras e números
+     *
+     * @param documento Documento formatado (ex: 12.345.678-X)
+     * @return Documento normalizado (ex: 12345678x)
+     */
+    public static String normalizarDocumento(String documento) {
+        if (documento == null) {
+            return null;
+        }
+        return NAO_ALFANUMERICO.matcher(documento.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+
+    /**
+     * Escapa os curingas do LIKE (% e _) usando '\' como caractere de escape
+     */
+    public static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.casadoamor.sgca.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Utilitários para gerar a impressão digital (fingerprint) de tokens
+ */
+public class TokenHashUtil {
+
+    /**
+     * Calcula o SHA-256 do token em hexadecimal minúsculo (64 caracteres)
+     *
+     * @param token token em texto puro (ex: JWT)
+     * @return hash hexadecimal do token, ou null se o token for null
+     */
+    public static String sha256Hex(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar hash do token", e);
+        }
+    }
+}
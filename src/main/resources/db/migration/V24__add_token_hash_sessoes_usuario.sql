@@ -0,0 +1,29 @@
+-- Migration V24: Impressão digital (SHA-256) do token nas sessões
+--
+-- A validação de sessão roda em toda requisição autenticada. Buscar pelo
+-- JWT completo (VARCHAR(512)) gera um índice grande e comparações caras;
+-- passamos a buscar por token_hash = SHA-256 hexadecimal do JWT (64 chars),
+-- com índice único, mantendo a consulta como busca pontual.
+
+ALTER TABLE sessoes_usuario
+    ADD COLUMN token_hash CHAR(64) NULL AFTER token_jwt;
+
+-- Backfill das sessões existentes (SHA2 do MySQL gera hex minúsculo, igual à aplicação)
+UPDATE sessoes_usuario
+SET token_hash = SHA2(token_jwt, 256)
+WHERE token_hash IS NULL;
+
+-- Tokens emitidos no mesmo segundo para o mesmo usuário podiam ser idênticos;
+-- mantém apenas a sessão mais recente de cada token antes do índice único
+DELETE s1 FROM sessoes_usuario s1
+JOIN sessoes_usuario s2
+  ON s1.token_hash = s2.token_hash
+ AND s1.id < s2.id;
+
+ALTER TABLE sessoes_usuario
+    MODIFY COLUMN token_hash CHAR(64) NOT NULL;
+
+CREATE UNIQUE INDEX uk_sessoes_usuario_token_hash ON sessoes_usuario (token_hash);
+
+-- O índice sobre o JWT completo deixa de ser usado
+DROP INDEX idx_sessoes_usuario_token ON sessoes_usuario;
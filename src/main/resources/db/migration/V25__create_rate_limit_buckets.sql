@@ -0,0 +1,18 @@
+-- Migration V25: Buckets de rate limit compartilhados entre instâncias
+--
+-- Com mais de uma instância atrás do load balancer, buckets em memória
+-- multiplicam o limite efetivo pelo número de réplicas. Com
+-- rate-limit.backend=jdbc o estado do bucket (serializado pelo bucket4j)
+-- fica nesta tabela e é atualizado por compare-and-swap na coluna versao.
+-- O id é o SHA-256 hexadecimal da chave cliente + rota + limite.
+
+CREATE TABLE rate_limit_buckets (
+    id CHAR(64) NOT NULL,
+    estado VARBINARY(1024) NOT NULL,
+    versao BIGINT NOT NULL,
+    atualizado_em DATETIME(3) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Limpeza periódica dos buckets ociosos
+CREATE INDEX idx_rate_limit_buckets_atualizado_em ON rate_limit_buckets (atualizado_em);
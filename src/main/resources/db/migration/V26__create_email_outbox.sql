@@ -0,0 +1,27 @@
+-- Migration V26: Outbox transacional de emails
+--
+-- O envio de email deixa de acontecer dentro da requisição: o email é gravado
+-- aqui na mesma transação de quem o solicitou e entregue por workers em
+-- segundo plano, com novas tentativas (backoff exponencial) e status FALHA
+-- (dead letter) ao esgotar as tentativas. Códigos 2FA têm prioridade 0.
+
+CREATE TABLE email_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    destinatario VARCHAR(255) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    corpo MEDIUMTEXT NOT NULL,
+    html BOOLEAN NOT NULL DEFAULT FALSE,
+    tipo VARCHAR(30) NOT NULL,
+    prioridade INT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE' COMMENT 'PENDENTE, ENVIANDO, ENVIADO, FALHA',
+    tentativas INT NOT NULL DEFAULT 0,
+    proxima_tentativa_em DATETIME(3) NOT NULL,
+    reservado_ate DATETIME(3) NULL COMMENT 'Prazo da reserva por um worker (ENVIANDO)',
+    ultimo_erro VARCHAR(1000) NULL,
+    enviado_em DATETIME(3) NULL,
+    criado_em DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+COMMENT='Outbox transacional de emails';
+
+-- Busca dos próximos emails a enviar, por prioridade
+CREATE INDEX idx_email_outbox_fila ON email_outbox (status, proxima_tentativa_em, prioridade);
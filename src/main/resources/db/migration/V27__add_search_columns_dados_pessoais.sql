@@ -0,0 +1,33 @@
+-- Migration V27: Colunas de busca normalizadas em dados_pessoais
+--
+-- A busca de pacientes aplicava LOWER/REPLACE em cpf, rg e nome a cada linha,
+-- o que impede o uso de índices. As colunas abaixo guardam os valores já
+-- normalizados (mantidos pela aplicação a cada gravação) e são indexadas:
+--   nome_busca: minúsculas, sem acentos, espaços simples
+--   cpf_busca:  só dígitos
+--   rg_busca:   minúsculas, só letras e dígitos
+
+ALTER TABLE dados_pessoais
+    ADD COLUMN nome_busca VARCHAR(255) NULL,
+    ADD COLUMN cpf_busca VARCHAR(11) NULL,
+    ADD COLUMN rg_busca VARCHAR(10) NULL;
+
+-- Preenche os registros existentes
+UPDATE dados_pessoais
+SET cpf_busca = REGEXP_REPLACE(cpf, '[^0-9]', ''),
+    rg_busca = REGEXP_REPLACE(LOWER(rg), '[^a-z0-9]', ''),
+    nome_busca = TRIM(REGEXP_REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+        REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(REPLACE(
+            LOWER(nome),
+            'á', 'a'), 'à', 'a'), 'â', 'a'), 'ã', 'a'), 'ä', 'a'),
+            'é', 'e'), 'ê', 'e'), 'è', 'e'), 'ë', 'e'),
+            'í', 'i'), 'ì', 'i'), 'ï', 'i'),
+            'ó', 'o'), 'ô', 'o'), 'õ', 'o'), 'ö', 'o'),
+            'ú', 'u'), 'ü', 'u'),
+            'ç', 'c'), 'ñ', 'n'),
+        '[[:space:]]+', ' '));
+
+CREATE INDEX idx_dados_pessoais_nome_busca ON dados_pessoais (nome_busca);
+CREATE INDEX idx_dados_pessoais_cpf_busca ON dados_pessoais (cpf_busca);
+CREATE INDEX idx_dados_pessoais_rg_busca ON dados_pessoais (rg_busca);
@@ -0,0 +1,8 @@
+-- Migration V28: Índices da paginação por cursor (keyset)
+--
+-- As listagens por cursor ordenam por (data, id) e continuam a partir da chave do
+-- último registro; com o índice na mesma ordem, cada página é uma leitura direta
+-- do índice, sem percorrer as páginas anteriores como no OFFSET.
+
+CREATE INDEX idx_tentativas_login_data_id ON tentativas_login (data_tentativa, id);
+CREATE INDEX idx_dados_clinicos_paciente_created ON dados_clinicos (paciente_id, created_at, id);
@@ -0,0 +1,13 @@
+-- Migration V29: Corpo do outbox de emails só enquanto houver entrega a fazer
+--
+-- O corpo renderizado traz códigos 2FA, links de redefinição de senha e a senha
+-- temporária da ativação de conta. Ele é apagado quando o email chega a ENVIADO
+-- ou FALHA (dead letter), e as linhas finalizadas são removidas após o prazo de
+-- retenção (email.outbox.retention-days).
+
+ALTER TABLE email_outbox MODIFY corpo MEDIUMTEXT NULL COMMENT 'Apagado ao chegar a ENVIADO ou FALHA';
+
+UPDATE email_outbox SET corpo = NULL WHERE status IN ('ENVIADO', 'FALHA');
+
+-- Remoção das linhas finalizadas mais antigas que a retenção
+CREATE INDEX idx_email_outbox_retencao ON email_outbox (criado_em);
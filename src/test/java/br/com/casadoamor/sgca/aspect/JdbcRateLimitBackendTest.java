@@ -0,0 +1,165 @@
+package br.com.casadoamor.sgca.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import br.com.casadoamor.sgca.annotation.RateLimited;
+import br.com.casadoamor.sgca.aspect.RateLimitBackend.LimiteRota;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JdbcRateLimitBackendTest {
+
+    private TabelaEmMemoria tabela;
+    private SimpleMeterRegistry meterRegistry;
+    private LimiteRota limite;
+
+    @BeforeEach
+    void setup() {
+        tabela = new TabelaEmMemoria();
+        meterRegistry = new SimpleMeterRegistry();
+
+        RateLimited rl = mock(RateLimited.class);
+        when(rl.limit()).thenReturn(3);
+        when(rl.durationSeconds()).thenReturn(60);
+        limite = LimiteRota.de(rl);
+    }
+
+    private JdbcRateLimitBackend novaInstancia(Duration novaTentativa) {
+        JdbcBucketProxyManager proxyManager = new JdbcBucketProxyManager(tabela, 100, Duration.ofMinutes(1));
+        LocalRateLimitBackend local = new LocalRateLimitBackend(new SimpleMeterRegistry(), 100);
+        return new JdbcRateLimitBackend(proxyManager, local, meterRegistry, novaTentativa, Duration.ofMinutes(60));
+    }
+
+    @Test
+    void limitIsSharedAcrossInstances() {
+        JdbcRateLimitBackend instanciaA = novaInstancia(Duration.ofSeconds(30));
+        JdbcRateLimitBackend instanciaB = novaInstancia(Duration.ofSeconds(30));
+
+        int permitidas = 0;
+        for (int i = 0; i < 6; i++) {
+            JdbcRateLimitBackend instancia = i % 2 == 0 ? instanciaA : instanciaB;
+            if (instancia.consumir("10.0.0.1:/auth/login:3/60", limite, 1).isConsumed()) {
+                permitidas++;
+            }
+        }
+
+        assertThat(permitidas).isEqualTo(3);
+        assertThat(tabela.linhas).hasSize(1);
+    }
+
+    @Test
+    void hotPath_usesOneStatementPerRequest() {
+        JdbcRateLimitBackend instancia = novaInstancia(Duration.ofSeconds(30));
+
+        // A primeira requisição cria o bucket (leituras + INSERT)
+        instancia.consumir("cliente", limite, 1);
+        int aposPrimeira = tabela.comandos.get();
+
+        instancia.consumir("cliente", limite, 1);
+        instancia.consumir("cliente", limite, 1);
+
+        assertThat(tabela.comandos.get() - aposPrimeira).isEqualTo(2);
+    }
+
+    @Test
+    void storeUnreachable_fallsBackToLocalBuckets() {
+        JdbcRateLimitBackend instancia = novaInstancia(Duration.ofSeconds(30));
+        tabela.indisponivel = true;
+
+        int permitidas = 0;
+        for (int i = 0; i < 5; i++) {
+            if (instancia.consumir("cliente", limite, 1).isConsumed()) {
+                permitidas++;
+            }
+        }
+
+        assertThat(permitidas).isEqualTo(3);
+        assertThat(instancia.isBancoDisponivel()).isFalse();
+        assertThat(meterRegistry.counter("rate.limit.store.fallback").count()).isEqualTo(5);
+        // Depois da primeira falha o banco não é consultado até o intervalo de nova tentativa
+        assertThat(tabela.comandos.get()).isEqualTo(1);
+    }
+
+    @Test
+    void storeBackOnline_isUsedAgainAfterRetryInterval() {
+        JdbcRateLimitBackend instancia = novaInstancia(Duration.ZERO);
+        tabela.indisponivel = true;
+        instancia.consumir("cliente", limite, 1);
+
+        tabela.indisponivel = false;
+        assertThat(instancia.consumir("cliente", limite, 1).isConsumed()).isTrue();
+
+        assertThat(instancia.isBancoDisponivel()).isTrue();
+        assertThat(tabela.linhas).hasSize(1);
+    }
+
+    /**
+     * Tabela rate_limit_buckets em memória, com as mesmas semânticas de compare-and-swap
+     */
+    private static class TabelaEmMemoria extends JdbcTemplate {
+
+        private final Map<String, Object[]> linhas = new HashMap<>();
+        private final AtomicInteger comandos = new AtomicInteger();
+        private volatile boolean indisponivel = false;
+
+        @Override
+        public synchronized <T> T query(String sql, ResultSetExtractor<T> rse, Object... args) {
+            registrarComando();
+            Object[] linha = linhas.get((String) args[0]);
+            try {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.next()).thenReturn(linha != null);
+                if (linha != null) {
+                    when(rs.getBytes(1)).thenReturn((byte[]) linha[0]);
+                    when(rs.getLong(2)).thenReturn((Long) linha[1]);
+                }
+                return rse.extractData(rs);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public synchronized int update(String sql, Object... args) {
+            registrarComando();
+            if (JdbcBucketProxyManager.SQL_INSERT.equals(sql)) {
+                if (linhas.containsKey((String) args[0])) {
+                    throw new DuplicateKeyException("id duplicado");
+                }
+                linhas.put((String) args[0], new Object[] {args[1], 1L});
+                return 1;
+            }
+            if (JdbcBucketProxyManager.SQL_UPDATE.equals(sql)) {
+                Object[] linha = linhas.get((String) args[2]);
+                if (linha == null || !linha[1].equals(args[3])) {
+                    return 0;
+                }
+                linhas.put((String) args[2], new Object[] {args[0], (Long) linha[1] + 1});
+                return 1;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        private void registrarComando() {
+            comandos.incrementAndGet();
+            if (indisponivel) {
+                throw new DataAccessResourceFailureException("Banco inacessível");
+            }
+        }
+    }
+}
@@ -1,34 +1,71 @@
 package br.com.casadoamor.sgca.aspect;
 
 import org.aspectj.lang.ProceedingJoinPoint;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
 
 import br.com.casadoamor.sgca.annotation.RateLimited;
 import br.com.casadoamor.sgca.config.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 class RateLimitAspectTest {
 
     @Mock
     private HttpServletRequest request;
 
+    @Mock
+    private HttpServletResponse response;
+
     @Mock
     private ProceedingJoinPoint joinPoint;
 
     private RateLimitAspect aspect;
 
+    private LocalRateLimitBackend backend;
+
     @BeforeEach
     //@SuppressWarnings("unused")
     void setup() {
         MockitoAnnotations.openMocks(this);
-        aspect = new RateLimitAspect(request);
+        backend = new LocalRateLimitBackend(new SimpleMeterRegistry(), 100);
+        aspect = new RateLimitAspect(request, response, backend, new RateLimitTiers(new MockEnvironment()));
+    }
+
+    @AfterEach
+    void limparContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void autenticar(String cpf, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                cpf, null, List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private static RateLimited rateLimited(int limit, int cost, String quota) {
+        RateLimited rl = mock(RateLimited.class);
+        when(rl.limit()).thenReturn(limit);
+        when(rl.durationSeconds()).thenReturn(60);
+        when(rl.cost()).thenReturn(cost);
+        when(rl.quota()).thenReturn(quota);
+        return rl;
     }
 
     @Test
@@ -65,4 +102,147 @@ class RateLimitAspectTest {
                 .isInstanceOf(RateLimitExceededException.class);
     }
 
+    @Test
+    void pathVariables_shareBucketOfRoutePattern() throws Throwable {
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/admin/users/{id}");
+
+        RateLimited rl = mock(RateLimited.class);
+        when(rl.limit()).thenReturn(1);
+        when(rl.durationSeconds()).thenReturn(60);
+
+        when(request.getRequestURI()).thenReturn("/admin/users/1");
+        aspect.rateLimit(joinPoint, rl);
+
+        when(request.getRequestURI()).thenReturn("/admin/users/2");
+        assertThatThrownBy(() -> aspect.rateLimit(joinPoint, rl))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(backend.quantidadeBuckets()).isEqualTo(1);
+    }
+
+    @Test
+    void differentAnnotations_onSameRoute_useSeparateBuckets() throws Throwable {
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/auth/login");
+
+        RateLimited estrito = mock(RateLimited.class);
+        when(estrito.limit()).thenReturn(1);
+        when(estrito.durationSeconds()).thenReturn(60);
+        RateLimited folgado = mock(RateLimited.class);
+        when(folgado.limit()).thenReturn(5);
+        when(folgado.durationSeconds()).thenReturn(60);
+
+        aspect.rateLimit(joinPoint, estrito);
+        aspect.rateLimit(joinPoint, folgado);
+
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void manyClients_bucketStoreStaysBounded() throws Throwable {
+        SimpleMeterRegistry registroLimitado = new SimpleMeterRegistry();
+        LocalRateLimitBackend backendLimitado = new LocalRateLimitBackend(registroLimitado, 10);
+        RateLimitAspect limitado = new RateLimitAspect(request, response, backendLimitado,
+                new RateLimitTiers(new MockEnvironment()));
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/test");
+
+        RateLimited rl = mock(RateLimited.class);
+        when(rl.limit()).thenReturn(10);
+        when(rl.durationSeconds()).thenReturn(60);
+
+        for (int i = 0; i < 200; i++) {
+            when(request.getRemoteAddr()).thenReturn("10.0.0." + i);
+            limitado.rateLimit(joinPoint, rl);
+        }
+
+        assertThat(backendLimitado.quantidadeBuckets()).isLessThanOrEqualTo(10);
+        assertThat(registroLimitado.get("cache.evictions").tag("cache", "rate.limit.buckets").functionCounter().count())
+                .isGreaterThan(0);
+    }
+
+    @Test
+    void idleBucket_expiresAfterItsWindow() throws Throwable {
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/test-expira");
+
+        RateLimited rl = mock(RateLimited.class);
+        when(rl.limit()).thenReturn(1);
+        when(rl.durationSeconds()).thenReturn(1);
+
+        aspect.rateLimit(joinPoint, rl);
+        assertThat(backend.quantidadeBuckets()).isEqualTo(1);
+
+        Thread.sleep(1100);
+
+        assertThat(backend.quantidadeBuckets()).isZero();
+    }
+
+    @Test
+    void authenticatedUser_isKeyedByCpfAcrossIps() throws Throwable {
+        autenticar("11111111111", "ROLE_MEDICO");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/pacientes/");
+        RateLimited rl = rateLimited(1, 1, "");
+
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+        aspect.rateLimit(joinPoint, rl);
+
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        assertThatThrownBy(() -> aspect.rateLimit(joinPoint, rl))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        // Outro usuário atrás do mesmo IP tem a própria cota
+        autenticar("22222222222", "ROLE_MEDICO");
+        aspect.rateLimit(joinPoint, rl);
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    void roleTier_multipliesLimit() throws Throwable {
+        RateLimitAspect comTiers = new RateLimitAspect(request, response, backend,
+                new RateLimitTiers(new MockEnvironment().withProperty("rate-limit.tier.ADMINISTRADOR", "3.0")));
+        autenticar("11111111111", "ROLE_ADMINISTRADOR");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/admin/users");
+        RateLimited rl = rateLimited(1, 1, "");
+
+        comTiers.rateLimit(joinPoint, rl);
+        comTiers.rateLimit(joinPoint, rl);
+        comTiers.rateLimit(joinPoint, rl);
+
+        assertThatThrownBy(() -> comTiers.rateLimit(joinPoint, rl))
+                .isInstanceOf(RateLimitExceededException.class);
+        verify(response, times(4)).setHeader(RateLimitAspect.HEADER_LIMIT, "3");
+    }
+
+    @Test
+    void cost_consumesWeightAndReportsHeaders() throws Throwable {
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/pacientes/");
+        RateLimited busca = rateLimited(10, 5, "");
+
+        aspect.rateLimit(joinPoint, busca);
+        verify(response).setHeader(RateLimitAspect.HEADER_REMAINING, "5");
+
+        aspect.rateLimit(joinPoint, busca);
+        verify(response).setHeader(RateLimitAspect.HEADER_REMAINING, "0");
+
+        assertThatThrownBy(() -> aspect.rateLimit(joinPoint, busca))
+                .isInstanceOfSatisfying(RateLimitExceededException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isGreaterThan(0));
+    }
+
+    @Test
+    void sharedQuota_isDrawnByAllEndpoints() throws Throwable {
+        autenticar("11111111111", "ROLE_RECEPCIONISTA");
+        RateLimited busca = rateLimited(6, 5, "api");
+        RateLimited perfil = rateLimited(6, 1, "api");
+
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/pacientes/");
+        aspect.rateLimit(joinPoint, busca);
+
+        when(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).thenReturn("/auth/me");
+        aspect.rateLimit(joinPoint, perfil);
+
+        assertThatThrownBy(() -> aspect.rateLimit(joinPoint, perfil))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
 }
@@ -0,0 +1,97 @@
+package br.com.casadoamor.sgca.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import br.com.casadoamor.sgca.service.imp.EmailTemplateRenderer;
+import br.com.casadoamor.sgca.service.imp.EmailTemplateRenderer.ModeloEmail;
+
+/**
+ * Custo de montar o corpo do email de redefinição de senha.
+ *
+ * - concatenacaoAntes: comportamento anterior (text block + formatted)
+ * - thymeleafPorEnvio: processamento completo do template a cada envio (cache de templates ligado)
+ * - preRenderizado: EmailTemplateRenderer, trechos estáticos + valor escapado
+ *
+ * Executar: mvn test-compile e depois rodar o main desta classe com o classpath de teste
+ * (ex: pela IDE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private String link;
+    private EmailTemplateRenderer renderer;
+    private SpringTemplateEngine templateEngine;
+
+    @Setup
+    public void setup() {
+        link = "http://localhost:3000/reset-password?token=3f2a9c1e-7b4d-4e8a-9f00-1c2d3e4f5a6b";
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        renderer = new EmailTemplateRenderer(templateEngine);
+    }
+
+    @Benchmark
+    public String concatenacaoAntes() {
+        return """
+                <html>
+                <body style="font-family: Arial, sans-serif;">
+                    <h2>Redefinição de Senha</h2>
+                    <p>Você solicitou a redefinição de sua senha.</p>
+                    <p>Clique no link abaixo para redefinir:</p>
+                    <a href="%s" style="background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px;">
+                        Redefinir Senha
+                    </a>
+                    <p>Este link expira em 1 hora.</p>
+                    <p>Se você não solicitou esta redefinição, ignore este email.</p>
+                </body>
+                </html>
+                """
+                .formatted(link);
+    }
+
+    @Benchmark
+    public String thymeleafPorEnvio() {
+        Context contexto = new Context();
+        contexto.setVariable("link", link);
+        return templateEngine.process(ModeloEmail.REDEFINICAO_SENHA.getTemplate(), contexto);
+    }
+
+    @Benchmark
+    public String preRenderizado() {
+        return renderer.renderizar(ModeloEmail.REDEFINICAO_SENHA, link);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.casadoamor.sgca.benchmark;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.casadoamor.sgca.security.JwtUtil;
+import br.com.casadoamor.sgca.security.TokenVerificado;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Custo de verificação do JWT por requisição no JwtAuthenticationFilter.
+ *
+ * - porRequisicaoAntes: comportamento anterior (extractUsername + validateToken),
+ *   três parses com decodificação da chave e criação do parser a cada chamada
+ * - porRequisicaoDepois: uma chamada a verificarToken com chave e parser reutilizados
+ *
+ * Executar: mvn test-compile e depois rodar o main desta classe com o classpath de teste
+ * (ex: pela IDE).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private String secret;
+    private String token;
+    private UserDetails user;
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setup() {
+        secret = Base64.getEncoder().encodeToString("01234567890123456789012345678901".getBytes());
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpirationMs", 3600_000L);
+
+        user = User.withUsername("12345678900").password("x").roles("RECEPCIONISTA").build();
+        token = jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean porRequisicaoAntes() {
+        String username = parseLegado(token).getSubject();
+        boolean valido = parseLegado(token).getSubject().equals(user.getUsername())
+                && !parseLegado(token).getExpiration().before(new Date());
+        return username != null && valido;
+    }
+
+    @Benchmark
+    public boolean porRequisicaoDepois() {
+        TokenVerificado verificado = jwtUtil.verificarToken(token);
+        return verificado.getUsername() != null && verificado.pertenceA(user);
+    }
+
+    /**
+     * Reproduz o extractAllClaims anterior: nova chave e novo parser a cada chamada
+     */
+    private Claims parseLegado(String jwt) {
+        SecretKey chave = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        return Jwts.parser()
+                .verifyWith(chave)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.casadoamor.sgca.mapper.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.casadoamor.sgca.config.exception.CustomError;
+
+class CursorCodecTest {
+
+    private final CursorCodec codec = new CursorCodec("segredo-de-teste");
+
+    @Test
+    void codificar_roundTripsSortKey() {
+        LocalDateTime data = LocalDateTime.of(2025, 3, 10, 14, 30, 15, 123_000_000);
+
+        CursorCodec.Cursor cursor = codec.decodificar("logins", codec.codificar("logins", List.of(data, 42L)));
+
+        assertThat(cursor.dataHora(0)).isEqualTo(data);
+        assertThat(cursor.longo(1)).isEqualTo(42L);
+    }
+
+    @Test
+    void decodificar_rejectsCursorFromAnotherListing() {
+        String cursor = codec.codificar("usuarios", List.of(0, 7L));
+
+        assertThatThrownBy(() -> codec.decodificar("pacientes", cursor))
+                .isInstanceOf(CustomError.class)
+                .hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void decodificar_rejectsForgedOrMalformedCursor() {
+        String outraChave = new CursorCodec("outro-segredo").codificar("usuarios", List.of(0, 7L));
+
+        assertThatThrownBy(() -> codec.decodificar("usuarios", outraChave)).isInstanceOf(CustomError.class);
+        assertThatThrownBy(() -> codec.decodificar("usuarios", "sem-assinatura")).isInstanceOf(CustomError.class);
+        assertThatThrownBy(() -> codec.decodificar("usuarios", "@@.@@")).isInstanceOf(CustomError.class);
+    }
+
+    @Test
+    void posicao_acceptsOnlyOneDirection() {
+        String cursor = codec.codificar("usuarios", List.of(0, 7L));
+
+        assertThat(codec.posicao("usuarios", null, null).cursor()).isNull();
+        assertThat(codec.posicao("usuarios", null, cursor).paraTras()).isTrue();
+        assertThatThrownBy(() -> codec.posicao("usuarios", cursor, cursor))
+                .isInstanceOf(CustomError.class)
+                .hasMessageContaining("after ou before");
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.casadoamor.sgca.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.casadoamor.sgca.config.exception.CustomError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+    private ExecutorService chamadores;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+        if (chamadores != null) {
+            chamadores.shutdownNow();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_delegateAndRecordTimings() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry, 2, 10, 5000);
+
+        String hash = encoder.encode("Str0ngP@ss!");
+
+        assertThat(encoder.matches("Str0ngP@ss!", hash)).isTrue();
+        assertThat(encoder.matches("errada", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hash.duration").tag("operacao", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hash.duration").tag("operacao", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("password.hash.queue").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void upgradeEncoding_whenStoredCostIsLower() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), meterRegistry, 1, 10, 5000);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("senha"))).isFalse();
+    }
+
+    @Test
+    void saturatedExecutor_failsFastWith503() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                ocupado.countDown();
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        // 1 thread + fila de 1: a terceira chamada simultânea é recusada
+        encoder = new BoundedPasswordEncoder(lento, meterRegistry, 1, 1, 5000);
+        chamadores = Executors.newFixedThreadPool(2);
+        chamadores.submit(() -> encoder.encode("a"));
+        assertThat(ocupado.await(1, TimeUnit.SECONDS)).isTrue();
+        chamadores.submit(() -> encoder.encode("b"));
+        while (meterRegistry.get("password.hash.queue.size").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        CustomError erro = assertThrows(CustomError.class, () -> encoder.encode("c"));
+
+        assertThat(erro.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.counter("password.hash.rejected").count()).isEqualTo(1);
+        liberar.countDown();
+    }
+
+    @Test
+    void waitAboveTimeout_failsWith503() {
+        PasswordEncoder travado = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(travado, meterRegistry, 1, 10, 50);
+
+        CustomError erro = assertThrows(CustomError.class, () -> encoder.encode("a"));
+
+        assertThat(erro.getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
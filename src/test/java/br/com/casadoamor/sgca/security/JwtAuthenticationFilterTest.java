@@ -1,10 +1,19 @@
 package br.com.casadoamor.sgca.security;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,7 +30,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
 import br.com.casadoamor.sgca.service.admin.SessaoService;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel.PermissoesUsuario;
+import br.com.casadoamor.sgca.service.auth.PermissionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class JwtAuthenticationFilterTest {
 
@@ -40,6 +54,12 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    @Mock
+    private CompiledPermissionModel permissionModel;
+
+    @Mock
+    private PermissionService permissionService;
+
     @InjectMocks
     private JwtAuthenticationFilter filter;
 
@@ -77,6 +97,24 @@ class JwtAuthenticationFilterTest {
     Field sessField = JwtAuthenticationFilter.class.getDeclaredField("sessaoService");
     sessField.setAccessible(true);
     sessField.set(filter, sessaoService);
+
+        Field cacheField = JwtAuthenticationFilter.class.getDeclaredField("principalCache");
+        cacheField.setAccessible(true);
+        cacheField.set(filter, new JwtPrincipalCache(new SimpleMeterRegistry(), 100, 60));
+
+        Field claimsField = JwtAuthenticationFilter.class.getDeclaredField("permissionClaims");
+        claimsField.setAccessible(true);
+        claimsField.set(filter, new JwtPermissionClaims(permissionModel, permissionService, true));
+    }
+
+    private String tokenComPermissoes(String cpf, long versao) {
+        BitSet bits = new BitSet();
+        bits.set(5);
+        when(permissionModel.getVersao()).thenReturn(versao);
+        when(permissionModel.permissoesDoUsuario(cpf)).thenReturn(new PermissoesUsuario(TipoUsuario.MEDICO, bits, true, null));
+        JwtPermissionClaims claims = new JwtPermissionClaims(permissionModel, permissionService, true);
+        UserDetails user = new User(cpf, "x", List.of());
+        return jwtUtil.generateToken(user, claims.gerarClaims(cpf));
     }
 
     @AfterEach
@@ -117,4 +155,158 @@ class JwtAuthenticationFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
         assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("u2@example.com");
     }
+
+    @Test
+    void whenPrincipalCached_secondRequestSkipsDatabase() throws Exception {
+        UserDetails user = new User("u3@example.com", "x", java.util.List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = jwtUtil.generateToken(user);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("u3@example.com")).thenReturn(user);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("u3@example.com");
+        verify(userDetailsService, times(1)).loadUserByUsername("u3@example.com");
+        verify(sessaoService, times(1)).sessaoValida(token);
+    }
+
+    @Test
+    void whenTokenHasCurrentPermissionClaims_authoritiesComeFromTokenWithoutDatabase() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        when(permissionModel.nomes(any())).thenReturn(Set.of("PACIENTE_VER"));
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("12345678900");
+        assertThat(authentication.getAuthorities()).extracting(Object::toString)
+                .containsExactlyInAnyOrder("PACIENTE_VER", "ROLE_MEDICO");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(response, never()).setHeader(JwtPermissionClaims.HEADER_RENOVAR_TOKEN, "true");
+    }
+
+    @Test
+    void whenAccountLockedAfterIssue_tokenWithPermissionClaimsIsRejected() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        BitSet bits = new BitSet();
+        bits.set(5);
+        // Mesmas permissões do token, mas a conta foi bloqueada por tentativas falhas
+        when(permissionModel.permissoesDoUsuario("12345678900")).thenReturn(
+                new PermissoesUsuario(TipoUsuario.MEDICO, bits, true, LocalDateTime.now().plusMinutes(30)));
+        when(permissionModel.nomes(any())).thenReturn(Set.of("PACIENTE_VER"));
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void whenAccountDeactivatedAfterIssue_tokenWithPermissionClaimsIsRejected() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        BitSet bits = new BitSet();
+        bits.set(5);
+        when(permissionModel.permissoesDoUsuario("12345678900"))
+                .thenReturn(new PermissoesUsuario(TipoUsuario.MEDICO, bits, false, null));
+        when(permissionModel.nomes(any())).thenReturn(Set.of("PACIENTE_VER"));
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void whenAccountLockExpired_tokenWithPermissionClaimsIsAccepted() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        BitSet bits = new BitSet();
+        bits.set(5);
+        when(permissionModel.permissoesDoUsuario("12345678900")).thenReturn(
+                new PermissoesUsuario(TipoUsuario.MEDICO, bits, true, LocalDateTime.now().minusMinutes(1)));
+        when(permissionModel.nomes(any())).thenReturn(Set.of("PACIENTE_VER"));
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("12345678900");
+    }
+
+    @Test
+    void whenPermissionModelVersionChanged_usesCurrentPermissionsAndRequestsRefresh() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        when(permissionModel.getVersao()).thenReturn(8L);
+
+        UserDetails user = new User("12345678900", "x", List.of(new SimpleGrantedAuthority("ROLE_MEDICO")));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("12345678900")).thenReturn(user);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+        when(permissionService.getAuthorities("12345678900")).thenAnswer(inv -> Set.of(
+                new SimpleGrantedAuthority("ROLE_MEDICO"), new SimpleGrantedAuthority("PACIENTE_EDITAR")));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString)
+                .containsExactlyInAnyOrder("PACIENTE_EDITAR", "ROLE_MEDICO");
+        verify(response).setHeader(JwtPermissionClaims.HEADER_RENOVAR_TOKEN, "true");
+    }
+
+    @Test
+    void whenUserLostProfileAfterIssue_tokenPermissionsAreNotTrusted() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        // Perfil removido: mesma versão global do modelo, bits atuais do usuário diferentes
+        when(permissionModel.permissoesDoUsuario("12345678900"))
+                .thenReturn(new PermissoesUsuario(TipoUsuario.MEDICO, new BitSet(), true, null));
+
+        UserDetails user = new User("12345678900", "x", List.of(new SimpleGrantedAuthority("ROLE_MEDICO")));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("12345678900")).thenReturn(user);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+        when(permissionService.getAuthorities("12345678900"))
+                .thenAnswer(inv -> Set.of(new SimpleGrantedAuthority("ROLE_MEDICO")));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_MEDICO");
+        verify(permissionModel, never()).nomes(any());
+        verify(response).setHeader(JwtPermissionClaims.HEADER_RENOVAR_TOKEN, "true");
+    }
+
+    @Test
+    void whenUserTypeChangedAfterIssue_tokenPermissionsAreNotTrusted() throws Exception {
+        String token = tokenComPermissoes("12345678900", 7L);
+        BitSet bits = new BitSet();
+        bits.set(5);
+        when(permissionModel.permissoesDoUsuario("12345678900"))
+                .thenReturn(new PermissoesUsuario(TipoUsuario.RECEPCIONISTA, bits, true, null));
+
+        UserDetails user = new User("12345678900", "x", List.of(new SimpleGrantedAuthority("ROLE_RECEPCIONISTA")));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(userDetailsService.loadUserByUsername("12345678900")).thenReturn(user);
+        when(sessaoService.sessaoValida(token)).thenReturn(true);
+        when(permissionService.getAuthorities("12345678900"))
+                .thenAnswer(inv -> Set.of(new SimpleGrantedAuthority("ROLE_RECEPCIONISTA")));
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString)
+                .containsExactly("ROLE_RECEPCIONISTA");
+        verify(response).setHeader(JwtPermissionClaims.HEADER_RENOVAR_TOKEN, "true");
+    }
 }
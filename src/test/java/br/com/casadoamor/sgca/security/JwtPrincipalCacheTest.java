@@ -0,0 +1,86 @@
+package br.com.casadoamor.sgca.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtPrincipalCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private JwtPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new JwtPrincipalCache(registry, 100, 60);
+    }
+
+    private static UserDetails usuario(String cpf) {
+        return new User(cpf, "x", List.of(new SimpleGrantedAuthority("ROLE_RECEPCIONISTA")));
+    }
+
+    private static Date daquiUmaHora() {
+        return new Date(System.currentTimeMillis() + 3600_000L);
+    }
+
+    @Test
+    void buscar_afterArmazenar_returnsPrincipal() {
+        UserDetails user = usuario("12345678900");
+        cache.armazenar("token-a", user, daquiUmaHora());
+
+        assertThat(cache.buscar("token-a")).isSameAs(user);
+        assertThat(cache.buscar("token-b")).isNull();
+    }
+
+    @Test
+    void invalidarToken_removesOnlyThatToken() {
+        cache.armazenar("token-a", usuario("12345678900"), daquiUmaHora());
+        cache.armazenar("token-b", usuario("12345678900"), daquiUmaHora());
+
+        cache.invalidarToken("token-a");
+
+        assertThat(cache.buscar("token-a")).isNull();
+        assertThat(cache.buscar("token-b")).isNotNull();
+    }
+
+    @Test
+    void invalidarUsuario_removesAllTokensOfUser() {
+        cache.armazenar("token-a", usuario("12345678900"), daquiUmaHora());
+        cache.armazenar("token-b", usuario("12345678900"), daquiUmaHora());
+        cache.armazenar("token-c", usuario("98765432100"), daquiUmaHora());
+
+        cache.invalidarUsuario("12345678900");
+
+        assertThat(cache.buscar("token-a")).isNull();
+        assertThat(cache.buscar("token-b")).isNull();
+        assertThat(cache.buscar("token-c")).isNotNull();
+    }
+
+    @Test
+    void armazenar_withExpiredToken_isNotServed() {
+        cache.armazenar("token-a", usuario("12345678900"), new Date(System.currentTimeMillis() - 1000L));
+
+        assertThat(cache.buscar("token-a")).isNull();
+    }
+
+    @Test
+    void metrics_recordHitsAndMisses() {
+        cache.armazenar("token-a", usuario("12345678900"), daquiUmaHora());
+        cache.buscar("token-a");
+        cache.buscar("token-x");
+
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.principal").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.principal").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+}
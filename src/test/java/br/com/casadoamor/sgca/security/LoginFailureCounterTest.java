@@ -0,0 +1,94 @@
+package br.com.casadoamor.sgca.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository;
+import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository.FalhaRecente;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginFailureCounterTest {
+
+    private static final long MINUTO = 60_000L;
+
+    private TentativaLoginRepository repository;
+    private LoginFailureCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TentativaLoginRepository.class);
+        counter = new LoginFailureCounter(repository, new SimpleMeterRegistry(), 5, 30, 1000);
+    }
+
+    @Test
+    void blocksAfterMaxAttempts() {
+        for (int i = 0; i < 4; i++) {
+            counter.registrarFalha("11111111111");
+        }
+        assertThat(counter.isBloqueado("11111111111")).isFalse();
+
+        counter.registrarFalha("11111111111");
+
+        assertThat(counter.isBloqueado("11111111111")).isTrue();
+        assertThat(counter.isBloqueado("22222222222")).isFalse();
+    }
+
+    @Test
+    void failuresOutsideWindow_areNotCounted() {
+        long inicio = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            counter.registrarFalha("11111111111", inicio);
+        }
+
+        assertThat(counter.contarFalhas("11111111111", inicio + 10 * MINUTO)).isEqualTo(5);
+        assertThat(counter.contarFalhas("11111111111", inicio + 31 * MINUTO)).isZero();
+    }
+
+    @Test
+    void window_slides_bucketsAreReused() {
+        long inicio = System.currentTimeMillis();
+        counter.registrarFalha("11111111111", inicio);
+        counter.registrarFalha("11111111111", inicio + 20 * MINUTO);
+        // Reaproveita o bucket da primeira falha (mesma posição no anel)
+        counter.registrarFalha("11111111111", inicio + 30 * MINUTO);
+
+        assertThat(counter.contarFalhas("11111111111", inicio + 30 * MINUTO)).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentIncrements_areNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            executor.submit(() -> counter.registrarFalha("11111111111"));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(counter.contarFalhas("11111111111")).isEqualTo(8_000);
+    }
+
+    @Test
+    void carregar_rebuildsFromRecentFailures() {
+        FalhaRecente recente = mock(FalhaRecente.class);
+        when(recente.getCpf()).thenReturn("33333333333");
+        when(recente.getDataTentativa()).thenReturn(LocalDateTime.now().minusMinutes(5));
+        List<FalhaRecente> falhas = List.of(recente, recente, recente, recente, recente);
+        when(repository.findFalhasDesde(any())).thenReturn(falhas);
+
+        counter.carregar();
+
+        assertThat(counter.contarFalhas("33333333333")).isEqualTo(5);
+        assertThat(counter.isBloqueado("33333333333")).isTrue();
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.casadoamor.sgca.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository.TokenRevogado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenDenylistTest {
+
+    private SessaoUsuarioRepository sessaoRepository;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        sessaoRepository = mock(SessaoUsuarioRepository.class);
+        denylist = new TokenDenylist(sessaoRepository, new SimpleMeterRegistry(), 1000);
+    }
+
+    private static TokenRevogado revogado(String hash, LocalDateTime expiraEm) {
+        TokenRevogado t = mock(TokenRevogado.class);
+        when(t.getTokenHash()).thenReturn(hash);
+        when(t.getExpiraEm()).thenReturn(expiraEm);
+        return t;
+    }
+
+    @Test
+    void isCarregada_falseUntilFirstReconciliation() {
+        when(sessaoRepository.findTokensRevogadosNaoExpirados(any())).thenReturn(List.of());
+
+        assertThat(denylist.isCarregada()).isFalse();
+        denylist.carregar();
+        assertThat(denylist.isCarregada()).isTrue();
+    }
+
+    @Test
+    void reconciliar_loadsRevokedTokensFromDatabase() {
+        TokenRevogado t = revogado("hash-a", LocalDateTime.now().plusMinutes(30));
+        when(sessaoRepository.findTokensRevogadosNaoExpirados(any())).thenReturn(List.of(t));
+
+        denylist.reconciliar();
+
+        assertThat(denylist.isRevogado("hash-a")).isTrue();
+        assertThat(denylist.isRevogado("hash-b")).isFalse();
+    }
+
+    @Test
+    void revogar_withoutTransaction_isImmediate() {
+        denylist.revogar("hash-c", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(denylist.isRevogado("hash-c")).isTrue();
+    }
+
+    @Test
+    void reconciliar_dropsExpiredEntries() {
+        when(sessaoRepository.findTokensRevogadosNaoExpirados(any())).thenReturn(List.of());
+        denylist.revogar("hash-d", LocalDateTime.now().minusSeconds(1));
+
+        denylist.reconciliar();
+
+        assertThat(denylist.isRevogado("hash-d")).isFalse();
+        assertThat(denylist.tamanho()).isZero();
+    }
+
+    @Test
+    void reconciliar_whenDatabaseFails_keepsCurrentState() {
+        denylist.revogar("hash-e", LocalDateTime.now().plusMinutes(5));
+        when(sessaoRepository.findTokensRevogadosNaoExpirados(any())).thenThrow(new RuntimeException("db down"));
+
+        denylist.reconciliar();
+
+        assertThat(denylist.isRevogado("hash-e")).isTrue();
+        assertThat(denylist.isCarregada()).isFalse();
+    }
+
+    @Test
+    void registrarSessao_makesSessionKnownUntilRevoked() {
+        denylist.registrarSessao("hash-f", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(denylist.isSessaoConhecida("hash-f")).isTrue();
+        assertThat(denylist.isSessaoConhecida("hash-g")).isFalse();
+
+        denylist.revogar("hash-f", LocalDateTime.now().plusMinutes(5));
+
+        assertThat(denylist.isSessaoConhecida("hash-f")).isFalse();
+    }
+
+    @Test
+    void registrarSessao_expiredToken_isNotKnown() {
+        denylist.registrarSessao("hash-h", LocalDateTime.now().minusSeconds(1));
+
+        assertThat(denylist.isSessaoConhecida("hash-h")).isFalse();
+    }
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +13,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository.AutenticacaoUsuario;
 
 class UserDetailsServiceImplTest {
 
@@ -32,26 +36,26 @@ class UserDetailsServiceImplTest {
 
     @Test
     void UserDetailsServiceImpl_loadUserByUsername_ExistingUser_ReturnsUserDetails() {
-        AuthUsuario u = AuthUsuario.builder()
-                .cpf("12345678900")
-                .senhaHash("hashedpwd")
-                .ativo(true)
-                .tipo(AuthUsuario.TipoUsuario.RECEPCIONISTA)
-                .lockedUntil(null)
-                .build();
+        AutenticacaoUsuario u = autenticacao(
+                "cpf", "12345678900",
+                "senhaHash", "hashedpwd",
+                "ativo", true,
+                "tipo", AuthUsuario.TipoUsuario.RECEPCIONISTA);
 
-        when(repository.findByCpf("12345678900")).thenReturn(Optional.of(u));
+        when(repository.findAutenticacaoByCpf("12345678900")).thenReturn(Optional.of(u));
 
         UserDetails details = service.loadUserByUsername("12345678900");
 
         assertNotNull(details);
         assertEquals("12345678900", details.getUsername());
         assertTrue(details.getAuthorities().stream().anyMatch(a -> a.getAuthority().contains("RECEPCIONISTA")));
+        // Só a visão de autenticação; a entidade com perfis e permissões não é carregada
+        verify(repository, never()).findByCpf(anyString());
     }
 
     @Test
     void UserDetailsServiceImpl_loadUserByUsername_NonExistingUser_ThrowsUsernameNotFound() {
-        when(repository.findByCpf("00000000000")).thenReturn(Optional.empty());
+        when(repository.findAutenticacaoByCpf("00000000000")).thenReturn(Optional.empty());
 
     UsernameNotFoundException ex1 = assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("00000000000"));
     assertNotNull(ex1.getMessage());
@@ -60,14 +64,13 @@ class UserDetailsServiceImplTest {
 
     @Test
     void UserDetailsServiceImpl_loadUserByUsername_InactiveUser_ThrowsUsernameNotFound() {
-        AuthUsuario u = AuthUsuario.builder()
-                .cpf("22233344455")
-                .senhaHash("h")
-                .ativo(false)
-                .tipo(AuthUsuario.TipoUsuario.RECEPCIONISTA)
-                .build();
+        AutenticacaoUsuario u = autenticacao(
+                "cpf", "22233344455",
+                "senhaHash", "h",
+                "ativo", false,
+                "tipo", AuthUsuario.TipoUsuario.RECEPCIONISTA);
 
-        when(repository.findByCpf("22233344455")).thenReturn(Optional.of(u));
+        when(repository.findAutenticacaoByCpf("22233344455")).thenReturn(Optional.of(u));
 
     UsernameNotFoundException ex2 = assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("22233344455"));
     assertNotNull(ex2.getMessage());
@@ -76,18 +79,25 @@ class UserDetailsServiceImplTest {
 
     @Test
     void UserDetailsServiceImpl_loadUserByUsername_LockedUser_ThrowsUsernameNotFound() {
-        AuthUsuario u = AuthUsuario.builder()
-                .cpf("99988877766")
-                .senhaHash("h")
-                .ativo(true)
-                .lockedUntil(LocalDateTime.now().plusDays(1))
-                .tipo(AuthUsuario.TipoUsuario.RECEPCIONISTA)
-                .build();
+        AutenticacaoUsuario u = autenticacao(
+                "cpf", "99988877766",
+                "senhaHash", "h",
+                "ativo", true,
+                "lockedUntil", LocalDateTime.now().plusDays(1),
+                "tipo", AuthUsuario.TipoUsuario.RECEPCIONISTA);
 
-        when(repository.findByCpf("99988877766")).thenReturn(Optional.of(u));
+        when(repository.findAutenticacaoByCpf("99988877766")).thenReturn(Optional.of(u));
 
     UsernameNotFoundException ex3 = assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("99988877766"));
     assertNotNull(ex3.getMessage());
     assertFalse(ex3.getMessage().isBlank());
     }
+
+    private static AutenticacaoUsuario autenticacao(Object... valores) {
+        Map<String, Object> propriedades = new HashMap<>();
+        for (int i = 0; i < valores.length; i += 2) {
+            propriedades.put((String) valores[i], valores[i + 1]);
+        }
+        return new SpelAwareProxyProjectionFactory().createProjection(AutenticacaoUsuario.class, propriedades);
+    }
 }
@@ -0,0 +1,95 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.casadoamor.sgca.dto.admin.auditoria.TentativaLoginDTO;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
+import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
+import br.com.casadoamor.sgca.repository.auth.TentativaLoginRepository;
+import br.com.casadoamor.sgca.security.LoginFailureCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuditoriaServiceTest {
+
+    @Mock
+    private TentativaLoginRepository tentativaLoginRepository;
+
+    @Mock
+    private LoginAuditWriter loginAuditWriter;
+
+    @Mock
+    private LoginFailureCounter loginFailureCounter;
+
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec("segredo-de-teste");
+
+    @Spy
+    private PaginatedResponseMapper paginatedMapper = new PaginatedResponseMapper(cursorCodec);
+
+    @Spy
+    private TentativaLoginTotais tentativaLoginTotais = new TentativaLoginTotais(new SimpleMeterRegistry(), 100, 60);
+
+    @InjectMocks
+    private AuditoriaService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarTentativas_countsTotalOncePerFilter() {
+        LocalDateTime agora = LocalDateTime.now();
+        when(tentativaLoginRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(tentativa(3L, agora), tentativa(2L, agora.minusMinutes(1)),
+                        tentativa(1L, agora.minusMinutes(2))))
+                .thenReturn(List.of(tentativa(1L, agora.minusMinutes(2))));
+        when(tentativaLoginRepository.count(any(Specification.class))).thenReturn(3L);
+
+        PaginatedResponseDTO<TentativaLoginDTO> primeira = service.listarTentativas(false, null, 2, null, null);
+        PaginatedResponseDTO<TentativaLoginDTO> segunda = service.listarTentativas(false, " ", 2,
+                primeira.endCursor(), null);
+
+        assertThat(primeira.nodes()).extracting(TentativaLoginDTO::getId).containsExactly(3L, 2L);
+        assertThat(primeira.hasNextPage()).isTrue();
+        assertThat(segunda.nodes()).extracting(TentativaLoginDTO::getId).containsExactly(1L);
+        // A navegação vem da linha extra; o total não é recontado na segunda página
+        assertThat(segunda.hasNextPage()).isFalse();
+        assertThat(segunda.totalCount()).isEqualTo(3);
+        verify(tentativaLoginRepository, times(1)).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarTentativas_differentFilters_haveOwnTotals() {
+        when(tentativaLoginRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of());
+        when(tentativaLoginRepository.count(any(Specification.class))).thenReturn(10L, 4L);
+
+        assertThat(service.listarTentativas(null, null, 2, null, null).totalCount()).isEqualTo(10);
+        assertThat(service.listarTentativas(false, null, 2, null, null).totalCount()).isEqualTo(4);
+        verify(tentativaLoginRepository, times(2)).count(any(Specification.class));
+    }
+
+    private static TentativaLogin tentativa(Long id, LocalDateTime data) {
+        return TentativaLogin.builder().id(id).cpf("12345678900").sucesso(false).dataTentativa(data).build();
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import br.com.casadoamor.sgca.entity.auth.TentativaLogin;
+import br.com.casadoamor.sgca.service.admin.LoginAuditWriter.PoliticaOverflow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginAuditWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAuditWriter writer;
+
+    // Tamanho de cada lote no momento da gravação (a lista do lote é reutilizada pelo gravador)
+    private final List<Integer> lotes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(jdbcTemplate.batchUpdate(eq(LoginAuditWriter.SQL_INSERT), anyList(), anyInt(), qualquerSetter()))
+                .thenAnswer(inv -> {
+                    lotes.add(inv.<List<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    /**
+     * Matcher do setter do lote já tipado para TentativaLogin (any(Class) daria o tipo cru)
+     */
+    private static ParameterizedPreparedStatementSetter<TentativaLogin> qualquerSetter() {
+        return any();
+    }
+
+    private static TentativaLogin falha(String cpf) {
+        return TentativaLogin.builder().cpf(cpf).ipOrigem("127.0.0.1").sucesso(false).motivoFalha("SENHA_INVALIDA").build();
+    }
+
+    @Test
+    void backgroundWriter_flushesInBatches() {
+        writer = new LoginAuditWriter(jdbcTemplate, meterRegistry, 100, 3, 50, PoliticaOverflow.GRAVAR_SINCRONO);
+        writer.start();
+
+        for (int i = 0; i < 5; i++) {
+            writer.registrar(falha("11111111111"));
+        }
+
+        verify(jdbcTemplate, timeout(2000).atLeast(2))
+                .batchUpdate(eq(LoginAuditWriter.SQL_INSERT), anyList(), anyInt(), qualquerSetter());
+        writer.stop();
+        assertThat(lotes).allSatisfy(tamanho -> assertThat(tamanho).isLessThanOrEqualTo(3));
+        assertThat(linhasGravadas()).isEqualTo(5);
+        assertThat(meterRegistry.timer("login.audit.flush").count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void stop_drainsQueue() {
+        writer = new LoginAuditWriter(jdbcTemplate, meterRegistry, 100, 200, 60_000, PoliticaOverflow.GRAVAR_SINCRONO);
+        writer.start();
+
+        writer.registrar(falha("22222222222"));
+        writer.registrar(falha("22222222222"));
+        writer.registrar(TentativaLogin.builder().cpf("22222222222").ipOrigem("127.0.0.1").sucesso(true).build());
+
+        writer.stop();
+
+        assertThat(writer.tamanhoFila()).isZero();
+        assertThat(linhasGravadas()).isEqualTo(3);
+    }
+
+    private int linhasGravadas() {
+        return lotes.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Test
+    void fullQueue_withDiscardPolicy_dropsAndCounts() {
+        writer = new LoginAuditWriter(jdbcTemplate, meterRegistry, 1, 200, 60_000, PoliticaOverflow.DESCARTAR);
+        writer.start();
+
+        for (int i = 0; i < 50; i++) {
+            writer.registrar(falha("33333333333"));
+        }
+        writer.stop();
+
+        double descartadas = meterRegistry.counter("login.audit.dropped").count();
+        assertThat(descartadas).isPositive();
+        assertThat(linhasGravadas() + (int) descartadas).isEqualTo(50);
+    }
+
+    @Test
+    void fullQueue_withSyncPolicy_losesNothing() {
+        writer = new LoginAuditWriter(jdbcTemplate, meterRegistry, 1, 200, 60_000, PoliticaOverflow.GRAVAR_SINCRONO);
+        writer.start();
+
+        for (int i = 0; i < 50; i++) {
+            writer.registrar(falha("44444444444"));
+        }
+        writer.stop();
+
+        assertThat(linhasGravadas()).isEqualTo(50);
+        assertThat(meterRegistry.counter("login.audit.dropped").count()).isZero();
+    }
+
+    @Test
+    void notStarted_writesSynchronously() {
+        writer = new LoginAuditWriter(jdbcTemplate, meterRegistry, 100, 200, 60_000, PoliticaOverflow.GRAVAR_SINCRONO);
+
+        writer.registrar(falha("55555555555"));
+
+        verify(jdbcTemplate).batchUpdate(eq(LoginAuditWriter.SQL_INSERT), anyList(), eq(1), qualquerSetter());
+        verify(jdbcTemplate, never()).update(any(String.class), any(Object[].class));
+    }
+}
@@ -27,7 +27,11 @@ import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.entity.auth.SessaoUsuario;
 import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
 import br.com.casadoamor.sgca.security.JwtUtil;
+import br.com.casadoamor.sgca.util.TokenHashUtil;
 import br.com.casadoamor.sgca.security.JwtAuthenticationFilter;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import br.com.casadoamor.sgca.security.TokenDenylist;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /*
  * Login flow: generate JWT, create session, revoke session and re-check
@@ -38,6 +42,12 @@ class SessaoLoginFlowTest {
     @Mock
     private SessaoUsuarioRepository sessaoRepository;
 
+    @Mock
+    private JwtPrincipalCache principalCache;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
     @InjectMocks
     private SessaoService sessaoService;
 
@@ -85,7 +95,7 @@ class SessaoLoginFlowTest {
                 .build();
 
     // repository returns the session when looked up by token or id
-        when(sessaoRepository.findByTokenJwt(token)).thenReturn(Optional.of(sessao));
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.of(sessao));
         when(sessaoRepository.findById(sessao.getId())).thenReturn(Optional.of(sessao));
 
     // before revocation: DB session valid and JWT valid
@@ -130,6 +140,10 @@ class SessaoLoginFlowTest {
             java.lang.reflect.Field fSess = JwtAuthenticationFilter.class.getDeclaredField("sessaoService");
             fSess.setAccessible(true);
             fSess.set(filter, sessaoService);
+
+            java.lang.reflect.Field fCache = JwtAuthenticationFilter.class.getDeclaredField("principalCache");
+            fCache.setAccessible(true);
+            fCache.set(filter, new JwtPrincipalCache(new SimpleMeterRegistry(), 100, 60));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
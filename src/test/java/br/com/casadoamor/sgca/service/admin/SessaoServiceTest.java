@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -24,18 +27,30 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.dto.SessaoDTO;
+import br.com.casadoamor.sgca.dto.admin.sessao.RevogarSessoesEmLoteDTO;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
 import br.com.casadoamor.sgca.entity.auth.SessaoUsuario;
 import br.com.casadoamor.sgca.exception.ResourceNotFoundException;
 import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.SessaoUsuarioRepository.TokenRevogado;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import br.com.casadoamor.sgca.security.TokenDenylist;
 import br.com.casadoamor.sgca.security.JwtUtil;
+import br.com.casadoamor.sgca.util.TokenHashUtil;
 
 class SessaoServiceTest {
 
     @Mock
     private SessaoUsuarioRepository sessaoRepository;
 
+    @Mock
+    private JwtPrincipalCache principalCache;
+
+    @Mock
+    private TokenDenylist tokenDenylist;
+
     @InjectMocks
     private SessaoService sessaoService;
 
@@ -155,24 +170,72 @@ class SessaoServiceTest {
     void revogarTodasSessoes_ExcludingCurrent_RevokesOthers() {
         Long userId = 3L;
         String tokenAtual = "keep";
+        LocalDateTime expiraEm = LocalDateTime.now().plusHours(1);
+
+        TokenRevogado revogado = org.mockito.Mockito.mock(TokenRevogado.class);
+        when(revogado.getTokenHash()).thenReturn(TokenHashUtil.sha256Hex("t1"));
+        when(revogado.getExpiraEm()).thenReturn(expiraEm);
 
-        AuthUsuario usuario = new AuthUsuario(); usuario.setId(userId);
+        when(sessaoRepository.revogarAtivasPorUsuarioExceto(userId, TokenHashUtil.sha256Hex(tokenAtual))).thenReturn(2);
+        when(sessaoRepository.findTokensAtivosNaoExpiradosPorUsuarioExceto(
+                eq(userId), eq(TokenHashUtil.sha256Hex(tokenAtual)), any(LocalDateTime.class)))
+                .thenReturn(List.of(revogado));
 
-        SessaoUsuario a = SessaoUsuario.builder().id(1L).usuario(usuario).tokenJwt("t1").ativo(true).expiraEm(LocalDateTime.now().plusHours(1)).build();
-        SessaoUsuario b = SessaoUsuario.builder().id(2L).usuario(usuario).tokenJwt(tokenAtual).ativo(true).expiraEm(LocalDateTime.now().plusHours(1)).build();
-        SessaoUsuario c = SessaoUsuario.builder().id(3L).usuario(usuario).tokenJwt("t3").ativo(true).expiraEm(LocalDateTime.now().plusHours(1)).build();
+        int revogadas = sessaoService.revogarTodasSessoes(userId, tokenAtual);
 
-        when(sessaoRepository.findByUsuarioIdAndAtivo(userId, true)).thenReturn(List.of(a, b, c));
+        // single set-based UPDATE, no per-row save
+        assertThat(revogadas).isEqualTo(2);
+        verify(sessaoRepository, never()).save(any(SessaoUsuario.class));
+        verify(tokenDenylist).revogar(TokenHashUtil.sha256Hex("t1"), expiraEm);
+        verify(principalCache).invalidarTokenHash(TokenHashUtil.sha256Hex("t1"));
+    }
 
-        sessaoService.revogarTodasSessoes(userId, tokenAtual);
+    @Test
+    void revogarTodasSessoes_WithoutCurrentToken_RevokesAll() {
+        Long userId = 3L;
+        when(sessaoRepository.revogarAtivasPorUsuarios(List.of(userId))).thenReturn(2);
 
-        // a and c should be revoked
-        assertThat(a.getAtivo()).isFalse();
-        assertThat(c.getAtivo()).isFalse();
-        // b should remain active
-        assertThat(b.getAtivo()).isTrue();
+        int revogadas = sessaoService.revogarTodasSessoes(userId, null);
+
+        assertThat(revogadas).isEqualTo(2);
+        verify(sessaoRepository, never()).revogarAtivasPorUsuarioExceto(anyLong(), any());
+    }
 
-        verify(sessaoRepository, times(2)).save(any(SessaoUsuario.class));
+    @Test
+    void revogarEmLote_UsuariosAndPerfil_SumsCounts() {
+        when(sessaoRepository.revogarAtivasPorUsuarios(List.of(1L, 2L))).thenReturn(3);
+        when(sessaoRepository.revogarAtivasPorPerfil(7L)).thenReturn(4);
+
+        int revogadas = sessaoService.revogarEmLote(
+                RevogarSessoesEmLoteDTO.builder().usuariosIds(List.of(1L, 2L)).perfilId(7L).build());
+
+        assertThat(revogadas).isEqualTo(7);
+    }
+
+    @Test
+    void revogarSessoesDeUsuarios_PropagatesOnlySessionsActiveBeforeUpdate() {
+        LocalDateTime expiraEm = LocalDateTime.now().plusHours(1);
+        TokenRevogado ativo = org.mockito.Mockito.mock(TokenRevogado.class);
+        when(ativo.getTokenHash()).thenReturn(TokenHashUtil.sha256Hex("t-ativo"));
+        when(ativo.getExpiraEm()).thenReturn(expiraEm);
+        when(sessaoRepository.findTokensAtivosNaoExpiradosPorUsuarios(eq(List.of(4L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(ativo));
+        when(sessaoRepository.revogarAtivasPorUsuarios(List.of(4L))).thenReturn(1);
+
+        int revogadas = sessaoService.revogarSessoesDeUsuarios(List.of(4L));
+
+        assertThat(revogadas).isEqualTo(1);
+        org.mockito.InOrder ordem = org.mockito.Mockito.inOrder(sessaoRepository, tokenDenylist);
+        ordem.verify(sessaoRepository).findTokensAtivosNaoExpiradosPorUsuarios(eq(List.of(4L)), any(LocalDateTime.class));
+        ordem.verify(sessaoRepository).revogarAtivasPorUsuarios(List.of(4L));
+        ordem.verify(tokenDenylist).revogar(TokenHashUtil.sha256Hex("t-ativo"), expiraEm);
+        // Sessões revogadas anteriormente já estão na denylist: não são relidas
+        verify(tokenDenylist, times(1)).revogar(anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void revogarEmLote_WithoutTargets_Throws() {
+        assertThrows(CustomError.class, () -> sessaoService.revogarEmLote(new RevogarSessoesEmLoteDTO()));
     }
 
     @Test
@@ -212,11 +275,13 @@ class SessaoServiceTest {
                 .expiraEm(LocalDateTime.now().plusMinutes(10))
                 .build();
 
-        when(sessaoRepository.findByTokenJwt(token)).thenReturn(Optional.of(s));
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.of(s));
 
         boolean ok = sessaoService.sessaoValida(token);
 
         assertThat(ok).isTrue();
+        // Confirmada no banco, a sessão passa a ser aceita sem nova consulta
+        verify(tokenDenylist).registrarSessao(TokenHashUtil.sha256Hex(token), s.getExpiraEm());
     }
 
     @Test
@@ -232,7 +297,7 @@ class SessaoServiceTest {
                 .expiraEm(LocalDateTime.now().minusMinutes(5))
                 .build();
 
-        when(sessaoRepository.findByTokenJwt(token)).thenReturn(Optional.of(s));
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.of(s));
 
         boolean ok = sessaoService.sessaoValida(token);
 
@@ -252,7 +317,7 @@ class SessaoServiceTest {
                 .expiraEm(LocalDateTime.now().plusMinutes(10))
                 .build();
 
-        when(sessaoRepository.findByTokenJwt(token)).thenReturn(Optional.of(s));
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.of(s));
 
         boolean ok = sessaoService.sessaoValida(token);
 
@@ -263,13 +328,60 @@ class SessaoServiceTest {
     void sessaoValida_WhenTokenNotFound_ReturnsFalse() {
         String token = "missing-token";
 
-        when(sessaoRepository.findByTokenJwt(token)).thenReturn(Optional.empty());
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.empty());
 
         boolean ok = sessaoService.sessaoValida(token);
 
         assertThat(ok).isFalse();
     }
 
+    @Test
+    void sessaoValida_WhenDenylistLoadedAndSessionKnown_SkipsDatabase() {
+        String token = "denylist-token";
+        when(tokenDenylist.isCarregada()).thenReturn(true);
+        when(tokenDenylist.isRevogado(TokenHashUtil.sha256Hex(token))).thenReturn(false);
+        when(tokenDenylist.isSessaoConhecida(TokenHashUtil.sha256Hex(token))).thenReturn(true);
+
+        assertThat(sessaoService.sessaoValida(token)).isTrue();
+        verify(sessaoRepository, never()).findByTokenHash(anyString());
+    }
+
+    @Test
+    void sessaoValida_WhenDenylistLoadedAndSessionUnknown_RejectsTokenWithoutSession() {
+        String token = "never-recorded-token";
+        when(tokenDenylist.isCarregada()).thenReturn(true);
+        when(tokenDenylist.isRevogado(TokenHashUtil.sha256Hex(token))).thenReturn(false);
+        when(sessaoRepository.findByTokenHash(TokenHashUtil.sha256Hex(token))).thenReturn(Optional.empty());
+
+        assertThat(sessaoService.sessaoValida(token)).isFalse();
+        verify(tokenDenylist, never()).registrarSessao(anyString(), any());
+    }
+
+    @Test
+    void sessaoValida_WhenTokenInDenylist_ReturnsFalse() {
+        String token = "revoked-token";
+        when(tokenDenylist.isCarregada()).thenReturn(true);
+        when(tokenDenylist.isRevogado(TokenHashUtil.sha256Hex(token))).thenReturn(true);
+
+        assertThat(sessaoService.sessaoValida(token)).isFalse();
+    }
+
+    @Test
+    void revogarSessao_AddsTokenToDenylist() {
+        AuthUsuario usuario = new AuthUsuario();
+        usuario.setId(1L);
+        LocalDateTime expiraEm = LocalDateTime.now().plusHours(1);
+
+        SessaoUsuario s = SessaoUsuario.builder()
+                .id(50L).usuario(usuario).tokenJwt("t-deny").ativo(true).expiraEm(expiraEm).build();
+        when(sessaoRepository.findById(50L)).thenReturn(Optional.of(s));
+
+        sessaoService.revogarSessao(50L, 1L);
+
+        verify(tokenDenylist).revogar(TokenHashUtil.sha256Hex("t-deny"), expiraEm);
+        verify(principalCache).invalidarToken("t-deny");
+    }
+
     @Test
     void revokingSession_doesNotInvalidate_jwtToken() {
         // create a UserDetails and token
@@ -0,0 +1,161 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais.Sexo;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioRegistroProfissional.TipoProfissional;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PerfilDoUsuario;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PermissaoDoPerfil;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository.DadosPessoaisResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository.EnderecoResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioListagemRepository.LinhaUsuario;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository.RegistroProfissionalResumo;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+
+class UserListFetchPlanTest {
+
+    private static final SpelAwareProxyProjectionFactory PROJECOES = new SpelAwareProxyProjectionFactory();
+
+    private AuthUsuarioRepository usuarioRepository;
+    private PerfilRepository perfilRepository;
+    private AuthUsuarioDadosPessoaisRepository dadosPessoaisRepository;
+    private AuthUsuarioEnderecoRepository enderecoRepository;
+    private AuthUsuarioRegistroProfissionalRepository registroProfissionalRepository;
+    private UserListFetchPlan fetchPlan;
+
+    @BeforeEach
+    void setup() {
+        usuarioRepository = mock(AuthUsuarioRepository.class);
+        perfilRepository = mock(PerfilRepository.class);
+        dadosPessoaisRepository = mock(AuthUsuarioDadosPessoaisRepository.class);
+        enderecoRepository = mock(AuthUsuarioEnderecoRepository.class);
+        registroProfissionalRepository = mock(AuthUsuarioRegistroProfissionalRepository.class);
+        fetchPlan = new UserListFetchPlan(usuarioRepository, perfilRepository, dadosPessoaisRepository,
+                enderecoRepository, registroProfissionalRepository);
+
+        when(perfilRepository.findPerfisDosUsuarios(anyCollection())).thenAnswer(inv -> {
+            List<PerfilDoUsuario> perfis = new ArrayList<>();
+            for (Long usuarioId : inv.<Collection<Long>>getArgument(0)) {
+                perfis.add(projecao(PerfilDoUsuario.class, "usuarioId", usuarioId, "id", 1L, "nome", "ADMIN"));
+                perfis.add(projecao(PerfilDoUsuario.class, "usuarioId", usuarioId, "id", 2L, "nome", "RECEPCAO"));
+            }
+            return perfis;
+        });
+        when(perfilRepository.findPermissoesDosPerfis(anyCollection())).thenReturn(List.of(
+                projecao(PermissaoDoPerfil.class, "perfilId", 1L, "id", 10L, "nome", "USER_READ"),
+                projecao(PermissaoDoPerfil.class, "perfilId", 1L, "id", 11L, "nome", "USER_WRITE"),
+                projecao(PermissaoDoPerfil.class, "perfilId", 2L, "id", 20L, "nome", "PACIENTE_READ")));
+        when(dadosPessoaisRepository.findResumosByIdIn(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).stream()
+                        .map(id -> projecao(DadosPessoaisResumo.class, "id", id, "sexo", Sexo.FEMININO))
+                        .toList());
+        when(enderecoRepository.findResumosByIdIn(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).stream()
+                        .map(id -> projecao(EnderecoResumo.class, "id", id, "cidade", "Vitória"))
+                        .toList());
+        when(registroProfissionalRepository.findResumosByUsuarioIdIn(anyCollection())).thenAnswer(inv ->
+                inv.<Collection<Long>>getArgument(0).stream()
+                        .map(usuarioId -> projecao(RegistroProfissionalResumo.class, "usuarioId", usuarioId,
+                                "id", usuarioId + 500, "tipoProfissional", TipoProfissional.values()[0]))
+                        .toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void carregarPagina_firesSameNumberOfQueriesForAnyPageSize(int tamanho) {
+        when(usuarioRepository.findLinhas(isNull(), any(Pageable.class))).thenReturn(linhas(tamanho));
+        when(usuarioRepository.count()).thenReturn(500L);
+
+        Page<UserResponseDTO> pagina = fetchPlan.carregarPagina(null, PageRequest.of(0, tamanho));
+
+        assertThat(pagina.getContent()).hasSize(tamanho);
+        assertThat(pagina.getTotalElements()).isEqualTo(500L);
+        // página, contagem, perfis, permissões, dados pessoais, endereços e registros profissionais
+        assertThat(consultas()).isEqualTo(7);
+    }
+
+    @Test
+    void carregarPagina_assemblesRelationsFromBatches() {
+        when(usuarioRepository.findLinhas(isNull(), any(Pageable.class))).thenReturn(linhas(2));
+
+        List<UserResponseDTO> usuarios = fetchPlan.carregarPagina(null, PageRequest.of(0, 20)).getContent();
+
+        UserResponseDTO primeiro = usuarios.get(0);
+        assertThat(primeiro.getTipo()).isEqualTo("ADMINISTRADOR");
+        assertThat(primeiro.getPerfis()).extracting("nome").containsExactly("ADMIN", "RECEPCAO");
+        assertThat(primeiro.getPerfis().get(0).getTotalPermissoes()).isEqualTo(2);
+        assertThat(primeiro.getDadosPessoais().getId()).isEqualTo(101L);
+        assertThat(primeiro.getDadosPessoais().getSexo()).isEqualTo("FEMININO");
+        assertThat(primeiro.getEndereco().getCidade()).isEqualTo("Vitória");
+        assertThat(primeiro.getRegistroProfissional().getId()).isEqualTo(501L);
+        // A segunda linha não tem endereço nem dados pessoais
+        assertThat(usuarios.get(1).getEndereco()).isNull();
+        assertThat(usuarios.get(1).getDadosPessoais()).isNull();
+        // Página incompleta: o total sai da própria página, sem COUNT
+        assertThat(consultas()).isEqualTo(6);
+    }
+
+    @Test
+    void carregar_withoutRows_skipsBatchQueries() {
+        when(usuarioRepository.findLinhas(isNull(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(fetchPlan.carregar(null, 11)).isEmpty();
+        assertThat(consultas()).isEqualTo(1);
+    }
+
+    /**
+     * Usuários com ID ímpar têm endereço e dados pessoais
+     */
+    private static List<LinhaUsuario> linhas(int quantidade) {
+        return LongStream.rangeClosed(1, quantidade)
+                .mapToObj(id -> new LinhaUsuario(id, "uuid-" + id, "Usuário " + id, "u" + id + "@casadoamor.org",
+                        null, null, TipoUsuario.ADMINISTRADOR, true, true, null, LocalDateTime.now(), null,
+                        id % 2 == 1 ? id + 200 : null, id % 2 == 1 ? id + 100 : null))
+                .toList();
+    }
+
+    private int consultas() {
+        return mockingDetails(usuarioRepository).getInvocations().size()
+                + mockingDetails(perfilRepository).getInvocations().size()
+                + mockingDetails(dadosPessoaisRepository).getInvocations().size()
+                + mockingDetails(enderecoRepository).getInvocations().size()
+                + mockingDetails(registroProfissionalRepository).getInvocations().size();
+    }
+
+    private static <T> T projecao(Class<T> tipo, Object... valores) {
+        Map<String, Object> propriedades = new HashMap<>();
+        for (int i = 0; i < valores.length; i += 2) {
+            propriedades.put((String) valores[i], valores[i + 1]);
+        }
+        return PROJECOES.createProjection(tipo, propriedades);
+    }
+}
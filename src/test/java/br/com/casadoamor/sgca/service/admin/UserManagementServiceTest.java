@@ -0,0 +1,120 @@
+package br.com.casadoamor.sgca.service.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import br.com.casadoamor.sgca.dto.admin.user.UpdateUserDTO;
+import br.com.casadoamor.sgca.dto.admin.user.UserResponseDTO;
+import br.com.casadoamor.sgca.dto.auth.AuthUsuarioDadosPessoaisDTO;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuarioDadosPessoais;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioDadosPessoaisRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioEnderecoRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRegistroProfissionalRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import br.com.casadoamor.sgca.service.auth.AccountActivationService;
+import br.com.casadoamor.sgca.service.auth.CompiledPermissionModel;
+
+class UserManagementServiceTest {
+
+    @Mock
+    private AuthUsuarioRepository usuarioRepository;
+    @Mock
+    private PerfilRepository perfilRepository;
+    @Mock
+    private SessaoService sessaoService;
+    @Mock
+    private AccountActivationService accountActivationService;
+    @Mock
+    private AuthUsuarioEnderecoRepository enderecoRepository;
+    @Mock
+    private AuthUsuarioDadosPessoaisRepository dadosPessoaisRepository;
+    @Mock
+    private AuthUsuarioRegistroProfissionalRepository registroProfissionalRepository;
+    @Mock
+    private JwtPrincipalCache principalCache;
+    @Mock
+    private CompiledPermissionModel permissionModel;
+    @Mock
+    private CursorCodec cursorCodec;
+    @Mock
+    private PaginatedResponseMapper paginatedMapper;
+    @Mock
+    private UserListFetchPlan listFetchPlan;
+
+    @InjectMocks
+    private UserManagementService service;
+
+    private AuthUsuario usuario;
+    private AuthUsuarioDadosPessoais dadosPessoais;
+    private boolean contextoLimpo;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        dadosPessoais = AuthUsuarioDadosPessoais.builder().id(101L).build();
+        usuario = AuthUsuario.builder().id(1L).cpf("12345678900").nome("Usuária").ativo(true)
+                .dadosPessoais(dadosPessoais).build();
+        AuthUsuario admin = AuthUsuario.builder().id(2L).cpf("98765432100").build();
+
+        when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
+        when(usuarioRepository.findById(2L)).thenReturn(Optional.of(admin));
+        when(usuarioRepository.save(any(AuthUsuario.class))).thenAnswer(inv -> {
+            assertThat(contextoLimpo).as("save depois da revogação (contexto limpo)").isFalse();
+            return inv.getArgument(0);
+        });
+        when(dadosPessoaisRepository.save(any(AuthUsuarioDadosPessoais.class))).thenAnswer(inv -> {
+            assertThat(contextoLimpo).as("dados pessoais depois da revogação (contexto limpo)").isFalse();
+            return inv.getArgument(0);
+        });
+        // A revogação em lote (clearAutomatically) desanexa as entidades carregadas
+        doAnswer(inv -> {
+            contextoLimpo = true;
+            return 1;
+        }).when(sessaoService).revogarTodasSessoes(anyLong());
+    }
+
+    @Test
+    void atualizarUsuario_deactivateWithPersonalData_revokesSessionsLast() {
+        AuthUsuarioDadosPessoaisDTO novosDados = new AuthUsuarioDadosPessoaisDTO();
+        novosDados.setProfissao("Enfermeira");
+
+        UserResponseDTO resposta = service.atualizarUsuario(1L,
+                UpdateUserDTO.builder().ativo(false).dadosPessoais(novosDados).build(), 2L);
+
+        assertThat(resposta.getAtivo()).isFalse();
+        assertThat(dadosPessoais.getProfissao()).isEqualTo("Enfermeira");
+        InOrder ordem = inOrder(dadosPessoaisRepository, usuarioRepository, sessaoService);
+        ordem.verify(dadosPessoaisRepository).save(dadosPessoais);
+        ordem.verify(usuarioRepository).save(usuario);
+        ordem.verify(sessaoService).revogarTodasSessoes(1L);
+    }
+
+    @Test
+    void atualizarUsuario_alreadyInactive_doesNotRevoke() {
+        usuario.setAtivo(false);
+
+        service.atualizarUsuario(1L, UpdateUserDTO.builder().ativo(false).build(), 2L);
+
+        verify(sessaoService, never()).revogarTodasSessoes(anyLong());
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.casadoamor.sgca.service.auth;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -8,8 +9,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 
@@ -37,6 +41,9 @@ class AuthServiceTest {
     @Mock private br.com.casadoamor.sgca.service.admin.SessaoService sessaoService;
     @Mock private br.com.casadoamor.sgca.service.auth.HistoricoSenhaService historicoSenhaService;
     @Mock private TwoFactorService twoFactorService;
+    @Mock private br.com.casadoamor.sgca.security.JwtPrincipalCache principalCache;
+    @Mock private br.com.casadoamor.sgca.security.JwtPermissionClaims permissionClaims;
+    @Mock private CompiledPermissionModel permissionModel;
 
     @InjectMocks
     private AuthService authService;
@@ -76,6 +83,8 @@ class AuthServiceTest {
         assertThat(resp.getToken()).isEqualTo("jwt-token");
         assertThat(resp.getEmail()).isEqualTo(req.getEmail());
         assertThat(resp.getNome()).isEqualTo(req.getNome());
+        // O token devolvido precisa de sessão para autenticar
+        verify(sessaoService).criarSessao(eq(saved), eq("jwt-token"), isNull(), isNull(), any(LocalDateTime.class));
     }
 
     @Test
@@ -0,0 +1,147 @@
+package br.com.casadoamor.sgca.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.casadoamor.sgca.entity.admin.Permissao;
+import br.com.casadoamor.sgca.entity.auth.AuthUsuario.TipoUsuario;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository;
+import br.com.casadoamor.sgca.repository.admin.PerfilRepository.PerfilPermissao;
+import br.com.casadoamor.sgca.repository.admin.PermissaoRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
+import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository.PerfilDoUsuario;
+import br.com.casadoamor.sgca.security.JwtPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CompiledPermissionModelTest {
+
+    private PermissaoRepository permissaoRepository;
+    private PerfilRepository perfilRepository;
+    private AuthUsuarioRepository usuarioRepository;
+    private CompiledPermissionModel model;
+
+    private final List<PerfilPermissao> pares = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        permissaoRepository = mock(PermissaoRepository.class);
+        perfilRepository = mock(PerfilRepository.class);
+        usuarioRepository = mock(AuthUsuarioRepository.class);
+
+        when(permissaoRepository.findAllAtivas()).thenReturn(List.of(
+                permissao(1L, "PACIENTE_READ"),
+                permissao(2L, "PACIENTE_WRITE"),
+                permissao(3L, "USER_READ")));
+
+        // perfil 10: PACIENTE_READ, PACIENTE_WRITE | perfil 20: USER_READ
+        pares.add(par(10L, 1L));
+        pares.add(par(10L, 2L));
+        pares.add(par(20L, 3L));
+        when(perfilRepository.findParesPerfilPermissaoAtivos()).thenAnswer(inv -> List.copyOf(pares));
+
+        List<PerfilDoUsuario> recepcionista = List.of(perfilDoUsuario(TipoUsuario.RECEPCIONISTA, 10L));
+        List<PerfilDoUsuario> administrador = List.of(perfilDoUsuario(TipoUsuario.ADMINISTRADOR, 10L),
+                perfilDoUsuario(TipoUsuario.ADMINISTRADOR, 20L));
+        when(usuarioRepository.findPerfisDoUsuarioByCpf("11111111111")).thenReturn(recepcionista);
+        when(usuarioRepository.findPerfisDoUsuarioByCpf("22222222222")).thenReturn(administrador);
+
+        model = new CompiledPermissionModel(permissaoRepository, perfilRepository, usuarioRepository,
+                mock(JwtPrincipalCache.class), new SimpleMeterRegistry(), 100, 300);
+        model.reconstruir();
+    }
+
+    private static Permissao permissao(Long id, String nome) {
+        Permissao p = new Permissao();
+        p.setId(id);
+        p.setNome(nome);
+        return p;
+    }
+
+    private static PerfilPermissao par(Long perfilId, Long permissaoId) {
+        PerfilPermissao par = mock(PerfilPermissao.class);
+        when(par.getPerfilId()).thenReturn(perfilId);
+        when(par.getPermissaoId()).thenReturn(permissaoId);
+        return par;
+    }
+
+    private static PerfilDoUsuario perfilDoUsuario(TipoUsuario tipo, Long perfilId) {
+        PerfilDoUsuario linha = mock(PerfilDoUsuario.class);
+        when(linha.getTipo()).thenReturn(tipo);
+        when(linha.getAtivo()).thenReturn(true);
+        when(linha.getPerfilId()).thenReturn(perfilId);
+        return linha;
+    }
+
+    @Test
+    void temPermissao_usesUnionOfProfiles() {
+        assertThat(model.temPermissao("11111111111", "PACIENTE_READ")).isTrue();
+        assertThat(model.temPermissao("11111111111", "USER_READ")).isFalse();
+        assertThat(model.temPermissao("22222222222", "USER_READ")).isTrue();
+        assertThat(model.temPermissao("11111111111", "INEXISTENTE")).isFalse();
+    }
+
+    @Test
+    void temTodas_and_temAlguma() {
+        assertThat(model.temTodas("11111111111", "PACIENTE_READ", "PACIENTE_WRITE")).isTrue();
+        assertThat(model.temTodas("11111111111", "PACIENTE_READ", "USER_READ")).isFalse();
+        assertThat(model.temAlguma("11111111111", "USER_READ", "PACIENTE_WRITE")).isTrue();
+        assertThat(model.temAlguma("11111111111", "USER_READ")).isFalse();
+    }
+
+    @Test
+    void userIsLoadedOnceForMultipleChecks() {
+        model.temTodas("11111111111", "PACIENTE_READ", "PACIENTE_WRITE");
+        model.temPermissao("11111111111", "PACIENTE_READ");
+        model.temAlguma("11111111111", "USER_READ");
+
+        verify(usuarioRepository, times(1)).findPerfisDoUsuarioByCpf("11111111111");
+    }
+
+    @Test
+    void unknownUser_hasNoPermissions() {
+        when(usuarioRepository.findPerfisDoUsuarioByCpf("00000000000")).thenReturn(List.of());
+
+        assertThat(model.temPermissao("00000000000", "PACIENTE_READ")).isFalse();
+        assertThat(model.permissoesDoUsuario("00000000000")).isNull();
+    }
+
+    @Test
+    void reconstruir_afterProfileChange_updatesVersionAndUsers() {
+        long versaoAntes = model.getVersao();
+        assertThat(model.temPermissao("11111111111", "USER_READ")).isFalse();
+
+        PerfilPermissao novoPar = par(10L, 3L);
+        pares.add(novoPar);
+        model.reconstruir();
+
+        assertThat(model.getVersao()).isNotEqualTo(versaoAntes);
+        assertThat(model.temPermissao("11111111111", "USER_READ")).isTrue();
+    }
+
+    @Test
+    void reconstruir_withoutChanges_keepsVersion() {
+        long versaoAntes = model.getVersao();
+
+        model.reconstruir();
+
+        assertThat(model.getVersao()).isEqualTo(versaoAntes);
+    }
+
+    @Test
+    void nomes_decodesBits() {
+        var usuario = model.permissoesDoUsuario("22222222222");
+
+        assertThat(model.nomes(usuario.bits()))
+                .containsExactlyInAnyOrder("PACIENTE_READ", "PACIENTE_WRITE", "USER_READ");
+        assertThat(usuario.tipo()).isEqualTo(TipoUsuario.ADMINISTRADOR);
+    }
+}
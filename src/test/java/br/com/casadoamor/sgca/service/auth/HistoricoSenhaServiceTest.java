@@ -1,22 +1,35 @@
 package br.com.casadoamor.sgca.service.auth;
 
 import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import br.com.casadoamor.sgca.config.exception.CustomError;
 import br.com.casadoamor.sgca.entity.auth.HistoricoSenha;
 import br.com.casadoamor.sgca.repository.auth.HistoricoSenhaRepository;
+import br.com.casadoamor.sgca.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 class HistoricoSenhaServiceTest {
 
@@ -26,6 +39,9 @@ class HistoricoSenhaServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private HistoricoSenhaService service;
 
@@ -41,6 +57,33 @@ class HistoricoSenhaServiceTest {
         }
     }
 
+    private HistoricoSenhaService serviceComEncoderLimitado(PasswordEncoder delegate, int threads, long timeoutMs) throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, meterRegistry, threads, 50, 10_000);
+        HistoricoSenhaService paralelo = new HistoricoSenhaService(historicoRepo, encoder, meterRegistry);
+        var quantidade = HistoricoSenhaService.class.getDeclaredField("quantidadeSenhasVerificar");
+        quantidade.setAccessible(true);
+        quantidade.setInt(paralelo, 24);
+        var timeout = HistoricoSenhaService.class.getDeclaredField("timeoutVerificacaoMs");
+        timeout.setAccessible(true);
+        timeout.setLong(paralelo, timeoutMs);
+        return paralelo;
+    }
+
+    private void historicoComHashes(List<String> hashes) {
+        List<HistoricoSenha> historico = IntStream.range(0, hashes.size())
+                .mapToObj(i -> HistoricoSenha.builder().id((long) i).usuarioId(1L).senhaHash(hashes.get(i)).build())
+                .toList();
+        when(historicoRepo.findTopNByUsuarioIdOrderByCriadoEmDesc(anyLong(), any(PageRequest.class))).thenReturn(historico);
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Test
     void salvarHistorico_CallsSave() {
         when(historicoRepo.save(any(HistoricoSenha.class))).thenAnswer(i -> i.getArgument(0));
@@ -88,4 +131,49 @@ class HistoricoSenhaServiceTest {
 
         assertThat(c).isEqualTo(3L);
     }
+
+    @Test
+    void senhaJaUsada_BoundedEncoder_ChecksHistoryInParallel() throws Exception {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+        historicoComHashes(IntStream.range(0, 6).mapToObj(i -> bcrypt.encode("antiga" + i)).toList());
+        HistoricoSenhaService paralelo = serviceComEncoderLimitado(bcrypt, 3, 5_000);
+
+        assertThat(paralelo.senhaJaUsada(1L, "antiga5")).isTrue();
+        assertThat(paralelo.senhaJaUsada(1L, "nova")).isFalse();
+        assertThat(meterRegistry.get("password.history.check").timers()).hasSize(2);
+    }
+
+    @Test
+    void senhaJaUsada_FirstMatch_CancelsQueuedComparisons() throws Exception {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(CharSequence.class), eq("h0"))).thenReturn(true);
+        when(delegate.matches(any(CharSequence.class), startsWith("x"))).thenAnswer(inv -> {
+            dormir(200);
+            return false;
+        });
+        historicoComHashes(List.of("h0", "x1", "x2", "x3", "x4", "x5"));
+        HistoricoSenhaService paralelo = serviceComEncoderLimitado(delegate, 1, 5_000);
+
+        assertThat(paralelo.senhaJaUsada(1L, "senha")).isTrue();
+
+        // Com uma única thread, no máximo a comparação seguinte chega a começar
+        dormir(300);
+        verify(delegate, atMost(2)).matches(any(CharSequence.class), any(String.class));
+        assertThat(meterRegistry.get("password.history.cancelled").counter().count()).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    void senhaJaUsada_BudgetExceeded_FailsWithServiceUnavailable() throws Exception {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(CharSequence.class), any(String.class))).thenAnswer(inv -> {
+            dormir(500);
+            return false;
+        });
+        historicoComHashes(List.of("h0", "h1"));
+        HistoricoSenhaService paralelo = serviceComEncoderLimitado(delegate, 1, 50);
+
+        assertThatThrownBy(() -> paralelo.senhaJaUsada(1L, "senha"))
+                .isInstanceOf(CustomError.class)
+                .satisfies(e -> assertThat(((CustomError) e).getHttpStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
 }
@@ -0,0 +1,114 @@
+package br.com.casadoamor.sgca.service.auth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.casadoamor.sgca.entity.auth.Autenticacao2FARateLimit;
+import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARateLimitRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoFactorSendThrottleTest {
+
+    private Autenticacao2FARateLimitRepository repository;
+    private JdbcTemplate jdbcTemplate;
+    private TwoFactorSendThrottle throttle;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(Autenticacao2FARateLimitRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        throttle = new TwoFactorSendThrottle(repository, jdbcTemplate, new SimpleMeterRegistry(), 1000);
+    }
+
+    @Test
+    void firstSend_isAllowedWithoutTouchingDatabase() {
+        assertThatCode(() -> throttle.verificar(1L)).doesNotThrowAnyException();
+        throttle.registrarEnvio(1L);
+
+        verifyNoInteractions(repository, jdbcTemplate);
+        assertThat(throttle.quantidadePendentes()).isEqualTo(1);
+    }
+
+    @Test
+    void resendWithinMinimumInterval_isRejected() {
+        throttle.verificar(1L);
+        throttle.registrarEnvio(1L);
+
+        assertThatThrownBy(() -> throttle.verificar(1L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Limite de envios excedido");
+    }
+
+    @Test
+    void gravarPendentes_writesBatchAndClearsQueue() {
+        throttle.registrarEnvio(1L);
+        throttle.registrarEnvio(2L);
+        throttle.registrarEnvio(1L);
+
+        throttle.gravarPendentes();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> lote = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(TwoFactorSendThrottle.SQL_UPSERT), lote.capture());
+        assertThat(lote.getValue()).hasSize(2);
+        Object[] usuario1 = lote.getValue().stream().filter(l -> l[0].equals(1L)).findFirst().orElseThrow();
+        assertThat(usuario1[2]).isEqualTo(2);
+        assertThat(throttle.quantidadePendentes()).isZero();
+    }
+
+    @Test
+    void gravarPendentes_withoutChanges_doesNothing() {
+        throttle.gravarPendentes();
+
+        verify(jdbcTemplate, never()).batchUpdate(any(String.class), anyList());
+    }
+
+    @Test
+    void gravarPendentes_failure_keepsStatesForNextFlush() {
+        throttle.registrarEnvio(1L);
+        when(jdbcTemplate.batchUpdate(eq(TwoFactorSendThrottle.SQL_UPSERT), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Banco inacessível"));
+
+        throttle.gravarPendentes();
+
+        assertThat(throttle.quantidadePendentes()).isEqualTo(1);
+    }
+
+    @Test
+    void carregar_restoresRecentStateFromDatabase() {
+        Autenticacao2FARateLimit salvo = new Autenticacao2FARateLimit();
+        salvo.setUsuarioId(5L);
+        salvo.setUltimoEnvio(LocalDateTime.now().minusMinutes(5));
+        salvo.setTentativasUltimos15Min(3);
+        salvo.setTentativasUltimaHora(3);
+        salvo.setTentativasHoje(3);
+        when(repository.findByUltimoEnvioAfterOrBloqueadoAteAfter(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(salvo));
+
+        throttle.carregar();
+
+        assertThatThrownBy(() -> throttle.verificar(5L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Limite de envios excedido");
+        // O bloqueio de 15 minutos aplicado é gravado para sobreviver a reinicializações
+        assertThat(throttle.quantidadePendentes()).isEqualTo(1);
+    }
+}
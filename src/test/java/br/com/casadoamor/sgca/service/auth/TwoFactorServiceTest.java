@@ -15,9 +15,7 @@ import org.mockito.MockitoAnnotations;
 
 import br.com.casadoamor.sgca.dto.twofactor.Setup2FADTO;
 import br.com.casadoamor.sgca.entity.auth.Autenticacao2FA;
-import br.com.casadoamor.sgca.entity.auth.Autenticacao2FARateLimit;
 import br.com.casadoamor.sgca.entity.auth.AuthUsuario;
-import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARateLimitRepository;
 import br.com.casadoamor.sgca.repository.auth.Autenticacao2FARepository;
 import br.com.casadoamor.sgca.repository.auth.AuthUsuarioRepository;
 import br.com.casadoamor.sgca.service.common.EmailService;
@@ -28,7 +26,7 @@ class TwoFactorServiceTest {
     private Autenticacao2FARepository autenticacao2FARepository;
 
     @Mock
-    private Autenticacao2FARateLimitRepository rateLimitRepository;
+    private TwoFactorSendThrottle sendThrottle;
 
     @Mock
     private AuthUsuarioRepository authUsuarioRepository;
@@ -53,14 +51,13 @@ class TwoFactorServiceTest {
 
         when(authUsuarioRepository.findById(userId)).thenReturn(Optional.of(usuario));
         when(autenticacao2FARepository.findByUsuarioId(userId)).thenReturn(Optional.empty());
-        when(rateLimitRepository.findByUsuarioId(userId)).thenReturn(Optional.empty());
-
         Setup2FADTO dto = twoFactorService.configurar2FA(userId);
 
         // Should return a message containing masked email
         assertThat(dto.getMensagem()).contains("***@example.com");
         verify(autenticacao2FARepository).save(org.mockito.Mockito.any(Autenticacao2FA.class));
     verify(emailService).send2FACode(org.mockito.Mockito.eq("usuario@example.com"), org.mockito.Mockito.anyString());
+        verify(sendThrottle).registrarEnvio(userId);
     }
 
     @Test
@@ -128,12 +125,9 @@ class TwoFactorServiceTest {
     @Test
     void configurar2FA_RateLimitExceeded_ThrowsException() {
         Long userId = 6L;
-        // rate limit present and blocked
-        Autenticacao2FARateLimit rate = new Autenticacao2FARateLimit();
-        rate.setUsuarioId(userId);
-        rate.setBloqueadoAte(java.time.LocalDateTime.now().plusMinutes(10));
-
-        when(rateLimitRepository.findByUsuarioId(userId)).thenReturn(Optional.of(rate));
+        // rate limit blocked
+        org.mockito.Mockito.doThrow(new RuntimeException("Limite de envios excedido. Por favor, aguarde 10 minutos"))
+                .when(sendThrottle).verificar(userId);
 
         // auth user exists
         AuthUsuario usuario = new AuthUsuario();
@@ -144,6 +138,7 @@ class TwoFactorServiceTest {
         // expect rate limit exception
         RuntimeException ex = assertThrows(RuntimeException.class, () -> twoFactorService.configurar2FA(userId));
         assertThat(ex.getMessage()).isNotNull();
+        verify(emailService, org.mockito.Mockito.never()).send2FACode(org.mockito.Mockito.anyString(), org.mockito.Mockito.anyString());
     }
 
     @Test
@@ -151,8 +146,6 @@ class TwoFactorServiceTest {
         Long userId = 7L;
         String email = "fail@example.com";
 
-        // rate limit empty -> ok
-        when(rateLimitRepository.findByUsuarioId(userId)).thenReturn(Optional.empty());
         when(autenticacao2FARepository.findByUsuarioId(userId)).thenReturn(Optional.empty());
 
         // simulate email sending failure
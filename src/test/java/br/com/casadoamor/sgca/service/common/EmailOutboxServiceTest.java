@@ -0,0 +1,155 @@
+package br.com.casadoamor.sgca.service.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.StatusEmail;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.TipoEmail;
+import br.com.casadoamor.sgca.repository.common.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailOutboxServiceTest {
+
+    private EmailOutboxRepository repository;
+    private ApplicationEventPublisher eventPublisher;
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(EmailOutboxRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new EmailOutboxService(repository, eventPublisher, new SimpleMeterRegistry(),
+                3, 1000, 60000, 300000, 30);
+        when(repository.save(any(EmailOutbox.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void enfileirar_savesPendingWithTypePriorityAndNotifiesWorkers() {
+        service.enfileirar("usuario@casadoamor.test", "Código", "<p>123456</p>", true, TipoEmail.CODIGO_2FA);
+
+        ArgumentCaptor<EmailOutbox> salvo = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(repository).save(salvo.capture());
+        assertThat(salvo.getValue().getStatus()).isEqualTo(StatusEmail.PENDENTE);
+        assertThat(salvo.getValue().getPrioridade()).isZero();
+        assertThat(salvo.getValue().getHtml()).isTrue();
+        verify(eventPublisher).publishEvent(any(EmailOutboxService.EmailEnfileirado.class));
+    }
+
+    @Test
+    void reservar_marksEmailsAsSendingWithLease() {
+        EmailOutbox email = email(StatusEmail.PENDENTE, 0);
+        when(repository.findProntosParaEnvio(any(LocalDateTime.class), anyInt())).thenReturn(List.of(email));
+        when(repository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<EmailOutbox> reservados = service.reservar(10);
+
+        assertThat(reservados).containsExactly(email);
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.ENVIANDO);
+        assertThat(email.getReservadoAte()).isAfter(LocalDateTime.now().plusMinutes(4));
+    }
+
+    @Test
+    void registrarFalha_reschedulesWithBackoff() {
+        EmailOutbox email = email(StatusEmail.ENVIANDO, 1);
+        when(repository.findById(1L)).thenReturn(Optional.of(email));
+
+        service.registrarFalha(1L, "Connection refused");
+
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.PENDENTE);
+        assertThat(email.getTentativas()).isEqualTo(2);
+        assertThat(email.getUltimoErro()).isEqualTo("Connection refused");
+        // Segunda tentativa: base * 2
+        assertThat(email.getProximaTentativaEm()).isAfter(LocalDateTime.now().plusNanos(1_500_000_000L));
+        assertThat(email.getReservadoAte()).isNull();
+    }
+
+    @Test
+    void registrarFalha_lastAttempt_movesToDeadLetter() {
+        EmailOutbox email = email(StatusEmail.ENVIANDO, 2);
+        when(repository.findById(1L)).thenReturn(Optional.of(email));
+
+        service.registrarFalha(1L, "550 Mailbox unavailable");
+
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.FALHA);
+        assertThat(email.getTentativas()).isEqualTo(3);
+        assertThat(email.getCorpo()).isNull();
+    }
+
+    @Test
+    void registrarFalha_retry_keepsBody() {
+        EmailOutbox email = email(StatusEmail.ENVIANDO, 0);
+        when(repository.findById(1L)).thenReturn(Optional.of(email));
+
+        service.registrarFalha(1L, "Connection refused");
+
+        assertThat(email.getCorpo()).isEqualTo("Corpo");
+    }
+
+    @Test
+    void marcarEnviado_setsSentStatus() {
+        EmailOutbox email = email(StatusEmail.ENVIANDO, 0);
+        when(repository.findById(1L)).thenReturn(Optional.of(email));
+
+        service.marcarEnviado(1L);
+
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+        assertThat(email.getEnviadoEm()).isNotNull();
+        assertThat(email.getCorpo()).isNull();
+    }
+
+    @Test
+    void removerFinalizados_deletesInBatchesOlderThanRetention() {
+        when(repository.deleteFinalizadosAntesDe(any(LocalDateTime.class), anyInt())).thenReturn(1000, 1000, 7);
+
+        assertThat(service.removerFinalizados()).isEqualTo(2007);
+
+        ArgumentCaptor<LocalDateTime> limite = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, times(3)).deleteFinalizadosAntesDe(limite.capture(), eq(1000));
+        assertThat(limite.getValue()).isBefore(LocalDateTime.now().minusDays(29));
+        assertThat(limite.getValue()).isAfter(LocalDateTime.now().minusDays(31));
+    }
+
+    @Test
+    void calcularEspera_growsExponentiallyUpToMaximum() {
+        Duration base = Duration.ofSeconds(30);
+        Duration maximo = Duration.ofHours(1);
+
+        assertThat(EmailOutboxService.calcularEspera(1, base, maximo)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(EmailOutboxService.calcularEspera(2, base, maximo)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(EmailOutboxService.calcularEspera(4, base, maximo)).isEqualTo(Duration.ofSeconds(240));
+        assertThat(EmailOutboxService.calcularEspera(20, base, maximo)).isEqualTo(maximo);
+        assertThat(EmailOutboxService.calcularEspera(100, base, maximo)).isEqualTo(maximo);
+    }
+
+    private static EmailOutbox email(StatusEmail status, int tentativas) {
+        return EmailOutbox.builder()
+                .id(1L)
+                .destinatario("usuario@casadoamor.test")
+                .assunto("Assunto")
+                .corpo("Corpo")
+                .tipo(TipoEmail.GERAL)
+                .prioridade(TipoEmail.GERAL.getPrioridade())
+                .status(status)
+                .tentativas(tentativas)
+                .proximaTentativaEm(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.casadoamor.sgca.service.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.TipoEmail;
+import br.com.casadoamor.sgca.service.imp.SmtpEmailSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailOutboxWorkerTest {
+
+    private EmailOutboxService outboxService;
+    private SmtpEmailSender sender;
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setup() {
+        outboxService = mock(EmailOutboxService.class);
+        sender = mock(SmtpEmailSender.class);
+        // Intervalo longo: só o aviso de novo email dispara uma nova reserva
+        worker = new EmailOutboxWorker(outboxService, sender, new SimpleMeterRegistry(), 2, 10, 60000);
+    }
+
+    @AfterEach
+    void teardown() {
+        worker.stop();
+    }
+
+    @Test
+    void enqueuedEmail_isDeliveredAndMarkedSent() {
+        EmailOutbox email = email(1L, TipoEmail.CODIGO_2FA);
+        when(outboxService.reservar(anyInt()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(email))
+                .thenReturn(List.of());
+        doAnswer(inv -> {
+            inv.<SmtpEmailSender.ResultadoEnvio>getArgument(2).enviado(inv.getArgument(0));
+            return null;
+        }).when(sender).enviarEmLote(eq(email), any(), any());
+
+        worker.start();
+        worker.aoEnfileirar(new EmailOutboxService.EmailEnfileirado(1L, TipoEmail.CODIGO_2FA));
+
+        verify(outboxService, timeout(2000)).marcarEnviado(1L);
+    }
+
+    @Test
+    void deliveryFailure_isRecordedForRetry() {
+        EmailOutbox email = email(2L, TipoEmail.GERAL);
+        when(outboxService.reservar(anyInt()))
+                .thenReturn(List.of(email))
+                .thenReturn(List.of());
+        doAnswer(inv -> {
+            inv.<SmtpEmailSender.ResultadoEnvio>getArgument(2).falhou(inv.getArgument(0), new MailSendException("Connection refused"));
+            return null;
+        }).when(sender).enviarEmLote(eq(email), any(), any());
+
+        worker.start();
+
+        verify(outboxService, timeout(2000)).registrarFalha(eq(2L), startsWith("MailSendException"));
+        verify(outboxService, never()).marcarEnviado(2L);
+    }
+
+    @Test
+    void entregas_areOrderedByPriorityThenArrival() {
+        PriorityBlockingQueue<EmailOutboxWorker.Entrega> fila = new PriorityBlockingQueue<>();
+        fila.add(new EmailOutboxWorker.Entrega(email(1L, TipoEmail.GERAL), worker));
+        fila.add(new EmailOutboxWorker.Entrega(email(3L, TipoEmail.CODIGO_2FA), worker));
+        fila.add(new EmailOutboxWorker.Entrega(email(2L, TipoEmail.ATIVACAO_CONTA), worker));
+        fila.add(new EmailOutboxWorker.Entrega(email(4L, TipoEmail.ATIVACAO_CONTA), worker));
+
+        assertThat(fila.poll().email().getId()).isEqualTo(3L);
+        assertThat(fila.poll().email().getId()).isEqualTo(2L);
+        assertThat(fila.poll().email().getId()).isEqualTo(4L);
+        assertThat(fila.poll().email().getId()).isEqualTo(1L);
+    }
+
+    private static EmailOutbox email(Long id, TipoEmail tipo) {
+        return EmailOutbox.builder()
+                .id(id)
+                .destinatario("usuario@casadoamor.test")
+                .assunto("Assunto")
+                .corpo("Corpo")
+                .tipo(tipo)
+                .prioridade(tipo.getPrioridade())
+                .build();
+    }
+}
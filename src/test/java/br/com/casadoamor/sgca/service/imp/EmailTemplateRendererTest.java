@@ -0,0 +1,173 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.IContext;
+
+import br.com.casadoamor.sgca.service.imp.EmailTemplateRenderer.ModeloEmail;
+
+/**
+ * Paridade dos templates com os corpos montados antes por concatenação no EmailServiceImp
+ */
+class EmailTemplateRendererTest {
+
+    private static EmailTemplateRenderer renderer;
+
+    @BeforeAll
+    static void setup() {
+        // Mesma engine que a aplicação recebe: autoconfigurada a partir de spring.thymeleaf.*
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ThymeleafAutoConfiguration.class))
+                .withBean(EmailTemplateRenderer.class)
+                .run(contexto -> renderer = contexto.getBean(EmailTemplateRenderer.class));
+    }
+
+    @Test
+    void verificacao_matchesLegacyBody() {
+        String legado = """
+                <html>
+                <body style="font-family: Arial, sans-serif;">
+                    <h2>Verificação de Email</h2>
+                    <p>Seu código de verificação é:</p>
+                    <h1 style="color: #4CAF50; letter-spacing: 5px;">%s</h1>
+                    <p>Este código expira em 15 minutos.</p>
+                    <p>Se você não solicitou esta verificação, ignore este email.</p>
+                </body>
+                </html>
+                """.formatted("482913");
+
+        assertThat(renderer.renderizar(ModeloEmail.VERIFICACAO, "482913")).isEqualTo(legado);
+    }
+
+    @Test
+    void codigo2fa_matchesLegacyBody() {
+        String legado = """
+                <html>
+                <body style="font-family: Arial, sans-serif;">
+                    <h2>Código de Autenticação de Dois Fatores</h2>
+                    <p>Seu código 2FA é:</p>
+                    <h1 style="color: #2196F3; letter-spacing: 5px;">%s</h1>
+                    <p>Este código expira em 5 minutos.</p>
+                </body>
+                </html>
+                """.formatted("007351");
+
+        assertThat(renderer.renderizar(ModeloEmail.CODIGO_2FA, "007351")).isEqualTo(legado);
+    }
+
+    @Test
+    void redefinicaoSenha_matchesLegacyBody() {
+        String link = "http://localhost:3000/reset-password?token=3f2a9c1e-7b4d-4e8a-9f00-1c2d3e4f5a6b";
+        String legado = """
+                <html>
+                <body style="font-family: Arial, sans-serif;">
+                    <h2>Redefinição de Senha</h2>
+                    <p>Você solicitou a redefinição de sua senha.</p>
+                    <p>Clique no link abaixo para redefinir:</p>
+                    <a href="%s" style="background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px;">
+                        Redefinir Senha
+                    </a>
+                    <p>Este link expira em 1 hora.</p>
+                    <p>Se você não solicitou esta redefinição, ignore este email.</p>
+                </body>
+                </html>
+                """
+                .formatted(link);
+
+        assertThat(renderer.renderizar(ModeloEmail.REDEFINICAO_SENHA, link)).isEqualTo(legado);
+    }
+
+    @Test
+    void recuperacaoConta_matchesLegacyBody() {
+        String link = "http://localhost:3000/recuperar-conta?token=abc123";
+        String legado = """
+                <html>
+                <body style="font-family: Arial, sans-serif;">
+                    <h2>Recuperação de Conta</h2>
+                    <p>Clique no link abaixo para recuperar sua conta:</p>
+                    <a href="%s" style="background-color: #2196F3; color: white; padding: 10px 20px; text-decoration: none; border-radius: 5px;">
+                        Recuperar Conta
+                    </a>
+                    <p>Este link expira em 24 horas.</p>
+                </body>
+                </html>
+                """
+                .formatted(link);
+
+        assertThat(renderer.renderizar(ModeloEmail.RECUPERACAO_CONTA, link)).isEqualTo(legado);
+    }
+
+    @Test
+    void ativacaoConta_matchesLegacyBody() {
+        String link = "http://localhost:3000/activate-account?token=tok-123";
+        String legado = String.format(
+            "Olá %s,\n\n" +
+            "Sua conta foi criada no sistema SGCA - Casa do Amor!\n\n" +
+            "Para ativar sua conta e definir sua senha definitiva, clique no link abaixo:\n" +
+            "%s\n\n" +
+            "Seus dados temporários:\n" +
+            "Email: %s\n" +
+            "Senha temporária: %s\n\n" +
+            "IMPORTANTE:\n" +
+            "- Este link expira em 24 horas\n" +
+            "- Você precisará da senha temporária para ativar a conta\n" +
+            "- Após a ativação, você definirá sua própria senha\n\n" +
+            "Se você não solicitou esta conta, ignore este email.\n\n" +
+            "Atenciosamente,\n" +
+            "Equipe SGCA - Casa do Amor",
+            "Maria & José", link, "maria@casadoamor.test", "Tmp#2024<x>"
+        );
+
+        assertThat(renderer.renderizar(ModeloEmail.ATIVACAO_CONTA,
+                "Maria & José", link, "maria@casadoamor.test", "Tmp#2024<x>")).isEqualTo(legado);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ModeloEmail.class)
+    void preRendered_matchesFullThymeleafRender_includingEscaping(ModeloEmail modelo) {
+        Object[] valores = new Object[modelo.getVariaveis().length];
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = "<b>\"valor\" & 'outro' " + i + "</b>";
+        }
+
+        assertThat(renderer.renderizar(modelo, valores))
+                .isEqualTo(renderer.renderizarComThymeleaf(modelo, valores));
+    }
+
+    @Test
+    void precompilesThroughInjectedTemplateEngine() {
+        TemplateEngine templateEngine = mock(TemplateEngine.class);
+        when(templateEngine.process(anyString(), any(IContext.class))).thenAnswer(inv -> {
+            IContext contexto = inv.getArgument(1);
+            return "<p>" + contexto.getVariable("codigo") + contexto.getVariable("link") + "</p>";
+        });
+
+        EmailTemplateRenderer comEngineInjetada = new EmailTemplateRenderer(templateEngine);
+
+        assertThat(comEngineInjetada.renderizar(ModeloEmail.CODIGO_2FA, "123456")).isEqualTo("<p>123456null</p>");
+        for (ModeloEmail modelo : ModeloEmail.values()) {
+            verify(templateEngine).process(eq(modelo.getTemplate()), any(IContext.class));
+        }
+    }
+
+    @Test
+    void renderizar_wrongNumberOfValues_isRejected() {
+        assertThatThrownBy(() -> renderer.renderizar(ModeloEmail.CODIGO_2FA))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
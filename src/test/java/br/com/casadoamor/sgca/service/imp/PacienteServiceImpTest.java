@@ -0,0 +1,361 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+
+import br.com.casadoamor.sgca.config.exception.CustomError;
+import br.com.casadoamor.sgca.dto.common.PaginatedResponseDTO;
+import br.com.casadoamor.sgca.dto.paciente.PacienteDTO;
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.mapper.common.CursorCodec;
+import br.com.casadoamor.sgca.mapper.common.PaginatedResponseMapper;
+import br.com.casadoamor.sgca.mapper.paciente.PacienteMapper;
+import br.com.casadoamor.sgca.repository.paciente.PacienteRepository;
+import br.com.casadoamor.sgca.service.paciente.PacienteBuscaTotais;
+import br.com.casadoamor.sgca.service.paciente.PacienteIndexador;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex.ResultadoBusca;
+import br.com.casadoamor.sgca.service.paciente.PacienteTypeaheadIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PacienteServiceImpTest {
+
+    @Mock
+    private PacienteRepository pacienteRepository;
+
+    @Mock
+    private PacienteMapper pacienteMapper;
+
+    @Mock
+    private PacienteSearchIndex searchIndex;
+
+    @Mock
+    private PacienteTypeaheadIndex typeaheadIndex;
+
+    @Mock
+    private PacienteIndexador indexador;
+
+    @Spy
+    private CursorCodec cursorCodec = new CursorCodec("segredo-de-teste");
+
+    @Spy
+    private PacienteBuscaTotais buscaTotais = new PacienteBuscaTotais(new SimpleMeterRegistry(), 100, 60);
+
+    @Spy
+    private PaginatedResponseMapper paginatedMapper = new PaginatedResponseMapper(cursorCodec);
+
+    @InjectMocks
+    private PacienteServiceImp service;
+
+    private final List<Long> pulos = new ArrayList<>();
+    private final List<Integer> limites = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(pacienteMapper.toDTO(any(Paciente.class)))
+                .thenAnswer(i -> {
+                    Paciente paciente = i.getArgument(0);
+                    return PacienteDTO.builder()
+                            .id(paciente.getId())
+                            .nome(paciente.getDadoPessoal() != null ? paciente.getDadoPessoal().getNome() : null)
+                            .build();
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_pushesOffsetAndLimitToDatabase() {
+        // Faixa exata com 1 registro, "começa com" com 10 e "contém" com 14
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L, 10L, 14L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p3"), paciente("p4"))));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados("maria", 2, 3);
+
+        // Só a faixa "começa com" é lida: o offset passa da exata e a página fecha antes do "contém";
+        // o offset dela desconta o registro da primeira
+        assertThat(pulos).containsExactly(2L);
+        assertThat(limites).containsExactly(2);
+        verify(pacienteRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p3", "p4");
+        assertThat(resposta.totalCount()).isEqualTo(25);
+        assertThat(resposta.hasPreviousPage()).isTrue();
+        assertThat(resposta.hasNextPage()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_lastPage_hasNoNextPage() {
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(10L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p10"))));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados(null, 5, 9);
+
+        assertThat(pulos).containsExactly(9L);
+        assertThat(resposta.totalCount()).isEqualTo(10);
+        assertThat(resposta.hasNextPage()).isFalse();
+        assertThat(resposta.hasPreviousPage()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_zeroLimit_onlyCounts() {
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(4L);
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados(null, 0, 0);
+
+        assertThat(resposta.nodes()).isEmpty();
+        assertThat(resposta.totalCount()).isEqualTo(4);
+        assertThat(resposta.hasNextPage()).isTrue();
+        verify(pacienteRepository, never()).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    void pacientesPaginados_negativeOffset_isRejected() {
+        assertThatThrownBy(() -> service.pacientesPaginados(null, 10, -1))
+                .isInstanceOf(CustomError.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_emitsCursorsWithRankingBucket() {
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L, 1L, 0L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p1", "Maria")), List.of(paciente("p2", "Mariana"))));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados("maria", 2, 0);
+
+        assertThat(cursorCodec.decodificar("pacientes", resposta.startCursor()).valores()).containsExactly("0", "p1");
+        assertThat(cursorCodec.decodificar("pacientes", resposta.endCursor()).valores()).containsExactly("1", "p2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_fullCpf_queriesOnlyCpfEquality() {
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p1"))));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados("123.456.789-09", 10, 0);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p1");
+        assertThat(resposta.totalCount()).isEqualTo(1);
+        verify(pacienteRepository, times(1)).findBy(any(Specification.class), any(Function.class));
+        verify(pacienteRepository, times(1)).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPaginados_countsEachBucketOncePerSearch() {
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(3L, 4L, 6L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p1"), paciente("p2")),
+                        List.of(paciente("p3")), List.of(paciente("p4"))));
+
+        service.pacientesPaginados("maria", 2, 0);
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPaginados(" Maria ", 2, 2);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p3", "p4");
+        assertThat(resposta.totalCount()).isEqualTo(13);
+        assertThat(resposta.hasNextPage()).isTrue();
+        // Segunda página: resto da faixa exata e o início da "começa com"; o "contém" não é lido
+        assertThat(pulos).containsExactly(0L, 2L, 0L);
+        assertThat(limites).containsExactly(2, 2, 1);
+        // Uma contagem por faixa, só na primeira página
+        verify(pacienteRepository, times(3)).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPorCursor_readsLimitPlusOneAfterCursor() {
+        String after = cursorCodec.codificar("pacientes", List.of(0, "p1"));
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(paciente("p2"), paciente("p3"), paciente("p4")));
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(10L);
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPorCursor(null, 2, after, null);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p2", "p3");
+        assertThat(resposta.hasNextPage()).isTrue();
+        assertThat(resposta.hasPreviousPage()).isTrue();
+        assertThat(resposta.totalCount()).isEqualTo(10);
+        assertThat(cursorCodec.decodificar("pacientes", resposta.endCursor()).valores()).containsExactly("0", "p3");
+        verify(pacienteRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPorCursor_before_returnsRowsInNormalOrder() {
+        String before = cursorCodec.codificar("pacientes", List.of(0, "p5"));
+        // Lidas para trás: da mais próxima do cursor para a mais distante
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(paciente("p4"), paciente("p3")));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPorCursor(null, 2, null, before);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p3", "p4");
+        assertThat(resposta.hasPreviousPage()).isFalse();
+        assertThat(resposta.hasNextPage()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPorCursor_continuesIntoNextBucketBySeek() {
+        String after = cursorCodec.codificar("pacientes", List.of(0, "p1"));
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenReturn(List.of(paciente("p2")))
+                .thenReturn(List.of(paciente("p3"), paciente("p4")));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPorCursor("maria", 2, after, null);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p2", "p3");
+        assertThat(resposta.hasNextPage()).isTrue();
+        assertThat(cursorCodec.decodificar("pacientes", resposta.startCursor()).valores()).containsExactly("0", "p2");
+        assertThat(cursorCodec.decodificar("pacientes", resposta.endCursor()).valores()).containsExactly("1", "p3");
+        // A faixa "contém" não é lida: a página fechou na faixa "começa com"
+        verify(pacienteRepository, times(2)).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pacientesPorCursor_countsTotalOncePerSearch() {
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class))).thenReturn(List.of());
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L, 2L, 3L);
+
+        service.pacientesPorCursor("maria", 2, null, null);
+        PaginatedResponseDTO<PacienteDTO> resposta = service.pacientesPorCursor(" Maria ", 2,
+                cursorCodec.codificar("pacientes", List.of(1, "p9")), null);
+
+        assertThat(resposta.totalCount()).isEqualTo(6);
+        // Uma contagem por faixa, só na primeira página
+        verify(pacienteRepository, times(3)).count(any(Specification.class));
+    }
+
+    @Test
+    void pacientesPorCursor_tamperedCursor_isRejected() {
+        String cursor = cursorCodec.codificar("pacientes", List.of(0, "p1"));
+        String adulterado = cursor.substring(0, cursor.indexOf('.')) + "x" + cursor.substring(cursor.indexOf('.'));
+
+        assertThatThrownBy(() -> service.pacientesPorCursor(null, 2, adulterado, null))
+                .isInstanceOf(CustomError.class)
+                .hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void buscarPacientes_loadsPageInIndexOrder() {
+        when(searchIndex.isPronto()).thenReturn(true);
+        when(searchIndex.buscar("joao", 2, 0)).thenReturn(new ResultadoBusca(List.of("p7", "p2"), 5));
+        when(pacienteRepository.findByIdIn(List.of("p7", "p2"))).thenReturn(List.of(paciente("p2"), paciente("p7")));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.buscarPacientes("joao", 2, 0);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p7", "p2");
+        assertThat(resposta.totalCount()).isEqualTo(5);
+        assertThat(resposta.hasNextPage()).isTrue();
+        assertThat(resposta.hasPreviousPage()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscarPacientes_indexNotReady_fallsBackToDatabase() {
+        when(searchIndex.isPronto()).thenReturn(false);
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L, 0L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p1"))));
+
+        PaginatedResponseDTO<PacienteDTO> resposta = service.buscarPacientes("joao", 10, 0);
+
+        assertThat(resposta.nodes()).extracting(PacienteDTO::id).containsExactly("p1");
+        verify(searchIndex, never()).buscar(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sugerirPacientes_capsLimitAndUsesIndex() {
+        when(typeaheadIndex.isPronto()).thenReturn(true);
+        when(typeaheadIndex.sugerir("jo", 20)).thenReturn(List.of(PacienteDTO.builder().id("p1").build()));
+
+        assertThat(service.sugerirPacientes("jo", 500)).extracting(PacienteDTO::id).containsExactly("p1");
+        verify(pacienteRepository, never()).findBy(any(Specification.class), any(Function.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sugerirPacientes_indexNotReady_usesFirstDatabasePage() {
+        when(typeaheadIndex.isPronto()).thenReturn(false);
+        when(pacienteRepository.count(any(Specification.class))).thenReturn(1L, 0L);
+        when(pacienteRepository.findBy(any(Specification.class), any(Function.class)))
+                .thenAnswer(leituras(List.of(paciente("p9"))));
+
+        assertThat(service.sugerirPacientes("jo", 5)).extracting(PacienteDTO::id).containsExactly("p9");
+    }
+
+    /**
+     * Resposta de findBy(spec, consulta) para a leitura de faixas por offset: executa a
+     * consulta sobre um FetchableFluentQuery simulado, registra quantos registros o
+     * scroll pula e o limit, e devolve as linhas de cada leitura, em ordem
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private Answer<Object> leituras(List<Paciente>... porLeitura) {
+        Iterator<List<Paciente>> proximas = List.of(porLeitura).iterator();
+        return i -> {
+            FetchableFluentQuery<Paciente> consulta = mock(FetchableFluentQuery.class, RETURNS_SELF);
+            when(consulta.limit(anyInt())).thenAnswer(l -> {
+                limites.add(l.getArgument(0));
+                return consulta;
+            });
+            when(consulta.scroll(any(ScrollPosition.class))).thenAnswer(r -> {
+                OffsetScrollPosition posicao = r.getArgument(0);
+                pulos.add(posicao.isInitial() ? 0 : posicao.getOffset() + 1);
+                return Window.from(proximas.next(), indice -> ScrollPosition.offset());
+            });
+            Function<FetchableFluentQuery<Paciente>, Object> funcao = i.getArgument(1);
+            return funcao.apply(consulta);
+        };
+    }
+
+    private static Paciente paciente(String id) {
+        Paciente paciente = new Paciente();
+        paciente.setId(id);
+        return paciente;
+    }
+
+    private static Paciente paciente(String id, String nome) {
+        Paciente paciente = paciente(id);
+        paciente.setDadoPessoal(DadoPessoal.builder().nome(nome).build());
+        return paciente;
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Servidor SMTP mínimo em processo para os testes de envio: aceita qualquer
+ * remetente e destinatário, guarda o conteúdo de cada DATA e conta as conexões
+ */
+final class ServidorSmtpTeste implements AutoCloseable {
+
+    private final ServerSocket socket;
+    private final List<String> mensagens = new CopyOnWriteArrayList<>();
+    private final List<Socket> abertas = new CopyOnWriteArrayList<>();
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private final AtomicInteger noops = new AtomicInteger();
+
+    ServidorSmtpTeste() throws IOException {
+        socket = new ServerSocket(0);
+        Thread aceitador = new Thread(this::aceitar, "smtp-teste");
+        aceitador.setDaemon(true);
+        aceitador.start();
+    }
+
+    JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(socket.getLocalPort());
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        return mailSender;
+    }
+
+    List<String> mensagens() {
+        return mensagens;
+    }
+
+    int conexoes() {
+        return conexoes.get();
+    }
+
+    int noops() {
+        return noops.get();
+    }
+
+    /**
+     * Derruba as conexões abertas, como um servidor que encerra conexões paradas
+     */
+    void derrubarConexoes() throws IOException {
+        for (Socket conexao : abertas) {
+            conexao.close();
+        }
+        abertas.clear();
+    }
+
+    private void aceitar() {
+        while (!socket.isClosed()) {
+            try {
+                Socket conexao = socket.accept();
+                conexoes.incrementAndGet();
+                abertas.add(conexao);
+                Thread atendente = new Thread(() -> atender(conexao), "smtp-teste-conexao");
+                atendente.setDaemon(true);
+                atendente.start();
+            } catch (IOException e) {
+                // Servidor encerrado
+            }
+        }
+    }
+
+    private void atender(Socket conexao) {
+        try (conexao) {
+            BufferedReader entrada = new BufferedReader(
+                    new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter saida = new PrintWriter(conexao.getOutputStream(), true, StandardCharsets.UTF_8);
+            responder(saida, "220 localhost SMTP de teste");
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                String comando = linha.toUpperCase();
+                if (comando.startsWith("DATA")) {
+                    responder(saida, "354 Envie a mensagem");
+                    StringBuilder mensagem = new StringBuilder();
+                    while ((linha = entrada.readLine()) != null && !linha.equals(".")) {
+                        mensagem.append(linha).append('\n');
+                    }
+                    mensagens.add(mensagem.toString());
+                    responder(saida, "250 OK");
+                } else if (comando.startsWith("QUIT")) {
+                    responder(saida, "221 Tchau");
+                    return;
+                } else {
+                    if (comando.startsWith("NOOP")) {
+                        noops.incrementAndGet();
+                    }
+                    responder(saida, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // Cliente desconectado ou conexão derrubada pelo teste
+        } finally {
+            abertas.remove(conexao);
+        }
+    }
+
+    private static void responder(PrintWriter saida, String resposta) {
+        saida.print(resposta + "\r\n");
+        saida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        derrubarConexoes();
+    }
+}
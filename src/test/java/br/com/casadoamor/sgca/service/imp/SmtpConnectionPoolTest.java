@@ -0,0 +1,85 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SmtpConnectionPoolTest {
+
+    private ServidorSmtpTeste servidor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setup() throws IOException {
+        servidor = new ServidorSmtpTeste();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        servidor.close();
+    }
+
+    @Test
+    void obter_reusesReturnedConnection() throws Exception {
+        SmtpConnectionPool pool = pool(60000, 10000, 100);
+
+        pool.devolver(pool.obter());
+        pool.devolver(pool.obter());
+
+        assertThat(servidor.conexoes()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.smtp.connections.opened").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("email.smtp.connections.reused").counter().count()).isEqualTo(1);
+        pool.encerrar();
+    }
+
+    @Test
+    void obter_idleBeyondValidation_checksWithNoopAndReplacesDeadConnection() throws Exception {
+        // Toda conexão ociosa é validada antes do uso
+        SmtpConnectionPool pool = pool(60000, 0, 100);
+        pool.devolver(pool.obter());
+        servidor.derrubarConexoes();
+
+        SmtpConnectionPool.Conexao conexao = pool.obter();
+
+        assertThat(servidor.conexoes()).isEqualTo(2);
+        assertThat(meterRegistry.get("email.smtp.connections.closed").tag("motivo", "invalida").counter().count())
+                .isEqualTo(1);
+        pool.devolver(conexao);
+        pool.devolver(pool.obter());
+        assertThat(servidor.noops()).isPositive();
+        pool.encerrar();
+    }
+
+    @Test
+    void removerOciosas_closesConnectionsPastIdleTimeout() throws Exception {
+        SmtpConnectionPool pool = pool(0, 10000, 100);
+        pool.devolver(pool.obter());
+        assertThat(pool.quantidadeOciosas()).isEqualTo(1);
+
+        pool.removerOciosas();
+
+        assertThat(pool.quantidadeOciosas()).isZero();
+        assertThat(meterRegistry.get("email.smtp.connections.closed").tag("motivo", "ociosa").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void devolver_connectionAtMessageLimit_isClosed() throws Exception {
+        SmtpConnectionPool pool = pool(60000, 10000, 0);
+
+        pool.devolver(pool.obter());
+
+        assertThat(pool.quantidadeOciosas()).isZero();
+    }
+
+    private SmtpConnectionPool pool(long tempoOciosoMs, long validarAposMs, int maxMensagens) {
+        return new SmtpConnectionPool(servidor.mailSender(), meterRegistry, 4, tempoOciosoMs, validarAposMs, maxMensagens);
+    }
+}
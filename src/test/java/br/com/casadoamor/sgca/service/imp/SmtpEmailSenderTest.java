@@ -0,0 +1,127 @@
+package br.com.casadoamor.sgca.service.imp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.casadoamor.sgca.entity.common.EmailOutbox;
+import br.com.casadoamor.sgca.entity.common.EmailOutbox.TipoEmail;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SmtpEmailSenderTest {
+
+    private ServidorSmtpTeste servidor;
+    private SmtpConnectionPool pool;
+    private SmtpEmailSender sender;
+    private final Resultados resultados = new Resultados();
+
+    @BeforeEach
+    void setup() throws IOException {
+        servidor = new ServidorSmtpTeste();
+        JavaMailSenderImpl mailSender = servidor.mailSender();
+        pool = new SmtpConnectionPool(mailSender, new SimpleMeterRegistry(), 4, 60000, 10000, 100);
+        sender = new SmtpEmailSender(mailSender, pool, 20);
+        ReflectionTestUtils.setField(sender, "fromEmail", "sgca@casadoamor.test");
+    }
+
+    @AfterEach
+    void teardown() throws IOException {
+        pool.encerrar();
+        servidor.close();
+    }
+
+    @Test
+    void enviarEmLote_html_deliversToSmtpServer() {
+        sender.enviarEmLote(email(1L, true, "<h1>Código: 123456</h1>"), () -> null, resultados);
+
+        assertThat(resultados.enviados).containsExactly(1L);
+        assertThat(servidor.mensagens()).hasSize(1);
+        String mensagem = servidor.mensagens().get(0);
+        assertThat(mensagem).contains("To: usuario@casadoamor.test");
+        assertThat(mensagem).contains("From: sgca@casadoamor.test");
+        assertThat(mensagem).contains("text/html");
+        assertThat(mensagem).contains("123456");
+    }
+
+    @Test
+    void enviarEmLote_text_deliversToSmtpServer() {
+        sender.enviarEmLote(email(2L, false, "Olá, sua conta foi criada."), () -> null, resultados);
+
+        assertThat(servidor.mensagens()).hasSize(1);
+        assertThat(servidor.mensagens().get(0)).contains("Subject: Assunto de teste");
+    }
+
+    @Test
+    void enviarEmLote_sendsQueuedEmailsOverOneConnection() {
+        Deque<EmailOutbox> fila = new ArrayDeque<>(List.of(email(2L, false, "b"), email(3L, false, "c")));
+
+        sender.enviarEmLote(email(1L, false, "a"), fila::poll, resultados);
+        sender.enviarEmLote(email(4L, false, "d"), () -> null, resultados);
+
+        assertThat(resultados.enviados).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(servidor.mensagens()).hasSize(4);
+        assertThat(servidor.conexoes()).isEqualTo(1);
+        assertThat(pool.quantidadeOciosas()).isEqualTo(1);
+    }
+
+    @Test
+    void enviarEmLote_respectsBatchSize() {
+        SmtpEmailSender loteDeDois = new SmtpEmailSender(servidor.mailSender(), pool, 2);
+        ReflectionTestUtils.setField(loteDeDois, "fromEmail", "sgca@casadoamor.test");
+        Deque<EmailOutbox> fila = new ArrayDeque<>(List.of(email(2L, false, "b"), email(3L, false, "c")));
+
+        loteDeDois.enviarEmLote(email(1L, false, "a"), fila::poll, resultados);
+
+        assertThat(resultados.enviados).containsExactly(1L, 2L);
+        assertThat(fila).extracting(EmailOutbox::getId).containsExactly(3L);
+    }
+
+    @Test
+    void enviarEmLote_serverUnavailable_reportsFailureWithoutTakingNext() throws IOException {
+        servidor.close();
+        Deque<EmailOutbox> fila = new ArrayDeque<>(List.of(email(2L, false, "b")));
+
+        sender.enviarEmLote(email(1L, false, "a"), fila::poll, resultados);
+
+        assertThat(resultados.falhas).containsExactly(1L);
+        assertThat(fila).hasSize(1);
+    }
+
+    private static EmailOutbox email(Long id, boolean html, String corpo) {
+        return EmailOutbox.builder()
+                .id(id)
+                .destinatario("usuario@casadoamor.test")
+                .assunto("Assunto de teste")
+                .corpo(corpo)
+                .html(html)
+                .tipo(TipoEmail.CODIGO_2FA)
+                .prioridade(TipoEmail.CODIGO_2FA.getPrioridade())
+                .build();
+    }
+
+    private static final class Resultados implements SmtpEmailSender.ResultadoEnvio {
+
+        private final List<Long> enviados = new ArrayList<>();
+        private final List<Long> falhas = new ArrayList<>();
+
+        @Override
+        public void enviado(EmailOutbox email) {
+            enviados.add(email.getId());
+        }
+
+        @Override
+        public void falhou(EmailOutbox email, Exception erro) {
+            falhas.add(email.getId());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PacienteIndexadorTest {
+
+    private PacienteSearchIndex searchIndex;
+    private PacienteTypeaheadIndex typeaheadIndex;
+    private SimpleMeterRegistry meterRegistry;
+    private PacienteIndexador indexador;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = mock(PacienteSearchIndex.class);
+        typeaheadIndex = mock(PacienteTypeaheadIndex.class);
+        meterRegistry = new SimpleMeterRegistry();
+        indexador = new PacienteIndexador(searchIndex, typeaheadIndex, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indexar_failingIndex_isIsolatedAndMarkedForRebuild() {
+        Paciente paciente = paciente("p1");
+        doThrow(new IllegalStateException("falhou")).when(searchIndex).indexar(paciente);
+
+        indexador.indexar(paciente);
+
+        // O autocompletar ainda é atualizado e a falha não chega a quem salvou
+        verify(typeaheadIndex).indexar(paciente);
+        assertThat(indexador.isReconstrucaoPendente()).isTrue();
+        assertThat(meterRegistry.get("paciente.index.update.failed").tag("indice", "busca").counter().count())
+                .isEqualTo(1.0);
+
+        indexador.reconstruirPendentes();
+
+        verify(searchIndex).reconstruir();
+        verify(typeaheadIndex, never()).reconstruir();
+        assertThat(indexador.isReconstrucaoPendente()).isFalse();
+    }
+
+    @Test
+    void reconstruirPendentes_failedRebuild_staysPending() {
+        Paciente paciente = paciente("p1");
+        doThrow(new IllegalStateException("falhou")).when(typeaheadIndex).indexar(paciente);
+        doThrow(new IllegalStateException("sem banco")).when(typeaheadIndex).reconstruir();
+
+        indexador.indexar(paciente);
+        indexador.reconstruirPendentes();
+
+        assertThat(indexador.isReconstrucaoPendente()).isTrue();
+    }
+
+    @Test
+    void indexar_insideTransaction_waitsForCommit() {
+        Paciente paciente = paciente("p1");
+        TransactionSynchronizationManager.initSynchronization();
+
+        indexador.indexar(paciente);
+
+        verify(searchIndex, never()).indexar(paciente);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(searchIndex).indexar(paciente);
+        verify(typeaheadIndex).indexar(paciente);
+    }
+
+    private static Paciente paciente(String id) {
+        Paciente paciente = new Paciente();
+        paciente.setId(id);
+        return paciente;
+    }
+}
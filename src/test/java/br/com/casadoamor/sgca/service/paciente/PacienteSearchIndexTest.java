@@ -0,0 +1,103 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+import br.com.casadoamor.sgca.entity.paciente.Endereco;
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex.DocumentoPaciente;
+import br.com.casadoamor.sgca.service.paciente.PacienteSearchIndex.ResultadoBusca;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PacienteSearchIndexTest {
+
+    private PacienteSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PacienteSearchIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), 200);
+        index.indexar(new DocumentoPaciente("p1", "José da Conceição", "Maria Aparecida", "12345678900",
+                "MG-12.345", "(31) 98765-4321", "Belo Horizonte"));
+        index.indexar(new DocumentoPaciente("p2", "Thiago Souza", "Ana Lúcia", "98765432100",
+                null, null, "Contagem"));
+        index.indexar(new DocumentoPaciente("p3", "Maria José Santos", "Joana", "11122233344",
+                null, null, "Betim"));
+        index.indexar(new DocumentoPaciente("p4", "Mariana Lima", "Josefa", null,
+                null, null, "Belo Horizonte"));
+    }
+
+    @Test
+    void buscar_ignoresAccentsAndCase() {
+        assertThat(index.buscar("JOSE CONCEICAO", 10, 0).pacienteIds()).containsExactly("p1");
+    }
+
+    @Test
+    void buscar_matchesPrefixes() {
+        assertThat(index.buscar("thi sou", 10, 0).pacienteIds()).containsExactly("p2");
+    }
+
+    @Test
+    void buscar_toleratesPhoneticMisspellings() {
+        assertThat(index.buscar("Tiago Sousa", 10, 0).pacienteIds()).containsExactly("p2");
+        assertThat(index.buscar("Jose Conseisao", 10, 0).pacienteIds()).containsExactly("p1");
+    }
+
+    @Test
+    void buscar_findsDocumentsWithOrWithoutFormatting() {
+        assertThat(index.buscar("123.456.789-00", 10, 0).pacienteIds()).containsExactly("p1");
+        assertThat(index.buscar("987654", 10, 0).pacienteIds()).containsExactly("p2");
+        assertThat(index.buscar("MG-12.345", 10, 0).pacienteIds()).containsExactly("p1");
+        assertThat(index.buscar("31987654321", 10, 0).pacienteIds()).containsExactly("p1");
+    }
+
+    @Test
+    void buscar_requiresEveryWord() {
+        assertThat(index.buscar("maria belo", 10, 0).pacienteIds()).containsExactly("p4", "p1");
+        assertThat(index.buscar("maria inexistente", 10, 0).total()).isZero();
+    }
+
+    @Test
+    void buscar_ranksNameAboveMotherAndExactAbovePrefix() {
+        // p3: "maria" exato no nome; p4: prefixo no nome (mariana); p1: exato no nome da mãe
+        ResultadoBusca resultado = index.buscar("maria", 10, 0);
+
+        assertThat(resultado.pacienteIds()).containsExactly("p3", "p4", "p1");
+        assertThat(resultado.total()).isEqualTo(3);
+    }
+
+    @Test
+    void buscar_paginatesRankedResults() {
+        ResultadoBusca resultado = index.buscar("maria", 1, 1);
+
+        assertThat(resultado.pacienteIds()).containsExactly("p4");
+        assertThat(resultado.total()).isEqualTo(3);
+        assertThat(index.buscar("maria", 0, 0).pacienteIds()).isEmpty();
+    }
+
+    @Test
+    void indexar_updateReplacesPreviousTerms() {
+        Paciente paciente = new Paciente();
+        paciente.setId("p2");
+        paciente.setDadoPessoal(DadoPessoal.builder().nome("Rafael Souza").nomeMae("Ana Lúcia").build());
+        Endereco endereco = new Endereco();
+        endereco.setCidade("Contagem");
+        paciente.setEndereco(endereco);
+
+        index.indexar(paciente);
+
+        assertThat(index.buscar("thiago", 10, 0).total()).isZero();
+        assertThat(index.buscar("raphael", 10, 0).pacienteIds()).containsExactly("p2");
+        assertThat(index.quantidadeDocumentos()).isEqualTo(4);
+    }
+
+    @Test
+    void buscar_blankQuery_returnsNothing() {
+        assertThat(index.buscar("  ", 10, 0).total()).isZero();
+        assertThat(index.buscar(null, 10, 0).total()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.casadoamor.sgca.service.paciente;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import br.com.casadoamor.sgca.dto.paciente.PacienteDTO;
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+import br.com.casadoamor.sgca.entity.paciente.Paciente;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PacienteTypeaheadIndexTest {
+
+    private PacienteTypeaheadIndex index;
+
+    @BeforeEach
+    void setup() {
+        index = new PacienteTypeaheadIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), 64, 256);
+        // Carga vazia (JdbcTemplate simulado) deixa o índice pronto para receber pacientes
+        index.reconstruir();
+        index.indexar(resumo("p1", "José da Conceição", "12345678900", "MG-12.345"));
+        index.indexar(resumo("p2", "Joana Silva", "98765432100", null));
+        index.indexar(resumo("p3", "Maria José Santos", "11122233344", null));
+        index.indexar(resumo("p4", "Joaquim Conceição Souza", "55566677788", null));
+    }
+
+    @Test
+    void sugerir_matchesNamePrefixIgnoringAccents() {
+        assertThat(index.sugerir("JOS", 10)).extracting(PacienteDTO::id).containsExactly("p1", "p3");
+        assertThat(index.sugerir("jo", 10)).extracting(PacienteDTO::id).containsExactly("p2", "p4", "p1", "p3");
+    }
+
+    @Test
+    void sugerir_matchesSurnamesAfterFullNames() {
+        assertThat(index.sugerir("conceicao", 10)).extracting(PacienteDTO::id).containsExactly("p1", "p4");
+        assertThat(index.sugerir("jose", 10)).extracting(PacienteDTO::id).containsExactly("p1", "p3");
+    }
+
+    @Test
+    void sugerir_ignoresParticles() {
+        assertThat(index.sugerir("da", 10)).isEmpty();
+    }
+
+    @Test
+    void sugerir_matchesFormattedDocuments() {
+        assertThat(index.sugerir("123.456", 10)).extracting(PacienteDTO::id).containsExactly("p1");
+        assertThat(index.sugerir("mg-12", 10)).extracting(PacienteDTO::id).containsExactly("p1");
+    }
+
+    @Test
+    void sugerir_respectsLimit() {
+        assertThat(index.sugerir("jo", 2)).extracting(PacienteDTO::id).containsExactly("p2", "p4");
+        assertThat(index.sugerir("", 10)).isEmpty();
+    }
+
+    @Test
+    void indexar_editReplacesKeys() {
+        Paciente paciente = new Paciente();
+        paciente.setId("p2");
+        paciente.setDadoPessoal(DadoPessoal.builder().nome("Joana Pereira").cpf("98765432100").build());
+
+        index.indexar(paciente);
+
+        assertThat(index.sugerir("silva", 10)).isEmpty();
+        assertThat(index.sugerir("pereira", 10)).extracting(PacienteDTO::nome).containsExactly("Joana Pereira");
+        assertThat(index.sugerir("jo", 10)).extracting(PacienteDTO::id).containsExactly("p2", "p4", "p1", "p3");
+    }
+
+    @Test
+    void indexar_mergesPendingBatchIntoSortedKeys() {
+        PacienteTypeaheadIndex lotes = new PacienteTypeaheadIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), 64, 2);
+        lotes.reconstruir();
+
+        lotes.indexar(resumo("p1", "José da Conceição", "12345678900", null));
+        assertThat(lotes.quantidadePendentes()).isEqualTo(1);
+        // Com o lote ainda pendente, a ordem já intercala as chaves novas
+        assertThat(lotes.sugerir("jo", 10)).extracting(PacienteDTO::id).containsExactly("p1");
+
+        lotes.indexar(resumo("p2", "Joana Silva", "98765432100", null));
+        assertThat(lotes.quantidadePendentes()).isZero();
+
+        lotes.indexar(resumo("p1", "Joaquim Conceição", "12345678900", null));
+        assertThat(lotes.quantidadePendentes()).isEqualTo(1);
+        // A entrada antiga de p1 nos arrays fica escondida pelo lote
+        assertThat(lotes.sugerir("jose", 10)).isEmpty();
+        assertThat(lotes.sugerir("jo", 10)).extracting(PacienteDTO::nome).containsExactly("Joana Silva", "Joaquim Conceição");
+
+        lotes.indexar(resumo("p3", "Maria José Santos", "11122233344", null));
+        assertThat(lotes.quantidadePendentes()).isZero();
+        assertThat(lotes.sugerir("jo", 10)).extracting(PacienteDTO::id).containsExactly("p2", "p1", "p3");
+        assertThat(lotes.sugerir("conceicao", 10)).extracting(PacienteDTO::id).containsExactly("p1");
+    }
+
+    @Test
+    void indexar_overMemoryBudget_disablesIndex() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PacienteTypeaheadIndex pequeno = new PacienteTypeaheadIndex(mock(JdbcTemplate.class), meterRegistry, 0, 256);
+
+        pequeno.reconstruir();
+        assertThat(meterRegistry.get("paciente.typeahead.over-budget").gauge().value()).isZero();
+        pequeno.indexar(resumo("p1", "José da Conceição", "12345678900", null));
+
+        assertThat(pequeno.isPronto()).isFalse();
+        assertThat(pequeno.isAcimaDoOrcamento()).isTrue();
+        assertThat(meterRegistry.get("paciente.typeahead.over-budget").gauge().value()).isEqualTo(1.0);
+        assertThat(pequeno.sugerir("jose", 10)).isEmpty();
+        assertThat(index.isPronto()).isTrue();
+    }
+
+    private static PacienteDTO resumo(String id, String nome, String cpf, String rg) {
+        return PacienteDTO.builder().id(id).nome(nome).cpf(cpf).rg(rg).build();
+    }
+}
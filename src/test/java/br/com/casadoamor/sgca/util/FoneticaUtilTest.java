@@ -0,0 +1,40 @@
+package br.com.casadoamor.sgca.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FoneticaUtilTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "Thiago, Tiago",
+            "Luiz, Luis",
+            "Conceição, Conseisao",
+            "Jéssica, Gessica",
+            "Souza, Sousa",
+            "Philipe, Felipe",
+            "Raphael, Rafael",
+            "Kátia, Catia",
+            "Guilherme, Gilerme",
+            "Wellington, Welington"
+    })
+    void chave_sameForSimilarSpellings(String grafia, String outraGrafia) {
+        assertThat(FoneticaUtil.chave(grafia)).isEqualTo(FoneticaUtil.chave(outraGrafia));
+    }
+
+    @Test
+    void chave_distinguishesDifferentNames() {
+        assertThat(FoneticaUtil.chave("Maria")).isNotEqualTo(FoneticaUtil.chave("Marta"));
+        assertThat(FoneticaUtil.chave("Paulo")).isNotEqualTo(FoneticaUtil.chave("Pedro"));
+        assertThat(FoneticaUtil.chave("Ana")).isNotEqualTo(FoneticaUtil.chave("Anderson"));
+    }
+
+    @Test
+    void chave_emptyWithoutLetters() {
+        assertThat(FoneticaUtil.chave(null)).isEmpty();
+        assertThat(FoneticaUtil.chave("123")).isEmpty();
+    }
+}
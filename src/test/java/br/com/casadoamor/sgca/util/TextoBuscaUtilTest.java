@@ -0,0 +1,44 @@
+package br.com.casadoamor.sgca.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.casadoamor.sgca.entity.paciente.DadoPessoal;
+
+class TextoBuscaUtilTest {
+
+    @Test
+    void normalizarNome_foldsAccentsCaseAndSpaces() {
+        assertThat(TextoBuscaUtil.normalizarNome("  José  da CONCEIÇÃO ")).isEqualTo("jose da conceicao");
+        assertThat(TextoBuscaUtil.normalizarNome("Ângela Müller")).isEqualTo("angela muller");
+        assertThat(TextoBuscaUtil.normalizarNome(null)).isNull();
+    }
+
+    @Test
+    void normalizarDocumento_keepsOnlyLettersAndDigits() {
+        assertThat(TextoBuscaUtil.normalizarDocumento("123.456.789-00")).isEqualTo("12345678900");
+        assertThat(TextoBuscaUtil.normalizarDocumento("12.345.678-X")).isEqualTo("12345678x");
+        assertThat(TextoBuscaUtil.normalizarDocumento(" - ")).isEmpty();
+    }
+
+    @Test
+    void escaparLike_escapesWildcards() {
+        assertThat(TextoBuscaUtil.escaparLike("50%_a\\b")).isEqualTo("50\\%\\_a\\\\b");
+    }
+
+    @Test
+    void dadoPessoal_updatesSearchColumnsOnWrite() {
+        DadoPessoal dadoPessoal = DadoPessoal.builder()
+                .nome("Maria Antônia")
+                .cpf("123.456.789-00")
+                .rg("MG-12.345")
+                .build();
+
+        dadoPessoal.atualizarColunasBusca();
+
+        assertThat(dadoPessoal.getNomeBusca()).isEqualTo("maria antonia");
+        assertThat(dadoPessoal.getCpfBusca()).isEqualTo("12345678900");
+        assertThat(dadoPessoal.getRgBusca()).isEqualTo("mg12345");
+    }
+}